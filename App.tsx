@@ -7,7 +7,8 @@
 
 import * as React from 'react';
 import { NavigationContainer, useNavigation, useRoute, getFocusedRouteNameFromRoute } from '@react-navigation/native';
-import { navigationRef, markNavigationReady } from './src/lib/navigationService';
+import { navigationRef, markNavigationReady, isNavigationReady, navigate } from './src/lib/navigationService';
+import { takePendingCall, onPendingCall } from './src/lib/CallNotificationBridge';
 import { createBottomTabNavigator } from '@react-navigation/bottom-tabs';
 import { createNativeStackNavigator } from '@react-navigation/native-stack';
 import { StatusBar, useColorScheme, SafeAreaView, ActivityIndicator, View, Alert, Platform, Linking, AppState, Text } from 'react-native';
@@ -294,6 +295,28 @@ function AppWithTopProgress() {
     } catch (e) {}
   }, [themeContext?.isDarkMode, themeContext?.colors?.background?.primary]);
 
+  // Open the call the app was launched or resumed for from the native call notification.
+  // IncomingCall accepts on its own when autoAccept is set (Answer button).
+  const openPendingCall = React.useCallback(async () => {
+    // Leave it pending until onReady if navigation isn't mounted yet
+    if (!isNavigationReady()) return;
+    const call = await takePendingCall();
+    if (!call) return;
+    navigate('Message', {
+      screen: 'IncomingCall',
+      params: {
+        callerId: call.callerId,
+        callerName: call.callerName || 'Unknown',
+        callerProfilePic: call.callerProfilePic,
+        channelName: call.channelName,
+        isAudio: call.isAudio,
+        autoAccept: call.autoAccept,
+      },
+    });
+  }, []);
+
+  React.useEffect(() => onPendingCall(openPendingCall), [openPendingCall]);
+
   const handleMenuNavigation = (screenName: string, params?: any) => {
     try {
       (navigationRef.current as any)?.navigate(screenName, params);
@@ -309,6 +332,7 @@ function AppWithTopProgress() {
         readyRef.current = true;
         applyStatusBarDefaults();
         markNavigationReady();
+        openPendingCall();
       }}
       onStateChange={() => {
         if (readyRef.current) {
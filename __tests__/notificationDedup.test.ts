@@ -0,0 +1,25 @@
+/**
+ * @format
+ */
+
+import {
+  MESSAGE_DEDUP_TTL_MS,
+  chatDedupKey,
+  isNotificationRecentlyShown,
+  localNotificationDedupKey,
+} from '../src/lib/NotificationDedupBridge';
+
+test('a socket delivery suppresses the matching FCM chat notification', () => {
+  const socketKey = localNotificationDedupKey('Alice', 'hi', { messageId: 'm1', type: 'chat' });
+  expect(isNotificationRecentlyShown(socketKey, MESSAGE_DEDUP_TTL_MS)).toBe(false);
+
+  // pushBackgroundService / ConnectMessagingService key the FCM copy on the same id
+  expect(isNotificationRecentlyShown(chatDedupKey('m1'), MESSAGE_DEDUP_TTL_MS)).toBe(true);
+});
+
+test('messages without an id are keyed on their content', () => {
+  const key = localNotificationDedupKey('Alice', 'hi', { type: 'chat' });
+  expect(key.startsWith('local_')).toBe(true);
+  expect(isNotificationRecentlyShown(key, MESSAGE_DEDUP_TTL_MS)).toBe(false);
+  expect(isNotificationRecentlyShown(chatDedupKey('m2'), MESSAGE_DEDUP_TTL_MS)).toBe(false);
+});
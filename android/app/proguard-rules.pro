@@ -55,9 +55,10 @@
 
 # Keep background service classes
 -keep class com.connect.app.KeepAliveService { *; }
--keep class com.connect.app.BackgroundTtsService { *; }
+-keep class com.connect.app.ServiceHost { *; }
 -keep class com.connect.app.BootReceiver { *; }
 -keep class com.connect.app.AppRestartReceiver { *; }
+-keep class com.connect.app.ConnectMessagingService { *; }
 
 # Keep AsyncStorage for background service
 -keep class com.reactnativecommunity.asyncstorage.** { *; }
@@ -107,3 +108,8 @@
 # Keep VisionCamera classes (only if needed, but filtered in background process)
 -keep class com.mrousavy.camera.react.** { *; }
 -dontwarn com.mrousavy.camera.react.**
+
+# Background process packages are instantiated by class name (see ProcessAllowlist)
+-keep class com.reactnativecommunity.asyncstorage.AsyncStoragePackage { <init>(); }
+-keep class io.invertase.notifee.NotifeePackage { <init>(); }
+-keep class expo.modules.ExpoModulesPackage { <init>(); }
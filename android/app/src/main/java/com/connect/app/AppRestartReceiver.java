@@ -14,6 +14,12 @@ public class AppRestartReceiver extends BroadcastReceiver {
 
     @Override
     public void onReceive(Context context, Intent intent) {
+        try (StartupTrace.Span ignored = StartupTrace.begin(TAG + ".onReceive")) {
+            handleReceive(context, intent);
+        }
+    }
+
+    private void handleReceive(Context context, Intent intent) {
         String action = intent.getAction();
         Log.d(TAG, "AppRestartReceiver received action: " + action);
 
@@ -25,24 +31,9 @@ public class AppRestartReceiver extends BroadcastReceiver {
             Log.d(TAG, "App replaced/quick boot detected, restarting background services");
             
             try {
-                // Start background TTS service
-                Intent ttsServiceIntent = new Intent(context, BackgroundTtsService.class);
-                if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.O) {
-                    context.startForegroundService(ttsServiceIntent);
-                } else {
-                    context.startService(ttsServiceIntent);
-                }
-                Log.d(TAG, "Background TTS service restarted");
-
-                // Start Headless JS keep-alive service
-                Intent keepAliveIntent = new Intent(context, KeepAliveService.class);
-                if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.O) {
-                    context.startForegroundService(keepAliveIntent);
-                } else {
-                    context.startService(keepAliveIntent);
-                }
-                Log.d(TAG, "KeepAliveService restarted");
-
+                // The host pokes KeepAliveService from its keep-alive workload
+                ServiceHost.attach(context, ServiceHost.WORKLOAD_TTS, ServiceHost.WORKLOAD_KEEP_ALIVE);
+                Log.d(TAG, "Service host restarted");
             } catch (Exception e) {
                 Log.e(TAG, "Error restarting services", e);
             }
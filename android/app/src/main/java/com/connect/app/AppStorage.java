@@ -0,0 +1,71 @@
+package com.connect.app;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The app's shared {@link KvStore}, plus typed reads of the session keys JS writes, so
+ * native code in either process can use the auth token and profile id without JS.
+ */
+public final class AppStorage {
+    private static final String TAG = "AppStorage";
+    private static final String KV_FILE = "kv/app.kv";
+
+    private AppStorage() {}
+
+    /** Opens the store on first use; returns null if the file cannot be mapped. */
+    public static @Nullable KvStore kv(Context context) {
+        try {
+            return KvStore.open(new File(context.getApplicationContext().getFilesDir(), KV_FILE));
+        } catch (IOException e) {
+            Log.e(TAG, "Could not open key-value store", e);
+            return null;
+        }
+    }
+
+    public static @Nullable String getAuthToken(Context context) {
+        KvStore kv = kv(context);
+        return kv != null ? kv.getString(KvStore.KEY_AUTH_TOKEN) : null;
+    }
+
+    /** Keeps the latest FCM registration token; returns false if it could not be written. */
+    public static boolean setFcmToken(Context context, String token) {
+        KvStore kv = kv(context);
+        if (kv == null) {
+            return false;
+        }
+        try {
+            kv.putString(KvStore.KEY_FCM_TOKEN, token);
+            return true;
+        } catch (IOException e) {
+            Log.e(TAG, "Could not store FCM token", e);
+            return false;
+        }
+    }
+
+    /** The signed-in profile id from the stored user ({profile: {_id}} or {profile: id}). */
+    public static @Nullable String getProfileId(Context context) {
+        KvStore kv = kv(context);
+        String json = kv != null ? kv.getString(KvStore.KEY_USER) : null;
+        if (json == null) {
+            return null;
+        }
+        try {
+            JSONObject user = new JSONObject(json);
+            JSONObject profile = user.optJSONObject("profile");
+            String id = profile != null ? profile.optString("_id", null) : user.optString("profile", null);
+            return id == null || id.isEmpty() ? null : id;
+        } catch (JSONException e) {
+            Log.w(TAG, "Stored user is not valid JSON", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.connect.app;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.media.ThumbnailUtils;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Two-tier cache for profile pictures shown by native code (notifications, overlay).
+ *
+ * Memory holds square bitmaps already downsampled to avatar size, in an LruCache sized as a
+ * fraction of the heap. Disk holds the encoded bytes as downloaded, shared by both
+ * processes. Fetches run on a small pool and concurrent requests for the same URL share one
+ * download. A warm memory hit is a map lookup; a disk hit is one downsampled decode.
+ */
+public final class AvatarCache {
+    private static final String TAG = "AvatarCache";
+    private static final int MEMORY_FRACTION = 32;
+    private static final long DISK_MAX_BYTES = 20L * 1024 * 1024;
+    private static final int MAX_DOWNLOAD_BYTES = 4 * 1024 * 1024;
+    // Large enough for a notification large icon / CallStyle person icon on xxxhdpi
+    private static final int AVATAR_DP = 64;
+    private static final int FETCH_THREADS = 2;
+    private static final int CONNECT_TIMEOUT_MS = 5000;
+    private static final int READ_TIMEOUT_MS = 10000;
+
+    private static volatile AvatarCache instance;
+
+    public interface Callback {
+        /** Called with null if the image could not be loaded. */
+        void onResult(@Nullable Bitmap bitmap);
+    }
+
+    private final LruCache<String, Bitmap> memory;
+    private final DiskLruCache disk;
+    private final ExecutorService executor;
+    private final int targetPx;
+    // url -> callbacks waiting on the in-flight fetch; guarded by itself
+    private final Map<String, List<Callback>> inFlight = new HashMap<>();
+    private final AtomicInteger downloads = new AtomicInteger();
+    private final AtomicInteger coalesced = new AtomicInteger();
+
+    public static AvatarCache getInstance(Context context) {
+        if (instance == null) {
+            synchronized (AvatarCache.class) {
+                if (instance == null) {
+                    instance = new AvatarCache(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private AvatarCache(Context context) {
+        int maxKb = (int) (Runtime.getRuntime().maxMemory() / 1024 / MEMORY_FRACTION);
+        memory = new LruCache<String, Bitmap>(maxKb) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getAllocationByteCount() / 1024;
+            }
+        };
+        disk = new DiskLruCache(new File(context.getCacheDir(), "avatars"), DISK_MAX_BYTES, ".img");
+        targetPx = Math.round(AVATAR_DP * context.getResources().getDisplayMetrics().density);
+        executor = Executors.newFixedThreadPool(FETCH_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "AvatarCache");
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+        executor.execute(disk::load);
+    }
+
+    /** Memory tier only; safe on the main thread. */
+    public @Nullable Bitmap getCached(@Nullable String url) {
+        return isFetchable(url) ? memory.get(url) : null;
+    }
+
+    /**
+     * Memory, then disk, without touching the network. Does a decode on a disk hit, so call
+     * it off the main thread.
+     */
+    public @Nullable Bitmap getFromCache(@Nullable String url) {
+        if (!isFetchable(url)) {
+            return null;
+        }
+        Bitmap bitmap = memory.get(url);
+        if (bitmap != null) {
+            return bitmap;
+        }
+        File file = disk.get(DiskLruCache.key(url));
+        if (file == null) {
+            return null;
+        }
+        bitmap = decodeAvatar(file);
+        if (bitmap != null) {
+            memory.put(url, bitmap);
+        } else {
+            disk.remove(DiskLruCache.key(url));
+        }
+        return bitmap;
+    }
+
+    /**
+     * Load from any tier. The callback runs on the calling thread for a memory hit and on a
+     * fetch thread otherwise.
+     */
+    public void load(@Nullable String url, @Nullable Callback callback) {
+        if (!isFetchable(url)) {
+            if (callback != null) {
+                callback.onResult(null);
+            }
+            return;
+        }
+        Bitmap cached = memory.get(url);
+        if (cached != null) {
+            if (callback != null) {
+                callback.onResult(cached);
+            }
+            return;
+        }
+        synchronized (inFlight) {
+            List<Callback> waiting = inFlight.get(url);
+            if (waiting != null) {
+                coalesced.incrementAndGet();
+                if (callback != null) {
+                    waiting.add(callback);
+                }
+                return;
+            }
+            waiting = new ArrayList<>();
+            if (callback != null) {
+                waiting.add(callback);
+            }
+            inFlight.put(url, waiting);
+        }
+        executor.execute(() -> {
+            Bitmap bitmap = null;
+            try {
+                bitmap = fetch(url);
+            } catch (Exception e) {
+                Log.w(TAG, "Error loading avatar " + url, e);
+            }
+            List<Callback> waiting;
+            synchronized (inFlight) {
+                waiting = inFlight.remove(url);
+            }
+            if (waiting != null) {
+                for (Callback waiter : waiting) {
+                    waiter.onResult(bitmap);
+                }
+            }
+        });
+    }
+
+    /** Warm both tiers so a later notification can use the avatar immediately. */
+    public void prefetch(@Nullable String url) {
+        load(url, null);
+    }
+
+    /** Block up to timeoutMs for the avatar. Never call on the main thread. */
+    public @Nullable Bitmap getBlocking(@Nullable String url, long timeoutMs) {
+        Bitmap cached = getCached(url);
+        if (cached != null || !isFetchable(url)) {
+            return cached;
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<Bitmap> result = new AtomicReference<>();
+        load(url, bitmap -> {
+            result.set(bitmap);
+            latch.countDown();
+        });
+        try {
+            latch.await(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result.get();
+    }
+
+    public JSONObject getStats() {
+        JSONObject stats = new JSONObject();
+        try {
+            stats.put("memoryKb", memory.size());
+            stats.put("memoryMaxKb", memory.maxSize());
+            stats.put("memoryHits", memory.hitCount());
+            stats.put("memoryMisses", memory.missCount());
+            stats.put("memoryEvictions", memory.evictionCount());
+            stats.put("downloads", downloads.get());
+            stats.put("coalesced", coalesced.get());
+            stats.put("disk", disk.getStats());
+        } catch (JSONException e) {
+            Log.w(TAG, "Error building avatar cache stats", e);
+        }
+        return stats;
+    }
+
+    private @Nullable Bitmap fetch(String url) throws IOException {
+        Bitmap bitmap = getFromCache(url);
+        if (bitmap != null) {
+            return bitmap;
+        }
+        String key = DiskLruCache.key(url);
+        if (!download(url, disk.tempFile(key)) || !disk.commit(key)) {
+            disk.discard(key);
+            return null;
+        }
+        downloads.incrementAndGet();
+        File file = disk.get(key);
+        bitmap = file != null ? decodeAvatar(file) : null;
+        if (bitmap != null) {
+            memory.put(url, bitmap);
+        }
+        return bitmap;
+    }
+
+    private static boolean download(String url, File target) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        connection.setInstanceFollowRedirects(true);
+        try {
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                Log.w(TAG, "Avatar fetch failed: HTTP " + connection.getResponseCode());
+                return false;
+            }
+            int total = 0;
+            byte[] buffer = new byte[16 * 1024];
+            try (InputStream in = connection.getInputStream(); OutputStream out = new FileOutputStream(target)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    total += read;
+                    if (total > MAX_DOWNLOAD_BYTES) {
+                        Log.w(TAG, "Avatar larger than " + MAX_DOWNLOAD_BYTES + " bytes, skipping");
+                        return false;
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            return total > 0;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /** Decode at the smallest power-of-two sample that still covers targetPx, then crop square. */
+    private @Nullable Bitmap decodeAvatar(File file) {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getAbsolutePath(), bounds);
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            return null;
+        }
+        int shortSide = Math.min(bounds.outWidth, bounds.outHeight);
+        int sampleSize = 1;
+        while (shortSide / (sampleSize * 2) >= targetPx) {
+            sampleSize *= 2;
+        }
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize;
+        Bitmap decoded = BitmapFactory.decodeFile(file.getAbsolutePath(), options);
+        if (decoded == null) {
+            return null;
+        }
+        return ThumbnailUtils.extractThumbnail(decoded, targetPx, targetPx, ThumbnailUtils.OPTIONS_RECYCLE_INPUT);
+    }
+
+    private static boolean isFetchable(@Nullable String url) {
+        return url != null && (url.startsWith("https://") || url.startsWith("http://"));
+    }
+}
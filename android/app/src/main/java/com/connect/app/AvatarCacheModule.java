@@ -0,0 +1,42 @@
+package com.connect.app;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableType;
+
+/**
+ * Lets JS warm {@link AvatarCache} (e.g. with the chat list's profile pictures) so native
+ * notifications can show avatars without fetching.
+ */
+public class AvatarCacheModule extends ReactContextBaseJavaModule {
+    private final ReactApplicationContext reactContext;
+
+    public AvatarCacheModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+    }
+
+    @Override
+    public String getName() {
+        return "AvatarCache";
+    }
+
+    @ReactMethod
+    public void prefetch(ReadableArray urls) {
+        AvatarCache cache = AvatarCache.getInstance(reactContext);
+        for (int i = 0; i < urls.size(); i++) {
+            if (urls.getType(i) == ReadableType.String) {
+                cache.prefetch(urls.getString(i));
+            }
+        }
+    }
+
+    /** Resolves with memory and disk tier stats as a JSON string. */
+    @ReactMethod
+    public void getStats(Promise promise) {
+        promise.resolve(AvatarCache.getInstance(reactContext).getStats().toString());
+    }
+}
@@ -14,6 +14,12 @@ public class BootReceiver extends BroadcastReceiver {
 
     @Override
     public void onReceive(Context context, Intent intent) {
+        try (StartupTrace.Span ignored = StartupTrace.begin(TAG + ".onReceive")) {
+            handleReceive(context, intent);
+        }
+    }
+
+    private void handleReceive(Context context, Intent intent) {
         String action = intent.getAction();
         Log.d(TAG, "BootReceiver received action: " + action);
 
@@ -24,28 +30,9 @@ public class BootReceiver extends BroadcastReceiver {
             Log.d(TAG, "Device boot completed or app replaced, restarting background services");
             
             try {
-                // Start background TTS service (use startForegroundService on O+)
-                Intent ttsServiceIntent = new Intent(context, BackgroundTtsService.class);
-                if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.O) {
-                    context.startForegroundService(ttsServiceIntent);
-                } else {
-                    context.startService(ttsServiceIntent);
-                }
-                Log.d(TAG, "Background TTS service started after boot");
-
-                // NotificationService removed - all background notifications are now handled by 
-                // react-native-background-actions plugin (pushBackgroundService.ts)
-                // The background-fetch plugin service will be started automatically by the app
-
-                // Start Headless JS keep-alive service to relaunch JS background loop
-                Intent keepAliveIntent = new Intent(context, KeepAliveService.class);
-                if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.O) {
-                    context.startForegroundService(keepAliveIntent);
-                } else {
-                    context.startService(keepAliveIntent);
-                }
-                Log.d(TAG, "KeepAliveService started after boot");
-
+                // The host pokes KeepAliveService from its keep-alive workload
+                ServiceHost.attach(context, ServiceHost.WORKLOAD_TTS, ServiceHost.WORKLOAD_KEEP_ALIVE);
+                Log.d(TAG, "Service host started after boot");
             } catch (Exception e) {
                 Log.e(TAG, "Error starting services after boot", e);
             }
@@ -0,0 +1,120 @@
+package com.connect.app;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Handles the Decline action of the native call notification. Runs in :bg next to the
+ * native realtime connection and sends the rejection through it, so declining never waits
+ * for (or starts) the JS runtime. Answer is a direct activity intent and doesn't come here.
+ */
+public class CallActionReceiver extends BroadcastReceiver {
+    private static final String TAG = "CallActionReceiver";
+    static final String ACTION_DECLINE = "com.connect.app.call.DECLINE";
+    // Receivers get ~10s with goAsync; leave headroom
+    private static final long CONNECT_TIMEOUT_MS = 8000;
+
+    static Intent declineIntent(Context context, IncomingCallPayload payload) {
+        Intent intent = new Intent(context, CallActionReceiver.class);
+        intent.setAction(ACTION_DECLINE);
+        intent.putExtra("callerId", payload.callerId);
+        intent.putExtra("channelName", payload.channelName);
+        intent.putExtra("isAudio", payload.isAudio);
+        return intent;
+    }
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (intent == null || !ACTION_DECLINE.equals(intent.getAction())) {
+            return;
+        }
+        try (StartupTrace.Span ignored = StartupTrace.begin("CallActionReceiver.decline")) {
+            NativeNotifier.cancelIncomingCall(context);
+            SpeechWorkload.stopSpeaking(context);
+
+            String callerId = intent.getStringExtra("callerId");
+            String channelName = intent.getStringExtra("channelName");
+            boolean isAudio = intent.getBooleanExtra("isAudio", true);
+            String payload = rejectPayload(callerId, channelName);
+            if (callerId == null || payload == null) {
+                Log.w(TAG, "Decline without caller id, nothing to send");
+                return;
+            }
+            // Same events socketService.endAudioCall/endVideoCall(..., 'reject') emits
+            String event = isAudio ? "audio-call-reject" : "video-call-reject";
+            sendRejection(context.getApplicationContext(), event, payload, goAsync());
+        }
+    }
+
+    private static @Nullable String rejectPayload(@Nullable String callerId, @Nullable String channelName) {
+        try {
+            JSONObject json = new JSONObject();
+            json.put("to", callerId);
+            json.put("channelName", channelName != null ? channelName : "");
+            return json.toString();
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Emit right away if the socket is up, otherwise resume it and emit on connect. The
+     * broadcast stays pending until one of those happens or the timeout hits.
+     */
+    private static void sendRejection(Context context, String event, String payload, PendingResult result) {
+        RealtimeConnectionManager manager = RealtimeConnectionManager.getInstance(context);
+        if (manager.emit(event, payload)) {
+            Log.d(TAG, "Sent " + event);
+            result.finish();
+            return;
+        }
+
+        AtomicBoolean done = new AtomicBoolean(false);
+        Handler handler = new Handler(Looper.getMainLooper());
+        RealtimeConnectionManager.Listener listener = new RealtimeConnectionManager.Listener() {
+            @Override
+            public void onEvent(String name, @Nullable String json) {}
+
+            @Override
+            public void onConnectionStateChanged(boolean connected) {
+                if (connected && done.compareAndSet(false, true)) {
+                    boolean sent = manager.emit(event, payload);
+                    Log.d(TAG, (sent ? "Sent " : "Could not send ") + event + " after reconnect");
+                    manager.removeListener(this);
+                    handler.removeCallbacksAndMessages(null);
+                    result.finish();
+                }
+            }
+        };
+        manager.addListener(listener);
+        if (!manager.resume()) {
+            Log.w(TAG, "No stored realtime config, cannot send " + event);
+            done.set(true);
+            manager.removeListener(listener);
+            result.finish();
+            return;
+        }
+        handler.postDelayed(() -> {
+            if (done.compareAndSet(false, true)) {
+                Log.w(TAG, "Timed out waiting for connection to send " + event);
+                manager.removeListener(listener);
+                result.finish();
+            }
+        }, CONNECT_TIMEOUT_MS);
+        // It may have connected between the emit attempt and registering
+        if (manager.isConnected()) {
+            listener.onConnectionStateChanged(true);
+        }
+    }
+}
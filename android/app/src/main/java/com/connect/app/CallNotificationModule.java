@@ -1,18 +1,36 @@
 package com.connect.app;
 
-import android.app.Activity;
 import android.content.Intent;
-import android.os.Bundle;
+import android.os.SystemClock;
 import android.util.Log;
 
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+import java.util.HashMap;
+import java.util.Map;
 
 public class CallNotificationModule extends ReactContextBaseJavaModule {
     private static final String TAG = "CallNotificationModule";
+    /** Emitted when MainActivity receives a call intent while JS is running. */
+    static final String EVENT_CALL_INTENT = "CallNotificationIntent";
+
+    /**
+     * The call MainActivity was last opened for (full-screen intent or Answer), held until JS
+     * takes it with getInitialCall. Static because the activity usually starts before the
+     * React context (and this module) exist.
+     */
+    private static PendingCall pendingCall;
+    private static @Nullable CallNotificationModule attached;
+
     private ReactApplicationContext reactContext;
 
     public CallNotificationModule(ReactApplicationContext reactContext) {
@@ -25,6 +43,112 @@ public class CallNotificationModule extends ReactContextBaseJavaModule {
         return "CallNotificationModule";
     }
 
+    @Override
+    public void initialize() {
+        super.initialize();
+        synchronized (CallNotificationModule.class) {
+            attached = this;
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        synchronized (CallNotificationModule.class) {
+            if (attached == this) {
+                attached = null;
+            }
+        }
+        super.invalidate();
+    }
+
+    /**
+     * Record the call carried by a MainActivity intent and tell JS, if it's running, to
+     * fetch it. Returns false when the intent isn't a call intent.
+     */
+    static boolean onCallIntent(Intent intent) {
+        String type = intent.getStringExtra("type");
+        String action = intent.getStringExtra("action");
+        if (!"incoming_call".equals(type) && !"incoming_call".equals(action)) {
+            return false;
+        }
+        CallNotificationModule module;
+        synchronized (CallNotificationModule.class) {
+            pendingCall = new PendingCall(intent, SystemClock.elapsedRealtime());
+            module = attached;
+        }
+        if (module != null) {
+            module.sendEvent(EVENT_CALL_INTENT);
+        }
+        return true;
+    }
+
+    /**
+     * Resolves with the call the app was opened for ({@code callerId, callerName,
+     * callerProfilePic, channelName, isAudio, autoAccept}) or null, and forgets it so it's
+     * only handled once. Calls older than the ringing timeout are dropped.
+     */
+    @ReactMethod
+    public void getInitialCall(Promise promise) {
+        PendingCall call;
+        synchronized (CallNotificationModule.class) {
+            call = pendingCall;
+            pendingCall = null;
+        }
+        if (call == null || SystemClock.elapsedRealtime() - call.receivedAtMs > NativeNotifier.CALL_TIMEOUT_MS) {
+            promise.resolve(null);
+            return;
+        }
+        promise.resolve(call.toMap());
+    }
+
+    // Required by NativeEventEmitter
+    @ReactMethod
+    public void addListener(String eventName) {}
+
+    // Required by NativeEventEmitter
+    @ReactMethod
+    public void removeListeners(double count) {}
+
+    private void sendEvent(String name) {
+        if (!reactContext.hasActiveReactInstance()) {
+            return;
+        }
+        reactContext
+            .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+            .emit(name, null);
+    }
+
+    private static final class PendingCall {
+        final String callerId;
+        final String callerName;
+        final String callerProfilePic;
+        final String channelName;
+        final boolean isAudio;
+        final boolean autoAccept;
+        final long receivedAtMs;
+
+        PendingCall(Intent intent, long receivedAtMs) {
+            this.callerId = intent.getStringExtra("callerId");
+            this.callerName = intent.getStringExtra("callerName");
+            this.callerProfilePic = intent.getStringExtra("callerProfilePic");
+            this.channelName = intent.getStringExtra("channelName");
+            this.isAudio = intent.getBooleanExtra("isAudio", false);
+            this.autoAccept = intent.getBooleanExtra("autoAccept", false);
+            this.receivedAtMs = receivedAtMs;
+        }
+
+        WritableMap toMap() {
+            WritableMap map = Arguments.createMap();
+            map.putString("callerId", callerId);
+            map.putString("callerName", callerName);
+            map.putString("callerProfilePic", callerProfilePic);
+            map.putString("channelName", channelName);
+            map.putBoolean("isAudio", isAudio);
+            map.putBoolean("autoAccept", autoAccept);
+            return map;
+        }
+    }
+
     @ReactMethod
     public void openIncomingCallScreen(ReadableMap params, Promise promise) {
         try {
@@ -36,8 +160,8 @@ public class CallNotificationModule extends ReactContextBaseJavaModule {
             intent.putExtra("callerName", params.getString("callerName"));
             intent.putExtra("callerProfilePic", params.getString("callerProfilePic"));
             intent.putExtra("channelName", params.getString("channelName"));
-            intent.putExtra("isAudio", params.getBoolean("isAudio"));
-            intent.putExtra("autoAccept", params.getBoolean("autoAccept"));
+            intent.putExtra("isAudio", params.hasKey("isAudio") && params.getBoolean("isAudio"));
+            intent.putExtra("autoAccept", params.hasKey("autoAccept") && params.getBoolean("autoAccept"));
 
             // Start the activity
             reactContext.startActivity(intent);
@@ -50,6 +174,42 @@ public class CallNotificationModule extends ReactContextBaseJavaModule {
         }
     }
 
+    /**
+     * Post the native CallStyle incoming-call notification (full-screen intent, Answer and
+     * Decline actions). Decline is handled natively, so this works with the bridge gone.
+     */
+    @ReactMethod
+    public void showIncomingCallNotification(ReadableMap params, Promise promise) {
+        try {
+            Map<String, String> raw = new HashMap<>();
+            for (String key : new String[] { "callerId", "callerName", "callerProfilePic", "channelName" }) {
+                if (params.hasKey(key) && !params.isNull(key)) {
+                    raw.put(key, params.getString(key));
+                }
+            }
+            if (params.hasKey("isAudio") && !params.isNull("isAudio")) {
+                raw.put("isAudio", String.valueOf(params.getBoolean("isAudio")));
+            }
+            IncomingCallPayload payload = IncomingCallPayload.fromMap(raw);
+            NativeNotifier.showIncomingCall(reactContext, payload);
+            promise.resolve(true);
+        } catch (Exception e) {
+            Log.e(TAG, "Error showing incoming call notification", e);
+            promise.reject("ERROR", e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void cancelIncomingCallNotification(Promise promise) {
+        try {
+            NativeNotifier.cancelIncomingCall(reactContext);
+            promise.resolve(true);
+        } catch (Exception e) {
+            Log.e(TAG, "Error cancelling incoming call notification", e);
+            promise.reject("ERROR", e.getMessage());
+        }
+    }
+
     @ReactMethod
     public void bringAppToForeground(Promise promise) {
         try {
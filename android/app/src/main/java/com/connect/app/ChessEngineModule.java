@@ -0,0 +1,133 @@
+package com.connect.app;
+
+import android.util.Log;
+
+import com.connect.app.chess.Board;
+import com.connect.app.chess.Engine;
+import com.connect.app.chess.Move;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Exposes the native {@link Engine} to JS so the computer opponent searches off the JS
+ * thread. Searches run one at a time on a dedicated thread; starting a new one stops the
+ * previous one, which still resolves with its best move so far.
+ */
+public class ChessEngineModule extends ReactContextBaseJavaModule {
+    private static final String TAG = "ChessEngineModule";
+    private static final int HASH_MEGABYTES = 16;
+    // Leave a core for the UI; more threads than this barely help at phone search depths
+    private static final int MAX_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private static final long DEFAULT_TIME_MS = 1000;
+
+    private final ExecutorService searchThread = Executors.newSingleThreadExecutor(
+        runnable -> new Thread(runnable, "ChessEngine"));
+    private Engine engine;
+
+    public ChessEngineModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    @Override
+    public String getName() {
+        return "ChessEngine";
+    }
+
+    private synchronized Engine engine() {
+        if (engine == null) {
+            engine = new Engine(HASH_MEGABYTES, MAX_THREADS);
+        }
+        return engine;
+    }
+
+    /**
+     * Searches the position reached by playing {@code moves} (UCI, e.g. "e7e8q") from
+     * {@code fen}; passing the game's moves lets the engine see repetitions. Options: depth,
+     * timeMs (0 for depth-only) and threads. Resolves with bestMove (null if there are no legal
+     * moves), pv, score in centipawns for the side to move, mate, depth, nodes, nps and timeMs.
+     */
+    @ReactMethod
+    public void search(String fen, ReadableArray moves, ReadableMap options, Promise promise) {
+        int depth = options.hasKey("depth") ? options.getInt("depth") : Engine.MAX_DEPTH;
+        long timeMs = options.hasKey("timeMs") ? (long) options.getDouble("timeMs") : DEFAULT_TIME_MS;
+        int threads = options.hasKey("threads") ? options.getInt("threads") : MAX_THREADS;
+        Engine engine = engine();
+        engine.stop();
+        searchThread.execute(() -> {
+            try {
+                Board board = new Board(fen);
+                for (int i = 0; i < moves.size(); i++) {
+                    String uci = moves.getType(i) == ReadableType.String ? moves.getString(i) : null;
+                    if (uci == null || !board.makeUci(uci)) {
+                        promise.reject("ERROR", "Illegal move " + uci + " at index " + i);
+                        return;
+                    }
+                }
+                Engine.Result result = engine.search(board, depth, timeMs, threads);
+                Log.d(TAG, "depth " + result.depth + ", " + result.nodes + " nodes in " + result.timeMs
+                    + " ms (" + result.nodesPerSecond() + " nps, " + result.threads + " threads)");
+                promise.resolve(toMap(result));
+            } catch (Exception e) {
+                promise.reject("ERROR", e.getMessage());
+            }
+        });
+    }
+
+    @ReactMethod
+    public void stop() {
+        engine().stop();
+    }
+
+    /** Clears the transposition table so a new game doesn't reuse the last one's results. */
+    @ReactMethod
+    public void newGame() {
+        Engine engine = engine();
+        engine.stop();
+        searchThread.execute(engine::clear);
+    }
+
+    @Override
+    public void invalidate() {
+        synchronized (this) {
+            if (engine != null) {
+                engine.shutdown();
+            }
+        }
+        searchThread.shutdownNow();
+        super.invalidate();
+    }
+
+    private static WritableMap toMap(Engine.Result result) {
+        WritableMap map = Arguments.createMap();
+        map.putString("bestMove", result.bestMove != Move.NONE ? Move.toUci(result.bestMove) : null);
+        WritableArray pv = Arguments.createArray();
+        for (int move : result.pv) {
+            pv.pushString(Move.toUci(move));
+        }
+        map.putArray("pv", pv);
+        map.putInt("score", result.score);
+        if (result.mateIn() != 0) {
+            map.putInt("mate", result.mateIn());
+        } else {
+            map.putNull("mate");
+        }
+        map.putInt("depth", result.depth);
+        map.putDouble("nodes", result.nodes);
+        map.putDouble("nps", result.nodesPerSecond());
+        map.putDouble("timeMs", result.timeMs);
+        map.putInt("threads", result.threads);
+        map.putInt("hashfull", result.hashfull);
+        return map;
+    }
+}
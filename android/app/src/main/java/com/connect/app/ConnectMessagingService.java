@@ -0,0 +1,109 @@
+package com.connect.app;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.messaging.FirebaseMessagingService;
+import com.google.firebase.messaging.RemoteMessage;
+
+import java.util.Map;
+
+/**
+ * FCM entry point. Parses the data payload in Java and posts the call or message
+ * notification immediately; JS is only started afterwards (through KeepAliveService)
+ * for follow-up work, so push-to-ring no longer waits for a React Native cold start.
+ */
+public class ConnectMessagingService extends FirebaseMessagingService {
+    private static final String TAG = "ConnectMessagingService";
+
+    @Override
+    public void onMessageReceived(@NonNull RemoteMessage remoteMessage) {
+        Map<String, String> data = remoteMessage.getData();
+        String messageId = remoteMessage.getMessageId() != null ? remoteMessage.getMessageId() : "unknown";
+
+        // Messages with a notification payload are rendered by the system already
+        if (remoteMessage.getNotification() != null) {
+            Log.d(TAG, "Notification payload present, skipping native render: " + messageId);
+            return;
+        }
+
+        String type = data.get("type");
+        if ("incoming_call".equals(type)) {
+            IncomingCallPayload payload = IncomingCallPayload.fromMap(data);
+            if (!payload.isValid()) {
+                Log.w(TAG, "Dropping incoming call without channel or caller: " + messageId);
+                return;
+            }
+            if (NotificationDedup.isDuplicate(this, NotificationDedup.callKey(payload), NotificationDedup.CALL_TTL_MS)) {
+                Log.d(TAG, "Skipping duplicate call notification: " + payload.channelName);
+                return;
+            }
+            NativeNotifier.showIncomingCall(this, payload);
+        } else if ("speak_message".equals(type) || "speak-message".equals(type)) {
+            String text = IncomingCallPayload.firstNonEmpty(data, "", "message", "text", "body");
+            if (!text.trim().isEmpty()) {
+                SpeechWorkload.speak(this, text, data.get("priority"), null);
+            }
+        } else if ("chat".equals(type) || "new_message".equals(type)) {
+            // Keyed on the server message id so the socket path in the other process dedupes too
+            String key = NotificationDedup.chatKey(IncomingCallPayload.firstNonEmpty(data, messageId, "messageId"));
+            if (NotificationDedup.isDuplicate(this, key, NotificationDedup.DEFAULT_TTL_MS)) {
+                Log.d(TAG, "Skipping duplicate chat notification: " + key);
+                return;
+            }
+            String title = IncomingCallPayload.firstNonEmpty(data, "New Message", "senderName", "title");
+            String body = IncomingCallPayload.firstNonEmpty(data, "You have a new message", "message", "body");
+            NativeNotifier.showMessage(this, key, title, body, data);
+        } else {
+            String key = "general_" + IncomingCallPayload.firstNonEmpty(data, messageId, "messageId");
+            if (NotificationDedup.isDuplicate(this, key, NotificationDedup.DEFAULT_TTL_MS)) {
+                Log.d(TAG, "Skipping duplicate notification: " + key);
+                return;
+            }
+            String title = IncomingCallPayload.firstNonEmpty(data, "Message", "title", "senderName");
+            String body = IncomingCallPayload.firstNonEmpty(data, "", "body", "message");
+            NativeNotifier.showMessage(this, key, title, body, data);
+        }
+
+        startJsFollowUp(data);
+    }
+
+    @Override
+    public void onNewToken(@NonNull String token) {
+        Log.d(TAG, "FCM token refreshed");
+        AppStorage.setFcmToken(this, token);
+        // JS owns registration with the server (push.ts), so hand the rotation over now
+        // instead of waiting for the next login or cold start
+        Bundle bundle = new Bundle();
+        bundle.putString("token", token);
+        startJsTask("fcm_token", bundle);
+    }
+
+    /**
+     * Lazily wake the headless JS task with the original payload for anything that still
+     * needs JS (state sync, the realtime connection). The notification is already on screen by now.
+     */
+    private void startJsFollowUp(Map<String, String> data) {
+        Bundle bundle = new Bundle();
+        for (Map.Entry<String, String> entry : data.entrySet()) {
+            bundle.putString(entry.getKey(), entry.getValue());
+        }
+        startJsTask("fcm", bundle);
+    }
+
+    private void startJsTask(String source, Bundle data) {
+        try {
+            Intent intent = new Intent(this, KeepAliveService.class);
+            intent.putExtra(KeepAliveService.EXTRA_SOURCE, source);
+            intent.putExtra(KeepAliveService.EXTRA_DATA, data);
+            startService(intent);
+        } catch (Exception e) {
+            // Background start restrictions can reject this; the notification is already shown
+            // and a rotated token is picked up by push.ts on the next launch
+            Log.w(TAG, "Could not start JS task for " + source, e);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.connect.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Fixed-capacity, set-associative TTL table backed by a memory-mapped file.
+ *
+ * Every process that maps the same file sees the same entries, which is what lets the main
+ * and :bg processes dedupe a notification delivered once over the socket and once over FCM.
+ * Keys are stored as 64-bit hashes; each hash maps to one bucket of {@link #WAYS} slots and
+ * an insert evicts an expired slot or, failing that, the one closest to expiry. There is no
+ * periodic sweep: expiry is checked inline on every lookup.
+ *
+ * Locking is striped. A stripe monitor serialises threads of this process and a file range
+ * lock on the bucket serialises other processes (range locks are per-process, so the monitor
+ * is what keeps threads from tripping over OverlappingFileLockException).
+ *
+ * Pure Java so it can run on the plain JVM.
+ */
+public final class DedupTable implements AutoCloseable {
+    static final int WAYS = 8;
+    private static final int SLOT_BYTES = 16;
+    private static final int HEADER_BYTES = 16;
+    private static final int MAGIC = 0x44445550; // "DDUP"
+    private static final int VERSION = 1;
+    private static final int STRIPES = 64;
+
+    /**
+     * Upper bound on any TTL. An expiry further out than this was written against a clock
+     * that has since reset (reboot), so the slot is treated as stale.
+     */
+    static final long MAX_TTL_MS = 10 * 60 * 1000;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int buckets;
+    private final LongSupplier clock;
+    private final Object[] stripes = new Object[STRIPES];
+
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong inserts = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param capacity number of slots, rounded up to a multiple of {@link #WAYS}
+     * @param clock    millisecond clock shared by every process using the file
+     */
+    public DedupTable(File path, int capacity, LongSupplier clock) throws IOException {
+        this.buckets = Math.max(1, (capacity + WAYS - 1) / WAYS);
+        this.clock = clock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        long size = HEADER_BYTES + (long) buckets * WAYS * SLOT_BYTES;
+        this.file = new RandomAccessFile(path, "rw");
+        this.channel = file.getChannel();
+        FileLock lock = channel.lock(0, HEADER_BYTES, false);
+        try {
+            boolean fresh = file.length() != size;
+            if (fresh) {
+                file.setLength(size);
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (fresh || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != buckets) {
+                for (long pos = HEADER_BYTES; pos < size; pos += 8) {
+                    buffer.putLong((int) pos, 0L);
+                }
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, buckets);
+                buffer.putInt(0, MAGIC);
+            }
+        } finally {
+            lock.release();
+        }
+    }
+
+    /**
+     * Returns true when {@code key} was marked within its TTL (a duplicate). Otherwise marks
+     * it for {@code ttlMs} and returns false.
+     */
+    public boolean checkAndMark(String key, long ttlMs) {
+        long hash = hash(key);
+        int bucket = (int) ((hash >>> 1) % buckets);
+        long ttl = Math.min(Math.max(ttlMs, 0), MAX_TTL_MS);
+        synchronized (stripes[bucket % STRIPES]) {
+            int base = HEADER_BYTES + bucket * WAYS * SLOT_BYTES;
+            FileLock lock;
+            try {
+                lock = channel.lock(base, (long) WAYS * SLOT_BYTES, false);
+            } catch (IOException e) {
+                // Without the cross-process lock we still keep this process consistent
+                return checkAndMarkLocked(base, hash, ttl);
+            }
+            try {
+                return checkAndMarkLocked(base, hash, ttl);
+            } finally {
+                release(lock);
+            }
+        }
+    }
+
+    /** Read-only probe; does not mark. */
+    public boolean contains(String key) {
+        long hash = hash(key);
+        int bucket = (int) ((hash >>> 1) % buckets);
+        long now = clock.getAsLong();
+        int base = HEADER_BYTES + bucket * WAYS * SLOT_BYTES;
+        synchronized (stripes[bucket % STRIPES]) {
+            for (int way = 0; way < WAYS; way++) {
+                int slot = base + way * SLOT_BYTES;
+                if (buffer.getLong(slot) == hash && isLive(buffer.getLong(slot + 8), now)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean checkAndMarkLocked(int base, long hash, long ttl) {
+        long now = clock.getAsLong();
+        int victim = -1;
+        long victimExpiry = Long.MAX_VALUE;
+        for (int way = 0; way < WAYS; way++) {
+            int slot = base + way * SLOT_BYTES;
+            long storedHash = buffer.getLong(slot);
+            long expiresAt = buffer.getLong(slot + 8);
+            boolean live = storedHash != 0 && isLive(expiresAt, now);
+            if (live && storedHash == hash) {
+                duplicates.incrementAndGet();
+                return true;
+            }
+            if (!live) {
+                if (victimExpiry != Long.MIN_VALUE) {
+                    victim = slot;
+                    victimExpiry = Long.MIN_VALUE;
+                }
+            } else if (expiresAt < victimExpiry) {
+                victim = slot;
+                victimExpiry = expiresAt;
+            }
+        }
+        if (victimExpiry != Long.MIN_VALUE) {
+            evictions.incrementAndGet();
+        }
+        // Write the expiry before the hash so a reader in another process never pairs the
+        // new hash with the previous occupant's expiry
+        buffer.putLong(victim + 8, now + ttl);
+        buffer.putLong(victim, hash);
+        inserts.incrementAndGet();
+        return false;
+    }
+
+    private static boolean isLive(long expiresAt, long now) {
+        return expiresAt > now && expiresAt - now <= MAX_TTL_MS;
+    }
+
+    private static void release(FileLock lock) {
+        try {
+            lock.release();
+        } catch (IOException e) {
+            // The channel is gone; the OS dropped the lock with it
+        }
+    }
+
+    public long getDuplicateCount() {
+        return duplicates.get();
+    }
+
+    public long getInsertCount() {
+        return inserts.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public int getCapacity() {
+        return buckets * WAYS;
+    }
+
+    /** 64-bit FNV-1a over UTF-8; zero is reserved for empty slots. */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        return h == 0 ? 1 : h;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+        file.close();
+    }
+}
@@ -0,0 +1,222 @@
+package com.connect.app;
+
+import android.util.Log;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-capped LRU cache of files in one directory, used for synthesized speech
+ * ({@link SpeechEngine}) and avatar images ({@link AvatarCache}).
+ *
+ * Entries are keyed by a hash of their inputs and stored as one file each. The index is
+ * rebuilt from the directory at startup, ordered by last-modified time, and a hit touches
+ * the file, so recency survives process restarts. Both processes may share a directory: each
+ * keeps its own index and adopts files the other wrote on lookup. Stats are mirrored to
+ * stats.json in the cache directory so any process can read them.
+ */
+final class DiskLruCache {
+    private static final String TAG = "DiskLruCache";
+    private static final String TEMP_SUFFIX = ".tmp";
+    // A temp file untouched this long belongs to a write that died with its process
+    private static final long STALE_TEMP_MS = 10 * 60 * 1000;
+    static final String STATS_FILE = "stats.json";
+
+    private final File dir;
+    private final long maxBytes;
+    private final String suffix;
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long evictedBytes = 0;
+
+    DiskLruCache(File dir, long maxBytes, String suffix) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.suffix = suffix;
+    }
+
+    static String key(String... parts) {
+        String raw = String.join("\u0000", parts);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Android runtime ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Returns the cached file, or null on a miss. */
+    synchronized File get(String key) {
+        Long size = entries.get(key);
+        File file = entryFile(key);
+        if (size == null && file.exists()) {
+            // Written by the other process after this one loaded its index
+            size = file.length();
+            entries.put(key, size);
+            totalBytes += size;
+        }
+        if (size == null || !file.exists()) {
+            if (size != null) {
+                entries.remove(key);
+                totalBytes -= size;
+            }
+            misses++;
+            return null;
+        }
+        hits++;
+        file.setLastModified(System.currentTimeMillis());
+        return file;
+    }
+
+    /** Where a new entry should be written before {@link #commit}. */
+    File tempFile(String key) {
+        // Per-process name so both processes can fill the same key without clobbering
+        return new File(dir, key + ownTempSuffix());
+    }
+
+    private static String ownTempSuffix() {
+        return "." + android.os.Process.myPid() + TEMP_SUFFIX;
+    }
+
+    /** Move a finished temp file into the cache and evict down to the size cap. */
+    synchronized boolean commit(String key) {
+        File temp = tempFile(key);
+        File file = entryFile(key);
+        if (!temp.exists() || temp.length() == 0 || !temp.renameTo(file)) {
+            temp.delete();
+            return false;
+        }
+        Long previous = entries.put(key, file.length());
+        if (previous != null) {
+            totalBytes -= previous;
+        }
+        totalBytes += file.length();
+        trim();
+        return true;
+    }
+
+    void discard(String key) {
+        tempFile(key).delete();
+    }
+
+    /** Drop an entry that turned out to be unusable. */
+    synchronized void remove(String key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+        entryFile(key).delete();
+    }
+
+    /** Delete every entry, including ones only the other process has indexed. */
+    synchronized void clear() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(suffix)) {
+                    file.delete();
+                }
+            }
+        }
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    synchronized JSONObject getStats() {
+        JSONObject stats = new JSONObject();
+        try {
+            long lookups = hits + misses;
+            stats.put("entries", entries.size());
+            stats.put("bytes", totalBytes);
+            stats.put("maxBytes", maxBytes);
+            stats.put("hits", hits);
+            stats.put("misses", misses);
+            stats.put("hitRate", lookups == 0 ? 0 : (double) hits / lookups);
+            stats.put("evictions", evictions);
+            stats.put("evictedBytes", evictedBytes);
+        } catch (JSONException e) {
+            Log.w(TAG, "Error building cache stats", e);
+        }
+        return stats;
+    }
+
+    void writeStats() {
+        String json = getStats().toString();
+        try (FileOutputStream out = new FileOutputStream(new File(dir, STATS_FILE))) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            Log.w(TAG, "Error writing cache stats", e);
+        }
+    }
+
+    private File entryFile(String key) {
+        return new File(dir, key + suffix);
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            entryFile(eldest.getKey()).delete();
+            totalBytes -= eldest.getValue();
+            evictions++;
+            evictedBytes += eldest.getValue();
+            it.remove();
+        }
+    }
+
+    /** Index the entries already on disk; call once, off the main thread. */
+    synchronized void load() {
+        if (!dir.exists() && !dir.mkdirs()) {
+            Log.w(TAG, "Could not create " + dir);
+            return;
+        }
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        String ownTemp = ownTempSuffix();
+        long now = System.currentTimeMillis();
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(TEMP_SUFFIX)) {
+                // Ours were left by a dead process that had this pid; the other process's may
+                // still be mid-write, so only reap those once they're stale
+                if (name.endsWith(ownTemp) || now - file.lastModified() > STALE_TEMP_MS) {
+                    file.delete();
+                }
+            } else if (name.endsWith(suffix)) {
+                String key = name.substring(0, name.length() - suffix.length());
+                // get() may have adopted it already
+                if (!entries.containsKey(key)) {
+                    entries.put(key, file.length());
+                    totalBytes += file.length();
+                }
+            }
+        }
+        trim();
+        Log.d(TAG, "Loaded " + entries.size() + " entries from " + dir.getName()
+            + " (" + totalBytes / 1024 + " KB)");
+    }
+}
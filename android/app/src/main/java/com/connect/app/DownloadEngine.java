@@ -0,0 +1,801 @@
+package com.connect.app;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Downloads large files (saved videos) as parallel byte ranges written straight into a
+ * pre-allocated file, and picks up where it left off after network loss or process death.
+ *
+ * A download first probes the server with a one-byte range request. If ranges are supported
+ * the file is split into up to {@link #MAX_PARALLEL_CHUNKS} chunks, each fetched by a worker
+ * that writes at its own offset through a shared FileChannel. Chunk progress is synced and
+ * persisted to a small state file once a second, so a restart resumes each chunk from its last
+ * durable offset; an If-Range validator makes the server send the whole file again if it
+ * changed in between. Servers without range support get a single stream that restarts from
+ * zero. When the network drops, the download waits for a NetworkCallback instead of burning
+ * retries. Finished files are listed by {@link MediaIndex}, which watches the downloads
+ * directory.
+ *
+ * State transitions run on a private HandlerThread; only the range fetches run on the worker
+ * pool.
+ */
+public class DownloadEngine {
+    private static final String TAG = "DownloadEngine";
+    static final String DOWNLOADS_DIR = "downloads";
+    private static final String STATE_DIR = "download-state";
+    private static final String PART_SUFFIX = ".part";
+
+    static final int MAX_PARALLEL_CHUNKS = 4;
+    static final long MIN_CHUNK_BYTES = 1024 * 1024;
+    private static final int MAX_WORKERS = 6;
+    private static final int MAX_CHUNK_RETRIES = 4;
+    private static final long RETRY_BASE_MS = 1000;
+    // A download stuck waiting on a reachable-but-failing server is retried this often
+    private static final long WAITING_RETRY_MS = 60000;
+    static final long PROGRESS_INTERVAL_MS = 250;
+    private static final long PERSIST_INTERVAL_MS = 1000;
+    private static final int CONNECT_TIMEOUT_MS = 15000;
+    private static final int READ_TIMEOUT_MS = 30000;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    static final String STATE_DOWNLOADING = "downloading";
+    static final String STATE_WAITING = "waiting";
+    static final String STATE_COMPLETED = "completed";
+    static final String STATE_FAILED = "failed";
+    static final String STATE_CANCELLED = "cancelled";
+
+    public interface Listener {
+        void onProgress(String id, long received, long total, long bytesPerSecond);
+
+        void onStateChanged(String id, String state, @Nullable String path, @Nullable String error);
+    }
+
+    public interface JsonCallback {
+        void onJson(String json);
+    }
+
+    /** A non-retryable HTTP answer (404, 410, ...). */
+    private static final class HttpStatusException extends IOException {
+        final int code;
+
+        HttpStatusException(int code) {
+            super("HTTP " + code);
+            this.code = code;
+        }
+    }
+
+    /** The server ignored Range/If-Range, i.e. the file changed or ranges aren't supported. */
+    private static final class RangeIgnoredException extends IOException {
+        RangeIgnoredException() {
+            super("Server ignored the range request");
+        }
+    }
+
+    static final class Chunk {
+        final long start;
+        // Inclusive; Long.MAX_VALUE when the length is unknown
+        final long end;
+        final AtomicLong done;
+
+        Chunk(long start, long end, long done) {
+            this.start = start;
+            this.end = end;
+            this.done = new AtomicLong(done);
+        }
+
+        boolean isComplete() {
+            return end != Long.MAX_VALUE && start + done.get() > end;
+        }
+    }
+
+    private static final class Download {
+        final String id;
+        final String url;
+        final String fileName;
+        final File part;
+        long total = -1;
+        boolean ranged;
+        @Nullable String validator;
+        List<Chunk> chunks = new ArrayList<>();
+        String state = STATE_DOWNLOADING;
+        @Nullable FileChannel channel;
+        final AtomicLong received = new AtomicLong();
+        final AtomicLong lastProgressAt = new AtomicLong();
+        // Bumped to abandon in-flight workers (pause, restart, cancel)
+        volatile int generation;
+        int activeWorkers;
+        long rateSampleAt;
+        long rateSampleBytes;
+
+        Download(String id, String url, String fileName, File part) {
+            this.id = id;
+            this.url = url;
+            this.fileName = fileName;
+            this.part = part;
+        }
+    }
+
+    private static volatile DownloadEngine instance;
+
+    private final Context context;
+    private final Handler handler;
+    private final ExecutorService workers;
+    private final File downloadsDir;
+    private final File stateDir;
+    private final CopyOnWriteArraySet<Listener> listeners = new CopyOnWriteArraySet<>();
+
+    // Handler thread only
+    private final Map<String, Download> downloads = new HashMap<>();
+    private boolean networkCallbackRegistered = false;
+
+    private final Runnable persistRunnable = this::persistActive;
+
+    private final ConnectivityManager.NetworkCallback networkCallback = new ConnectivityManager.NetworkCallback() {
+        @Override
+        public void onAvailable(Network network) {
+            handler.post(DownloadEngine.this::resumeWaiting);
+        }
+    };
+
+    private DownloadEngine(Context context) {
+        this.context = context.getApplicationContext();
+        this.downloadsDir = new File(this.context.getFilesDir(), DOWNLOADS_DIR);
+        this.stateDir = new File(this.context.getFilesDir(), STATE_DIR);
+        HandlerThread thread = new HandlerThread("downloads");
+        thread.start();
+        this.handler = new Handler(thread.getLooper());
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(MAX_WORKERS,
+            r -> new Thread(r, "download-worker-" + workerCount.incrementAndGet()));
+        handler.post(this::restorePending);
+    }
+
+    public static DownloadEngine getInstance(Context context) {
+        if (instance == null) {
+            synchronized (DownloadEngine.class) {
+                if (instance == null) {
+                    instance = new DownloadEngine(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Start (or rejoin) the download of {@code url} into {@code fileName}; returns its id. */
+    public String enqueue(String url, String fileName) {
+        String id = DiskLruCache.key(url, fileName);
+        handler.post(() -> {
+            Download existing = downloads.get(id);
+            if (existing != null) {
+                if (STATE_WAITING.equals(existing.state)) {
+                    start(existing);
+                }
+                return;
+            }
+            Download download = new Download(id, url, fileName, new File(downloadsDir, "." + id + PART_SUFFIX));
+            downloads.put(id, download);
+            start(download);
+        });
+        return id;
+    }
+
+    public void cancel(String id) {
+        handler.post(() -> {
+            Download download = downloads.remove(id);
+            if (download == null) {
+                return;
+            }
+            download.generation++;
+            closeChannel(download);
+            download.part.delete();
+            stateFile(id).delete();
+            notifyState(download, STATE_CANCELLED, null, null);
+        });
+    }
+
+    /** Retry a waiting or failed download now. */
+    public void resume(String id) {
+        handler.post(() -> {
+            Download download = downloads.get(id);
+            if (download != null && !STATE_DOWNLOADING.equals(download.state)) {
+                start(download);
+            }
+        });
+    }
+
+    private void restorePending() {
+        File[] files = stateDir.listFiles((dir, name) -> name.endsWith(".json"));
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            try {
+                Download download = readState(file);
+                if (download.part.exists()) {
+                    downloads.put(download.id, download);
+                    Log.d(TAG, "Resuming " + download.fileName + " at " + download.received.get() + "/" + download.total);
+                    start(download);
+                } else {
+                    file.delete();
+                }
+            } catch (IOException | JSONException e) {
+                Log.w(TAG, "Dropping unreadable download state " + file.getName(), e);
+                file.delete();
+            }
+        }
+    }
+
+    private void start(Download download) {
+        download.generation++;
+        download.state = STATE_DOWNLOADING;
+        download.rateSampleAt = SystemClock.elapsedRealtime();
+        download.rateSampleBytes = download.received.get();
+        notifyState(download, STATE_DOWNLOADING, null, null);
+        registerNetworkCallback();
+        int generation = download.generation;
+        if (download.chunks.isEmpty()) {
+            workers.execute(() -> probe(download, generation));
+        } else {
+            openAndRun(download, generation);
+        }
+    }
+
+    /** Worker: learn the length and range support, then lay out the chunks. */
+    private void probe(Download download, int generation) {
+        HttpURLConnection connection = null;
+        try {
+            connection = open(download.url);
+            connection.setRequestProperty("Range", "bytes=0-0");
+            int code = connection.getResponseCode();
+            long total;
+            boolean ranged;
+            if (code == HttpURLConnection.HTTP_PARTIAL) {
+                total = parseContentRangeTotal(connection.getHeaderField("Content-Range"));
+                ranged = total > 0;
+            } else if (code == HttpURLConnection.HTTP_OK) {
+                total = connection.getContentLengthLong();
+                ranged = false;
+            } else {
+                throw new HttpStatusException(code);
+            }
+            String etag = connection.getHeaderField("ETag");
+            String validator = etag != null && !etag.startsWith("W/") ? etag : connection.getHeaderField("Last-Modified");
+            handler.post(() -> onProbed(download, generation, total, ranged, validator));
+        } catch (IOException e) {
+            handler.post(() -> onWorkerError(download, generation, e));
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    private void onProbed(Download download, int generation, long total, boolean ranged, @Nullable String validator) {
+        if (download.generation != generation) {
+            return;
+        }
+        download.total = total;
+        download.ranged = ranged;
+        download.validator = validator;
+        download.chunks = layoutChunks(total, ranged);
+        download.received.set(0);
+        openAndRun(download, generation);
+    }
+
+    static List<Chunk> layoutChunks(long total, boolean ranged) {
+        List<Chunk> chunks = new ArrayList<>();
+        if (!ranged || total <= 0) {
+            chunks.add(new Chunk(0, total > 0 ? total - 1 : Long.MAX_VALUE, 0));
+            return chunks;
+        }
+        int count = (int) Math.max(1, Math.min(MAX_PARALLEL_CHUNKS, total / MIN_CHUNK_BYTES));
+        long size = (total + count - 1) / count;
+        for (long start = 0; start < total; start += size) {
+            chunks.add(new Chunk(start, Math.min(total, start + size) - 1, 0));
+        }
+        return chunks;
+    }
+
+    private void openAndRun(Download download, int generation) {
+        try {
+            if (download.channel == null || !download.channel.isOpen()) {
+                File parent = download.part.getParentFile();
+                if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                    throw new IOException("Could not create " + parent);
+                }
+                RandomAccessFile file = new RandomAccessFile(download.part, "rw");
+                if (download.total > 0 && file.length() != download.total) {
+                    // Reserve the space up front so chunks never extend the file concurrently
+                    file.setLength(download.total);
+                }
+                download.channel = file.getChannel();
+            }
+        } catch (IOException e) {
+            fail(download, e);
+            return;
+        }
+        persist(download);
+        for (Chunk chunk : download.chunks) {
+            if (!chunk.isComplete()) {
+                download.activeWorkers++;
+                workers.execute(() -> fetchChunk(download, chunk, generation, 0));
+            }
+        }
+        if (download.activeWorkers == 0) {
+            complete(download);
+            return;
+        }
+        handler.removeCallbacks(persistRunnable);
+        handler.postDelayed(persistRunnable, PERSIST_INTERVAL_MS);
+    }
+
+    /** Worker: fetch the rest of one chunk, retrying transient failures with backoff. */
+    private void fetchChunk(Download download, Chunk chunk, int generation, int attempt) {
+        try {
+            fetchRange(download, chunk, generation);
+            handler.post(() -> onChunkDone(download, generation));
+        } catch (RangeIgnoredException e) {
+            handler.post(() -> restartFromZero(download, generation));
+        } catch (HttpStatusException e) {
+            handler.post(() -> onWorkerError(download, generation, e));
+        } catch (IOException e) {
+            if (download.generation != generation) {
+                return;
+            }
+            if (attempt < MAX_CHUNK_RETRIES && isNetworkAvailable()) {
+                long delay = RETRY_BASE_MS << attempt;
+                Log.d(TAG, "Chunk at " + chunk.start + " failed (" + e.getMessage() + "), retry in " + delay + "ms");
+                handler.postDelayed(() -> {
+                    if (download.generation == generation) {
+                        workers.execute(() -> fetchChunk(download, chunk, generation, attempt + 1));
+                    }
+                }, delay);
+            } else {
+                handler.post(() -> onWorkerError(download, generation, e));
+            }
+        }
+    }
+
+    private void fetchRange(Download download, Chunk chunk, int generation) throws IOException {
+        if (!download.ranged && chunk.done.get() > 0) {
+            // Without ranges a retry gets the body from the first byte again
+            download.received.addAndGet(-chunk.done.getAndSet(0));
+        }
+        long from = chunk.start + chunk.done.get();
+        if (chunk.isComplete()) {
+            return;
+        }
+        HttpURLConnection connection = open(download.url);
+        try {
+            if (download.ranged) {
+                connection.setRequestProperty("Range", "bytes=" + from + "-" + chunk.end);
+                if (download.validator != null) {
+                    connection.setRequestProperty("If-Range", download.validator);
+                }
+            }
+            int code = connection.getResponseCode();
+            if (download.ranged && code == HttpURLConnection.HTTP_OK) {
+                throw new RangeIgnoredException();
+            }
+            if (code != (download.ranged ? HttpURLConnection.HTTP_PARTIAL : HttpURLConnection.HTTP_OK)) {
+                if (code >= 400 && code < 500 && code != 408 && code != 429) {
+                    throw new HttpStatusException(code);
+                }
+                throw new IOException("HTTP " + code);
+            }
+            FileChannel channel = download.channel;
+            if (channel == null) {
+                throw new IOException("Download file closed");
+            }
+            byte[] bytes = new byte[BUFFER_BYTES];
+            long position = from;
+            try (InputStream in = connection.getInputStream()) {
+                int read;
+                while ((read = in.read(bytes)) != -1) {
+                    if (download.generation != generation) {
+                        return;
+                    }
+                    if (chunk.end != Long.MAX_VALUE) {
+                        read = (int) Math.min(read, chunk.end + 1 - position);
+                    }
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, read);
+                    while (buffer.hasRemaining()) {
+                        position += channel.write(buffer, position);
+                    }
+                    chunk.done.addAndGet(read);
+                    download.received.addAndGet(read);
+                    maybeReportProgress(download);
+                    if (chunk.isComplete()) {
+                        break;
+                    }
+                }
+            }
+            if (chunk.end != Long.MAX_VALUE && !chunk.isComplete()) {
+                throw new IOException("Connection closed at " + position + " of " + (chunk.end + 1));
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private void onChunkDone(Download download, int generation) {
+        if (download.generation != generation) {
+            return;
+        }
+        download.activeWorkers--;
+        if (download.activeWorkers == 0) {
+            complete(download);
+        }
+    }
+
+    private void onWorkerError(Download download, int generation, IOException e) {
+        if (download.generation != generation) {
+            return;
+        }
+        if (e instanceof HttpStatusException) {
+            fail(download, e);
+            return;
+        }
+        // Park every chunk; the NetworkCallback or the periodic retry starts them again
+        download.generation++;
+        download.activeWorkers = 0;
+        download.state = STATE_WAITING;
+        persist(download);
+        closeChannel(download);
+        notifyState(download, STATE_WAITING, null, e.getMessage());
+        handler.postDelayed(() -> {
+            if (STATE_WAITING.equals(download.state) && downloads.get(download.id) == download) {
+                start(download);
+            }
+        }, WAITING_RETRY_MS);
+    }
+
+    private void restartFromZero(Download download, int generation) {
+        if (download.generation != generation) {
+            return;
+        }
+        Log.w(TAG, download.fileName + " changed on the server or lost range support, restarting");
+        closeChannel(download);
+        download.part.delete();
+        download.chunks = new ArrayList<>();
+        download.received.set(0);
+        download.activeWorkers = 0;
+        start(download);
+    }
+
+    private void fail(Download download, Exception e) {
+        Log.e(TAG, "Download of " + download.fileName + " failed", e);
+        download.generation++;
+        download.activeWorkers = 0;
+        download.state = STATE_FAILED;
+        closeChannel(download);
+        download.part.delete();
+        stateFile(download.id).delete();
+        downloads.remove(download.id);
+        notifyState(download, STATE_FAILED, null, e.getMessage());
+    }
+
+    private void complete(Download download) {
+        try {
+            FileChannel channel = download.channel;
+            if (channel != null) {
+                channel.force(true);
+                if (download.total <= 0) {
+                    channel.truncate(download.received.get());
+                }
+            }
+        } catch (IOException e) {
+            fail(download, e);
+            return;
+        }
+        closeChannel(download);
+        File target = uniqueTarget(download.fileName);
+        if (!download.part.renameTo(target)) {
+            fail(download, new IOException("Could not move download into place"));
+            return;
+        }
+        download.state = STATE_COMPLETED;
+        downloads.remove(download.id);
+        stateFile(download.id).delete();
+        emitProgress(download);
+        notifyState(download, STATE_COMPLETED, target.getAbsolutePath(), null);
+    }
+
+    private void resumeWaiting() {
+        for (Download download : new ArrayList<>(downloads.values())) {
+            if (STATE_WAITING.equals(download.state)) {
+                start(download);
+            }
+        }
+    }
+
+    private void persistActive() {
+        boolean active = false;
+        for (Download download : downloads.values()) {
+            if (STATE_DOWNLOADING.equals(download.state)) {
+                persist(download);
+                active = true;
+            }
+        }
+        if (active) {
+            handler.postDelayed(persistRunnable, PERSIST_INTERVAL_MS);
+        } else {
+            unregisterNetworkCallback();
+        }
+    }
+
+    /** Sync the data first, then record offsets, so saved progress never runs ahead of the file. */
+    private void persist(Download download) {
+        long[] done = new long[download.chunks.size()];
+        for (int i = 0; i < done.length; i++) {
+            // A stream without range support can only restart from zero
+            done[i] = download.ranged ? download.chunks.get(i).done.get() : 0;
+        }
+        try {
+            FileChannel channel = download.channel;
+            if (channel != null && channel.isOpen()) {
+                channel.force(false);
+            }
+            JSONObject state = new JSONObject();
+            state.put("id", download.id);
+            state.put("url", download.url);
+            state.put("fileName", download.fileName);
+            state.put("total", download.total);
+            state.put("ranged", download.ranged);
+            state.put("validator", download.validator);
+            JSONArray chunks = new JSONArray();
+            for (int i = 0; i < done.length; i++) {
+                Chunk chunk = download.chunks.get(i);
+                chunks.put(new JSONArray().put(chunk.start).put(chunk.end).put(done[i]));
+            }
+            state.put("chunks", chunks);
+            writeAtomically(stateFile(download.id), state.toString());
+        } catch (IOException | JSONException e) {
+            Log.w(TAG, "Error persisting download state", e);
+        }
+    }
+
+    // java.nio.file needs API 26; minSdk is 24
+    private static byte[] readFile(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            long length = file.length();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("State file too large: " + file);
+            }
+            byte[] bytes = new byte[(int) length];
+            in.readFully(bytes);
+            return bytes;
+        }
+    }
+
+    private Download readState(File file) throws IOException, JSONException {
+        JSONObject state = new JSONObject(new String(readFile(file), StandardCharsets.UTF_8));
+        String id = state.getString("id");
+        Download download = new Download(id, state.getString("url"), state.getString("fileName"),
+            new File(downloadsDir, "." + id + PART_SUFFIX));
+        download.total = state.getLong("total");
+        download.ranged = state.getBoolean("ranged");
+        download.validator = state.isNull("validator") ? null : state.getString("validator");
+        JSONArray chunks = state.getJSONArray("chunks");
+        long received = 0;
+        for (int i = 0; i < chunks.length(); i++) {
+            JSONArray c = chunks.getJSONArray(i);
+            Chunk chunk = new Chunk(c.getLong(0), c.getLong(1), c.getLong(2));
+            download.chunks.add(chunk);
+            received += chunk.done.get();
+        }
+        download.received.set(received);
+        return download;
+    }
+
+    private File stateFile(String id) {
+        return new File(stateDir, id + ".json");
+    }
+
+    private File uniqueTarget(String fileName) {
+        File target = new File(downloadsDir, fileName);
+        int dot = fileName.lastIndexOf('.');
+        String base = dot > 0 ? fileName.substring(0, dot) : fileName;
+        String extension = dot > 0 ? fileName.substring(dot) : "";
+        for (int i = 1; target.exists(); i++) {
+            target = new File(downloadsDir, base + "-" + i + extension);
+        }
+        return target;
+    }
+
+    /** Downloads in progress or waiting, as a JSON array. */
+    public void getActive(JsonCallback callback) {
+        handler.post(() -> {
+            JSONArray active = new JSONArray();
+            for (Download download : downloads.values()) {
+                try {
+                    JSONObject json = new JSONObject();
+                    json.put("id", download.id);
+                    json.put("url", download.url);
+                    json.put("fileName", download.fileName);
+                    json.put("state", download.state);
+                    json.put("received", download.received.get());
+                    json.put("total", download.total);
+                    json.put("chunks", download.chunks.size());
+                    active.put(json);
+                } catch (JSONException e) {
+                    Log.w(TAG, "Error describing download", e);
+                }
+            }
+            callback.onJson(active.toString());
+        });
+    }
+
+    // Progress
+
+    /** Called from workers; at most one progress event per download per interval. */
+    private void maybeReportProgress(Download download) {
+        long now = SystemClock.elapsedRealtime();
+        long last = download.lastProgressAt.get();
+        if (now - last < PROGRESS_INTERVAL_MS || !download.lastProgressAt.compareAndSet(last, now)) {
+            return;
+        }
+        handler.post(() -> emitProgress(download));
+    }
+
+    private void emitProgress(Download download) {
+        long now = SystemClock.elapsedRealtime();
+        long received = download.received.get();
+        long elapsed = now - download.rateSampleAt;
+        long rate = elapsed > 0 ? (received - download.rateSampleBytes) * 1000 / elapsed : 0;
+        for (Listener listener : listeners) {
+            try {
+                listener.onProgress(download.id, received, download.total, rate);
+            } catch (Exception e) {
+                Log.e(TAG, "Listener failed for progress", e);
+            }
+        }
+    }
+
+    private void notifyState(Download download, String state, @Nullable String path, @Nullable String error) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onStateChanged(download.id, state, path, error);
+            } catch (Exception e) {
+                Log.e(TAG, "Listener failed for state change", e);
+            }
+        }
+    }
+
+    // Helpers
+
+    private static HttpURLConnection open(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        connection.setInstanceFollowRedirects(true);
+        // Byte offsets must refer to the stored bytes, not a decompressed stream
+        connection.setRequestProperty("Accept-Encoding", "identity");
+        return connection;
+    }
+
+    /** Total length from "bytes 0-0/12345", or -1 when it is missing or "*". */
+    static long parseContentRangeTotal(@Nullable String contentRange) {
+        if (contentRange == null) {
+            return -1;
+        }
+        int slash = contentRange.lastIndexOf('/');
+        if (slash < 0) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentRange.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void writeAtomically(File file, String content) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Could not create " + parent);
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    private static void closeChannel(Download download) {
+        FileChannel channel = download.channel;
+        download.channel = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                Log.w(TAG, "Error closing download file", e);
+            }
+        }
+    }
+
+    private boolean isNetworkAvailable() {
+        ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        return cm == null || cm.getActiveNetwork() != null;
+    }
+
+    private void registerNetworkCallback() {
+        if (networkCallbackRegistered) {
+            return;
+        }
+        try {
+            ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+            if (cm != null) {
+                cm.registerDefaultNetworkCallback(networkCallback);
+                networkCallbackRegistered = true;
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Could not register network callback, relying on periodic retry", e);
+        }
+    }
+
+    private void unregisterNetworkCallback() {
+        if (!networkCallbackRegistered) {
+            return;
+        }
+        for (Download download : downloads.values()) {
+            if (STATE_WAITING.equals(download.state)) {
+                return;
+            }
+        }
+        try {
+            ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+            if (cm != null) {
+                cm.unregisterNetworkCallback(networkCallback);
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Error unregistering network callback", e);
+        }
+        networkCallbackRegistered = false;
+    }
+}
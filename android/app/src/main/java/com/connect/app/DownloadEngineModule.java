@@ -0,0 +1,114 @@
+package com.connect.app;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+/**
+ * Exposes {@link DownloadEngine} to JS: enqueue, cancel and resume downloads, list active
+ * ones, and receive throttled {@code DownloadProgress} and {@code DownloadState} events while
+ * JS is listening. Finished downloads are listed through {@link MediaIndexModule}.
+ */
+public class DownloadEngineModule extends ReactContextBaseJavaModule {
+    static final String EVENT_PROGRESS = "DownloadProgress";
+    static final String EVENT_STATE = "DownloadState";
+
+    private final ReactApplicationContext reactContext;
+    private int listenerCount = 0;
+
+    private final DownloadEngine.Listener listener = new DownloadEngine.Listener() {
+        @Override
+        public void onProgress(String id, long received, long total, long bytesPerSecond) {
+            WritableMap params = Arguments.createMap();
+            params.putString("id", id);
+            params.putDouble("received", received);
+            params.putDouble("total", total);
+            params.putDouble("bytesPerSecond", bytesPerSecond);
+            sendEvent(EVENT_PROGRESS, params);
+        }
+
+        @Override
+        public void onStateChanged(String id, String state, @Nullable String path, @Nullable String error) {
+            WritableMap params = Arguments.createMap();
+            params.putString("id", id);
+            params.putString("state", state);
+            params.putString("path", path);
+            params.putString("error", error);
+            sendEvent(EVENT_STATE, params);
+        }
+    };
+
+    public DownloadEngineModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+    }
+
+    @Override
+    public String getName() {
+        return "DownloadEngine";
+    }
+
+    /** Resolves with the download id; progress and completion arrive as events. */
+    @ReactMethod
+    public void enqueue(String url, String fileName, Promise promise) {
+        try {
+            promise.resolve(DownloadEngine.getInstance(reactContext).enqueue(url, fileName));
+        } catch (Exception e) {
+            promise.reject("ERROR", e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void cancel(String id) {
+        DownloadEngine.getInstance(reactContext).cancel(id);
+    }
+
+    @ReactMethod
+    public void resume(String id) {
+        DownloadEngine.getInstance(reactContext).resume(id);
+    }
+
+    @ReactMethod
+    public void getActive(Promise promise) {
+        DownloadEngine.getInstance(reactContext).getActive(promise::resolve);
+    }
+
+    // Required by NativeEventEmitter
+    @ReactMethod
+    public void addListener(String eventName) {
+        if (listenerCount++ == 0) {
+            DownloadEngine.getInstance(reactContext).addListener(listener);
+        }
+    }
+
+    // Required by NativeEventEmitter
+    @ReactMethod
+    public void removeListeners(double count) {
+        listenerCount = Math.max(0, listenerCount - (int) count);
+        if (listenerCount == 0) {
+            DownloadEngine.getInstance(reactContext).removeListener(listener);
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        DownloadEngine.getInstance(reactContext).removeListener(listener);
+        listenerCount = 0;
+        super.invalidate();
+    }
+
+    private void sendEvent(String name, WritableMap params) {
+        if (!reactContext.hasActiveReactInstance()) {
+            return;
+        }
+        reactContext
+            .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+            .emit(name, params);
+    }
+}
@@ -0,0 +1,115 @@
+package com.connect.app;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+/**
+ * Exposes {@link EmotionFramePipeline} to JS. Frames never cross the bridge; JS starts and
+ * stops capture and receives one {@code EmotionFrameResult} per detected emotion.
+ */
+public class EmotionFrameModule extends ReactContextBaseJavaModule {
+    private static final String TAG = "EmotionFrameModule";
+    static final String EVENT_RESULT = "EmotionFrameResult";
+
+    private final ReactApplicationContext reactContext;
+    private int listenerCount = 0;
+
+    private final EmotionFramePipeline.Listener listener = resultJson -> {
+        if (!reactContext.hasActiveReactInstance()) {
+            return;
+        }
+        WritableMap params = Arguments.createMap();
+        params.putString("result", resultJson);
+        reactContext
+            .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+            .emit(EVENT_RESULT, params);
+    };
+
+    public EmotionFrameModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+    }
+
+    @Override
+    public String getName() {
+        return "EmotionFrames";
+    }
+
+    /** Options: intervalMs (min gap between frames), size (long edge in px), quality (JPEG 10-100). */
+    @ReactMethod
+    public void start(String serverUrl, @Nullable ReadableMap options, Promise promise) {
+        try {
+            EmotionFramePipeline pipeline = EmotionFramePipeline.getInstance(reactContext);
+            if (!pipeline.hasCameraPermission()) {
+                promise.reject("ERROR", "Camera permission not granted");
+                return;
+            }
+            long intervalMs = EmotionFramePipeline.DEFAULT_FRAME_INTERVAL_MS;
+            int size = EmotionFramePipeline.DEFAULT_TARGET_SIZE;
+            int quality = EmotionFramePipeline.DEFAULT_JPEG_QUALITY;
+            if (options != null) {
+                if (options.hasKey("intervalMs")) {
+                    intervalMs = (long) options.getDouble("intervalMs");
+                }
+                if (options.hasKey("size")) {
+                    size = options.getInt("size");
+                }
+                if (options.hasKey("quality")) {
+                    quality = options.getInt("quality");
+                }
+            }
+            pipeline.start(serverUrl, intervalMs, size, quality);
+            promise.resolve(true);
+        } catch (Exception e) {
+            Log.e(TAG, "Error starting emotion capture", e);
+            promise.reject("ERROR", e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void stop() {
+        EmotionFramePipeline.getInstance(reactContext).stop();
+    }
+
+    /** Resolves with capture fps, encode and round-trip latency and drop counts as JSON. */
+    @ReactMethod
+    public void getStats(Promise promise) {
+        EmotionFramePipeline.getInstance(reactContext).getStats(promise::resolve);
+    }
+
+    // Required by NativeEventEmitter
+    @ReactMethod
+    public void addListener(String eventName) {
+        if (listenerCount++ == 0) {
+            EmotionFramePipeline.getInstance(reactContext).addListener(listener);
+        }
+    }
+
+    // Required by NativeEventEmitter
+    @ReactMethod
+    public void removeListeners(double count) {
+        listenerCount = Math.max(0, listenerCount - (int) count);
+        if (listenerCount == 0) {
+            EmotionFramePipeline.getInstance(reactContext).removeListener(listener);
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        EmotionFramePipeline pipeline = EmotionFramePipeline.getInstance(reactContext);
+        pipeline.removeListener(listener);
+        pipeline.stop();
+        listenerCount = 0;
+        super.invalidate();
+    }
+}
@@ -0,0 +1,548 @@
+package com.connect.app;
+
+import android.Manifest;
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.graphics.ImageFormat;
+import android.graphics.Rect;
+import android.graphics.YuvImage;
+import android.hardware.camera2.CameraAccessException;
+import android.hardware.camera2.CameraCaptureSession;
+import android.hardware.camera2.CameraCharacteristics;
+import android.hardware.camera2.CameraDevice;
+import android.hardware.camera2.CameraManager;
+import android.hardware.camera2.CaptureRequest;
+import android.hardware.camera2.params.StreamConfigurationMap;
+import android.media.Image;
+import android.media.ImageReader;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.Size;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import io.socket.client.IO;
+import io.socket.client.Socket;
+import io.socket.engineio.client.transports.WebSocket;
+
+/**
+ * Captures front-camera frames for emotion detection and streams them to the detection server
+ * without going through JS.
+ *
+ * Frames arrive from an ImageReader on a private HandlerThread, are downscaled and rotated
+ * upright into a reused NV21 buffer, JPEG-encoded into a reused stream and emitted as binary
+ * {@code webcam_frame} payloads. Only one frame is in flight at a time: frames that arrive
+ * while the server is busy are dropped, so the next one sent is always the newest
+ * (acquireLatestImage already discards anything older). Results are trimmed to the fields
+ * the chat screen shows and handed to listeners; frames without a face are not forwarded.
+ */
+public class EmotionFramePipeline {
+    private static final String TAG = "EmotionFramePipeline";
+    private static final String EVENT_FRAME = "webcam_frame";
+    private static final String EVENT_RESULT = "face_emotion";
+
+    static final long DEFAULT_FRAME_INTERVAL_MS = 200;
+    static final int DEFAULT_TARGET_SIZE = 320;
+    static final int DEFAULT_JPEG_QUALITY = 70;
+    // A result that takes longer than this is treated as lost so capture can move on
+    static final long RESPONSE_TIMEOUT_MS = 8000;
+    private static final int CONNECT_TIMEOUT_MS = 60000;
+
+    public interface Listener {
+        void onEmotion(String resultJson);
+    }
+
+    /** ByteArrayOutputStream whose buffer survives reset(), so encoding doesn't reallocate. */
+    private static final class ReusableStream extends ByteArrayOutputStream {
+        ReusableStream(int size) {
+            super(size);
+        }
+
+        byte[] copy() {
+            byte[] out = new byte[count];
+            System.arraycopy(buf, 0, out, 0, count);
+            return out;
+        }
+    }
+
+    private static volatile EmotionFramePipeline instance;
+
+    private final Context context;
+    private final Handler handler;
+    private final CopyOnWriteArraySet<Listener> listeners = new CopyOnWriteArraySet<>();
+
+    // Handler thread only
+    private boolean running = false;
+    private long frameIntervalMs = DEFAULT_FRAME_INTERVAL_MS;
+    private int targetSize = DEFAULT_TARGET_SIZE;
+    private int jpegQuality = DEFAULT_JPEG_QUALITY;
+    private @Nullable Socket socket;
+    private @Nullable CameraDevice camera;
+    private @Nullable CameraCaptureSession session;
+    private @Nullable ImageReader reader;
+    private int rotation;
+    private int outWidth;
+    private int outHeight;
+    private byte[] nv21 = new byte[0];
+    private final ReusableStream jpeg = new ReusableStream(32 * 1024);
+    private boolean inFlight = false;
+    private long sentAtMs;
+    private long nextFrameAtMs;
+
+    // Stats, handler thread only
+    private long startedAtMs;
+    private long framesCaptured;
+    private long framesSent;
+    private long skippedBusy;
+    private long skippedRate;
+    private long skippedOffline;
+    private long results;
+    private long noFace;
+    private long timeouts;
+    private long encodeMsTotal;
+    private long lastEncodeMs;
+    private long roundTripMsTotal;
+    private long lastRoundTripMs;
+    private long bytesSent;
+
+    private final Runnable timeoutRunnable = () -> {
+        if (inFlight) {
+            inFlight = false;
+            timeouts++;
+            Log.w(TAG, "No result within " + RESPONSE_TIMEOUT_MS + "ms, sending the next frame");
+        }
+    };
+
+    private EmotionFramePipeline(Context context) {
+        this.context = context.getApplicationContext();
+        HandlerThread thread = new HandlerThread("emotion-frames");
+        thread.start();
+        this.handler = new Handler(thread.getLooper());
+    }
+
+    public static EmotionFramePipeline getInstance(Context context) {
+        if (instance == null) {
+            synchronized (EmotionFramePipeline.class) {
+                if (instance == null) {
+                    instance = new EmotionFramePipeline(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public boolean hasCameraPermission() {
+        return context.checkSelfPermission(Manifest.permission.CAMERA) == PackageManager.PERMISSION_GRANTED;
+    }
+
+    /** Open the camera and the server connection; restarts if already running. */
+    public void start(String serverUrl, long intervalMs, int size, int quality) {
+        handler.post(() -> {
+            stopInternal();
+            frameIntervalMs = Math.max(0, intervalMs);
+            targetSize = Math.max(64, size) & ~1;
+            jpegQuality = Math.max(10, Math.min(100, quality));
+            running = true;
+            startedAtMs = SystemClock.elapsedRealtime();
+            framesCaptured = framesSent = skippedBusy = skippedRate = skippedOffline = 0;
+            results = noFace = timeouts = encodeMsTotal = roundTripMsTotal = bytesSent = 0;
+            lastEncodeMs = lastRoundTripMs = 0;
+            connectSocket(serverUrl);
+            openCamera();
+        });
+    }
+
+    public void stop() {
+        handler.post(this::stopInternal);
+    }
+
+    private void stopInternal() {
+        running = false;
+        handler.removeCallbacks(timeoutRunnable);
+        inFlight = false;
+        if (session != null) {
+            try {
+                session.close();
+            } catch (Exception e) {
+                Log.w(TAG, "Error closing capture session", e);
+            }
+            session = null;
+        }
+        if (camera != null) {
+            camera.close();
+            camera = null;
+        }
+        if (reader != null) {
+            reader.close();
+            reader = null;
+        }
+        Socket s = socket;
+        socket = null;
+        if (s != null) {
+            try {
+                s.off();
+                s.disconnect();
+            } catch (Exception e) {
+                Log.w(TAG, "Error closing emotion socket", e);
+            }
+        }
+    }
+
+    private void connectSocket(String serverUrl) {
+        try {
+            IO.Options options = IO.Options.builder()
+                .setTransports(new String[] { WebSocket.NAME })
+                .setTimeout(CONNECT_TIMEOUT_MS)
+                .setForceNew(true)
+                .setReconnection(true)
+                .build();
+            Socket s = IO.socket(URI.create(serverUrl), options);
+            s.on(Socket.EVENT_CONNECT, args -> Log.d(TAG, "Connected to emotion server"));
+            s.on(Socket.EVENT_CONNECT_ERROR, args ->
+                Log.w(TAG, "Emotion server connect error: " + (args.length > 0 ? args[0] : "")));
+            s.on(EVENT_RESULT, args -> handler.post(() -> onResult(args)));
+            s.connect();
+            socket = s;
+        } catch (Exception e) {
+            Log.e(TAG, "Error creating emotion socket", e);
+        }
+    }
+
+    private void openCamera() {
+        if (!hasCameraPermission()) {
+            Log.w(TAG, "Camera permission not granted");
+            return;
+        }
+        CameraManager manager = (CameraManager) context.getSystemService(Context.CAMERA_SERVICE);
+        if (manager == null) {
+            return;
+        }
+        try {
+            String cameraId = pickCamera(manager);
+            if (cameraId == null) {
+                Log.w(TAG, "No camera available");
+                return;
+            }
+            CameraCharacteristics characteristics = manager.getCameraCharacteristics(cameraId);
+            Integer sensorOrientation = characteristics.get(CameraCharacteristics.SENSOR_ORIENTATION);
+            // The app is portrait-only, so the sensor orientation is the rotation to upright
+            rotation = sensorOrientation != null ? sensorOrientation : 0;
+            Size size = pickSize(characteristics.get(CameraCharacteristics.SCALER_STREAM_CONFIGURATION_MAP));
+
+            int longEdge = Math.min(targetSize, Math.max(size.getWidth(), size.getHeight())) & ~1;
+            int shortEdge = (int) ((long) longEdge * Math.min(size.getWidth(), size.getHeight())
+                / Math.max(size.getWidth(), size.getHeight())) & ~1;
+            boolean landscapeSensor = size.getWidth() >= size.getHeight();
+            boolean swap = rotation == 90 || rotation == 270;
+            outWidth = landscapeSensor != swap ? longEdge : shortEdge;
+            outHeight = landscapeSensor != swap ? shortEdge : longEdge;
+            nv21 = new byte[outWidth * outHeight * 3 / 2];
+
+            reader = ImageReader.newInstance(size.getWidth(), size.getHeight(), ImageFormat.YUV_420_888, 2);
+            reader.setOnImageAvailableListener(this::onImageAvailable, handler);
+            manager.openCamera(cameraId, cameraCallback, handler);
+            Log.d(TAG, "Opening camera " + cameraId + " at " + size + ", sending " + outWidth + "x" + outHeight);
+        } catch (CameraAccessException | SecurityException e) {
+            Log.e(TAG, "Error opening camera", e);
+        }
+    }
+
+    private static @Nullable String pickCamera(CameraManager manager) throws CameraAccessException {
+        String fallback = null;
+        for (String id : manager.getCameraIdList()) {
+            Integer facing = manager.getCameraCharacteristics(id).get(CameraCharacteristics.LENS_FACING);
+            if (facing != null && facing == CameraCharacteristics.LENS_FACING_FRONT) {
+                return id;
+            }
+            if (fallback == null) {
+                fallback = id;
+            }
+        }
+        return fallback;
+    }
+
+    /** Smallest YUV output that still has at least 240 lines, to keep the copy cheap. */
+    private static Size pickSize(@Nullable StreamConfigurationMap map) {
+        Size best = null;
+        Size smallest = null;
+        Size[] sizes = map != null ? map.getOutputSizes(ImageFormat.YUV_420_888) : null;
+        if (sizes != null) {
+            for (Size size : sizes) {
+                long area = (long) size.getWidth() * size.getHeight();
+                if (smallest == null || area < (long) smallest.getWidth() * smallest.getHeight()) {
+                    smallest = size;
+                }
+                if (Math.min(size.getWidth(), size.getHeight()) >= 240
+                        && (best == null || area < (long) best.getWidth() * best.getHeight())) {
+                    best = size;
+                }
+            }
+        }
+        if (best != null) {
+            return best;
+        }
+        return smallest != null ? smallest : new Size(640, 480);
+    }
+
+    private final CameraDevice.StateCallback cameraCallback = new CameraDevice.StateCallback() {
+        @Override
+        public void onOpened(@NonNull CameraDevice device) {
+            // A stop or restart may have happened while the camera was opening
+            if (!running || reader == null || camera != null) {
+                device.close();
+                return;
+            }
+            camera = device;
+            try {
+                device.createCaptureSession(Collections.singletonList(reader.getSurface()), sessionCallback, handler);
+            } catch (CameraAccessException e) {
+                Log.e(TAG, "Error creating capture session", e);
+            }
+        }
+
+        @Override
+        public void onDisconnected(@NonNull CameraDevice device) {
+            Log.w(TAG, "Camera disconnected");
+            device.close();
+            if (camera == device) {
+                camera = null;
+            }
+        }
+
+        @Override
+        public void onError(@NonNull CameraDevice device, int error) {
+            Log.e(TAG, "Camera error " + error);
+            device.close();
+            if (camera == device) {
+                camera = null;
+            }
+        }
+    };
+
+    private final CameraCaptureSession.StateCallback sessionCallback = new CameraCaptureSession.StateCallback() {
+        @Override
+        public void onConfigured(@NonNull CameraCaptureSession configured) {
+            if (camera == null || reader == null) {
+                configured.close();
+                return;
+            }
+            session = configured;
+            try {
+                CaptureRequest.Builder request = camera.createCaptureRequest(CameraDevice.TEMPLATE_PREVIEW);
+                request.addTarget(reader.getSurface());
+                configured.setRepeatingRequest(request.build(), null, handler);
+            } catch (CameraAccessException | IllegalStateException e) {
+                Log.e(TAG, "Error starting capture", e);
+            }
+        }
+
+        @Override
+        public void onConfigureFailed(@NonNull CameraCaptureSession failed) {
+            Log.e(TAG, "Capture session configuration failed");
+        }
+    };
+
+    private void onImageAvailable(ImageReader source) {
+        Image image = source.acquireLatestImage();
+        if (image == null) {
+            return;
+        }
+        framesCaptured++;
+        long now = SystemClock.elapsedRealtime();
+        long encodeStart;
+        try {
+            if (socket == null || !socket.connected()) {
+                skippedOffline++;
+                return;
+            }
+            if (inFlight) {
+                skippedBusy++;
+                return;
+            }
+            if (now < nextFrameAtMs) {
+                skippedRate++;
+                return;
+            }
+            encodeStart = SystemClock.elapsedRealtime();
+            copyToNv21(image);
+        } finally {
+            // Hand the camera buffer back before the slower encode
+            image.close();
+        }
+
+        jpeg.reset();
+        new YuvImage(nv21, ImageFormat.NV21, outWidth, outHeight, null)
+            .compressToJpeg(new Rect(0, 0, outWidth, outHeight), jpegQuality, jpeg);
+        byte[] frame = jpeg.copy();
+        lastEncodeMs = SystemClock.elapsedRealtime() - encodeStart;
+        encodeMsTotal += lastEncodeMs;
+
+        try {
+            JSONObject payload = new JSONObject();
+            payload.put("frame", frame);
+            payload.put("format", "jpeg");
+            payload.put("width", outWidth);
+            payload.put("height", outHeight);
+            socket.emit(EVENT_FRAME, payload);
+        } catch (JSONException e) {
+            Log.w(TAG, "Error building frame payload", e);
+            return;
+        }
+        inFlight = true;
+        sentAtMs = SystemClock.elapsedRealtime();
+        nextFrameAtMs = sentAtMs + frameIntervalMs;
+        framesSent++;
+        bytesSent += frame.length;
+        handler.postDelayed(timeoutRunnable, RESPONSE_TIMEOUT_MS);
+    }
+
+    /** Downscale and rotate a YUV_420_888 image into {@link #nv21} (outWidth x outHeight). */
+    private void copyToNv21(Image image) {
+        Image.Plane[] planes = image.getPlanes();
+        scaleToNv21(planes[0].getBuffer(), planes[0].getRowStride(),
+            planes[1].getBuffer(), planes[2].getBuffer(), planes[1].getRowStride(), planes[1].getPixelStride(),
+            image.getWidth(), image.getHeight(), rotation, nv21, outWidth, outHeight);
+    }
+
+    /**
+     * Nearest-neighbour downscale plus clockwise rotation by {@code rotation} degrees, sampling
+     * only the pixels the output needs. Output dimensions must be even.
+     */
+    static void scaleToNv21(ByteBuffer y, int yRowStride, ByteBuffer u, ByteBuffer v, int uvRowStride,
+                            int uvPixelStride, int srcWidth, int srcHeight, int rotation,
+                            byte[] out, int outWidth, int outHeight) {
+        boolean swap = rotation == 90 || rotation == 270;
+        // Output size before rotation
+        int width = swap ? outHeight : outWidth;
+        int height = swap ? outWidth : outHeight;
+        int chroma = outWidth * outHeight;
+        for (int oy = 0; oy < outHeight; oy++) {
+            for (int ox = 0; ox < outWidth; ox++) {
+                int ux;
+                int uy;
+                switch (rotation) {
+                    case 90:
+                        ux = oy;
+                        uy = height - 1 - ox;
+                        break;
+                    case 180:
+                        ux = width - 1 - ox;
+                        uy = height - 1 - oy;
+                        break;
+                    case 270:
+                        ux = width - 1 - oy;
+                        uy = ox;
+                        break;
+                    default:
+                        ux = ox;
+                        uy = oy;
+                        break;
+                }
+                int sx = ux * srcWidth / width;
+                int sy = uy * srcHeight / height;
+                out[oy * outWidth + ox] = y.get(sy * yRowStride + sx);
+                if ((ox & 1) == 0 && (oy & 1) == 0) {
+                    int uvIndex = (sy >> 1) * uvRowStride + (sx >> 1) * uvPixelStride;
+                    int o = chroma + (oy >> 1) * outWidth + ox;
+                    out[o] = v.get(uvIndex);
+                    out[o + 1] = u.get(uvIndex);
+                }
+            }
+        }
+    }
+
+    private void onResult(Object[] args) {
+        if (inFlight) {
+            inFlight = false;
+            handler.removeCallbacks(timeoutRunnable);
+            lastRoundTripMs = SystemClock.elapsedRealtime() - sentAtMs;
+            roundTripMsTotal += lastRoundTripMs;
+        }
+        results++;
+        if (!running || args.length == 0 || !(args[0] instanceof JSONObject)) {
+            return;
+        }
+        JSONObject data = (JSONObject) args[0];
+        if (!data.has("emotions") && !data.has("dominant_emotion")) {
+            noFace++;
+            return;
+        }
+        JSONObject result = new JSONObject();
+        try {
+            for (String key : new String[] { "emotions", "dominant_emotion", "dominant_expression",
+                    "dominant_expression_data", "expressions", "detected_expressions" }) {
+                if (data.has(key)) {
+                    result.put(key, data.get(key));
+                }
+            }
+        } catch (JSONException e) {
+            Log.w(TAG, "Error trimming emotion result", e);
+            return;
+        }
+        String json = result.toString();
+        for (Listener listener : listeners) {
+            try {
+                listener.onEmotion(json);
+            } catch (Exception e) {
+                Log.e(TAG, "Listener failed for emotion result", e);
+            }
+        }
+    }
+
+    public interface JsonCallback {
+        void onJson(String json);
+    }
+
+    public void getStats(JsonCallback callback) {
+        handler.post(() -> {
+            JSONObject stats = new JSONObject();
+            long elapsed = Math.max(1, SystemClock.elapsedRealtime() - startedAtMs);
+            long responded = framesSent - timeouts;
+            try {
+                stats.put("running", running);
+                stats.put("cameraOpen", session != null);
+                stats.put("connected", socket != null && socket.connected());
+                stats.put("width", outWidth);
+                stats.put("height", outHeight);
+                stats.put("captureFps", running ? framesCaptured * 1000.0 / elapsed : 0);
+                stats.put("sendFps", running ? framesSent * 1000.0 / elapsed : 0);
+                stats.put("framesCaptured", framesCaptured);
+                stats.put("framesSent", framesSent);
+                stats.put("skippedBusy", skippedBusy);
+                stats.put("skippedRate", skippedRate);
+                stats.put("skippedOffline", skippedOffline);
+                stats.put("avgFrameBytes", framesSent == 0 ? 0 : bytesSent / framesSent);
+                stats.put("avgEncodeMs", framesSent == 0 ? 0 : (double) encodeMsTotal / framesSent);
+                stats.put("lastEncodeMs", lastEncodeMs);
+                stats.put("avgRoundTripMs", responded <= 0 ? 0 : (double) roundTripMsTotal / responded);
+                stats.put("lastRoundTripMs", lastRoundTripMs);
+                stats.put("results", results);
+                stats.put("noFace", noFace);
+                stats.put("timeouts", timeouts);
+            } catch (JSONException e) {
+                Log.w(TAG, "Error building frame stats", e);
+            }
+            callback.onJson(stats.toString());
+        });
+    }
+}
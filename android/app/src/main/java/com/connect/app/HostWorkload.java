@@ -0,0 +1,36 @@
+package com.connect.app;
+
+import android.content.Intent;
+import android.os.Message;
+
+/**
+ * A unit of long-running background work hosted by {@link ServiceHost}. Workloads are
+ * attached and detached at runtime; the host stays in the foreground while at least one is
+ * attached. All callbacks run on the main thread.
+ */
+public interface HostWorkload {
+    /** Stable id used in intents and stats, e.g. "tts". */
+    String getId();
+
+    /** Short label for the shared foreground notification. */
+    String getLabel();
+
+    /** ServiceInfo.FOREGROUND_SERVICE_TYPE_* this workload needs while attached. */
+    int getForegroundServiceType();
+
+    void onAttach(ServiceHost host);
+
+    /** A command addressed to this workload (it is attached first if needed). */
+    default void onCommand(Intent intent) {}
+
+    /**
+     * A message sent over the host's Messenger ({@link ServiceHost#bind}). Answer through
+     * {@link ServiceHost#reply}; keep {@code message.replyTo} to send events back later.
+     */
+    default void onMessage(Message message) {}
+
+    /** The user swiped the app away; the host itself keeps running. */
+    default void onTaskRemoved() {}
+
+    void onDetach();
+}
@@ -0,0 +1,433 @@
+package com.connect.app;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP GET client with an on-disk response cache for the REST API.
+ *
+ * Cached 200 responses are reused while Cache-Control max-age says they're fresh, and
+ * revalidated with If-None-Match / If-Modified-Since after that, so an unchanged profile or
+ * friend list costs a 304 instead of a full body. In stale-while-revalidate mode a cached
+ * response is returned at once and refreshed in the background, unless the app has made a
+ * write (POST etc.) since it was stored. A cached response is also served when the network
+ * fails. Identical GETs in flight at the same time share one request.
+ *
+ * Entries are keyed by URL and Authorization header, so users never see each other's data.
+ */
+public final class HttpCache {
+    private static final String TAG = "HttpCache";
+    private static final long DISK_MAX_BYTES = 16L * 1024 * 1024;
+    // Larger bodies (e.g. a big feed page) go straight through
+    private static final int MAX_CACHED_BODY_BYTES = 2 * 1024 * 1024;
+    private static final int THREADS = 4;
+    private static final int MAGIC = 0x48435631; // "HCV1"
+    private static final long DEFAULT_MAX_STALE_MS = 24L * 60 * 60 * 1000;
+
+    public static final String MODE_DEFAULT = "default";
+    public static final String MODE_STALE_WHILE_REVALIDATE = "stale-while-revalidate";
+    public static final String MODE_NO_CACHE = "no-cache";
+
+    static final String SOURCE_HIT = "hit";
+    static final String SOURCE_MISS = "miss";
+    static final String SOURCE_REVALIDATED = "revalidated";
+    static final String SOURCE_STALE = "stale";
+    static final String SOURCE_NETWORK = "network";
+
+    private static volatile HttpCache instance;
+
+    public static final class Response {
+        public final int status;
+        public final Map<String, String> headers;
+        public final String body;
+        /** One of hit, miss, revalidated, stale or network (not cacheable). */
+        public final String source;
+
+        Response(int status, Map<String, String> headers, String body, String source) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.source = source;
+        }
+    }
+
+    public interface Callback {
+        /** Exactly one of response and error is non-null. */
+        void onResult(@Nullable Response response, @Nullable String error);
+    }
+
+    /** A stored 200 response. */
+    static final class Entry {
+        final String url;
+        final Map<String, String> headers;
+        final byte[] body;
+        long storedAt;
+        long maxAgeMs;
+
+        Entry(String url, Map<String, String> headers, byte[] body, long storedAt, long maxAgeMs) {
+            this.url = url;
+            this.headers = headers;
+            this.body = body;
+            this.storedAt = storedAt;
+            this.maxAgeMs = maxAgeMs;
+        }
+
+        boolean isFresh(long now) {
+            return now - storedAt < maxAgeMs;
+        }
+
+        Response toResponse(String source) {
+            return new Response(200, headers, new String(body, StandardCharsets.UTF_8), source);
+        }
+    }
+
+    private final DiskLruCache disk;
+    private final ExecutorService executor;
+    // cache key -> callbacks waiting on the in-flight request; guarded by itself
+    private final Map<String, List<Callback>> inFlight = new HashMap<>();
+    private volatile String defaultMode = MODE_DEFAULT;
+    private volatile long maxStaleMs = DEFAULT_MAX_STALE_MS;
+    // Stale-while-revalidate never serves entries stored before the last write
+    private volatile long lastMutationAt = 0;
+    // Bumped by clear(); a fetch that started before then must not store its response.
+    // Guarded by clearLock, which also makes the check-and-commit atomic with clear()
+    private final Object clearLock = new Object();
+    private long generation = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidated = new AtomicLong();
+    private final AtomicLong staleServed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong networkBytes = new AtomicLong();
+    private final AtomicLong savedBytes = new AtomicLong();
+
+    public static HttpCache getInstance(Context context) {
+        if (instance == null) {
+            synchronized (HttpCache.class) {
+                if (instance == null) {
+                    instance = new HttpCache(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private HttpCache(Context context) {
+        disk = new DiskLruCache(new File(context.getCacheDir(), "http"), DISK_MAX_BYTES, ".res");
+        executor = Executors.newFixedThreadPool(THREADS, runnable -> new Thread(runnable, "HttpCache"));
+        executor.execute(disk::load);
+    }
+
+    public void configure(@Nullable String mode, long maxStaleMs) {
+        if (mode != null) {
+            this.defaultMode = mode;
+        }
+        if (maxStaleMs > 0) {
+            this.maxStaleMs = maxStaleMs;
+        }
+    }
+
+    /** Call after a successful write so stale-while-revalidate doesn't show pre-write data. */
+    public void markMutated() {
+        lastMutationAt = System.currentTimeMillis();
+    }
+
+    /** GET {@code url}; {@code mode} null uses the configured default. Calls back on a pool thread. */
+    public void get(String url, Map<String, String> headers, @Nullable String mode, int timeoutMs, Callback callback) {
+        String effectiveMode = mode != null ? mode : defaultMode;
+        String key = DiskLruCache.key(url, headerValue(headers, "Authorization"));
+        executor.execute(() -> {
+            Entry cached = MODE_NO_CACHE.equals(effectiveMode) ? null : read(key);
+            long now = System.currentTimeMillis();
+            if (cached != null && cached.isFresh(now)) {
+                hits.incrementAndGet();
+                savedBytes.addAndGet(cached.body.length);
+                callback.onResult(cached.toResponse(SOURCE_HIT), null);
+                return;
+            }
+            if (cached != null && MODE_STALE_WHILE_REVALIDATE.equals(effectiveMode)
+                    && cached.storedAt > lastMutationAt && now - cached.storedAt <= maxStaleMs) {
+                staleServed.incrementAndGet();
+                savedBytes.addAndGet(cached.body.length);
+                callback.onResult(cached.toResponse(SOURCE_STALE), null);
+                fetch(key, url, headers, timeoutMs, null);
+                return;
+            }
+            fetch(key, url, headers, timeoutMs, callback);
+        });
+    }
+
+    /** Single-flight network request; a null callback just refreshes the cache. */
+    private void fetch(String key, String url, Map<String, String> headers, int timeoutMs, @Nullable Callback callback) {
+        synchronized (inFlight) {
+            List<Callback> waiting = inFlight.get(key);
+            if (waiting != null) {
+                coalesced.incrementAndGet();
+                if (callback != null) {
+                    waiting.add(callback);
+                }
+                return;
+            }
+            waiting = new ArrayList<>();
+            if (callback != null) {
+                waiting.add(callback);
+            }
+            inFlight.put(key, waiting);
+        }
+        Response response = null;
+        String error = null;
+        long startGeneration = currentGeneration();
+        // Re-read: another request may have refreshed the entry since the caller looked
+        Entry cached = read(key);
+        try {
+            response = request(key, url, headers, timeoutMs, cached, startGeneration);
+        } catch (IOException e) {
+            errors.incrementAndGet();
+            if (cached != null) {
+                // Offline or server down: old data beats an error screen
+                staleServed.incrementAndGet();
+                response = cached.toResponse(SOURCE_STALE);
+            } else {
+                error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            }
+        }
+        List<Callback> waiting;
+        synchronized (inFlight) {
+            waiting = inFlight.remove(key);
+        }
+        if (waiting != null) {
+            for (Callback waiter : waiting) {
+                waiter.onResult(response, error);
+            }
+        }
+    }
+
+    private Response request(String key, String url, Map<String, String> headers, int timeoutMs,
+                             @Nullable Entry cached, long startGeneration) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(timeoutMs);
+        connection.setReadTimeout(timeoutMs);
+        connection.setUseCaches(false);
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            connection.setRequestProperty(header.getKey(), header.getValue());
+        }
+        if (cached != null) {
+            String etag = headerValue(cached.headers, "ETag");
+            String lastModified = headerValue(cached.headers, "Last-Modified");
+            if (!etag.isEmpty()) {
+                connection.setRequestProperty("If-None-Match", etag);
+            }
+            if (!lastModified.isEmpty()) {
+                connection.setRequestProperty("If-Modified-Since", lastModified);
+            }
+        }
+        try {
+            int status = connection.getResponseCode();
+            Map<String, String> responseHeaders = new LinkedHashMap<>();
+            for (Map.Entry<String, List<String>> field : connection.getHeaderFields().entrySet()) {
+                if (field.getKey() != null && !"Set-Cookie".equalsIgnoreCase(field.getKey())) {
+                    responseHeaders.put(field.getKey(), String.join(", ", field.getValue()));
+                }
+            }
+            String cacheControl = headerValue(responseHeaders, "Cache-Control").toLowerCase(Locale.US);
+
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                revalidated.incrementAndGet();
+                savedBytes.addAndGet(cached.body.length);
+                cached.storedAt = System.currentTimeMillis();
+                if (!cacheControl.isEmpty()) {
+                    cached.maxAgeMs = maxAgeMs(cacheControl);
+                }
+                write(key, cached, startGeneration);
+                return cached.toResponse(SOURCE_REVALIDATED);
+            }
+
+            byte[] body = readBody(status >= 400 ? connection.getErrorStream() : connection.getInputStream());
+            networkBytes.addAndGet(body.length);
+            boolean cacheable = status == HttpURLConnection.HTTP_OK && !cacheControl.contains("no-store")
+                && body.length <= MAX_CACHED_BODY_BYTES;
+            if (!cacheable) {
+                if (status == HttpURLConnection.HTTP_OK && cached != null) {
+                    disk.remove(key);
+                }
+                return new Response(status, responseHeaders, new String(body, StandardCharsets.UTF_8), SOURCE_NETWORK);
+            }
+            misses.incrementAndGet();
+            write(key, new Entry(url, responseHeaders, body, System.currentTimeMillis(), maxAgeMs(cacheControl)),
+                startGeneration);
+            return new Response(status, responseHeaders, new String(body, StandardCharsets.UTF_8), SOURCE_MISS);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /** max-age in ms; 0 (revalidate every time) without one or with no-cache. */
+    static long maxAgeMs(String cacheControl) {
+        if (cacheControl.contains("no-cache")) {
+            return 0;
+        }
+        for (String directive : cacheControl.split(",")) {
+            String trimmed = directive.trim();
+            if (trimmed.startsWith("max-age=")) {
+                try {
+                    return Math.max(0, Long.parseLong(trimmed.substring(8).trim())) * 1000;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static byte[] readBody(@Nullable InputStream stream) throws IOException {
+        if (stream == null) {
+            return new byte[0];
+        }
+        try (InputStream in = stream) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[16 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static String headerValue(Map<String, String> headers, String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue() != null ? header.getValue() : "";
+            }
+        }
+        return "";
+    }
+
+    // Disk format: magic, url, storedAt, maxAgeMs, header count, headers, body length, body
+
+    private @Nullable Entry read(String key) {
+        File file = disk.get(key);
+        if (file == null) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                disk.remove(key);
+                return null;
+            }
+            String url = in.readUTF();
+            long storedAt = in.readLong();
+            long maxAge = in.readLong();
+            int headerCount = in.readInt();
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (int i = 0; i < headerCount; i++) {
+                headers.put(in.readUTF(), in.readUTF());
+            }
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            return new Entry(url, headers, body, storedAt, maxAge);
+        } catch (IOException e) {
+            Log.w(TAG, "Dropping unreadable cache entry", e);
+            disk.remove(key);
+            return null;
+        }
+    }
+
+    private long currentGeneration() {
+        synchronized (clearLock) {
+            return generation;
+        }
+    }
+
+    /** Store {@code entry} unless the cache was cleared after {@code startGeneration} began. */
+    private void write(String key, Entry entry, long startGeneration) {
+        File temp = disk.tempFile(key);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeUTF(entry.url);
+            out.writeLong(entry.storedAt);
+            out.writeLong(entry.maxAgeMs);
+            out.writeInt(entry.headers.size());
+            for (Map.Entry<String, String> header : entry.headers.entrySet()) {
+                out.writeUTF(header.getKey());
+                out.writeUTF(header.getValue());
+            }
+            out.writeInt(entry.body.length);
+            out.write(entry.body);
+        } catch (IOException e) {
+            Log.w(TAG, "Error caching " + entry.url, e);
+            disk.discard(key);
+            return;
+        }
+        synchronized (clearLock) {
+            if (generation != startGeneration) {
+                // Fetched for a session that has since been cleared (e.g. logged out)
+                disk.discard(key);
+                return;
+            }
+            disk.commit(key);
+        }
+    }
+
+    /** Drop every cached response, e.g. on logout. */
+    public void clear(Runnable done) {
+        executor.execute(() -> {
+            synchronized (clearLock) {
+                generation++;
+                disk.clear();
+            }
+            done.run();
+        });
+    }
+
+    public JSONObject getStats() {
+        JSONObject stats = new JSONObject();
+        try {
+            long served = hits.get() + misses.get() + revalidated.get() + staleServed.get();
+            stats.put("mode", defaultMode);
+            stats.put("hits", hits.get());
+            stats.put("misses", misses.get());
+            stats.put("revalidated", revalidated.get());
+            stats.put("staleServed", staleServed.get());
+            stats.put("coalesced", coalesced.get());
+            stats.put("errors", errors.get());
+            stats.put("hitRate", served == 0 ? 0 : (double) (hits.get() + revalidated.get() + staleServed.get()) / served);
+            stats.put("networkBytes", networkBytes.get());
+            stats.put("savedBytes", savedBytes.get());
+            stats.put("disk", disk.getStats());
+        } catch (JSONException e) {
+            Log.w(TAG, "Error building HTTP cache stats", e);
+        }
+        return stats;
+    }
+}
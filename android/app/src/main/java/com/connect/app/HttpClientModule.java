@@ -0,0 +1,94 @@
+package com.connect.app;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Exposes {@link HttpCache} to JS. The axios instance in api.ts routes its GETs here, so
+ * interceptors and callers are unchanged while responses come from the native cache.
+ */
+public class HttpClientModule extends ReactContextBaseJavaModule {
+    private static final int DEFAULT_TIMEOUT_MS = 15000;
+
+    private final ReactApplicationContext reactContext;
+
+    public HttpClientModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+    }
+
+    @Override
+    public String getName() {
+        return "HttpClient";
+    }
+
+    /**
+     * Resolves with {status, headers, body, cache}, where cache is hit, miss, revalidated,
+     * stale or network. Options: mode, timeoutMs.
+     */
+    @ReactMethod
+    public void get(String url, ReadableMap headers, ReadableMap options, Promise promise) {
+        Map<String, String> requestHeaders = new HashMap<>();
+        ReadableMapKeySetIterator it = headers.keySetIterator();
+        while (it.hasNextKey()) {
+            String name = it.nextKey();
+            if (headers.getType(name) == ReadableType.String) {
+                requestHeaders.put(name, headers.getString(name));
+            }
+        }
+        String mode = options.hasKey("mode") ? options.getString("mode") : null;
+        int timeoutMs = options.hasKey("timeoutMs") && options.getInt("timeoutMs") > 0
+            ? options.getInt("timeoutMs") : DEFAULT_TIMEOUT_MS;
+        HttpCache.getInstance(reactContext).get(url, requestHeaders, mode, timeoutMs, (response, error) -> {
+            if (response == null) {
+                promise.reject("ERROR", error);
+                return;
+            }
+            WritableMap responseHeaders = Arguments.createMap();
+            for (Map.Entry<String, String> header : response.headers.entrySet()) {
+                responseHeaders.putString(header.getKey().toLowerCase(Locale.US), header.getValue());
+            }
+            WritableMap result = Arguments.createMap();
+            result.putInt("status", response.status);
+            result.putMap("headers", responseHeaders);
+            result.putString("body", response.body);
+            result.putString("cache", response.source);
+            promise.resolve(result);
+        });
+    }
+
+    /** Options: mode (default, stale-while-revalidate, no-cache), maxStaleMs. */
+    @ReactMethod
+    public void configure(ReadableMap options) {
+        HttpCache.getInstance(reactContext).configure(
+            options.hasKey("mode") ? options.getString("mode") : null,
+            options.hasKey("maxStaleMs") ? (long) options.getDouble("maxStaleMs") : 0);
+    }
+
+    @ReactMethod
+    public void markMutated() {
+        HttpCache.getInstance(reactContext).markMutated();
+    }
+
+    @ReactMethod
+    public void clear(Promise promise) {
+        HttpCache.getInstance(reactContext).clear(() -> promise.resolve(true));
+    }
+
+    /** Resolves with hit/miss/revalidate counts and disk usage as a JSON string. */
+    @ReactMethod
+    public void getStats(Promise promise) {
+        promise.resolve(HttpCache.getInstance(reactContext).getStats().toString());
+    }
+}
@@ -0,0 +1,68 @@
+package com.connect.app;
+
+import java.util.Map;
+
+/**
+ * Incoming call payload normalized across the server's event shapes.
+ * Mirrors normalizeIncomingCallPayload in pushBackgroundService.ts so native and JS
+ * paths agree on field fallbacks.
+ */
+public final class IncomingCallPayload {
+    public final String callerName;
+    public final String callerProfilePic;
+    public final String channelName;
+    public final boolean isAudio;
+    public final String callerId;
+
+    public IncomingCallPayload(String callerName, String callerProfilePic, String channelName,
+                               boolean isAudio, String callerId) {
+        this.callerName = callerName;
+        this.callerProfilePic = callerProfilePic;
+        this.channelName = channelName;
+        this.isAudio = isAudio;
+        this.callerId = callerId;
+    }
+
+    /**
+     * Normalize a flat string map (FCM data payload or a flattened socket payload).
+     */
+    public static IncomingCallPayload fromMap(Map<String, String> raw) {
+        String isAudioRaw = raw.get("isAudio");
+        boolean isAudio = "true".equals(isAudioRaw) || "audio".equals(raw.get("type"));
+        return new IncomingCallPayload(
+            firstNonEmpty(raw, "Unknown Caller", "callerName", "name", "fromName"),
+            firstNonEmpty(raw, "", "callerProfilePic", "profilePic"),
+            firstNonEmpty(raw, "", "channelName", "channel", "room"),
+            isAudio,
+            firstNonEmpty(raw, "", "callerId", "from", "userId", "id")
+        );
+    }
+
+    /** A call we can actually answer needs both a channel and a caller. */
+    public boolean isValid() {
+        return !channelName.isEmpty() && !callerId.isEmpty();
+    }
+
+    public String getTitle() {
+        return isAudio ? "Incoming Audio Call" : "Incoming Video Call";
+    }
+
+    public String getBody() {
+        return "Call from " + callerName;
+    }
+
+    /** Same phrase as backgroundTtsService.speakIncomingCall. */
+    public String getAnnouncement() {
+        return "Incoming " + (isAudio ? "audio" : "video") + " call from " + callerName;
+    }
+
+    static String firstNonEmpty(Map<String, String> raw, String fallback, String... keys) {
+        for (String key : keys) {
+            String value = raw.get(key);
+            if (value != null && !value.isEmpty()) {
+                return value;
+            }
+        }
+        return fallback;
+    }
+}
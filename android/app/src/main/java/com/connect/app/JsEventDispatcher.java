@@ -0,0 +1,292 @@
+package com.connect.app;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.Choreographer;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buffers native events bound for JS and delivers them as one batch per frame (or per fixed
+ * interval), so a burst of socket traffic costs one bridge crossing instead of one per event.
+ *
+ * Events with a coalescing rule only keep their latest value per key: a rule names a payload
+ * field (typing is keyed by "room"), or is empty to keep one pending value per event type. A
+ * replaced event moves to the end of the batch, so it is still delivered after anything that
+ * arrived before it. Events without a rule are never merged or dropped while JS is attached.
+ *
+ * Each batch is emitted as a single JSON string. Payloads are checked once as they're queued:
+ * valid JSON is spliced in as is, anything else is sent as a JSON string, so one bad payload
+ * can't break the batch it travels in.
+ */
+public class JsEventDispatcher {
+    private static final String TAG = "JsEventDispatcher";
+    // Flush early rather than let a burst pile up between frames
+    static final int MAX_BUFFERED = 256;
+    // Vsync stops with the screen off, so a frame-paced batch never waits longer than this
+    private static final long MAX_FRAME_WAIT_MS = 100;
+
+    private final ReactApplicationContext reactContext;
+    private final String eventName;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, String> coalesceFields = new ConcurrentHashMap<>();
+
+    // Guarded by buffer
+    private final LinkedHashMap<String, PendingEvent> buffer = new LinkedHashMap<>();
+    private long nextId = 0;
+    private long intervalMs = 0;
+    private boolean flushScheduled = false;
+    private boolean flushEarly = false;
+    private long received = 0;
+    private long delivered = 0;
+    private long batches = 0;
+    private long maxBatch = 0;
+    private long coalesced = 0;
+    private long dropped = 0;
+
+    private static final class PendingEvent {
+        final String event;
+        // Always valid JSON
+        final String payloadJson;
+
+        PendingEvent(String event, String payloadJson) {
+            this.event = event;
+            this.payloadJson = payloadJson;
+        }
+    }
+
+    private final Runnable flushRunnable = this::flush;
+    private final Choreographer.FrameCallback frameCallback = frameTimeNanos -> flush();
+
+    public JsEventDispatcher(ReactApplicationContext reactContext, String eventName) {
+        this.reactContext = reactContext;
+        this.eventName = eventName;
+    }
+
+    /** Keep only the latest pending {@code event} per value of {@code payloadField}; "" keys by type. */
+    public void setCoalesceField(String event, @Nullable String payloadField) {
+        if (payloadField == null) {
+            coalesceFields.remove(event);
+        } else {
+            coalesceFields.put(event, payloadField);
+        }
+    }
+
+    /** 0 delivers once per frame; anything else batches on a fixed interval. */
+    public void setIntervalMs(long intervalMs) {
+        synchronized (buffer) {
+            this.intervalMs = Math.max(0, intervalMs);
+        }
+    }
+
+    /** Queue an event; safe to call from any thread. */
+    public void dispatch(String event, @Nullable String payloadJson) {
+        Object payload = parse(payloadJson);
+        String key = coalesceKey(event, payload);
+        PendingEvent pending = new PendingEvent(event, toJson(payload, payloadJson));
+        synchronized (buffer) {
+            received++;
+            if (key == null) {
+                key = "#" + nextId++;
+            } else if (buffer.remove(key) != null) {
+                coalesced++;
+            }
+            buffer.put(key, pending);
+            if (buffer.size() >= MAX_BUFFERED && !flushEarly) {
+                flushEarly = true;
+                flushScheduled = true;
+                mainHandler.postAtFrontOfQueue(flushRunnable);
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                schedule(intervalMs);
+            }
+        }
+    }
+
+    private void schedule(long interval) {
+        if (interval > 0) {
+            mainHandler.postDelayed(flushRunnable, interval);
+            return;
+        }
+        // Choreographer is per-looper, so register from the main thread
+        mainHandler.post(() -> Choreographer.getInstance().postFrameCallback(frameCallback));
+        mainHandler.postDelayed(flushRunnable, MAX_FRAME_WAIT_MS);
+    }
+
+    /** Deliver whatever is pending now. Runs on the main thread. */
+    private void flush() {
+        mainHandler.removeCallbacks(flushRunnable);
+        Choreographer.getInstance().removeFrameCallback(frameCallback);
+        List<PendingEvent> batch;
+        synchronized (buffer) {
+            flushScheduled = false;
+            flushEarly = false;
+            if (buffer.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(buffer.values());
+            buffer.clear();
+        }
+
+        if (!reactContext.hasActiveReactInstance()) {
+            synchronized (buffer) {
+                dropped += batch.size();
+            }
+            Log.d(TAG, "No active React instance, dropping " + batch.size() + " events");
+            return;
+        }
+
+        StringBuilder json = new StringBuilder(64 + batch.size() * 128);
+        json.append('[');
+        for (int i = 0; i < batch.size(); i++) {
+            PendingEvent pending = batch.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"event\":").append(JSONObject.quote(pending.event))
+                .append(",\"payload\":").append(pending.payloadJson)
+                .append('}');
+        }
+        json.append(']');
+
+        WritableMap params = Arguments.createMap();
+        params.putString("events", json.toString());
+        params.putInt("count", batch.size());
+        try {
+            reactContext
+                .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+                .emit(eventName, params);
+        } catch (Exception e) {
+            Log.e(TAG, "Error emitting " + eventName, e);
+            synchronized (buffer) {
+                dropped += batch.size();
+            }
+            return;
+        }
+        synchronized (buffer) {
+            delivered += batch.size();
+            batches++;
+            maxBatch = Math.max(maxBatch, batch.size());
+        }
+    }
+
+    /** Drop anything pending, e.g. when the module is torn down. */
+    public void clear() {
+        synchronized (buffer) {
+            dropped += buffer.size();
+            buffer.clear();
+            flushScheduled = false;
+            flushEarly = false;
+        }
+        mainHandler.removeCallbacks(flushRunnable);
+        mainHandler.post(() -> Choreographer.getInstance().removeFrameCallback(frameCallback));
+    }
+
+    private @Nullable String coalesceKey(String event, @Nullable Object payload) {
+        String field = coalesceFields.get(event);
+        if (field == null) {
+            return null;
+        }
+        if (field.isEmpty()) {
+            return event;
+        }
+        if (!(payload instanceof JSONObject)) {
+            return null;
+        }
+        Object value = ((JSONObject) payload).opt(field);
+        if (value == null || value == JSONObject.NULL) {
+            return null;
+        }
+        return event + "\n" + value;
+    }
+
+    /** The payload's JSON value, or null if it is absent or not JSON. */
+    private static @Nullable Object parse(@Nullable String payloadJson) {
+        if (payloadJson == null) {
+            return null;
+        }
+        try {
+            JSONTokener tokener = new JSONTokener(payloadJson);
+            Object value = tokener.nextValue();
+            if (tokener.nextClean() != 0) {
+                // Trailing garbage after the value
+                return null;
+            }
+            // The tokener also accepts bare words, which JSON.parse would reject
+            if (value instanceof String && !payloadJson.trim().startsWith("\"")) {
+                return null;
+            }
+            return value;
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+
+    /** Strict JSON for {@code payload}; a payload that didn't parse goes to JS as a string. */
+    static String toJson(@Nullable Object payload, @Nullable String payloadJson) {
+        if (payloadJson == null || payload == JSONObject.NULL) {
+            return "null";
+        }
+        if (payload instanceof JSONObject || payload instanceof JSONArray) {
+            // org.json is lenient (single quotes, comments), so write it back out strictly
+            return payload.toString();
+        }
+        if (payload instanceof String) {
+            return JSONObject.quote((String) payload);
+        }
+        if (payload instanceof Boolean) {
+            return payload.toString();
+        }
+        if (payload instanceof Number) {
+            try {
+                return JSONObject.numberToString((Number) payload);
+            } catch (JSONException e) {
+                // NaN or infinite
+            }
+        }
+        Log.w(TAG, "Payload is not valid JSON, delivering it as a string");
+        return JSONObject.quote(payloadJson);
+    }
+
+    public JSONObject getStats() {
+        JSONObject stats = new JSONObject();
+        synchronized (buffer) {
+            try {
+                stats.put("intervalMs", intervalMs);
+                stats.put("pending", buffer.size());
+                stats.put("received", received);
+                stats.put("delivered", delivered);
+                stats.put("batches", batches);
+                stats.put("avgBatch", batches == 0 ? 0 : (double) delivered / batches);
+                stats.put("maxBatch", maxBatch);
+                stats.put("coalesced", coalesced);
+                stats.put("dropped", dropped);
+                JSONObject rules = new JSONObject();
+                for (Map.Entry<String, String> rule : coalesceFields.entrySet()) {
+                    rules.put(rule.getKey(), rule.getValue());
+                }
+                stats.put("coalesce", rules);
+            } catch (JSONException e) {
+                Log.w(TAG, "Error building dispatcher stats", e);
+            }
+        }
+        return stats;
+    }
+}
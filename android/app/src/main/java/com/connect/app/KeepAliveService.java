@@ -1,46 +1,120 @@
 package com.connect.app;
 
+import android.content.Context;
 import android.content.Intent;
+import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.Nullable;
 
 import com.facebook.react.HeadlessJsTaskService;
 import com.facebook.react.ReactApplication;
-import com.facebook.react.ReactNativeHost;
+import com.facebook.react.ReactHost;
+import com.facebook.react.ReactInstanceEventListener;
+import com.facebook.react.ReactInstanceManager;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.jstasks.HeadlessJsTaskConfig;
 
+import java.util.ArrayDeque;
+
 /**
  * Headless JS service to re-start JS background tasks after app termination or boot.
+ *
+ * Task intents that arrive before the React context exists are queued and drained from the
+ * instance's context-initialized callback, so each one starts exactly once, with its extras,
+ * as soon as JS is live instead of on the next poll.
  */
 public class KeepAliveService extends HeadlessJsTaskService {
     private static final String TAG = "KeepAliveService";
-    private static final int MAX_RETRY_ATTEMPTS = 5;
-    private static final long RETRY_DELAY_MS = 1000; // 1 second
+    static final String ACTION_STOP_REALTIME = "com.connect.app.action.STOP_REALTIME";
+    static final String EXTRA_SOURCE = "source";
+    static final String EXTRA_DATA = "data";
+    private static final String EXTRA_QUEUE_WAIT_MS = "queueWaitMs";
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ArrayDeque<PendingTask> pendingTasks = new ArrayDeque<>();
+    private boolean listeningForContext = false;
+
+    private static final class PendingTask {
+        final Intent intent;
+        final long enqueuedAtMs;
+
+        PendingTask(Intent intent, long enqueuedAtMs) {
+            this.intent = intent;
+            this.enqueuedAtMs = enqueuedAtMs;
+        }
+    }
+
+    private final ReactInstanceEventListener contextListener = new ReactInstanceEventListener() {
+        @Override
+        public void onReactContextInitialized(ReactContext context) {
+            // startTask asserts the UI thread; the bridgeless host may call back elsewhere
+            mainHandler.post(KeepAliveService.this::drainPendingTasks);
+        }
+    };
 
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
+        try (StartupTrace.Span ignored = StartupTrace.begin("KeepAliveService.onStartCommand")) {
+            if (intent != null && ACTION_STOP_REALTIME.equals(intent.getAction())) {
+                return handleStopRealtime(startId);
+            }
+            return handleStartCommand(intent);
+        }
+    }
+
+    /**
+     * Ends the realtime link owned by this process. The socket lives in :bg, so logging out in
+     * the main process has to reach it here; otherwise the next resume reconnects as the
+     * previous user from the cached session.
+     */
+    static void stopRealtime(Context context) {
+        Intent intent = new Intent(context, KeepAliveService.class).setAction(ACTION_STOP_REALTIME);
         try {
-            // Check if React Native is ready before starting the headless task
-            if (!isReactNativeReady()) {
-                Log.w(TAG, "React Native not ready yet, will retry...");
-                // Retry after a delay - keep service alive during retry
-                retryStartTask(intent, flags, startId, 0);
-                return START_STICKY; // Keep service alive to allow retry
+            context.startService(intent);
+        } catch (IllegalStateException e) {
+            // Only happens with the app in the background; logout runs from the UI
+            Log.w(TAG, "Could not reach :bg to stop the realtime connection", e);
+        }
+    }
+
+    private int handleStopRealtime(int startId) {
+        try {
+            RealtimeConnectionManager.getInstance(this).stop();
+        } catch (Exception e) {
+            Log.e(TAG, "Error stopping realtime connection", e);
+        }
+        if (pendingTasks.isEmpty()) {
+            stopSelf(startId);
+        }
+        return START_NOT_STICKY;
+    }
+
+    private int handleStartCommand(Intent intent) {
+        // The realtime link is owned natively, so bring it back without waiting for JS
+        try {
+            RealtimeConnectionManager.getInstance(this).resume();
+        } catch (Exception e) {
+            Log.e(TAG, "Error resuming realtime connection", e);
+        }
+
+        Intent taskIntent = intent != null ? intent : new Intent(this, KeepAliveService.class);
+        try {
+            if (isReactNativeReady() && pendingTasks.isEmpty()) {
+                startTaskFor(taskIntent, 0);
+            } else {
+                pendingTasks.add(new PendingTask(taskIntent, SystemClock.elapsedRealtime()));
+                Log.d(TAG, "React Native not ready, queued task (" + pendingTasks.size() + " pending)");
+                awaitReactContext();
             }
-            
-            // React Native is ready, proceed with normal headless task start
-            return super.onStartCommand(intent, flags, startId);
         } catch (Exception e) {
-            Log.e(TAG, "Error in onStartCommand, will retry", e);
-            // Retry on error instead of crashing
-            retryStartTask(intent, flags, startId, 0);
-            return START_STICKY;
+            Log.e(TAG, "Error in onStartCommand", e);
         }
+        return START_STICKY;
     }
 
     /**
@@ -48,81 +122,124 @@ public class KeepAliveService extends HeadlessJsTaskService {
      */
     private boolean isReactNativeReady() {
         try {
-            if (getApplication() instanceof ReactApplication) {
-                ReactApplication reactApplication = (ReactApplication) getApplication();
-                ReactNativeHost reactNativeHost = reactApplication.getReactNativeHost();
-                
-                if (reactNativeHost != null) {
-                    ReactContext reactContext = reactNativeHost.getReactInstanceManager().getCurrentReactContext();
-                    if (reactContext != null && reactContext.hasActiveCatalystInstance()) {
-                        Log.d(TAG, "React Native is ready");
-                        return true;
-                    }
-                }
-            }
+            ReactContext reactContext = getCurrentReactContext();
+            return reactContext != null && reactContext.hasActiveReactInstance();
         } catch (Exception e) {
             Log.e(TAG, "Error checking React Native readiness", e);
         }
         return false;
     }
 
+    private @Nullable ReactContext getCurrentReactContext() {
+        if (!(getApplication() instanceof ReactApplication)) {
+            return null;
+        }
+        ReactApplication reactApplication = (ReactApplication) getApplication();
+        if (BuildConfig.IS_NEW_ARCHITECTURE_ENABLED) {
+            ReactHost reactHost = reactApplication.getReactHost();
+            return reactHost != null ? reactHost.getCurrentReactContext() : null;
+        }
+        return reactApplication.getReactNativeHost().getReactInstanceManager().getCurrentReactContext();
+    }
+
     /**
-     * Retry starting the headless task after a delay
+     * Subscribe to the React instance lifecycle and make sure context creation is under way.
      */
-    private void retryStartTask(Intent intent, int flags, int startId, int attempt) {
-        if (attempt >= MAX_RETRY_ATTEMPTS) {
-            Log.e(TAG, "Max retry attempts reached, giving up on starting headless task");
-            stopSelf(startId);
+    private void awaitReactContext() {
+        if (listeningForContext || !(getApplication() instanceof ReactApplication)) {
             return;
         }
-
-        new Handler(Looper.getMainLooper()).postDelayed(() -> {
-            // Check if service is still running
-            if (!isReactNativeReady()) {
-                Log.d(TAG, "Retry attempt " + (attempt + 1) + "/" + MAX_RETRY_ATTEMPTS + " - React Native still not ready");
-                retryStartTask(intent, flags, startId, attempt + 1);
-                return;
+        ReactApplication reactApplication = (ReactApplication) getApplication();
+        listeningForContext = true;
+        if (BuildConfig.IS_NEW_ARCHITECTURE_ENABLED) {
+            ReactHost reactHost = reactApplication.getReactHost();
+            reactHost.addReactInstanceEventListener(contextListener);
+            reactHost.start();
+        } else {
+            ReactInstanceManager manager = reactApplication.getReactNativeHost().getReactInstanceManager();
+            manager.addReactInstanceEventListener(contextListener);
+            if (!manager.hasStartedCreatingInitialContext()) {
+                manager.createReactContextInBackground();
             }
-            
-            // React Native is ready, try to start the headless task
-            Log.d(TAG, "React Native is now ready, starting headless task");
-            try {
-                // Call getTaskConfig to get the config, then manually invoke the task
-                HeadlessJsTaskConfig taskConfig = getTaskConfig(intent);
-                if (taskConfig != null) {
-                    // Use reflection or direct call to start the task
-                    // Since we can't easily call the protected method, we'll restart the service
-                    // which will now pass the readiness check
-                    Intent retryIntent = new Intent(this, KeepAliveService.class);
-                    if (intent.getExtras() != null) {
-                        retryIntent.putExtras(intent.getExtras());
-                    }
-                    startService(retryIntent);
-                }
-            } catch (Exception e) {
-                Log.e(TAG, "Error starting headless task after retry", e);
-                // If direct start fails, try one more retry
-                if (attempt < MAX_RETRY_ATTEMPTS - 1) {
-                    retryStartTask(intent, flags, startId, attempt + 1);
-                } else {
-                    stopSelf(startId);
-                }
+        }
+        // The context may have come up between the readiness check and registering
+        if (isReactNativeReady()) {
+            mainHandler.post(this::drainPendingTasks);
+        }
+    }
+
+    private void stopAwaitingReactContext() {
+        if (!listeningForContext || !(getApplication() instanceof ReactApplication)) {
+            return;
+        }
+        ReactApplication reactApplication = (ReactApplication) getApplication();
+        try {
+            if (BuildConfig.IS_NEW_ARCHITECTURE_ENABLED) {
+                reactApplication.getReactHost().removeReactInstanceEventListener(contextListener);
+            } else {
+                reactApplication.getReactNativeHost().getReactInstanceManager()
+                    .removeReactInstanceEventListener(contextListener);
             }
-        }, RETRY_DELAY_MS);
+        } catch (Exception e) {
+            Log.w(TAG, "Error removing React instance listener", e);
+        }
+        listeningForContext = false;
+    }
+
+    private void drainPendingTasks() {
+        if (!isReactNativeReady()) {
+            return;
+        }
+        stopAwaitingReactContext();
+        long now = SystemClock.elapsedRealtime();
+        PendingTask task;
+        while ((task = pendingTasks.poll()) != null) {
+            long waitMs = now - task.enqueuedAtMs;
+            StartupTrace.record("KeepAliveService.queueWait", task.enqueuedAtMs * 1_000_000L, waitMs * 1_000_000L);
+            startTaskFor(task.intent, waitMs);
+        }
+    }
+
+    private void startTaskFor(Intent intent, long queueWaitMs) {
+        Log.d(TAG, "Starting headless task after " + queueWaitMs + "ms in queue");
+        intent.putExtra(EXTRA_QUEUE_WAIT_MS, queueWaitMs);
+        HeadlessJsTaskConfig taskConfig = getTaskConfig(intent);
+        if (taskConfig != null) {
+            startTask(taskConfig);
+        }
+    }
+
+    @Override
+    public void onDestroy() {
+        if (!pendingTasks.isEmpty()) {
+            Log.w(TAG, "Service destroyed with " + pendingTasks.size() + " queued tasks");
+            pendingTasks.clear();
+        }
+        stopAwaitingReactContext();
+        mainHandler.removeCallbacksAndMessages(null);
+        super.onDestroy();
     }
 
     @Override
     protected @Nullable HeadlessJsTaskConfig getTaskConfig(Intent intent) {
-        try {
+        try (StartupTrace.Span ignored = StartupTrace.begin("KeepAliveService.getTaskConfig")) {
             // Safety check: return null if React Native is not ready
             // This prevents the "CatalystInstance not available" error
             if (!isReactNativeReady()) {
                 Log.w(TAG, "getTaskConfig: React Native not ready, returning null to prevent task start");
                 return null;
             }
-            
+
             WritableMap data = Arguments.createMap();
-            data.putString("source", "KeepAliveService");
+            String source = intent != null ? intent.getStringExtra(EXTRA_SOURCE) : null;
+            data.putString("source", source != null ? source : "KeepAliveService");
+            Bundle payload = intent != null ? intent.getBundleExtra(EXTRA_DATA) : null;
+            if (payload != null) {
+                data.putMap("data", Arguments.fromBundle(payload));
+            }
+            if (intent != null) {
+                data.putDouble("queueWaitMs", intent.getLongExtra(EXTRA_QUEUE_WAIT_MS, 0));
+            }
             return new HeadlessJsTaskConfig(
                     "KeepAliveTask",
                     data,
@@ -135,5 +252,3 @@ public class KeepAliveService extends HeadlessJsTaskService {
         }
     }
 }
-
-
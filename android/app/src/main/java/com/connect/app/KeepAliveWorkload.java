@@ -0,0 +1,60 @@
+package com.connect.app;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ServiceInfo;
+import android.util.Log;
+
+/**
+ * Keeps {@link KeepAliveService} (headless JS, :bg) poked while the host is up, so background
+ * JS can spin up again after the task is swiped away or the process is restarted.
+ */
+final class KeepAliveWorkload implements HostWorkload {
+    private static final String TAG = "KeepAliveWorkload";
+
+    private Context context;
+
+    @Override
+    public String getId() {
+        return ServiceHost.WORKLOAD_KEEP_ALIVE;
+    }
+
+    @Override
+    public String getLabel() {
+        return "Messages";
+    }
+
+    @Override
+    public int getForegroundServiceType() {
+        return ServiceInfo.FOREGROUND_SERVICE_TYPE_DATA_SYNC;
+    }
+
+    @Override
+    public void onAttach(ServiceHost host) {
+        context = host.getApplicationContext();
+        poke();
+    }
+
+    @Override
+    public void onCommand(Intent intent) {
+        poke();
+    }
+
+    @Override
+    public void onTaskRemoved() {
+        poke();
+    }
+
+    @Override
+    public void onDetach() {
+        context = null;
+    }
+
+    private void poke() {
+        try {
+            context.startService(new Intent(context, KeepAliveService.class));
+        } catch (Exception e) {
+            Log.w(TAG, "Could not start KeepAliveService", e);
+        }
+    }
+}
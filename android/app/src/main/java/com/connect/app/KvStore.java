@@ -0,0 +1,380 @@
+package com.connect.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Small string key-value store on a memory-mapped, append-only file, for values that are
+ * read far more often than written (the signed-in user, the auth token).
+ *
+ * Reads are served from an in-memory map and only touch the file when another process has
+ * appended or compacted since, which is detected from the generation and end offset in the
+ * header. A write appends one CRC-checked record and then publishes the new end offset, so a
+ * process killed mid-write leaves the old end in place and the partial record is ignored.
+ * When dead records outweigh live ones the file is compacted in place; the compacted image
+ * is first written and synced to a side file, which {@link #open} restores from if a crash
+ * interrupted the copy.
+ *
+ * Threads of one process are serialised on the instance monitor and processes on a file lock
+ * over the header (range locks are per-process, so one instance per file per process).
+ * Pure Java so it can run on the plain JVM.
+ */
+public final class KvStore implements AutoCloseable {
+    private static final int MAGIC = 0x4B565331; // "KVS1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int OFF_GENERATION = 8;
+    private static final int OFF_END = 16;
+    private static final int RECORD_HEADER_BYTES = 12;
+    private static final int TOMBSTONE = -1;
+    static final int INITIAL_CAPACITY = 64 * 1024;
+    private static final long COMPACT_MIN_BYTES = 32 * 1024;
+
+    public static final String KEY_USER = "user";
+    public static final String KEY_AUTH_TOKEN = "authToken";
+    public static final String KEY_FCM_TOKEN = "fcmDeviceToken";
+
+    private static final Map<String, KvStore> open = new HashMap<>();
+
+    private final File path;
+    private final File compactFile;
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    private final Map<String, String> values = new HashMap<>();
+    private long generation;
+    private long end;
+    private long liveBytes;
+    private long compactions;
+
+    private KvStore(File path) throws IOException {
+        this.path = path;
+        this.compactFile = new File(path.getPath() + ".compact");
+        this.file = new RandomAccessFile(path, "rw");
+        this.channel = file.getChannel();
+        FileLock lock = channel.lock(0, HEADER_BYTES, false);
+        try {
+            recoverCompaction();
+            if (file.length() < INITIAL_CAPACITY) {
+                file.setLength(INITIAL_CAPACITY);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, file.length());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                buffer.putLong(OFF_GENERATION, 1);
+                buffer.putLong(OFF_END, HEADER_BYTES);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(0, MAGIC);
+            }
+            reload();
+        } finally {
+            lock.release();
+        }
+    }
+
+    /** The process-wide store for {@code path}, opened on first use. */
+    public static KvStore open(File path) throws IOException {
+        synchronized (open) {
+            KvStore store = open.get(path.getAbsolutePath());
+            if (store == null) {
+                File parent = path.getParentFile();
+                if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                    throw new IOException("Could not create " + parent);
+                }
+                store = new KvStore(path);
+                open.put(path.getAbsolutePath(), store);
+            }
+            return store;
+        }
+    }
+
+    /** Returns the value, or null if the key is absent. */
+    public synchronized String getString(String key) {
+        catchUp();
+        return values.get(key);
+    }
+
+    public synchronized boolean contains(String key) {
+        return getString(key) != null;
+    }
+
+    public synchronized List<String> keys() {
+        catchUp();
+        return new ArrayList<>(values.keySet());
+    }
+
+    public synchronized void putString(String key, String value) throws IOException {
+        FileLock lock = channel.lock(0, HEADER_BYTES, false);
+        try {
+            refresh();
+            String previous = values.get(key);
+            if (value == null ? previous == null : value.equals(previous)) {
+                return;
+            }
+            append(key, value);
+            maybeCompact();
+        } finally {
+            lock.release();
+        }
+    }
+
+    public void remove(String key) throws IOException {
+        putString(key, null);
+    }
+
+    /** Write several keys under one lock; a null value removes the key. */
+    public synchronized void putAll(Map<String, String> entries) throws IOException {
+        FileLock lock = channel.lock(0, HEADER_BYTES, false);
+        try {
+            refresh();
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                append(entry.getKey(), entry.getValue());
+            }
+            maybeCompact();
+        } finally {
+            lock.release();
+        }
+    }
+
+    public synchronized long sizeBytes() {
+        return end;
+    }
+
+    public synchronized long liveBytes() {
+        return liveBytes;
+    }
+
+    public synchronized long compactions() {
+        return compactions;
+    }
+
+    private void catchUp() {
+        if (buffer.getLong(OFF_GENERATION) == generation && buffer.getLong(OFF_END) == end) {
+            return;
+        }
+        FileLock lock = null;
+        try {
+            lock = channel.lock(0, HEADER_BYTES, true);
+            refresh();
+        } catch (IOException e) {
+            // Serve what we have; the next read retries
+        } finally {
+            if (lock != null) {
+                try {
+                    lock.release();
+                } catch (IOException e) {
+                    // The channel is gone; the OS dropped the lock with it
+                }
+            }
+        }
+    }
+
+    /** Catch up with appends or a compaction by another process. Caller holds the file lock. */
+    private void refresh() throws IOException {
+        if (channel.size() > buffer.capacity()) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+        if (buffer.getLong(OFF_GENERATION) != generation) {
+            reload();
+        } else if (buffer.getLong(OFF_END) > end) {
+            replay(end, buffer.getLong(OFF_END));
+        }
+    }
+
+    private void reload() {
+        values.clear();
+        liveBytes = 0;
+        generation = buffer.getLong(OFF_GENERATION);
+        replay(HEADER_BYTES, buffer.getLong(OFF_END));
+    }
+
+    private void replay(long from, long to) {
+        long pos = from;
+        to = Math.min(to, buffer.capacity());
+        while (pos + RECORD_HEADER_BYTES <= to) {
+            int keyLength = buffer.getInt((int) pos);
+            int valueLength = buffer.getInt((int) pos + 4);
+            int crc = buffer.getInt((int) pos + 8);
+            long size = recordSize(keyLength, valueLength);
+            if (keyLength < 0 || valueLength < TOMBSTONE || pos + size > to) {
+                break;
+            }
+            byte[] key = new byte[keyLength];
+            byte[] value = new byte[Math.max(0, valueLength)];
+            ByteBuffer view = buffer.duplicate();
+            view.position((int) pos + RECORD_HEADER_BYTES);
+            view.get(key);
+            view.get(value);
+            if (crc(key, value, valueLength) != crc) {
+                break;
+            }
+            apply(new String(key, StandardCharsets.UTF_8),
+                valueLength == TOMBSTONE ? null : new String(value, StandardCharsets.UTF_8));
+            pos += size;
+        }
+        end = pos;
+    }
+
+    private void apply(String key, String value) {
+        String previous = value == null ? values.remove(key) : values.put(key, value);
+        if (previous != null) {
+            liveBytes -= entryBytes(key, previous);
+        }
+        if (value != null) {
+            liveBytes += entryBytes(key, value);
+        }
+    }
+
+    private void append(String key, String value) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        int valueLength = value == null ? TOMBSTONE : valueBytes.length;
+        long size = recordSize(keyBytes.length, valueLength);
+        ensureCapacity(end + size);
+
+        int pos = (int) end;
+        ByteBuffer view = buffer.duplicate();
+        view.position(pos);
+        view.putInt(keyBytes.length).putInt(valueLength).putInt(crc(keyBytes, valueBytes, valueLength));
+        view.put(keyBytes).put(valueBytes);
+        // Publish only after the record is complete
+        end += size;
+        buffer.putLong(OFF_END, end);
+        apply(key, value);
+    }
+
+    private void ensureCapacity(long needed) throws IOException {
+        if (needed <= buffer.capacity()) {
+            return;
+        }
+        long capacity = buffer.capacity();
+        while (capacity < needed) {
+            capacity *= 2;
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("KvStore full");
+        }
+        file.setLength(capacity);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private void maybeCompact() throws IOException {
+        long used = end - HEADER_BYTES;
+        if (used < COMPACT_MIN_BYTES || used < 4 * liveBytes) {
+            return;
+        }
+        compact();
+    }
+
+    void compact() throws IOException {
+        ByteBuffer image = ByteBuffer.allocate((int) (HEADER_BYTES + liveBytes));
+        image.position(HEADER_BYTES);
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            byte[] value = entry.getValue().getBytes(StandardCharsets.UTF_8);
+            image.putInt(key.length).putInt(value.length).putInt(crc(key, value, value.length));
+            image.put(key).put(value);
+        }
+        long newEnd = image.position();
+        image.putInt(0, MAGIC).putInt(4, VERSION)
+            .putLong(OFF_GENERATION, generation + 1).putLong(OFF_END, newEnd);
+
+        try (RandomAccessFile side = new RandomAccessFile(compactFile, "rw")) {
+            side.setLength(0);
+            side.write(image.array(), 0, (int) newEnd);
+            side.getFD().sync();
+        }
+        copyImage(image.array(), (int) newEnd);
+        compactFile.delete();
+        generation++;
+        end = newEnd;
+        compactions++;
+    }
+
+    /** Overwrite the mapped file with a compacted image: body first, header last. */
+    private void copyImage(byte[] image, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(HEADER_BYTES);
+        view.put(image, HEADER_BYTES, length - HEADER_BYTES);
+        buffer.putLong(OFF_END, ByteBuffer.wrap(image).getLong(OFF_END));
+        buffer.putLong(OFF_GENERATION, ByteBuffer.wrap(image).getLong(OFF_GENERATION));
+        buffer.force();
+    }
+
+    /** Finish a compaction that a crash interrupted. Caller holds the file lock. */
+    private void recoverCompaction() throws IOException {
+        if (!compactFile.exists()) {
+            return;
+        }
+        byte[] image = new byte[(int) compactFile.length()];
+        try (RandomAccessFile side = new RandomAccessFile(compactFile, "r")) {
+            side.readFully(image);
+        }
+        ByteBuffer header = ByteBuffer.wrap(image);
+        boolean complete = image.length >= HEADER_BYTES
+            && header.getInt(0) == MAGIC
+            && header.getLong(OFF_END) == image.length;
+        // copyImage writes the generation last, so a main file already at the image's
+        // generation finished the copy; other processes may have appended since, which a
+        // second copy would throw away
+        if (complete && mainGeneration() < header.getLong(OFF_GENERATION)) {
+            if (file.length() < Math.max(INITIAL_CAPACITY, image.length)) {
+                file.setLength(Math.max(INITIAL_CAPACITY, image.length));
+            }
+            file.seek(0);
+            file.write(image);
+            file.getFD().sync();
+        }
+        // An incomplete side file means the crash came before the copy began
+        compactFile.delete();
+    }
+
+    /** Generation in the main file's header, or 0 if it has no valid header yet. */
+    private long mainGeneration() throws IOException {
+        if (file.length() < HEADER_BYTES) {
+            return 0;
+        }
+        byte[] header = new byte[HEADER_BYTES];
+        file.seek(0);
+        file.readFully(header);
+        ByteBuffer view = ByteBuffer.wrap(header);
+        return view.getInt(0) == MAGIC ? view.getLong(OFF_GENERATION) : 0;
+    }
+
+    private static long recordSize(int keyLength, int valueLength) {
+        return RECORD_HEADER_BYTES + (long) keyLength + Math.max(0, valueLength);
+    }
+
+    private static long entryBytes(String key, String value) {
+        return RECORD_HEADER_BYTES + key.getBytes(StandardCharsets.UTF_8).length
+            + value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static int crc(byte[] key, byte[] value, int valueLength) {
+        CRC32 crc = new CRC32();
+        crc.update(key, 0, key.length);
+        crc.update(value, 0, value.length);
+        crc.update(valueLength == TOMBSTONE ? 1 : 0);
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        synchronized (open) {
+            open.remove(path.getAbsolutePath());
+        }
+        channel.close();
+        file.close();
+    }
+}
@@ -0,0 +1,98 @@
+package com.connect.app;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.WritableArray;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Synchronous JS access to the shared {@link KvStore}. Reads are in-memory map lookups, so
+ * they are exposed as blocking methods rather than costing a promise round trip.
+ */
+public class KvStoreModule extends ReactContextBaseJavaModule {
+    private static final String TAG = "KvStoreModule";
+    private final ReactApplicationContext reactContext;
+
+    public KvStoreModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+    }
+
+    @Override
+    public String getName() {
+        return "KvStore";
+    }
+
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public @Nullable String getString(String key) {
+        KvStore kv = AppStorage.kv(reactContext);
+        return kv != null ? kv.getString(key) : null;
+    }
+
+    /** Values for {@code keys} in order, null where absent. */
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public WritableArray multiGet(ReadableArray keys) {
+        KvStore kv = AppStorage.kv(reactContext);
+        WritableArray result = Arguments.createArray();
+        for (int i = 0; i < keys.size(); i++) {
+            String value = kv != null && keys.getType(i) == ReadableType.String ? kv.getString(keys.getString(i)) : null;
+            if (value != null) {
+                result.pushString(value);
+            } else {
+                result.pushNull();
+            }
+        }
+        return result;
+    }
+
+    /** Returns false if the write failed. A null value removes the key. */
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public boolean setString(String key, @Nullable String value) {
+        KvStore kv = AppStorage.kv(reactContext);
+        if (kv == null) {
+            return false;
+        }
+        try {
+            kv.putString(key, value);
+            return true;
+        } catch (IOException e) {
+            Log.e(TAG, "Error writing " + key, e);
+            return false;
+        }
+    }
+
+    /** Write or remove (null value) several keys atomically with respect to other writers. */
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public boolean multiSet(ReadableMap entries) {
+        KvStore kv = AppStorage.kv(reactContext);
+        if (kv == null) {
+            return false;
+        }
+        Map<String, String> values = new HashMap<>();
+        ReadableMapKeySetIterator it = entries.keySetIterator();
+        while (it.hasNextKey()) {
+            String key = it.nextKey();
+            values.put(key, entries.getType(key) == ReadableType.String ? entries.getString(key) : null);
+        }
+        try {
+            kv.putAll(values);
+            return true;
+        } catch (IOException e) {
+            Log.e(TAG, "Error writing " + values.size() + " keys", e);
+            return false;
+        }
+    }
+}
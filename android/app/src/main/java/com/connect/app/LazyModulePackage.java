@@ -0,0 +1,53 @@
+package com.connect.app;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.BaseReactPackage;
+import com.facebook.react.bridge.NativeModule;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.module.model.ReactModuleInfo;
+import com.facebook.react.module.model.ReactModuleInfoProvider;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Package for the app's own native modules. Only module metadata is registered up front;
+ * each module is constructed the first time JS touches it.
+ */
+public class LazyModulePackage extends BaseReactPackage {
+    private final List<PackageManifest.ModuleSpec> specs;
+
+    LazyModulePackage(List<PackageManifest.ModuleSpec> specs) {
+        this.specs = specs;
+    }
+
+    @Override
+    public @Nullable NativeModule getModule(String name, ReactApplicationContext reactContext) {
+        for (PackageManifest.ModuleSpec spec : specs) {
+            if (spec.name.equals(name)) {
+                return spec.factory.create(reactContext);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public ReactModuleInfoProvider getReactModuleInfoProvider() {
+        return () -> {
+            Map<String, ReactModuleInfo> infos = new HashMap<>();
+            for (PackageManifest.ModuleSpec spec : specs) {
+                infos.put(spec.name, new ReactModuleInfo(
+                    spec.name,
+                    spec.className,
+                    false, // canOverrideExistingModule
+                    false, // needsEagerInit
+                    false, // isCxxModule
+                    false  // isTurboModule
+                ));
+            }
+            return infos;
+        };
+    }
+}
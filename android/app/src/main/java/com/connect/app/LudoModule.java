@@ -0,0 +1,220 @@
+package com.connect.app;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.connect.app.ludo.LudoAi;
+import com.connect.app.ludo.LudoBoard;
+import com.connect.app.ludo.LudoGame;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Holds the offline Ludo game natively so the board screen only renders. Rolls and moves are
+ * synchronous state transitions that return what changed; bot moves are searched with
+ * {@link LudoAi} on a background thread. Pieces are addressed by player and piece number,
+ * positions as step counts along the player's path (0 yard, 1-52 track, 53-58 home column,
+ * 59 center).
+ */
+public class LudoModule extends ReactContextBaseJavaModule {
+    private static final String TAG = "LudoModule";
+
+    private final ExecutorService aiThread = Executors.newSingleThreadExecutor(
+        runnable -> new Thread(runnable, "LudoAi"));
+    private final int[] movable = new int[LudoBoard.PIECES];
+    private LudoGame game;
+    private LudoAi ai;
+
+    public LudoModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    @Override
+    public String getName() {
+        return "Ludo";
+    }
+
+    /** Starts a game for 2-4 players and returns its state. */
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public synchronized @Nullable WritableMap newGame(int playerCount) {
+        try {
+            game = new LudoGame(playerCount);
+            ai = new LudoAi(playerCount);
+            return state();
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "Error starting game", e);
+            return null;
+        }
+    }
+
+    /** Replaces the position with {@code steps} (per player, per piece, as getState returns them) and returns the state. */
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public synchronized @Nullable WritableMap load(ReadableArray steps, int currentPlayer, ReadableArray finished) {
+        if (game == null) {
+            return null;
+        }
+        try {
+            int[] pieceSteps = new int[LudoBoard.PLAYERS * LudoBoard.PIECES];
+            for (int player = 0; player < Math.min(steps.size(), LudoBoard.PLAYERS); player++) {
+                ReadableArray pieces = steps.getArray(player);
+                for (int piece = 0; pieces != null && piece < Math.min(pieces.size(), LudoBoard.PIECES); piece++) {
+                    pieceSteps[player * LudoBoard.PIECES + piece] = pieces.getInt(piece);
+                }
+            }
+            int[] finishedOrder = new int[finished.size()];
+            for (int i = 0; i < finishedOrder.length; i++) {
+                finishedOrder[i] = finished.getInt(i);
+            }
+            game.load(pieceSteps, currentPlayer, finishedOrder);
+            return state();
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "Error loading position", e);
+            return null;
+        }
+    }
+
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public synchronized @Nullable WritableMap getState() {
+        return game != null ? state() : null;
+    }
+
+    /**
+     * Rolls for the current player; {@code value} 1-6 uses that value (e.g. the one the dice
+     * animation landed on), 0 rolls natively. Returns player, dice, movable pieces, passed
+     * (true if nothing could move and the turn went on) and currentPlayer.
+     */
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public synchronized @Nullable WritableMap roll(int value) {
+        if (game == null || game.isGameOver()) {
+            return null;
+        }
+        int dice = value >= 1 && value <= 6 ? value : ThreadLocalRandom.current().nextInt(1, 7);
+        int player = game.currentPlayer();
+        int count = game.roll(dice, movable);
+        WritableMap result = Arguments.createMap();
+        result.putInt("player", player);
+        result.putInt("dice", dice);
+        WritableArray pieces = Arguments.createArray();
+        for (int i = 0; i < count; i++) {
+            pieces.pushInt(movable[i]);
+        }
+        result.putArray("movable", pieces);
+        result.putBoolean("passed", count == 0);
+        result.putInt("currentPlayer", game.currentPlayer());
+        return result;
+    }
+
+    /**
+     * Moves the current player's {@code piece} by the rolled dice. Returns the diff: player,
+     * piece, from, to, captures [{player, piece, from}], extraTurn, currentPlayer, finished
+     * (players in finishing order) and gameOver; null if the move isn't legal.
+     */
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public synchronized @Nullable WritableMap move(int piece) {
+        if (game == null) {
+            return null;
+        }
+        try {
+            game.move(piece);
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, e.getMessage());
+            return null;
+        }
+        WritableMap diff = Arguments.createMap();
+        diff.putInt("player", game.lastPiece() / LudoBoard.PIECES);
+        diff.putInt("piece", game.lastPiece() % LudoBoard.PIECES);
+        diff.putInt("from", game.lastFrom());
+        diff.putInt("to", game.lastTo());
+        WritableArray captures = Arguments.createArray();
+        for (int i = 0; i < game.lastCaptureCount(); i++) {
+            WritableMap capture = Arguments.createMap();
+            capture.putInt("player", game.lastCaptured(i) / LudoBoard.PIECES);
+            capture.putInt("piece", game.lastCaptured(i) % LudoBoard.PIECES);
+            capture.putInt("from", game.lastCapturedFrom(i));
+            captures.pushMap(capture);
+        }
+        diff.putArray("captures", captures);
+        diff.putBoolean("extraTurn", game.lastExtraTurn());
+        diff.putInt("currentPlayer", game.currentPlayer());
+        diff.putArray("finished", finished());
+        diff.putBoolean("gameOver", game.isGameOver());
+        return diff;
+    }
+
+    /**
+     * Searches the piece the current player should move with the rolled dice, looking
+     * {@code depth} decisions ahead (1 to {@link LudoAi#MAX_DEPTH}). Resolves with piece (-1
+     * if none can move), nodes and timeMs.
+     */
+    @ReactMethod
+    public void bestMove(int depth, Promise promise) {
+        LudoGame position;
+        LudoAi searcher;
+        synchronized (this) {
+            if (game == null) {
+                promise.reject("ERROR", "No game in progress");
+                return;
+            }
+            position = new LudoGame(game.playerCount());
+            position.copyFrom(game);
+            searcher = ai;
+        }
+        aiThread.execute(() -> {
+            try {
+                long start = System.nanoTime();
+                int piece = searcher.bestPiece(position, depth);
+                WritableMap result = Arguments.createMap();
+                result.putInt("piece", piece);
+                result.putDouble("nodes", searcher.nodes());
+                result.putDouble("timeMs", (System.nanoTime() - start) / 1_000_000.0);
+                promise.resolve(result);
+            } catch (Exception e) {
+                promise.reject("ERROR", e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void invalidate() {
+        aiThread.shutdownNow();
+        super.invalidate();
+    }
+
+    private WritableMap state() {
+        WritableMap map = Arguments.createMap();
+        map.putInt("playerCount", game.playerCount());
+        map.putInt("currentPlayer", game.currentPlayer());
+        map.putInt("dice", game.dice());
+        WritableArray players = Arguments.createArray();
+        for (int player = 0; player < game.playerCount(); player++) {
+            WritableArray pieces = Arguments.createArray();
+            for (int piece = 0; piece < LudoBoard.PIECES; piece++) {
+                pieces.pushInt(game.steps(player, piece));
+            }
+            players.pushArray(pieces);
+        }
+        map.putArray("steps", players);
+        map.putArray("finished", finished());
+        map.putBoolean("gameOver", game.isGameOver());
+        return map;
+    }
+
+    private WritableArray finished() {
+        WritableArray finished = Arguments.createArray();
+        for (int i = 0; i < game.rankCount(); i++) {
+            finished.pushInt(game.ranked(i));
+        }
+        return finished;
+    }
+}
@@ -1,8 +1,10 @@
 package com.connect.app
 
 import android.content.Intent
+import android.os.Build
 import android.os.Bundle
 import android.util.Log
+import android.view.WindowManager
 import com.facebook.react.ReactActivity
 import com.facebook.react.ReactActivityDelegate
 import com.facebook.react.defaults.DefaultNewArchitectureEntryPoint.fabricEnabled
@@ -10,6 +12,8 @@ import com.facebook.react.defaults.DefaultReactActivityDelegate
 
 class MainActivity : ReactActivity() {
 
+  private var shownOverLockScreen = false
+
   /**
    * Returns the name of the main component registered from JavaScript. This is used to schedule
    * rendering of the component.
@@ -24,6 +28,8 @@ class MainActivity : ReactActivity() {
       DefaultReactActivityDelegate(this, mainComponentName, fabricEnabled)
 
   override fun onCreate(savedInstanceState: Bundle?) {
+    StartupTrace.onActivityCreate()
+    val span = StartupTrace.begin("MainActivity.onCreate")
     try {
       super.onCreate(savedInstanceState)
       // Set the status bar to be transparent and draw system bar backgrounds
@@ -32,8 +38,11 @@ class MainActivity : ReactActivity() {
       // NotificationService removed - all background notifications are now handled by 
       // react-native-background-actions plugin (pushBackgroundService.ts)
       
-      // Handle incoming call intents when app is launched from notification
-      handleIncomingCallIntent(intent)
+      // Handle incoming call intents when app is launched from notification. A recreated
+      // activity still carries its launch intent, so only the first create counts.
+      if (savedInstanceState == null) {
+        handleIncomingCallIntent(intent)
+      }
     } catch (e: Exception) {
       Log.e("MainActivity", "Error in onCreate: ${e.message}", e)
       // Try to continue anyway - don't crash the app
@@ -42,19 +51,42 @@ class MainActivity : ReactActivity() {
       } catch (e2: Exception) {
         Log.e("MainActivity", "Fatal error in onCreate recovery: ${e2.message}", e2)
       }
+    } finally {
+      span.close()
     }
   }
   
   private fun handleIncomingCallIntent(intent: Intent?) {
     if (intent == null) return
-    
-    // Handle incoming call intents (check both "type" and "action" for compatibility)
-    val callType = intent.getStringExtra("type")
-    val callAction = intent.getStringExtra("action")
-    if (callType == "incoming_call" || callAction == "incoming_call") {
-      Log.d("MainActivity", "Received incoming call intent in onCreate - type: $callType, action: $callAction")
-      // The React Native side will handle the navigation via useNotifications hook
-      // This just ensures the app is brought to foreground
+
+    // Handle incoming call intents (check both "type" and "action" for compatibility).
+    // JS picks the call up through CallNotificationModule.getInitialCall and navigates to
+    // the IncomingCall screen.
+    if (CallNotificationModule.onCallIntent(intent)) {
+      Log.d("MainActivity", "Received incoming call intent for ${intent.getStringExtra("channelName")}")
+      // Launched by the call notification's full-screen intent: show over the lock screen
+      showOverLockScreen()
+      if (intent.getBooleanExtra("autoAccept", false)) {
+        // Answered from the notification; stop ringing before JS picks up the call
+        NativeNotifier.cancelIncomingCall(this)
+        SpeechWorkload.stopSpeaking(this)
+      }
+    }
+  }
+
+  private fun showOverLockScreen() {
+    shownOverLockScreen = true
+    setLockScreenFlags(true)
+  }
+
+  private fun setLockScreenFlags(enabled: Boolean) {
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O_MR1) {
+      setShowWhenLocked(enabled)
+      setTurnScreenOn(enabled)
+    } else {
+      val flags = WindowManager.LayoutParams.FLAG_SHOW_WHEN_LOCKED or WindowManager.LayoutParams.FLAG_TURN_SCREEN_ON
+      @Suppress("DEPRECATION")
+      if (enabled) window.addFlags(flags) else window.clearFlags(flags)
     }
   }
 
@@ -85,6 +117,19 @@ class MainActivity : ReactActivity() {
     }
   }
   
+  override fun onStop() {
+    try {
+      super.onStop()
+      // Only the call that woke the device may bypass the keyguard
+      if (shownOverLockScreen) {
+        shownOverLockScreen = false
+        setLockScreenFlags(false)
+      }
+    } catch (e: Exception) {
+      Log.e("MainActivity", "Error in onStop: ${e.message}", e)
+    }
+  }
+
   override fun onPause() {
     try {
       super.onPause()
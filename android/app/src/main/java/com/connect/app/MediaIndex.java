@@ -0,0 +1,496 @@
+package com.connect.app;
+
+import android.content.Context;
+import android.graphics.BitmapFactory;
+import android.media.MediaMetadataRetriever;
+import android.os.FileObserver;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Persistent, incrementally maintained index of the app's media folders (downloaded videos
+ * and captured photos/videos), so gallery screens page through a sorted in-memory set instead
+ * of listing and stat'ing the directory every time they open.
+ *
+ * Each root keeps its entries in a map by name and a set ordered newest-first; queries walk
+ * that set from a keyset cursor ("mtime:name"), so a page costs the same at any depth.
+ * A FileObserver per root applies creates, writes, moves and deletes as they happen, and
+ * media metadata (duration, dimensions) is probed once per file in the background. The index
+ * is saved in a compact binary file together with the directory's mtime; at startup the
+ * directory is only re-listed when that mtime has changed.
+ *
+ * All index access runs on a single private HandlerThread.
+ */
+public class MediaIndex {
+    private static final String TAG = "MediaIndex";
+    private static final String INDEX_DIR = "media-index";
+    private static final int MAGIC = 0x4D495831; // "MIX1"
+    private static final int VERSION = 1;
+    private static final long SAVE_DELAY_MS = 2000;
+
+    public static final String ROOT_DOWNLOADS = "downloads";
+    public static final String ROOT_MEDIA = "media";
+
+    static final String TYPE_IMAGE = "image";
+    static final String TYPE_VIDEO = "video";
+    static final String TYPE_OTHER = "other";
+
+    private static final int OBSERVED_EVENTS = FileObserver.CLOSE_WRITE | FileObserver.MOVED_TO
+        | FileObserver.MOVED_FROM | FileObserver.DELETE;
+
+    public interface JsonCallback {
+        void onJson(String json);
+    }
+
+    static final class Entry {
+        final String name;
+        final long size;
+        final long mtime;
+        final String type;
+        boolean probed;
+        long durationMs;
+        int width;
+        int height;
+
+        Entry(String name, long size, long mtime, String type) {
+            this.name = name;
+            this.size = size;
+            this.mtime = mtime;
+            this.type = type;
+        }
+    }
+
+    // Newest first; the name breaks ties so the ordering is total
+    static final Comparator<Entry> ORDER = (a, b) -> {
+        int byTime = Long.compare(b.mtime, a.mtime);
+        return byTime != 0 ? byTime : a.name.compareTo(b.name);
+    };
+
+    private final class Root {
+        final String name;
+        final File dir;
+        final File indexFile;
+        final Map<String, Entry> byName = new HashMap<>();
+        final TreeSet<Entry> sorted = new TreeSet<>(ORDER);
+        // Entries per type, so a filtered page can report its total without a scan
+        final Map<String, Integer> typeCounts = new HashMap<>();
+        @Nullable FileObserver observer;
+        final Runnable saveRunnable;
+
+        Root(String name, File dir) {
+            this.name = name;
+            this.dir = dir;
+            this.indexFile = new File(indexDir, name + ".idx");
+            this.saveRunnable = () -> save(this);
+        }
+
+        /** Index {@code entry}, replacing any entry of the same name. */
+        void add(Entry entry) {
+            unsort(byName.put(entry.name, entry));
+            sorted.add(entry);
+            typeCounts.merge(entry.type, 1, Integer::sum);
+        }
+
+        @Nullable
+        Entry remove(String name) {
+            Entry entry = byName.remove(name);
+            unsort(entry);
+            return entry;
+        }
+
+        /** Drop {@code entry} from the ordering and counts; the caller updates byName. */
+        void unsort(@Nullable Entry entry) {
+            if (entry != null && sorted.remove(entry)) {
+                typeCounts.merge(entry.type, -1, Integer::sum);
+            }
+        }
+
+        void clear() {
+            byName.clear();
+            sorted.clear();
+            typeCounts.clear();
+        }
+
+        int count(@Nullable String type) {
+            if (type == null) {
+                return sorted.size();
+            }
+            Integer count = typeCounts.get(type);
+            return count != null ? count : 0;
+        }
+    }
+
+    private static volatile MediaIndex instance;
+
+    private final Handler handler;
+    private final File indexDir;
+    // Handler thread only
+    private final Map<String, Root> roots = new LinkedHashMap<>();
+
+    private MediaIndex(Context context) {
+        Context app = context.getApplicationContext();
+        this.indexDir = new File(app.getFilesDir(), INDEX_DIR);
+        HandlerThread thread = new HandlerThread("media-index");
+        thread.start();
+        this.handler = new Handler(thread.getLooper());
+        File files = app.getFilesDir();
+        handler.post(() -> {
+            open(ROOT_DOWNLOADS, new File(files, DownloadEngine.DOWNLOADS_DIR));
+            open(ROOT_MEDIA, new File(files, ROOT_MEDIA));
+        });
+    }
+
+    public static MediaIndex getInstance(Context context) {
+        if (instance == null) {
+            synchronized (MediaIndex.class) {
+                if (instance == null) {
+                    instance = new MediaIndex(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    private void open(String name, File dir) {
+        if (!dir.exists() && !dir.mkdirs()) {
+            Log.w(TAG, "Could not create " + dir);
+        }
+        Root root = new Root(name, dir);
+        roots.put(name, root);
+        long storedDirMtime = load(root);
+        if (storedDirMtime != dir.lastModified()) {
+            reconcile(root, false);
+        }
+        root.observer = createObserver(root);
+        root.observer.startWatching();
+        for (Entry entry : root.sorted) {
+            if (!entry.probed) {
+                scheduleProbe(root, entry.name);
+            }
+        }
+        Log.d(TAG, "Indexed " + root.sorted.size() + " files in " + name);
+    }
+
+    @SuppressWarnings("deprecation")
+    private FileObserver createObserver(Root root) {
+        // The File constructor needs API 29; the path one works everywhere
+        return new FileObserver(root.dir.getAbsolutePath(), OBSERVED_EVENTS) {
+            @Override
+            public void onEvent(int event, @Nullable String path) {
+                if (path == null) {
+                    return;
+                }
+                boolean removed = (event & (FileObserver.DELETE | FileObserver.MOVED_FROM)) != 0;
+                handler.post(() -> {
+                    if (removed) {
+                        remove(root, path);
+                    } else {
+                        upsert(root, path, false);
+                    }
+                });
+            }
+        };
+    }
+
+    /** Bring the index in line with the directory; {@code full} also re-stats known files. */
+    private void reconcile(Root root, boolean full) {
+        String[] names = root.dir.list();
+        Set<String> present = new HashSet<>();
+        if (names != null) {
+            for (String name : names) {
+                if (!isIndexable(name)) {
+                    continue;
+                }
+                present.add(name);
+                if (full || !root.byName.containsKey(name)) {
+                    upsert(root, name, true);
+                }
+            }
+        }
+        for (Iterator<Map.Entry<String, Entry>> it = root.byName.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Entry> known = it.next();
+            if (!present.contains(known.getKey())) {
+                root.unsort(known.getValue());
+                it.remove();
+            }
+        }
+        scheduleSave(root);
+    }
+
+    /** Skip partial downloads and temp files. */
+    static boolean isIndexable(String name) {
+        return !name.startsWith(".") && !name.endsWith(".tmp");
+    }
+
+    private void upsert(Root root, String name, boolean quiet) {
+        if (!isIndexable(name)) {
+            return;
+        }
+        File file = new File(root.dir, name);
+        if (!file.isFile()) {
+            remove(root, name);
+            return;
+        }
+        long size = file.length();
+        long mtime = file.lastModified();
+        Entry existing = root.byName.get(name);
+        if (existing != null && existing.size == size && existing.mtime == mtime) {
+            return;
+        }
+        root.add(new Entry(name, size, mtime, typeOf(name)));
+        scheduleProbe(root, name);
+        if (!quiet) {
+            scheduleSave(root);
+        }
+    }
+
+    private void remove(Root root, String name) {
+        if (root.remove(name) != null) {
+            scheduleSave(root);
+        }
+    }
+
+    static String typeOf(String name) {
+        String lower = name.toLowerCase(Locale.US);
+        if (lower.endsWith(".jpg") || lower.endsWith(".jpeg") || lower.endsWith(".png")
+                || lower.endsWith(".webp") || lower.endsWith(".heic") || lower.endsWith(".gif")) {
+            return TYPE_IMAGE;
+        }
+        if (lower.endsWith(".mp4") || lower.endsWith(".mov") || lower.endsWith(".m4v")
+                || lower.endsWith(".webm") || lower.endsWith(".3gp") || lower.endsWith(".mkv")) {
+            return TYPE_VIDEO;
+        }
+        return TYPE_OTHER;
+    }
+
+    // Metadata
+
+    private void scheduleProbe(Root root, String name) {
+        // One file per message, so queries interleave with a large backlog
+        handler.post(() -> {
+            Entry entry = root.byName.get(name);
+            if (entry == null || entry.probed) {
+                return;
+            }
+            probe(new File(root.dir, name), entry);
+            entry.probed = true;
+            scheduleSave(root);
+        });
+    }
+
+    private static void probe(File file, Entry entry) {
+        if (TYPE_IMAGE.equals(entry.type)) {
+            BitmapFactory.Options bounds = new BitmapFactory.Options();
+            bounds.inJustDecodeBounds = true;
+            BitmapFactory.decodeFile(file.getAbsolutePath(), bounds);
+            entry.width = Math.max(0, bounds.outWidth);
+            entry.height = Math.max(0, bounds.outHeight);
+            return;
+        }
+        if (!TYPE_VIDEO.equals(entry.type)) {
+            return;
+        }
+        MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+        try {
+            retriever.setDataSource(file.getAbsolutePath());
+            entry.durationMs = parseLong(retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_DURATION));
+            int width = (int) parseLong(retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_VIDEO_WIDTH));
+            int height = (int) parseLong(retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_VIDEO_HEIGHT));
+            long rotation = parseLong(retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_VIDEO_ROTATION));
+            boolean sideways = rotation == 90 || rotation == 270;
+            entry.width = sideways ? height : width;
+            entry.height = sideways ? width : height;
+        } catch (RuntimeException e) {
+            // Truncated or unsupported file; keep it listed without metadata
+            Log.w(TAG, "Could not read metadata of " + file.getName() + ": " + e.getMessage());
+        } finally {
+            try {
+                retriever.release();
+            } catch (Exception ignored) {
+                // release() throws IOException from API 29
+            }
+        }
+    }
+
+    private static long parseLong(@Nullable String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // Persistence
+
+    private void scheduleSave(Root root) {
+        handler.removeCallbacks(root.saveRunnable);
+        handler.postDelayed(root.saveRunnable, SAVE_DELAY_MS);
+    }
+
+    private void save(Root root) {
+        if (!indexDir.exists() && !indexDir.mkdirs()) {
+            Log.w(TAG, "Could not create " + indexDir);
+            return;
+        }
+        File temp = new File(root.indexFile.getPath() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(root.dir.lastModified());
+            out.writeInt(root.sorted.size());
+            for (Entry entry : root.sorted) {
+                out.writeUTF(entry.name);
+                out.writeLong(entry.size);
+                out.writeLong(entry.mtime);
+                out.writeBoolean(entry.probed);
+                out.writeLong(entry.durationMs);
+                out.writeInt(entry.width);
+                out.writeInt(entry.height);
+            }
+            out.flush();
+            file.getFD().sync();
+        } catch (IOException e) {
+            Log.w(TAG, "Error saving media index " + root.name, e);
+            return;
+        }
+        if (!temp.renameTo(root.indexFile)) {
+            Log.w(TAG, "Could not replace media index " + root.name);
+        }
+    }
+
+    /** Load the saved index; returns the directory mtime it was saved with, or -1. */
+    private long load(Root root) {
+        if (!root.indexFile.exists()) {
+            return -1;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(root.indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return -1;
+            }
+            long dirMtime = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                Entry entry = new Entry(name, in.readLong(), in.readLong(), typeOf(name));
+                entry.probed = in.readBoolean();
+                entry.durationMs = in.readLong();
+                entry.width = in.readInt();
+                entry.height = in.readInt();
+                root.add(entry);
+            }
+            return dirMtime;
+        } catch (IOException e) {
+            Log.w(TAG, "Discarding unreadable media index " + root.name, e);
+            root.clear();
+            return -1;
+        }
+    }
+
+    // Queries
+
+    /**
+     * Up to {@code limit} entries of {@code rootName} after {@code cursor} (first page when null),
+     * newest first, optionally only of {@code type}, as
+     * {"items": [...], "nextCursor": "mtime:name" | null, "total": n}, where total counts the
+     * entries matching {@code type}. Paths are file:// URIs, as expo-file-system expects.
+     */
+    public void query(String rootName, @Nullable String cursor, int limit, @Nullable String type,
+                      JsonCallback callback) {
+        handler.post(() -> {
+            Root root = roots.get(rootName);
+            JSONObject page = new JSONObject();
+            try {
+                JSONArray items = new JSONArray();
+                String nextCursor = null;
+                if (root != null) {
+                    Iterator<Entry> it = startAfter(root, cursor);
+                    Entry last = null;
+                    while (it.hasNext()) {
+                        Entry entry = it.next();
+                        if (type != null && !type.equals(entry.type)) {
+                            continue;
+                        }
+                        if (items.length() == limit) {
+                            nextCursor = last.mtime + ":" + last.name;
+                            break;
+                        }
+                        items.put(toJson(root, entry));
+                        last = entry;
+                    }
+                }
+                page.put("items", items);
+                page.put("nextCursor", nextCursor != null ? nextCursor : JSONObject.NULL);
+                page.put("total", root != null ? root.count(type) : 0);
+            } catch (JSONException e) {
+                Log.w(TAG, "Error building media page", e);
+            }
+            callback.onJson(page.toString());
+        });
+    }
+
+    private static Iterator<Entry> startAfter(Root root, @Nullable String cursor) {
+        if (cursor != null) {
+            int split = cursor.indexOf(':');
+            try {
+                Entry probe = new Entry(cursor.substring(split + 1), 0, Long.parseLong(cursor.substring(0, split)), TYPE_OTHER);
+                return root.sorted.tailSet(probe, false).iterator();
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Ignoring malformed cursor " + cursor);
+            }
+        }
+        return root.sorted.iterator();
+    }
+
+    private static JSONObject toJson(Root root, Entry entry) throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("name", entry.name);
+        json.put("path", "file://" + new File(root.dir, entry.name).getAbsolutePath());
+        json.put("size", entry.size);
+        json.put("mtime", entry.mtime);
+        json.put("type", entry.type);
+        json.put("durationMs", entry.durationMs);
+        json.put("width", entry.width);
+        json.put("height", entry.height);
+        return json;
+    }
+
+    /** Re-list and re-stat a root, e.g. on pull-to-refresh. */
+    public void rescan(String rootName, Runnable done) {
+        handler.post(() -> {
+            Root root = roots.get(rootName);
+            if (root != null) {
+                reconcile(root, true);
+            }
+            done.run();
+        });
+    }
+}
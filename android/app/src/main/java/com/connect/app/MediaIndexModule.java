@@ -0,0 +1,44 @@
+package com.connect.app;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+
+/**
+ * Exposes {@link MediaIndex} to JS: sorted, paged listings of the downloads and captured-media
+ * folders without touching the file system on the JS side.
+ */
+public class MediaIndexModule extends ReactContextBaseJavaModule {
+    private static final int MAX_PAGE = 500;
+
+    private final ReactApplicationContext reactContext;
+
+    public MediaIndexModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+    }
+
+    @Override
+    public String getName() {
+        return "MediaIndex";
+    }
+
+    /** Resolves with a JSON page: {items, nextCursor, total}. */
+    @ReactMethod
+    public void query(String root, @Nullable String cursor, double limit, @Nullable String type, Promise promise) {
+        try {
+            int pageSize = Math.max(1, Math.min(MAX_PAGE, (int) limit));
+            MediaIndex.getInstance(reactContext).query(root, cursor, pageSize, type, promise::resolve);
+        } catch (Exception e) {
+            promise.reject("ERROR", e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void rescan(String root, Promise promise) {
+        MediaIndex.getInstance(reactContext).rescan(root, () -> promise.resolve(true));
+    }
+}
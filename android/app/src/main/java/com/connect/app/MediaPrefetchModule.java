@@ -0,0 +1,58 @@
+package com.connect.app;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exposes {@link MediaPrefetcher} to JS: lists report their visible window as they scroll,
+ * and media components resolve URLs to prefetched files while rendering.
+ */
+public class MediaPrefetchModule extends ReactContextBaseJavaModule {
+    private final ReactApplicationContext reactContext;
+
+    public MediaPrefetchModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+    }
+
+    @Override
+    public String getName() {
+        return "MediaPrefetch";
+    }
+
+    /** {@code urls} in item order, null for items without media; velocity in items per second. */
+    @ReactMethod
+    public void updateWindow(String listId, ReadableArray urls, double first, double last, double velocity) {
+        List<String> list = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            list.add(urls.getType(i) == ReadableType.String ? urls.getString(i) : null);
+        }
+        MediaPrefetcher.getInstance(reactContext).updateWindow(listId, list, (int) first, (int) last, velocity);
+    }
+
+    @ReactMethod
+    public void clearWindow(String listId) {
+        MediaPrefetcher.getInstance(reactContext).clearWindow(listId);
+    }
+
+    /** The prefetched file:// URI for {@code url}, or null; synchronous so render can use it. */
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public @Nullable String resolve(String url) {
+        return MediaPrefetcher.getInstance(reactContext).resolve(url);
+    }
+
+    /** Resolves with hit-rate, wasted-byte and queue stats as a JSON string. */
+    @ReactMethod
+    public void getStats(Promise promise) {
+        MediaPrefetcher.getInstance(reactContext).getStats(promise::resolve);
+    }
+}
@@ -0,0 +1,540 @@
+package com.connect.app;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prefetches feed and story media ahead of the scroll position into a shared disk cache.
+ *
+ * Each list reports its visible range and scroll velocity (items per second). The lookahead
+ * grows with velocity in the direction of travel, and every URL in the window is queued by
+ * its distance from the visible items. URLs that leave all windows are dropped from the
+ * queue or aborted mid-download. Concurrency follows the network: more parallel fetches on
+ * unmetered networks, fewer and no videos on metered ones, none while offline.
+ *
+ * A URL that fails or is over the size cap is remembered for a few minutes so the windows
+ * don't refetch it on every scroll update.
+ *
+ * Components resolve a URL to the cached file synchronously while rendering. Resolve hits and
+ * wasted bytes (aborted downloads plus prefetched media not shown yet) are counted so the
+ * lookahead can be tuned.
+ */
+public final class MediaPrefetcher {
+    private static final String TAG = "MediaPrefetcher";
+    private static final long DISK_MAX_BYTES = 150L * 1024 * 1024;
+    private static final int MAX_WORKERS = 4;
+    private static final int UNMETERED_CONCURRENCY = 4;
+    private static final int METERED_CONCURRENCY = 2;
+    static final int BASE_AHEAD = 2;
+    static final int MAX_AHEAD = 12;
+    static final int BEHIND = 1;
+    static final double LOOKAHEAD_SECONDS = 1.5;
+    private static final long UNMETERED_MAX_BYTES = 25L * 1024 * 1024;
+    private static final long METERED_MAX_BYTES = 2L * 1024 * 1024;
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+    private static final int READ_TIMEOUT_MS = 20000;
+    // A URL that failed or was over the size cap is left alone this long before another try
+    static final long FAILED_RETRY_MS = 5 * 60 * 1000;
+    static final long TOO_LARGE_RETRY_MS = 30 * 60 * 1000;
+    private static final int MAX_REJECTED = 512;
+
+    private static volatile MediaPrefetcher instance;
+
+    public interface JsonCallback {
+        void onJson(String json);
+    }
+
+    private static final class Task implements Comparable<Task> {
+        final String url;
+        final String key;
+        int distance;
+        long sequence;
+        boolean running;
+        volatile boolean cancelled;
+
+        Task(String url, String key) {
+            this.url = url;
+            this.key = key;
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            if (distance != other.distance) {
+                return Integer.compare(distance, other.distance);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /** Why a URL was not cached, so the windows stop queueing it for a while. */
+    static final class Rejection {
+        final long at;
+        // The size cap the body exceeded, or -1 if the request failed
+        final long overBytes;
+
+        Rejection(long at, long overBytes) {
+            this.at = at;
+            this.overBytes = overBytes;
+        }
+
+        boolean tooLarge() {
+            return overBytes >= 0;
+        }
+
+        /** Whether a fetch under {@code maxBytes} at {@code now} should still skip the URL. */
+        boolean applies(long now, long maxBytes) {
+            if (tooLarge()) {
+                // A larger cap (metered -> unmetered) may fit it
+                return maxBytes <= overBytes && now - at < TOO_LARGE_RETRY_MS;
+            }
+            return now - at < FAILED_RETRY_MS;
+        }
+    }
+
+    private final Context context;
+    private final Handler handler;
+    private final ExecutorService workers;
+    private final DiskLruCache disk;
+
+    private static final class ListWindow {
+        final List<String> urls;
+        final int first;
+        final int last;
+        final double velocity;
+
+        ListWindow(List<String> urls, int first, int last, double velocity) {
+            this.urls = urls;
+            this.first = first;
+            this.last = last;
+            this.velocity = velocity;
+        }
+    }
+
+    // Handler thread only
+    private final Map<String, ListWindow> windows = new HashMap<>();
+    private final Map<String, Task> tasks = new HashMap<>();
+    private final PriorityQueue<Task> queue = new PriorityQueue<>();
+    private long nextSequence = 0;
+    private int running = 0;
+    private int concurrency = UNMETERED_CONCURRENCY;
+    private boolean metered = false;
+    // url -> the last failed or oversized fetch, oldest first
+    private final Map<String, Rejection> rejected = new LinkedHashMap<String, Rejection>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Rejection> eldest) {
+            return size() > MAX_REJECTED;
+        }
+    };
+
+    // Prefetched this session and not yet resolved: cache key -> bytes
+    private final Map<String, Long> unused = new ConcurrentHashMap<>();
+    private final AtomicLong prefetched = new AtomicLong();
+    private final AtomicLong prefetchedBytes = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong cancelledBytes = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong tooLarge = new AtomicLong();
+    private final AtomicLong resolves = new AtomicLong();
+    private final AtomicLong resolveHits = new AtomicLong();
+    private final AtomicLong prefetchHits = new AtomicLong();
+
+    private final ConnectivityManager.NetworkCallback networkCallback = new ConnectivityManager.NetworkCallback() {
+        @Override
+        public void onCapabilitiesChanged(Network network, NetworkCapabilities capabilities) {
+            boolean isMetered = !capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED);
+            handler.post(() -> setNetwork(isMetered ? METERED_CONCURRENCY : UNMETERED_CONCURRENCY, isMetered));
+        }
+
+        @Override
+        public void onLost(Network network) {
+            handler.post(() -> setNetwork(0, metered));
+        }
+    };
+
+    public static MediaPrefetcher getInstance(Context context) {
+        if (instance == null) {
+            synchronized (MediaPrefetcher.class) {
+                if (instance == null) {
+                    instance = new MediaPrefetcher(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private MediaPrefetcher(Context context) {
+        this.context = context;
+        this.disk = new DiskLruCache(new File(context.getCacheDir(), "media-prefetch"), DISK_MAX_BYTES, ".bin");
+        HandlerThread thread = new HandlerThread("prefetch");
+        thread.start();
+        this.handler = new Handler(thread.getLooper());
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(MAX_WORKERS, r -> new Thread(() -> {
+            // Prefetch must never slow down what's on screen
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            r.run();
+        }, "prefetch-worker-" + workerCount.incrementAndGet()));
+        handler.post(() -> {
+            disk.load();
+            registerNetworkCallback();
+        });
+    }
+
+    private void registerNetworkCallback() {
+        try {
+            ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+            if (cm != null) {
+                metered = cm.isActiveNetworkMetered();
+                concurrency = cm.getActiveNetwork() == null ? 0
+                    : metered ? METERED_CONCURRENCY : UNMETERED_CONCURRENCY;
+                cm.registerDefaultNetworkCallback(networkCallback);
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Could not register network callback, assuming unmetered", e);
+        }
+    }
+
+    private void setNetwork(int concurrency, boolean metered) {
+        boolean changed = metered != this.metered;
+        this.concurrency = concurrency;
+        this.metered = metered;
+        if (changed) {
+            // Windows shrink (and drop videos) on metered networks
+            reconcile();
+        }
+        pump();
+    }
+
+    /**
+     * Report a list's media in item order, its visible range and its scroll velocity in items
+     * per second (negative when scrolling back). Items with no media pass null.
+     */
+    public void updateWindow(String listId, List<String> urls, int first, int last, double velocity) {
+        handler.post(() -> {
+            windows.put(listId, new ListWindow(urls, first, last, velocity));
+            reconcile();
+        });
+    }
+
+    public void clearWindow(String listId) {
+        handler.post(() -> {
+            if (windows.remove(listId) != null) {
+                reconcile();
+            }
+        });
+    }
+
+    /** URL -> distance from the visible range for the items worth fetching now. */
+    static Map<String, Integer> window(List<String> urls, int first, int last, double velocity, boolean metered) {
+        int ahead = Math.min(MAX_AHEAD, BASE_AHEAD + (int) Math.ceil(Math.abs(velocity) * LOOKAHEAD_SECONDS));
+        if (metered) {
+            ahead = Math.max(1, ahead / 2);
+        }
+        int behind = BEHIND;
+        if (velocity < 0) {
+            int swap = ahead;
+            ahead = behind;
+            behind = swap;
+        }
+        Map<String, Integer> window = new LinkedHashMap<>();
+        int from = Math.max(0, first - behind);
+        int to = Math.min(urls.size() - 1, last + ahead);
+        for (int i = from; i <= to; i++) {
+            String url = urls.get(i);
+            if (url == null || !(url.startsWith("https://") || url.startsWith("http://"))) {
+                continue;
+            }
+            if (metered && isVideo(url)) {
+                continue;
+            }
+            int distance = i < first ? first - i : i > last ? i - last : 0;
+            Integer known = window.get(url);
+            if (known == null || distance < known) {
+                window.put(url, distance);
+            }
+        }
+        return window;
+    }
+
+    static boolean isVideo(String url) {
+        String path = url.toLowerCase(Locale.US);
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        return path.endsWith(".mp4") || path.endsWith(".mov") || path.endsWith(".m3u8") || path.endsWith(".webm");
+    }
+
+    /** Bring the queue in line with the union of all windows. Handler thread. */
+    private void reconcile() {
+        Map<String, Integer> wanted = new HashMap<>();
+        for (ListWindow list : windows.values()) {
+            Map<String, Integer> window = window(list.urls, list.first, list.last, list.velocity, metered);
+            for (Map.Entry<String, Integer> item : window.entrySet()) {
+                Integer known = wanted.get(item.getKey());
+                if (known == null || item.getValue() < known) {
+                    wanted.put(item.getKey(), item.getValue());
+                }
+            }
+        }
+
+        for (Iterator<Task> it = tasks.values().iterator(); it.hasNext(); ) {
+            Task task = it.next();
+            if (wanted.containsKey(task.url) || task.cancelled) {
+                continue;
+            }
+            cancelled.incrementAndGet();
+            if (task.running) {
+                // The worker notices, counts the partial bytes and reports back
+                task.cancelled = true;
+            } else {
+                queue.remove(task);
+                it.remove();
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        long maxBytes = maxBytes();
+        for (Map.Entry<String, Integer> item : wanted.entrySet()) {
+            String url = item.getKey();
+            Task task = tasks.get(url);
+            if (task != null) {
+                // Back in the window before the worker noticed the cancel
+                task.cancelled = false;
+                if (!task.running && task.distance != item.getValue()) {
+                    queue.remove(task);
+                    task.distance = item.getValue();
+                    queue.add(task);
+                }
+                continue;
+            }
+            if (isRejected(url, now, maxBytes)) {
+                continue;
+            }
+            String key = DiskLruCache.key(url);
+            if (disk.get(key) != null) {
+                continue;
+            }
+            task = new Task(url, key);
+            task.distance = item.getValue();
+            task.sequence = nextSequence++;
+            tasks.put(url, task);
+            queue.add(task);
+        }
+        pump();
+    }
+
+    private long maxBytes() {
+        return metered ? METERED_MAX_BYTES : UNMETERED_MAX_BYTES;
+    }
+
+    private boolean isRejected(String url, long now, long maxBytes) {
+        Rejection rejection = rejected.get(url);
+        if (rejection == null) {
+            return false;
+        }
+        if (rejection.applies(now, maxBytes)) {
+            return true;
+        }
+        if (now - rejection.at >= Math.max(FAILED_RETRY_MS, TOO_LARGE_RETRY_MS)) {
+            rejected.remove(url);
+        }
+        return false;
+    }
+
+    private void pump() {
+        while (running < concurrency && !queue.isEmpty()) {
+            Task task = queue.poll();
+            task.running = true;
+            running++;
+            long maxBytes = maxBytes();
+            workers.execute(() -> {
+                Rejection rejection = fetch(task, maxBytes);
+                handler.post(() -> {
+                    running--;
+                    tasks.remove(task.url);
+                    if (rejection != null) {
+                        rejected.put(task.url, rejection);
+                    }
+                    pump();
+                });
+            });
+        }
+    }
+
+    /** Worker thread. Returns why the URL can't be cached, or null if it was (or was cancelled). */
+    private @Nullable Rejection fetch(Task task, long maxBytes) {
+        File temp = disk.tempFile(task.key);
+        long total = 0;
+        boolean complete = false;
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(task.url).openConnection();
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            connection.setInstanceFollowRedirects(true);
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                failed.incrementAndGet();
+                return new Rejection(System.currentTimeMillis(), -1);
+            }
+            long length = connection.getContentLengthLong();
+            if (length > maxBytes) {
+                tooLarge.incrementAndGet();
+                return new Rejection(System.currentTimeMillis(), maxBytes);
+            }
+            byte[] buffer = new byte[32 * 1024];
+            try (InputStream in = connection.getInputStream(); OutputStream out = new FileOutputStream(temp)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    total += read;
+                    if (task.cancelled || total > maxBytes) {
+                        cancelledBytes.addAndGet(total);
+                        if (task.cancelled) {
+                            return null;
+                        }
+                        // No or wrong Content-Length; the body turned out too big
+                        tooLarge.incrementAndGet();
+                        return new Rejection(System.currentTimeMillis(), maxBytes);
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            complete = total > 0 && disk.commit(task.key);
+            if (complete) {
+                prefetched.incrementAndGet();
+                prefetchedBytes.addAndGet(total);
+                unused.put(task.key, total);
+            }
+            return null;
+        } catch (IOException e) {
+            failed.incrementAndGet();
+            cancelledBytes.addAndGet(total);
+            Log.d(TAG, "Prefetch failed for " + task.url + ": " + e.getMessage());
+            return task.cancelled ? null : new Rejection(System.currentTimeMillis(), -1);
+        } finally {
+            if (!complete) {
+                disk.discard(task.key);
+            }
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * The cached file:// URI for {@code url}, or null if it hasn't been fetched. Cheap enough
+     * to call while rendering.
+     */
+    public @Nullable String resolve(String url) {
+        resolves.incrementAndGet();
+        String key = DiskLruCache.key(url);
+        File file = disk.get(key);
+        if (file == null) {
+            return null;
+        }
+        resolveHits.incrementAndGet();
+        if (unused.remove(key) != null) {
+            prefetchHits.incrementAndGet();
+        }
+        return Uri.fromFile(file).toString();
+    }
+
+    public void getStats(JsonCallback callback) {
+        handler.post(() -> {
+            JSONObject stats = new JSONObject();
+            try {
+                long unusedBytes = 0;
+                for (Long bytes : unused.values()) {
+                    unusedBytes += bytes;
+                }
+                long lookups = resolves.get();
+                stats.put("metered", metered);
+                stats.put("concurrency", concurrency);
+                stats.put("queued", queue.size());
+                stats.put("running", running);
+                stats.put("windows", new JSONObject(windowSizes()));
+                stats.put("prefetched", prefetched.get());
+                stats.put("prefetchedBytes", prefetchedBytes.get());
+                stats.put("cancelled", cancelled.get());
+                stats.put("failed", failed.get());
+                stats.put("tooLarge", tooLarge.get());
+                stats.put("rejected", rejectedCounts());
+                stats.put("resolves", lookups);
+                stats.put("resolveHits", resolveHits.get());
+                stats.put("hitRate", lookups == 0 ? 0 : (double) resolveHits.get() / lookups);
+                stats.put("prefetchHits", prefetchHits.get());
+                stats.put("usefulRate", prefetched.get() == 0 ? 0 : (double) prefetchHits.get() / prefetched.get());
+                stats.put("cancelledBytes", cancelledBytes.get());
+                stats.put("unusedBytes", unusedBytes);
+                stats.put("wastedBytes", cancelledBytes.get() + unusedBytes);
+                stats.put("disk", disk.getStats());
+            } catch (JSONException e) {
+                Log.w(TAG, "Error building prefetch stats", e);
+            }
+            callback.onJson(stats.toString());
+        });
+    }
+
+    /** URLs currently skipped by the windows, by reason. */
+    private JSONObject rejectedCounts() throws JSONException {
+        long now = System.currentTimeMillis();
+        long maxBytes = maxBytes();
+        int failedUrls = 0;
+        int tooLargeUrls = 0;
+        for (Rejection rejection : rejected.values()) {
+            if (!rejection.applies(now, maxBytes)) {
+                continue;
+            }
+            if (rejection.tooLarge()) {
+                tooLargeUrls++;
+            } else {
+                failedUrls++;
+            }
+        }
+        JSONObject counts = new JSONObject();
+        counts.put("failed", failedUrls);
+        counts.put("tooLarge", tooLargeUrls);
+        return counts;
+    }
+
+    private Map<String, Integer> windowSizes() {
+        Map<String, Integer> sizes = new HashMap<>();
+        for (Map.Entry<String, ListWindow> entry : windows.entrySet()) {
+            ListWindow list = entry.getValue();
+            sizes.put(entry.getKey(), window(list.urls, list.first, list.last, list.velocity, metered).size());
+        }
+        return sizes;
+    }
+}
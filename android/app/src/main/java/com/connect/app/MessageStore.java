@@ -0,0 +1,292 @@
+package com.connect.app;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Local SQLite copy of chat history, so a conversation opens from disk while the server
+ * sync runs in the background.
+ *
+ * Each row keeps the message JSON as received plus the columns needed to page it: pages are
+ * read newest-first off the (conversation, ts, id) index with a keyset cursor, so the cost of
+ * a page does not grow with how far back the user has scrolled. An upsert carrying a tempId
+ * replaces the optimistic row that was stored under that tempId. All access runs on a
+ * single private HandlerThread.
+ */
+public class MessageStore extends SQLiteOpenHelper {
+    private static final String TAG = "MessageStore";
+    private static final String DB_NAME = "messages.db";
+    private static final int DB_VERSION = 1;
+    // Older rows are pruned; the server stays the source of truth for deep history
+    static final int MAX_PER_CONVERSATION = 2000;
+
+    private static volatile MessageStore instance;
+
+    private final Handler handler;
+
+    private MessageStore(Context context) {
+        super(context.getApplicationContext(), DB_NAME, null, DB_VERSION);
+        HandlerThread thread = new HandlerThread("message-store");
+        thread.start();
+        this.handler = new Handler(thread.getLooper());
+    }
+
+    public static MessageStore getInstance(Context context) {
+        if (instance == null) {
+            synchronized (MessageStore.class) {
+                if (instance == null) {
+                    instance = new MessageStore(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /** Run on the store thread; every read and write below must be called from there. */
+    public void post(Runnable task) {
+        handler.post(task);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        // Page reads don't wait on socket upserts
+        db.enableWriteAheadLogging();
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE messages ("
+            + "id TEXT PRIMARY KEY, "
+            + "conversation TEXT NOT NULL, "
+            + "temp_id TEXT, "
+            + "ts INTEGER NOT NULL, "
+            + "json TEXT NOT NULL)");
+        db.execSQL("CREATE INDEX idx_messages_conversation_ts ON messages(conversation, ts, id)");
+        db.execSQL("CREATE INDEX idx_messages_temp_id ON messages(temp_id) WHERE temp_id IS NOT NULL");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // A local cache; rebuilding it from the server is always safe
+        db.execSQL("DROP TABLE IF EXISTS messages");
+        onCreate(db);
+    }
+
+    /** Insert or replace messages (server or optimistic) in one transaction. Returns rows written. */
+    int upsert(String conversation, JSONArray messages) {
+        SQLiteDatabase db = getWritableDatabase();
+        int written = 0;
+        db.beginTransaction();
+        try (SQLiteStatement insert = db.compileStatement(
+                 "INSERT OR REPLACE INTO messages (id, conversation, temp_id, ts, json) VALUES (?, ?, ?, ?, ?)");
+             SQLiteStatement dropOptimistic = db.compileStatement(
+                 "DELETE FROM messages WHERE temp_id = ? AND id != ?")) {
+            for (int i = 0; i < messages.length(); i++) {
+                JSONObject message = messages.optJSONObject(i);
+                if (message == null) {
+                    continue;
+                }
+                String tempId = optString(message, "tempId");
+                String id = optString(message, "_id");
+                if (id == null) {
+                    id = tempId;
+                }
+                if (id == null) {
+                    continue;
+                }
+                if (tempId != null) {
+                    dropOptimistic.bindString(1, tempId);
+                    dropOptimistic.bindString(2, id);
+                    dropOptimistic.executeUpdateDelete();
+                }
+                insert.bindString(1, id);
+                insert.bindString(2, conversation);
+                if (tempId != null) {
+                    insert.bindString(3, tempId);
+                } else {
+                    insert.bindNull(3);
+                }
+                insert.bindLong(4, parseTimestamp(message.opt("timestamp")));
+                insert.bindString(5, message.toString());
+                insert.executeInsert();
+                written++;
+            }
+            prune(db, conversation);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return written;
+    }
+
+    private static void prune(SQLiteDatabase db, String conversation) {
+        db.execSQL("DELETE FROM messages WHERE id IN (SELECT id FROM messages WHERE conversation = ? "
+                + "ORDER BY ts DESC, id DESC LIMIT -1 OFFSET " + MAX_PER_CONVERSATION + ")",
+            new Object[] { conversation });
+    }
+
+    /**
+     * Up to {@code limit} messages older than {@code cursor} (newest page when null), returned
+     * oldest-first as {"messages": [...], "nextCursor": "ts:id" | null}. The message JSON is
+     * spliced in as stored, so JS pays for one parse and native never re-serializes.
+     */
+    String getPage(String conversation, @Nullable String cursor, int limit) {
+        SQLiteDatabase db = getReadableDatabase();
+        String where = "conversation = ?";
+        String[] args;
+        long cursorTs = 0;
+        String cursorId = null;
+        if (cursor != null) {
+            int split = cursor.indexOf(':');
+            try {
+                cursorTs = Long.parseLong(cursor.substring(0, split));
+                cursorId = cursor.substring(split + 1);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Ignoring malformed cursor " + cursor);
+            }
+        }
+        if (cursorId != null) {
+            where += " AND (ts < ? OR (ts = ? AND id < ?))";
+            String ts = String.valueOf(cursorTs);
+            args = new String[] { conversation, ts, ts, cursorId };
+        } else {
+            args = new String[] { conversation };
+        }
+
+        List<String> rows = new ArrayList<>(limit);
+        long lastTs = 0;
+        String lastId = null;
+        // One extra row tells us whether there is an older page
+        try (Cursor c = db.query("messages", new String[] { "id", "ts", "json" }, where, args,
+                null, null, "ts DESC, id DESC", String.valueOf(limit + 1))) {
+            while (c.moveToNext()) {
+                if (rows.size() == limit) {
+                    break;
+                }
+                lastId = c.getString(0);
+                lastTs = c.getLong(1);
+                rows.add(c.getString(2));
+            }
+            boolean hasMore = c.getCount() > limit;
+            Collections.reverse(rows);
+
+            StringBuilder out = new StringBuilder(256 + rows.size() * 256);
+            out.append("{\"messages\":[");
+            for (int i = 0; i < rows.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append(rows.get(i));
+            }
+            out.append("],\"nextCursor\":");
+            out.append(hasMore && lastId != null ? JSONObject.quote(lastTs + ":" + lastId) : "null");
+            out.append('}');
+            return out.toString();
+        }
+    }
+
+    /** Patch one field of a stored message (isSeen, reacts, ...). Returns false if absent. */
+    boolean patch(String id, String field, Object value) {
+        SQLiteDatabase db = getWritableDatabase();
+        String json;
+        try (Cursor c = db.query("messages", new String[] { "json" }, "id = ?", new String[] { id },
+                null, null, null)) {
+            if (!c.moveToFirst()) {
+                return false;
+            }
+            json = c.getString(0);
+        }
+        try {
+            JSONObject message = new JSONObject(json);
+            message.put(field, value);
+            ContentValues values = new ContentValues();
+            values.put("json", message.toString());
+            return db.update("messages", values, "id = ?", new String[] { id }) > 0;
+        } catch (JSONException e) {
+            Log.w(TAG, "Stored message " + id + " is not valid JSON", e);
+            return false;
+        }
+    }
+
+    boolean remove(String id) {
+        return getWritableDatabase().delete("messages", "id = ? OR temp_id = ?", new String[] { id, id }) > 0;
+    }
+
+    int clearConversation(String conversation) {
+        return getWritableDatabase().delete("messages", "conversation = ?", new String[] { conversation });
+    }
+
+    JSONObject getStats() {
+        JSONObject stats = new JSONObject();
+        SQLiteDatabase db = getReadableDatabase();
+        try (Cursor c = db.rawQuery("SELECT COUNT(*), COUNT(DISTINCT conversation) FROM messages", null)) {
+            if (c.moveToFirst()) {
+                stats.put("messages", c.getLong(0));
+                stats.put("conversations", c.getLong(1));
+            }
+            stats.put("bytes", new File(db.getPath()).length());
+            stats.put("maxPerConversation", MAX_PER_CONVERSATION);
+        } catch (JSONException e) {
+            Log.w(TAG, "Error building store stats", e);
+        }
+        return stats;
+    }
+
+    private static @Nullable String optString(JSONObject object, String key) {
+        Object value = object.opt(key);
+        if (value == null || value == JSONObject.NULL) {
+            return null;
+        }
+        String s = String.valueOf(value);
+        return s.isEmpty() ? null : s;
+    }
+
+    /** Epoch millis from a number or an ISO-8601 UTC string as produced by Date.toISOString. */
+    static long parseTimestamp(@Nullable Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (!(value instanceof String)) {
+            return System.currentTimeMillis();
+        }
+        String iso = (String) value;
+        String[] patterns = { "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", "yyyy-MM-dd'T'HH:mm:ss'Z'" };
+        for (String pattern : patterns) {
+            SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.US);
+            format.setTimeZone(TimeZone.getTimeZone("UTC"));
+            format.setLenient(false);
+            try {
+                return format.parse(iso).getTime();
+            } catch (ParseException ignored) {
+                // try the next pattern
+            }
+        }
+        try {
+            return Long.parseLong(iso);
+        } catch (NumberFormatException e) {
+            return System.currentTimeMillis();
+        }
+    }
+}
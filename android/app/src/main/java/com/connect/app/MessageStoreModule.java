@@ -0,0 +1,111 @@
+package com.connect.app;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * JS access to the local {@link MessageStore}. Messages cross the bridge as JSON strings in
+ * both directions, so a page is one string instead of a tree of bridge maps.
+ */
+public class MessageStoreModule extends ReactContextBaseJavaModule {
+    private static final String TAG = "MessageStoreModule";
+    private final ReactApplicationContext reactContext;
+
+    public MessageStoreModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+    }
+
+    @Override
+    public String getName() {
+        return "MessageStore";
+    }
+
+    /** Resolves with {"messages": [...], "nextCursor": ...} as a JSON string. */
+    @ReactMethod
+    public void getPage(String conversation, @Nullable String cursor, double limit, Promise promise) {
+        MessageStore store = MessageStore.getInstance(reactContext);
+        store.post(() -> {
+            try {
+                promise.resolve(store.getPage(conversation, cursor, (int) limit));
+            } catch (Exception e) {
+                Log.e(TAG, "Error reading page for " + conversation, e);
+                promise.reject("ERROR", e.getMessage());
+            }
+        });
+    }
+
+    /** Upserts a JSON array of messages; resolves with the number written. */
+    @ReactMethod
+    public void upsert(String conversation, String messagesJson, Promise promise) {
+        MessageStore store = MessageStore.getInstance(reactContext);
+        store.post(() -> {
+            try {
+                promise.resolve(store.upsert(conversation, new JSONArray(messagesJson)));
+            } catch (Exception e) {
+                Log.e(TAG, "Error upserting messages for " + conversation, e);
+                promise.reject("ERROR", e.getMessage());
+            }
+        });
+    }
+
+    /** Sets one field of a stored message; {@code valueJson} is any JSON value. */
+    @ReactMethod
+    public void patch(String id, String field, String valueJson) {
+        MessageStore store = MessageStore.getInstance(reactContext);
+        store.post(() -> {
+            try {
+                Object value = new JSONArray("[" + valueJson + "]").get(0);
+                store.patch(id, field, value);
+            } catch (Exception e) {
+                Log.e(TAG, "Error patching message " + id, e);
+            }
+        });
+    }
+
+    @ReactMethod
+    public void remove(String id) {
+        MessageStore store = MessageStore.getInstance(reactContext);
+        store.post(() -> {
+            try {
+                store.remove(id);
+            } catch (Exception e) {
+                Log.e(TAG, "Error removing message " + id, e);
+            }
+        });
+    }
+
+    @ReactMethod
+    public void clearConversation(String conversation) {
+        MessageStore store = MessageStore.getInstance(reactContext);
+        store.post(() -> {
+            try {
+                store.clearConversation(conversation);
+            } catch (Exception e) {
+                Log.e(TAG, "Error clearing " + conversation, e);
+            }
+        });
+    }
+
+    @ReactMethod
+    public void getStats(Promise promise) {
+        MessageStore store = MessageStore.getInstance(reactContext);
+        store.post(() -> {
+            try {
+                JSONObject stats = store.getStats();
+                promise.resolve(stats.toString());
+            } catch (Exception e) {
+                promise.reject("ERROR", e.getMessage());
+            }
+        });
+    }
+}
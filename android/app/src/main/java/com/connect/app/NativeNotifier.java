@@ -0,0 +1,226 @@
+package com.connect.app;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.graphics.Bitmap;
+import android.os.Build;
+import android.service.notification.StatusBarNotification;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import androidx.core.app.Person;
+import androidx.core.graphics.drawable.IconCompat;
+
+import java.util.Map;
+
+/**
+ * Posts call and message notifications straight from native code, so a push can be shown
+ * without waiting for React Native to boot. Channel ids match the ones created from JS
+ * (push.ts) so user channel settings apply to both paths.
+ */
+public final class NativeNotifier {
+    private static final String TAG = "NativeNotifier";
+    static final String CHANNEL_CALLS = "incoming_calls";
+    static final String CHANNEL_DEFAULT = "default";
+    static final int CALL_NOTIFICATION_ID = 2001;
+    private static final int REQUEST_ANSWER = CALL_NOTIFICATION_ID + 1;
+    private static final int REQUEST_DECLINE = CALL_NOTIFICATION_ID + 2;
+    // Stop ringing if nobody answers; the caller side gives up well before this
+    static final long CALL_TIMEOUT_MS = 60_000;
+
+    private NativeNotifier() {}
+
+    /**
+     * Post the ringing notification: a CallStyle notification whose full-screen intent opens
+     * MainActivity over the lock screen. Answer launches the activity with autoAccept;
+     * Decline goes to {@link CallActionReceiver}, which rejects without starting JS.
+     */
+    public static void showIncomingCall(Context context, IncomingCallPayload payload) {
+        try {
+            ensureChannels(context);
+            // Never wait on the network before ringing: post with whatever the cache has and
+            // update quietly once the picture arrives
+            AvatarCache avatars = AvatarCache.getInstance(context);
+            Bitmap avatar = avatars.getFromCache(payload.callerProfilePic);
+
+            // A single id so a newer call replaces a stale one instead of stacking
+            NotificationManagerCompat.from(context).notify(CALL_NOTIFICATION_ID, buildIncomingCall(context, payload, avatar));
+            Log.d(TAG, "Incoming call notification posted for " + payload.callerName);
+            SpeechWorkload.speak(context, payload.getAnnouncement(), "high", NotificationDedup.callKey(payload));
+
+            if (avatar == null) {
+                avatars.load(payload.callerProfilePic, bitmap -> {
+                    if (bitmap != null && isActive(context, CALL_NOTIFICATION_ID)) {
+                        notifyQuietly(context, CALL_NOTIFICATION_ID, buildIncomingCall(context, payload, bitmap));
+                    }
+                });
+            }
+        } catch (SecurityException e) {
+            Log.w(TAG, "Notification permission not granted", e);
+        } catch (Exception e) {
+            Log.e(TAG, "Error posting incoming call notification", e);
+        }
+    }
+
+    private static Notification buildIncomingCall(Context context, IncomingCallPayload payload, @Nullable Bitmap avatar) {
+        PendingIntent fullScreenIntent = PendingIntent.getActivity(
+            context, CALL_NOTIFICATION_ID, callScreenIntent(context, payload, false), pendingIntentFlags()
+        );
+        PendingIntent answerIntent = PendingIntent.getActivity(
+            context, REQUEST_ANSWER, callScreenIntent(context, payload, true), pendingIntentFlags()
+        );
+        PendingIntent declineIntent = PendingIntent.getBroadcast(
+            context, REQUEST_DECLINE, CallActionReceiver.declineIntent(context, payload), pendingIntentFlags()
+        );
+        Person.Builder caller = new Person.Builder()
+            .setName(payload.callerName)
+            .setImportant(true);
+        if (avatar != null) {
+            caller.setIcon(IconCompat.createWithBitmap(avatar));
+        }
+
+        return new NotificationCompat.Builder(context, CHANNEL_CALLS)
+            .setSmallIcon(R.drawable.ic_notification)
+            .setContentTitle(payload.getTitle())
+            .setContentText(payload.getBody())
+            .setStyle(NotificationCompat.CallStyle.forIncomingCall(caller.build(), declineIntent, answerIntent))
+            .setLargeIcon(avatar)
+            .setPriority(NotificationCompat.PRIORITY_MAX)
+            .setCategory(NotificationCompat.CATEGORY_CALL)
+            .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
+            .setOngoing(true)
+            .setTimeoutAfter(CALL_TIMEOUT_MS)
+            .setContentIntent(fullScreenIntent)
+            .setFullScreenIntent(fullScreenIntent, true)
+            .build();
+    }
+
+    public static void showMessage(Context context, String key, String title, String body, Map<String, String> data) {
+        try {
+            ensureChannels(context);
+            int id = key.hashCode();
+            String avatarUrl = IncomingCallPayload.firstNonEmpty(data, "", "senderProfilePic", "profilePic", "callerProfilePic");
+            AvatarCache avatars = AvatarCache.getInstance(context);
+            Bitmap avatar = avatars.getFromCache(avatarUrl);
+
+            NotificationManagerCompat.from(context).notify(id, buildMessage(context, id, title, body, data, avatar));
+
+            if (avatar == null) {
+                avatars.load(avatarUrl, bitmap -> {
+                    if (bitmap != null && isActive(context, id)) {
+                        notifyQuietly(context, id, buildMessage(context, id, title, body, data, bitmap));
+                    }
+                });
+            }
+        } catch (SecurityException e) {
+            Log.w(TAG, "Notification permission not granted", e);
+        } catch (Exception e) {
+            Log.e(TAG, "Error posting message notification", e);
+        }
+    }
+
+    private static Notification buildMessage(Context context, int id, String title, String body,
+                                             Map<String, String> data, @Nullable Bitmap avatar) {
+        Intent intent = new Intent(context, MainActivity.class);
+        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_SINGLE_TOP);
+        for (Map.Entry<String, String> entry : data.entrySet()) {
+            intent.putExtra(entry.getKey(), entry.getValue());
+        }
+        PendingIntent pendingIntent = PendingIntent.getActivity(context, id, intent, pendingIntentFlags());
+
+        return new NotificationCompat.Builder(context, CHANNEL_DEFAULT)
+            .setSmallIcon(R.drawable.ic_notification)
+            .setLargeIcon(avatar)
+            .setContentTitle(title)
+            .setContentText(body)
+            .setStyle(new NotificationCompat.BigTextStyle().bigText(body))
+            .setPriority(NotificationCompat.PRIORITY_HIGH)
+            .setCategory(NotificationCompat.CATEGORY_MESSAGE)
+            .setAutoCancel(true)
+            .setSilent(true)
+            .setContentIntent(pendingIntent)
+            .build();
+    }
+
+    /** Re-post an updated notification (e.g. with its avatar) without alerting again. */
+    private static void notifyQuietly(Context context, int id, Notification notification) {
+        try {
+            notification.flags |= Notification.FLAG_ONLY_ALERT_ONCE;
+            NotificationManagerCompat.from(context).notify(id, notification);
+        } catch (SecurityException e) {
+            Log.w(TAG, "Notification permission not granted", e);
+        }
+    }
+
+    private static boolean isActive(Context context, int id) {
+        NotificationManager manager = context.getSystemService(NotificationManager.class);
+        if (manager == null) {
+            return false;
+        }
+        for (StatusBarNotification active : manager.getActiveNotifications()) {
+            if (active.getId() == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Intent callScreenIntent(Context context, IncomingCallPayload payload, boolean autoAccept) {
+        Intent intent = new Intent(context, MainActivity.class);
+        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_SINGLE_TOP);
+        intent.putExtra("type", "incoming_call");
+        intent.putExtra("callerId", payload.callerId);
+        intent.putExtra("callerName", payload.callerName);
+        intent.putExtra("callerProfilePic", payload.callerProfilePic);
+        intent.putExtra("channelName", payload.channelName);
+        intent.putExtra("isAudio", payload.isAudio);
+        intent.putExtra("autoAccept", autoAccept);
+        return intent;
+    }
+
+    public static void cancelIncomingCall(Context context) {
+        NotificationManagerCompat.from(context).cancel(CALL_NOTIFICATION_ID);
+    }
+
+    static void ensureChannels(Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+            return;
+        }
+        NotificationManager manager = context.getSystemService(NotificationManager.class);
+        if (manager == null) {
+            return;
+        }
+        if (manager.getNotificationChannel(CHANNEL_CALLS) == null) {
+            NotificationChannel calls = new NotificationChannel(
+                CHANNEL_CALLS, "Incoming Calls", NotificationManager.IMPORTANCE_HIGH
+            );
+            calls.setDescription("Incoming call notifications - full screen alerts");
+            calls.setLockscreenVisibility(Notification.VISIBILITY_PUBLIC);
+            calls.setBypassDnd(true);
+            calls.setSound(null, null);
+            manager.createNotificationChannel(calls);
+        }
+        if (manager.getNotificationChannel(CHANNEL_DEFAULT) == null) {
+            NotificationChannel messages = new NotificationChannel(
+                CHANNEL_DEFAULT, "Default Notifications", NotificationManager.IMPORTANCE_HIGH
+            );
+            messages.setDescription("General app notifications");
+            messages.setSound(null, null);
+            messages.enableVibration(false);
+            manager.createNotificationChannel(messages);
+        }
+    }
+
+    static int pendingIntentFlags() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.M
+            ? PendingIntent.FLAG_IMMUTABLE | PendingIntent.FLAG_UPDATE_CURRENT
+            : PendingIntent.FLAG_UPDATE_CURRENT;
+    }
+}
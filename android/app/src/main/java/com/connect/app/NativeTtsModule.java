@@ -0,0 +1,80 @@
+package com.connect.app;
+
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableMap;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JS access to the native speech queue in {@link SpeechWorkload}. Calls are
+ * fire-and-forget intents, so they work the same from the main and :bg processes.
+ */
+public class NativeTtsModule extends ReactContextBaseJavaModule {
+    private static final String TAG = "NativeTtsModule";
+    private final ReactApplicationContext reactContext;
+
+    public NativeTtsModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+    }
+
+    @Override
+    public String getName() {
+        return "NativeTts";
+    }
+
+    /** options: { priority?: 'high' | 'normal' | 'low', coalesceKey?: string } */
+    @ReactMethod
+    public void speak(String text, @Nullable ReadableMap options) {
+        String priority = options != null && options.hasKey("priority") ? options.getString("priority") : "normal";
+        String coalesceKey = options != null && options.hasKey("coalesceKey") ? options.getString("coalesceKey") : null;
+        SpeechWorkload.speak(reactContext, text, priority, coalesceKey);
+    }
+
+    @ReactMethod
+    public void stop() {
+        SpeechWorkload.stopSpeaking(reactContext);
+    }
+
+    /** settings: any of { enabled, language, rate, pitch, volume } */
+    @ReactMethod
+    public void configure(ReadableMap settings) {
+        Bundle bundle = Arguments.toBundle(settings);
+        if (bundle != null) {
+            SpeechWorkload.configure(reactContext, bundle);
+        }
+    }
+
+    /**
+     * Resolves with the speech cache stats (entries, bytes, hits, misses, hitRate, evictions)
+     * as a JSON string, or null if nothing has been cached yet.
+     */
+    @ReactMethod
+    public void getCacheStats(Promise promise) {
+        File file = new File(new File(reactContext.getCacheDir(), SpeechEngine.CACHE_DIR), DiskLruCache.STATS_FILE);
+        if (!file.exists()) {
+            promise.resolve(null);
+            return;
+        }
+        try (FileInputStream in = new FileInputStream(file)) {
+            byte[] bytes = new byte[(int) file.length()];
+            int read = in.read(bytes);
+            promise.resolve(new String(bytes, 0, Math.max(read, 0), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            Log.e(TAG, "Error reading speech cache stats", e);
+            promise.reject("ERROR", e.getMessage());
+        }
+    }
+}
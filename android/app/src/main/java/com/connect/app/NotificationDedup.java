@@ -0,0 +1,72 @@
+package com.connect.app;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import java.io.File;
+
+/**
+ * Process-wide access to the shared notification {@link DedupTable}. Both the main and :bg
+ * processes map the same file, so a notification marked by one is a duplicate in the other.
+ */
+public final class NotificationDedup {
+    private static final String TAG = "NotificationDedup";
+    private static final String FILE_NAME = "notification_dedup.bin";
+    private static final int CAPACITY = 4096;
+
+    /** Same window the JS fcmNotificationCache used. */
+    public static final long DEFAULT_TTL_MS = 10000;
+    /** Calls ring for longer than a message burst, so keep their keys around longer. */
+    public static final long CALL_TTL_MS = 60000;
+
+    private static volatile DedupTable table;
+    private static volatile boolean failed;
+
+    private NotificationDedup() {}
+
+    static @Nullable DedupTable getTable(Context context) {
+        if (table == null && !failed) {
+            synchronized (NotificationDedup.class) {
+                if (table == null && !failed) {
+                    try {
+                        File file = new File(context.getApplicationContext().getFilesDir(), FILE_NAME);
+                        // elapsedRealtime is shared by all processes and doesn't jump with wall clock changes
+                        table = new DedupTable(file, CAPACITY, SystemClock::elapsedRealtime);
+                    } catch (Exception e) {
+                        Log.e(TAG, "Could not open dedup table, notifications won't be deduped", e);
+                        failed = true;
+                    }
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Returns true if {@code key} was already shown within {@code ttlMs}; otherwise records it.
+     */
+    public static boolean isDuplicate(Context context, String key, long ttlMs) {
+        DedupTable t = getTable(context);
+        if (t == null) {
+            return false;
+        }
+        try {
+            return t.checkAndMark(key, ttlMs);
+        } catch (Exception e) {
+            Log.w(TAG, "Dedup lookup failed for " + key, e);
+            return false;
+        }
+    }
+
+    public static String callKey(IncomingCallPayload payload) {
+        return "call_" + payload.channelName;
+    }
+
+    /** Keyed on the server message id so socket and FCM deliveries of a message collide. */
+    public static String chatKey(String messageId) {
+        return "chat_" + messageId;
+    }
+}
@@ -0,0 +1,50 @@
+package com.connect.app;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.WritableMap;
+
+/**
+ * JS access to the cross-process notification dedup table. Lookups are a few microseconds,
+ * so they are exposed as synchronous methods to keep them out of the async bridge queue.
+ */
+public class NotificationDedupModule extends ReactContextBaseJavaModule {
+    private final ReactApplicationContext reactContext;
+
+    public NotificationDedupModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+    }
+
+    @Override
+    public String getName() {
+        return "NotificationDedup";
+    }
+
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public boolean checkAndMark(String key, double ttlMs) {
+        return NotificationDedup.isDuplicate(reactContext, key, (long) ttlMs);
+    }
+
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public boolean contains(String key) {
+        DedupTable table = NotificationDedup.getTable(reactContext);
+        return table != null && table.contains(key);
+    }
+
+    @ReactMethod
+    public void getStats(Promise promise) {
+        DedupTable table = NotificationDedup.getTable(reactContext);
+        WritableMap stats = Arguments.createMap();
+        if (table != null) {
+            stats.putInt("capacity", table.getCapacity());
+            stats.putDouble("duplicates", table.getDuplicateCount());
+            stats.putDouble("inserts", table.getInsertCount());
+            stats.putDouble("evictions", table.getEvictionCount());
+        }
+        promise.resolve(stats);
+    }
+}
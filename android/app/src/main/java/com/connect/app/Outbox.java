@@ -0,0 +1,279 @@
+package com.connect.app;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Durable queue of outgoing chat events (send, seen, react, delete), backed by an
+ * {@link OutboxLog} write-ahead log in the app's files directory.
+ *
+ * Each event gets a sequence number and an idempotency key ("installId:seq") so the server
+ * can drop duplicates, since an event may be sent again if the app dies between sending and
+ * acking it. Appends are group-committed: the log is fsynced at most once per
+ * {@link #SYNC_WINDOW_MS}, or as soon as {@link #SYNC_BATCH} appends are waiting, and an
+ * append's callback only fires once its write is on disk. All log access runs on a single
+ * private HandlerThread.
+ */
+public class Outbox {
+    private static final String TAG = "Outbox";
+    private static final String LOG_FILE = "outbox/events.log";
+    private static final String PREFS_NAME = "outbox";
+    private static final String PREF_INSTALL_ID = "installId";
+
+    static final long SYNC_WINDOW_MS = 10;
+    static final int SYNC_BATCH = 32;
+    // Compact once this many acked frames are dead weight in the file
+    private static final int COMPACT_AFTER_ACKS = 512;
+
+    /**
+     * {@code entry} is non-null whenever the event made it into the log, even if the sync
+     * behind it failed ({@code error} set): it is pending and will be flushed like any other,
+     * so the caller must not send it some other way.
+     */
+    public interface Callback {
+        void onResult(@Nullable OutboxLog.Entry entry, @Nullable Exception error);
+    }
+
+    public interface JsonCallback {
+        void onJson(String json);
+    }
+
+    private static volatile Outbox instance;
+
+    private final Handler handler;
+    private final OutboxLog log;
+    private final String installId;
+    private final List<PendingSync> awaitingSync = new ArrayList<>();
+    private boolean syncScheduled = false;
+    private boolean opened = false;
+    // Highest seq known to be on disk; peek never hands out an event before its enqueue resolves
+    private long syncedSeq = 0;
+    private @Nullable IOException openError;
+
+    // Stats, handler thread only
+    private long appends = 0;
+    private long syncs = 0;
+    private long syncMsTotal = 0;
+    private long maxSyncBatch = 0;
+    private long acks = 0;
+    private long compactions = 0;
+
+    private static final class PendingSync {
+        final OutboxLog.Entry entry;
+        final Callback callback;
+
+        PendingSync(OutboxLog.Entry entry, Callback callback) {
+            this.entry = entry;
+            this.callback = callback;
+        }
+    }
+
+    private final Runnable syncRunnable = this::syncNow;
+
+    private Outbox(Context context) {
+        Context app = context.getApplicationContext();
+        this.log = new OutboxLog(new File(app.getFilesDir(), LOG_FILE));
+        this.installId = loadInstallId(app);
+        HandlerThread thread = new HandlerThread("outbox");
+        thread.start();
+        this.handler = new Handler(thread.getLooper());
+        handler.post(this::openLog);
+    }
+
+    public static Outbox getInstance(Context context) {
+        if (instance == null) {
+            synchronized (Outbox.class) {
+                if (instance == null) {
+                    instance = new Outbox(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    private static String loadInstallId(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        String id = prefs.getString(PREF_INSTALL_ID, null);
+        if (id == null) {
+            id = UUID.randomUUID().toString();
+            prefs.edit().putString(PREF_INSTALL_ID, id).commit();
+        }
+        return id;
+    }
+
+    private void openLog() {
+        try {
+            log.open();
+            opened = true;
+            syncedSeq = log.lastSeq();
+            Log.d(TAG, "Opened outbox: " + log.pendingCount() + " pending, last seq " + log.lastSeq()
+                + (log.truncatedBytes() > 0 ? ", dropped " + log.truncatedBytes() + " torn bytes" : ""));
+        } catch (IOException e) {
+            openError = e;
+            Log.e(TAG, "Could not open outbox log", e);
+        }
+    }
+
+    /** Log an event; {@code callback} receives the entry once the sync behind it has run. */
+    public void append(String event, String payloadJson, Callback callback) {
+        handler.post(() -> {
+            if (!opened) {
+                callback.onResult(null, openError != null ? openError : new IOException("Outbox not open"));
+                return;
+            }
+            try {
+                OutboxLog.Entry entry = log.append(installId, event, payloadJson, System.currentTimeMillis());
+                appends++;
+                awaitingSync.add(new PendingSync(entry, callback));
+                if (awaitingSync.size() >= SYNC_BATCH) {
+                    handler.removeCallbacks(syncRunnable);
+                    syncNow();
+                } else if (!syncScheduled) {
+                    syncScheduled = true;
+                    handler.postDelayed(syncRunnable, SYNC_WINDOW_MS);
+                }
+            } catch (IOException e) {
+                Log.e(TAG, "Error appending " + event, e);
+                callback.onResult(null, e);
+            }
+        });
+    }
+
+    private void syncNow() {
+        syncScheduled = false;
+        if (awaitingSync.isEmpty()) {
+            return;
+        }
+        List<PendingSync> batch = new ArrayList<>(awaitingSync);
+        awaitingSync.clear();
+        IOException error = null;
+        long startMs = SystemClock.elapsedRealtime();
+        try {
+            log.sync();
+        } catch (IOException e) {
+            Log.e(TAG, "Error syncing outbox", e);
+            error = e;
+        }
+        if (error == null) {
+            syncedSeq = batch.get(batch.size() - 1).entry.seq;
+        }
+        syncs++;
+        syncMsTotal += SystemClock.elapsedRealtime() - startMs;
+        maxSyncBatch = Math.max(maxSyncBatch, batch.size());
+        for (PendingSync pending : batch) {
+            try {
+                pending.callback.onResult(pending.entry, error);
+            } catch (Exception e) {
+                Log.e(TAG, "Outbox callback failed", e);
+            }
+        }
+    }
+
+    /**
+     * Retire sent events. Acks ride along with the next sync rather than forcing one: a lost
+     * ack only means a duplicate the server drops by idempotency key.
+     */
+    public void ack(long[] seqs) {
+        handler.post(() -> {
+            if (!opened) {
+                return;
+            }
+            try {
+                for (long seq : seqs) {
+                    if (log.ack(seq)) {
+                        acks++;
+                    }
+                }
+                if (log.ackedSinceCompaction() >= COMPACT_AFTER_ACKS && awaitingSync.isEmpty()) {
+                    log.compact();
+                    compactions++;
+                }
+            } catch (IOException e) {
+                Log.e(TAG, "Error acking outbox entries", e);
+            }
+        });
+    }
+
+    /** Up to {@code limit} unsent events, oldest first, as a JSON array. */
+    public void peek(int limit, JsonCallback callback) {
+        handler.post(() -> {
+            JSONArray batch = new JSONArray();
+            if (opened) {
+                for (OutboxLog.Entry entry : log.peek(limit)) {
+                    if (entry.seq > syncedSeq) {
+                        break;
+                    }
+                    try {
+                        batch.put(toJson(entry));
+                    } catch (JSONException e) {
+                        Log.w(TAG, "Error serializing outbox entry " + entry.seq, e);
+                    }
+                }
+            }
+            callback.onJson(batch.toString());
+        });
+    }
+
+    /** Drop every unsent event, e.g. when the user logs out. */
+    public void clear() {
+        handler.post(() -> {
+            if (!opened) {
+                return;
+            }
+            try {
+                log.clear();
+                compactions++;
+            } catch (IOException e) {
+                Log.e(TAG, "Error clearing outbox", e);
+            }
+        });
+    }
+
+    public void getStats(JsonCallback callback) {
+        handler.post(() -> {
+            JSONObject stats = new JSONObject();
+            try {
+                stats.put("opened", opened);
+                stats.put("pending", opened ? log.pendingCount() : 0);
+                stats.put("lastSeq", opened ? log.lastSeq() : 0);
+                stats.put("bytes", opened ? log.sizeBytes() : 0);
+                stats.put("appends", appends);
+                stats.put("syncs", syncs);
+                stats.put("avgSyncBatch", syncs == 0 ? 0 : (double) appends / syncs);
+                stats.put("maxSyncBatch", maxSyncBatch);
+                stats.put("avgSyncMs", syncs == 0 ? 0 : (double) syncMsTotal / syncs);
+                stats.put("acks", acks);
+                stats.put("compactions", compactions);
+            } catch (JSONException | IOException e) {
+                Log.w(TAG, "Error building outbox stats", e);
+            }
+            callback.onJson(stats.toString());
+        });
+    }
+
+    static JSONObject toJson(OutboxLog.Entry entry) throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("seq", entry.seq);
+        json.put("idempotencyKey", entry.idempotencyKey);
+        json.put("event", entry.event);
+        json.put("payload", entry.payloadJson);
+        json.put("createdAt", entry.createdAtMs);
+        return json;
+    }
+}
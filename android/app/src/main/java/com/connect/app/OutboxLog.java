@@ -0,0 +1,336 @@
+package com.connect.app;
+
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file behind {@link Outbox}. Each frame is
+ * {@code [type:1][length:4][crc32:4][body]}; an ENTRY frame carries one outgoing event, an
+ * ACK frame retires one, and a WATERMARK frame preserves the sequence counter across
+ * compaction. Replay stops at the first short, corrupt or undecodable frame, which should
+ * only be the tail of a write cut off by process death, and truncates it away.
+ *
+ * Writes are not forced to disk here; the owner batches {@link #sync} calls. Not
+ * thread-safe; {@link Outbox} only touches it from its own thread.
+ */
+final class OutboxLog {
+    private static final byte TYPE_ENTRY = 1;
+    private static final byte TYPE_ACK = 2;
+    private static final byte TYPE_WATERMARK = 3;
+    private static final int HEADER_BYTES = 9;
+    // A corrupt length must not make replay allocate the heap away
+    private static final int MAX_BODY_BYTES = 1 << 20;
+
+    static final class Entry {
+        final long seq;
+        final String idempotencyKey;
+        final String event;
+        final String payloadJson;
+        final long createdAtMs;
+
+        Entry(long seq, String idempotencyKey, String event, String payloadJson, long createdAtMs) {
+            this.seq = seq;
+            this.idempotencyKey = idempotencyKey;
+            this.event = event;
+            this.payloadJson = payloadJson;
+            this.createdAtMs = createdAtMs;
+        }
+    }
+
+    private final File file;
+    private RandomAccessFile raf;
+    private FileChannel channel;
+    // Unacked entries in sequence order
+    private final LinkedHashMap<Long, Entry> pending = new LinkedHashMap<>();
+    private long lastSeq = 0;
+    private int ackedSinceCompaction = 0;
+    private long truncatedBytes = 0;
+
+    OutboxLog(File file) {
+        this.file = file;
+    }
+
+    /** Replay the file into memory and open it for appending. */
+    void open() throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Could not create " + parent);
+        }
+        long validBytes = replay();
+        raf = new RandomAccessFile(file, "rw");
+        channel = raf.getChannel();
+        if (channel.size() > validBytes) {
+            truncatedBytes = channel.size() - validBytes;
+            channel.truncate(validBytes);
+        }
+        channel.position(validBytes);
+    }
+
+    private long replay() throws IOException {
+        if (!file.exists()) {
+            return 0;
+        }
+        long valid = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                byte type;
+                int length;
+                int crc;
+                try {
+                    type = in.readByte();
+                    length = in.readInt();
+                    crc = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length < 0 || length > MAX_BODY_BYTES) {
+                    break;
+                }
+                byte[] body = new byte[length];
+                try {
+                    in.readFully(body);
+                } catch (EOFException e) {
+                    break;
+                }
+                if (crc(body) != crc || !apply(type, body)) {
+                    break;
+                }
+                valid += HEADER_BYTES + length;
+            }
+        }
+        return valid;
+    }
+
+    /** Returns false for a frame that passed its CRC but can't be decoded. */
+    private boolean apply(byte type, byte[] body) {
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        if (type == TYPE_ENTRY) {
+            Entry entry = decodeEntry(buffer);
+            if (entry == null) {
+                return false;
+            }
+            pending.put(entry.seq, entry);
+            lastSeq = Math.max(lastSeq, entry.seq);
+        } else if (type == TYPE_ACK || type == TYPE_WATERMARK) {
+            if (body.length != 8) {
+                return false;
+            }
+            long value = buffer.getLong();
+            if (type == TYPE_WATERMARK) {
+                lastSeq = Math.max(lastSeq, value);
+            } else if (pending.remove(value) != null) {
+                ackedSinceCompaction++;
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /** Assign the next sequence number and append the event. Durable after {@link #sync}. */
+    Entry append(String keyPrefix, String event, String payloadJson, long nowMs) throws IOException {
+        long seq = lastSeq + 1;
+        Entry entry = new Entry(seq, keyPrefix + ":" + seq, event, payloadJson, nowMs);
+        byte[] body = encodeEntry(entry);
+        // Replay stops at an oversized frame, which would drop it and everything after it
+        if (body.length > MAX_BODY_BYTES) {
+            throw new IOException("Outbox entry too large: " + body.length + " bytes");
+        }
+        appendFrame(TYPE_ENTRY, body);
+        lastSeq = seq;
+        pending.put(seq, entry);
+        return entry;
+    }
+
+    /** Retire an entry. Returns false if it was not pending. */
+    boolean ack(long seq) throws IOException {
+        if (!pending.containsKey(seq)) {
+            return false;
+        }
+        appendFrame(TYPE_ACK, ByteBuffer.allocate(8).putLong(seq).array());
+        pending.remove(seq);
+        ackedSinceCompaction++;
+        return true;
+    }
+
+    void sync() throws IOException {
+        channel.force(false);
+    }
+
+    /** Up to {@code limit} unacked entries, oldest first. */
+    List<Entry> peek(int limit) {
+        List<Entry> batch = new ArrayList<>(Math.min(limit, pending.size()));
+        for (Entry entry : pending.values()) {
+            if (batch.size() >= limit) {
+                break;
+            }
+            batch.add(entry);
+        }
+        return batch;
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    long lastSeq() {
+        return lastSeq;
+    }
+
+    long sizeBytes() throws IOException {
+        return channel.size();
+    }
+
+    int ackedSinceCompaction() {
+        return ackedSinceCompaction;
+    }
+
+    long truncatedBytes() {
+        return truncatedBytes;
+    }
+
+    /**
+     * Rewrite the log with only the pending entries plus a watermark, so acked history does
+     * not grow the file forever. The new file is synced and renamed over the old one.
+     */
+    void compact() throws IOException {
+        rewrite(pending.values());
+        ackedSinceCompaction = 0;
+    }
+
+    /** Drop every pending entry (e.g. on logout). The sequence counter keeps counting. */
+    void clear() throws IOException {
+        rewrite(new ArrayList<>());
+        pending.clear();
+        ackedSinceCompaction = 0;
+    }
+
+    /**
+     * Replace the file with a watermark plus {@code entries}. The open channel is only swapped
+     * once the rename succeeded, so a failure leaves the log usable as it was.
+     */
+    private void rewrite(Iterable<Entry> entries) throws IOException {
+        File temp = new File(file.getPath() + ".compact");
+        try (RandomAccessFile out = new RandomAccessFile(temp, "rw")) {
+            out.setLength(0);
+            FileChannel tempChannel = out.getChannel();
+            writeFrame(tempChannel, TYPE_WATERMARK, ByteBuffer.allocate(8).putLong(lastSeq).array());
+            for (Entry entry : entries) {
+                writeFrame(tempChannel, TYPE_ENTRY, encodeEntry(entry));
+            }
+            tempChannel.force(true);
+        }
+        // Renaming over a file that is still open is fine here; the old handle keeps the
+        // replaced file until it is closed below
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Could not replace " + file);
+        }
+        RandomAccessFile replaced = raf;
+        raf = new RandomAccessFile(file, "rw");
+        channel = raf.getChannel();
+        channel.position(channel.size());
+        if (replaced != null) {
+            replaced.close();
+        }
+    }
+
+    void close() throws IOException {
+        if (raf != null) {
+            raf.close();
+            raf = null;
+            channel = null;
+        }
+    }
+
+    /**
+     * Append a frame to the log. A frame cut short by a failed write is truncated away, since
+     * replay would otherwise stop there and drop every frame appended after it.
+     */
+    private void appendFrame(byte type, byte[] body) throws IOException {
+        long start = channel.position();
+        try {
+            writeFrame(channel, type, body);
+        } catch (IOException e) {
+            try {
+                channel.truncate(start);
+                channel.position(start);
+            } catch (IOException truncateError) {
+                e.addSuppressed(truncateError);
+            }
+            throw e;
+        }
+    }
+
+    private static void writeFrame(FileChannel target, byte type, byte[] body) throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + body.length);
+        frame.put(type).putInt(body.length).putInt(crc(body)).put(body);
+        frame.flip();
+        while (frame.hasRemaining()) {
+            target.write(frame);
+        }
+    }
+
+    private static byte[] encodeEntry(Entry entry) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + entry.payloadJson.length());
+        ByteBuffer fixed = ByteBuffer.allocate(16).putLong(entry.seq).putLong(entry.createdAtMs);
+        out.write(fixed.array(), 0, 16);
+        writeString(out, entry.idempotencyKey);
+        writeString(out, entry.event);
+        writeString(out, entry.payloadJson);
+        return out.toByteArray();
+    }
+
+    /** Null when the body doesn't hold a whole entry. */
+    private static @Nullable Entry decodeEntry(ByteBuffer buffer) {
+        try {
+            long seq = buffer.getLong();
+            long createdAtMs = buffer.getLong();
+            String key = readString(buffer);
+            String event = readString(buffer);
+            String payload = readString(buffer);
+            return new Entry(seq, key, event, payload, createdAtMs);
+        } catch (RuntimeException e) {
+            // Negative or oversized string lengths, or a short body
+            return null;
+        }
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.write(ByteBuffer.allocate(4).putInt(bytes.length).array(), 0, 4);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int crc(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body, 0, body.length);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,73 @@
+package com.connect.app;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.WritableMap;
+
+/**
+ * JS access to the durable {@link Outbox}. {@code enqueue} resolves once the event is on
+ * disk; JS sends it, and everything {@code peek} returns after a reconnect, with the
+ * idempotency key attached and then acks it.
+ */
+public class OutboxModule extends ReactContextBaseJavaModule {
+    private final ReactApplicationContext reactContext;
+
+    public OutboxModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+    }
+
+    @Override
+    public String getName() {
+        return "Outbox";
+    }
+
+    /**
+     * Resolves with {seq, idempotencyKey, durable} once the event is logged; durable is false
+     * when the sync failed, but the entry is still pending and goes out with the next flush.
+     * Rejects only if nothing was logged.
+     */
+    @ReactMethod
+    public void enqueue(String event, String payloadJson, Promise promise) {
+        Outbox.getInstance(reactContext).append(event, payloadJson, (entry, error) -> {
+            if (entry == null) {
+                promise.reject("ERROR", error != null ? error.getMessage() : "Outbox append failed");
+                return;
+            }
+            WritableMap result = Arguments.createMap();
+            result.putDouble("seq", entry.seq);
+            result.putString("idempotencyKey", entry.idempotencyKey);
+            result.putBoolean("durable", error == null);
+            promise.resolve(result);
+        });
+    }
+
+    /** Resolves with up to {@code limit} unsent events as a JSON array string. */
+    @ReactMethod
+    public void peek(double limit, Promise promise) {
+        Outbox.getInstance(reactContext).peek((int) limit, promise::resolve);
+    }
+
+    @ReactMethod
+    public void ack(ReadableArray seqs) {
+        long[] values = new long[seqs.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) seqs.getDouble(i);
+        }
+        Outbox.getInstance(reactContext).ack(values);
+    }
+
+    @ReactMethod
+    public void clear() {
+        Outbox.getInstance(reactContext).clear();
+    }
+
+    @ReactMethod
+    public void getStats(Promise promise) {
+        Outbox.getInstance(reactContext).getStats(promise::resolve);
+    }
+}
@@ -0,0 +1,91 @@
+package com.connect.app;
+
+import android.util.Log;
+
+import com.connect.app.overlay.FloatingOverlayModule;
+import com.facebook.react.ReactPackage;
+import com.facebook.react.bridge.NativeModule;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.shell.MainReactPackage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Declares which React packages each process gets.
+ *
+ * The main process gets the full autolinked {@code PackageList}. The :bg process only runs
+ * headless tasks (index.js hands it to headless.js, which never loads App), so it gets an
+ * allowlist resolved by name in {@link ProcessAllowlist}: the autolinked list (and every
+ * package constructor in it) is never built there. The app's own modules are served through a
+ * {@link LazyModulePackage} in both processes, so they're only constructed on first use.
+ */
+public final class PackageManifest {
+    private static final String TAG = "PackageManifest";
+
+    public interface ModuleFactory {
+        NativeModule create(ReactApplicationContext reactContext);
+    }
+
+    static final class ModuleSpec {
+        final String name;
+        final String className;
+        final ModuleFactory factory;
+
+        ModuleSpec(String name, Class<?> moduleClass, ModuleFactory factory) {
+            this.name = name;
+            this.className = moduleClass.getName();
+            this.factory = factory;
+        }
+    }
+
+    /** The app's own native modules; {@link ProcessAllowlist#BACKGROUND_MODULES} picks the ones :bg gets. */
+    static final List<ModuleSpec> APP_MODULES = Collections.unmodifiableList(Arrays.asList(
+        new ModuleSpec("CallNotificationModule", CallNotificationModule.class, CallNotificationModule::new),
+        new ModuleSpec("FloatingOverlay", FloatingOverlayModule.class, FloatingOverlayModule::new),
+        new ModuleSpec("RealtimeConnection", RealtimeConnectionModule.class, RealtimeConnectionModule::new),
+        new ModuleSpec("NotificationDedup", NotificationDedupModule.class, NotificationDedupModule::new),
+        new ModuleSpec("StartupTrace", StartupTraceModule.class, StartupTraceModule::new),
+        new ModuleSpec("NativeTts", NativeTtsModule.class, NativeTtsModule::new),
+        new ModuleSpec("AvatarCache", AvatarCacheModule.class, AvatarCacheModule::new),
+        new ModuleSpec("ServiceHost", ServiceHostModule.class, ServiceHostModule::new),
+        new ModuleSpec("Outbox", OutboxModule.class, OutboxModule::new),
+        new ModuleSpec("MessageStore", MessageStoreModule.class, MessageStoreModule::new),
+        new ModuleSpec("KvStore", KvStoreModule.class, KvStoreModule::new),
+        new ModuleSpec("EmotionFrames", EmotionFrameModule.class, EmotionFrameModule::new),
+        new ModuleSpec("DownloadEngine", DownloadEngineModule.class, DownloadEngineModule::new),
+        new ModuleSpec("MediaIndex", MediaIndexModule.class, MediaIndexModule::new),
+        new ModuleSpec("Thumbnails", ThumbnailModule.class, ThumbnailModule::new),
+        new ModuleSpec("HttpClient", HttpClientModule.class, HttpClientModule::new),
+        new ModuleSpec("MediaPrefetch", MediaPrefetchModule.class, MediaPrefetchModule::new),
+        new ModuleSpec("ChessEngine", ChessEngineModule.class, ChessEngineModule::new),
+        new ModuleSpec("Ludo", LudoModule.class, LudoModule::new)
+    ));
+
+    private PackageManifest() {}
+
+    public static List<ReactPackage> resolve(Supplier<List<ReactPackage>> autolinked, boolean backgroundProcess) {
+        List<ReactPackage> packages = backgroundProcess
+            ? instantiateBackgroundPackages()
+            : new ArrayList<>(autolinked.get());
+        packages.add(new LazyModulePackage(appModulesFor(backgroundProcess)));
+        Log.d(TAG, "Resolved " + packages.size() + " packages for "
+            + (backgroundProcess ? "background" : "main") + " process");
+        return packages;
+    }
+
+    static List<ModuleSpec> appModulesFor(boolean backgroundProcess) {
+        return ProcessAllowlist.modulesFor(APP_MODULES, spec -> spec.name, backgroundProcess);
+    }
+
+    private static List<ReactPackage> instantiateBackgroundPackages() {
+        List<ReactPackage> packages = new ArrayList<>();
+        packages.add(new MainReactPackage());
+        packages.addAll(ProcessAllowlist.instantiate(ProcessAllowlist.BACKGROUND_PACKAGES, ReactPackage.class,
+            (className, e) -> Log.w(TAG, "Could not instantiate background package " + className, e)));
+        return packages;
+    }
+}
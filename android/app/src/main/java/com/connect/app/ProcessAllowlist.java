@@ -0,0 +1,81 @@
+package com.connect.app;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * The Android-free half of {@link PackageManifest}: what the :bg process is allowed to load,
+ * by name, and the filtering that applies it. Kept free of framework types so the benchmarks
+ * module can compile and measure it as shipped.
+ */
+final class ProcessAllowlist {
+    /**
+     * Third-party packages reachable from the KeepAliveTask chain: storage, notifee and
+     * expo-notifications (push.ts). Classes must be kept in proguard-rules.pro since they're
+     * loaded by name.
+     */
+    static final List<String> BACKGROUND_PACKAGES = Collections.unmodifiableList(Arrays.asList(
+        "com.reactnativecommunity.asyncstorage.AsyncStoragePackage",
+        "io.invertase.notifee.NotifeePackage",
+        "expo.modules.ExpoModulesPackage"
+    ));
+
+    /** The app's own modules headless tasks call into; everything else is main-process only. */
+    static final Set<String> BACKGROUND_MODULES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "CallNotificationModule",
+        "RealtimeConnection",
+        "NotificationDedup",
+        "StartupTrace",
+        "NativeTts",
+        "KvStore",
+        "HttpClient"
+    )));
+
+    private ProcessAllowlist() {}
+
+    static boolean isBackgroundModule(String name) {
+        return BACKGROUND_MODULES.contains(name);
+    }
+
+    /** The modules a process should expose, in declaration order. The main process gets all of them. */
+    static <T> List<T> modulesFor(List<T> modules, Function<T, String> name, boolean backgroundProcess) {
+        if (!backgroundProcess) {
+            return modules;
+        }
+        List<T> allowed = new ArrayList<>();
+        for (T module : modules) {
+            if (isBackgroundModule(name.apply(module))) {
+                allowed.add(module);
+            }
+        }
+        return allowed;
+    }
+
+    /**
+     * Instantiates each named class that is on the classpath and assignable to {@code type}.
+     * Classes missing from this build are skipped silently; any other failure is handed to
+     * {@code onError} and skipped.
+     */
+    static <T> List<T> instantiate(List<String> classNames, Class<T> type, BiConsumer<String, Exception> onError) {
+        List<T> instances = new ArrayList<>();
+        for (String className : classNames) {
+            try {
+                Object instance = Class.forName(className).getDeclaredConstructor().newInstance();
+                if (type.isInstance(instance)) {
+                    instances.add(type.cast(instance));
+                }
+            } catch (ClassNotFoundException e) {
+                // Library not installed in this build
+            } catch (Exception e) {
+                onError.accept(className, e);
+            }
+        }
+        return instances;
+    }
+}
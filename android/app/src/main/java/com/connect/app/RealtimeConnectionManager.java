@@ -0,0 +1,457 @@
+package com.connect.app;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import io.socket.client.IO;
+import io.socket.client.Socket;
+import io.socket.engineio.client.transports.WebSocket;
+
+/**
+ * Native owner of the realtime socket.io link.
+ *
+ * Replaces the JS polling loop in pushBackgroundService.ts: reconnects are driven by
+ * ConnectivityManager callbacks plus jittered exponential backoff, and events are handed
+ * to whichever listeners are attached (the React module only attaches while JS listens).
+ * Incoming calls that arrive with nobody listening are posted through {@link NativeNotifier}.
+ * All state transitions run on a single private HandlerThread.
+ */
+public class RealtimeConnectionManager {
+    private static final String TAG = "RealtimeConnection";
+    private static final String PREFS_NAME = "realtime_connection";
+    private static final String PREF_SERVER_URL = "serverUrl";
+    private static final String PREF_PROFILE_ID = "profileId";
+    private static final String PREF_EVENTS = "events";
+
+    private static final long BACKOFF_BASE_MS = 1000;
+    private static final long BACKOFF_MAX_MS = 60000;
+    private static final int CONNECT_TIMEOUT_MS = 20000;
+
+    /** Events the background process always needs, mirroring pushBackgroundService.ts. */
+    static final Set<String> DEFAULT_EVENTS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "incoming_call",
+        "incoming-call",
+        "incoming-audio-call",
+        "incoming-video-call",
+        "speak_message",
+        "speak-message"
+    )));
+
+    /** Subset of {@link #DEFAULT_EVENTS} that rings even when no JS listener is attached. */
+    static final Set<String> CALL_EVENTS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "incoming_call",
+        "incoming-call",
+        "incoming-audio-call",
+        "incoming-video-call"
+    )));
+
+    public interface Listener {
+        void onEvent(String event, @Nullable String payloadJson);
+
+        void onConnectionStateChanged(boolean connected);
+    }
+
+    private static volatile RealtimeConnectionManager instance;
+
+    private final Context context;
+    private final SharedPreferences prefs;
+    private final Handler handler;
+    private final Random random = new Random();
+    private final CopyOnWriteArraySet<Listener> listeners = new CopyOnWriteArraySet<>();
+
+    private @Nullable Socket socket;
+    private @Nullable String serverUrl;
+    private @Nullable String profileId;
+    private Set<String> events = new HashSet<>(DEFAULT_EVENTS);
+    private boolean started;
+    private boolean networkAvailable = true;
+    private boolean networkCallbackRegistered;
+    private int attempt;
+    private long disconnectedAtMs;
+
+    private final Runnable reconnectRunnable = this::connectNow;
+
+    private final ConnectivityManager.NetworkCallback networkCallback = new ConnectivityManager.NetworkCallback() {
+        @Override
+        public void onAvailable(Network network) {
+            handler.post(() -> {
+                networkAvailable = true;
+                if (started && !isConnected()) {
+                    // A fresh network invalidates the backoff we accumulated while offline
+                    attempt = 0;
+                    handler.removeCallbacks(reconnectRunnable);
+                    connectNow();
+                }
+            });
+        }
+
+        @Override
+        public void onLost(Network network) {
+            handler.post(() -> {
+                networkAvailable = false;
+                // Nothing can succeed until onAvailable, so don't burn retries
+                handler.removeCallbacks(reconnectRunnable);
+            });
+        }
+    };
+
+    private RealtimeConnectionManager(Context context) {
+        this.context = context.getApplicationContext();
+        this.prefs = this.context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        HandlerThread thread = new HandlerThread("realtime-connection");
+        thread.start();
+        this.handler = new Handler(thread.getLooper());
+    }
+
+    public static RealtimeConnectionManager getInstance(Context context) {
+        if (instance == null) {
+            synchronized (RealtimeConnectionManager.class) {
+                if (instance == null) {
+                    instance = new RealtimeConnectionManager(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Start (or retarget) the connection and persist the configuration so the link can be
+     * brought back after process death without waiting for JS.
+     */
+    public void start(String serverUrl, String profileId, @Nullable Set<String> extraEvents) {
+        Set<String> merged = new HashSet<>(DEFAULT_EVENTS);
+        if (extraEvents != null) {
+            merged.addAll(extraEvents);
+        }
+        prefs.edit()
+            .putString(PREF_SERVER_URL, serverUrl)
+            .putString(PREF_PROFILE_ID, profileId)
+            .putStringSet(PREF_EVENTS, merged)
+            .apply();
+        handler.post(() -> startInternal(serverUrl, profileId, merged));
+    }
+
+    /**
+     * Resume from the persisted configuration. Returns false when no session was ever started.
+     */
+    public boolean resume() {
+        String url = prefs.getString(PREF_SERVER_URL, null);
+        String id = prefs.getString(PREF_PROFILE_ID, null);
+        if (url == null || id == null) {
+            return false;
+        }
+        Set<String> saved = prefs.getStringSet(PREF_EVENTS, DEFAULT_EVENTS);
+        Set<String> copy = new HashSet<>(saved);
+        handler.post(() -> {
+            if (!started) {
+                startInternal(url, id, copy);
+            }
+        });
+        return true;
+    }
+
+    /** Tear down the link and forget the session (logout). */
+    public void stop() {
+        prefs.edit().clear().apply();
+        handler.post(() -> {
+            started = false;
+            handler.removeCallbacks(reconnectRunnable);
+            unregisterNetworkCallback();
+            closeSocket();
+            serverUrl = null;
+            profileId = null;
+            notifyState(false);
+        });
+    }
+
+    public boolean isConnected() {
+        Socket s = socket;
+        return s != null && s.connected();
+    }
+
+    /** Emit to the server if connected. Returns false when the link is currently down. */
+    public boolean emit(String event, @Nullable String payloadJson) {
+        Socket s = socket;
+        if (s == null || !s.connected()) {
+            return false;
+        }
+        s.emit(event, parsePayload(payloadJson));
+        return true;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /** The session's profile id, falling back to the signed-in user JS stored natively. */
+    public @Nullable String getProfileId() {
+        String id = prefs.getString(PREF_PROFILE_ID, null);
+        return id != null ? id : AppStorage.getProfileId(context);
+    }
+
+    private void startInternal(String url, String id, Set<String> eventSet) {
+        boolean sameTarget = url.equals(serverUrl) && id.equals(profileId) && eventSet.equals(events);
+        started = true;
+        registerNetworkCallback();
+        if (sameTarget && socket != null) {
+            if (!isConnected()) {
+                connectNow();
+            }
+            return;
+        }
+        closeSocket();
+        serverUrl = url;
+        profileId = id;
+        events = eventSet;
+        attempt = 0;
+        connectNow();
+    }
+
+    private void connectNow() {
+        if (!started || serverUrl == null || profileId == null) {
+            return;
+        }
+        if (!networkAvailable) {
+            Log.d(TAG, "No network, waiting for NetworkCallback before reconnecting");
+            return;
+        }
+        try {
+            if (socket == null) {
+                socket = createSocket(serverUrl, profileId);
+            }
+            if (!socket.connected()) {
+                socket.connect();
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error creating socket", e);
+            scheduleReconnect();
+        }
+    }
+
+    private Socket createSocket(String url, String id) {
+        IO.Options options = IO.Options.builder()
+            .setTransports(new String[] { WebSocket.NAME })
+            .setQuery("profile=" + id)
+            .setTimeout(CONNECT_TIMEOUT_MS)
+            .setForceNew(true)
+            // Backoff is owned here so it can react to network changes
+            .setReconnection(false)
+            .build();
+        Socket s = IO.socket(URI.create(url), options);
+
+        s.on(Socket.EVENT_CONNECT, args -> handler.post(() -> {
+            long downFor = disconnectedAtMs > 0 ? SystemClock.elapsedRealtime() - disconnectedAtMs : 0;
+            Log.d(TAG, "Connected after " + attempt + " retries (down " + downFor + "ms)");
+            attempt = 0;
+            disconnectedAtMs = 0;
+            handler.removeCallbacks(reconnectRunnable);
+            notifyState(true);
+        }));
+        s.on(Socket.EVENT_DISCONNECT, args -> handler.post(() -> {
+            Log.d(TAG, "Disconnected: " + (args.length > 0 ? args[0] : ""));
+            onConnectionLost();
+        }));
+        s.on(Socket.EVENT_CONNECT_ERROR, args -> handler.post(() -> {
+            Log.w(TAG, "Connect error: " + (args.length > 0 ? args[0] : ""));
+            onConnectionLost();
+        }));
+
+        for (String event : events) {
+            s.on(event, args -> dispatchEvent(event, args));
+        }
+        return s;
+    }
+
+    private void onConnectionLost() {
+        if (disconnectedAtMs == 0) {
+            disconnectedAtMs = SystemClock.elapsedRealtime();
+        }
+        notifyState(false);
+        scheduleReconnect();
+    }
+
+    private void scheduleReconnect() {
+        if (!started || !networkAvailable) {
+            return;
+        }
+        long delay = computeBackoffDelay(attempt, random);
+        attempt++;
+        handler.removeCallbacks(reconnectRunnable);
+        handler.postDelayed(reconnectRunnable, delay);
+        Log.d(TAG, "Reconnect attempt " + attempt + " in " + delay + "ms");
+    }
+
+    /**
+     * Equal-jitter exponential backoff: half of the capped window is fixed, the other half
+     * random, so clients that dropped together don't reconnect together.
+     */
+    static long computeBackoffDelay(int attempt, Random random) {
+        long window = BACKOFF_BASE_MS << Math.min(attempt, 16);
+        if (window > BACKOFF_MAX_MS || window <= 0) {
+            window = BACKOFF_MAX_MS;
+        }
+        long half = window / 2;
+        return half + (long) (random.nextDouble() * half);
+    }
+
+    private void closeSocket() {
+        Socket s = socket;
+        socket = null;
+        if (s != null) {
+            try {
+                s.off();
+                s.disconnect();
+            } catch (Exception e) {
+                Log.w(TAG, "Error closing socket", e);
+            }
+        }
+    }
+
+    private void registerNetworkCallback() {
+        if (networkCallbackRegistered) {
+            return;
+        }
+        try {
+            ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+            if (cm != null) {
+                cm.registerDefaultNetworkCallback(networkCallback);
+                networkCallbackRegistered = true;
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Could not register network callback, relying on backoff only", e);
+        }
+    }
+
+    private void unregisterNetworkCallback() {
+        if (!networkCallbackRegistered) {
+            return;
+        }
+        try {
+            ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+            if (cm != null) {
+                cm.unregisterNetworkCallback(networkCallback);
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Error unregistering network callback", e);
+        }
+        networkCallbackRegistered = false;
+        networkAvailable = true;
+    }
+
+    private void dispatchEvent(String event, Object[] args) {
+        if (listeners.isEmpty()) {
+            if (CALL_EVENTS.contains(event) && args.length > 0 && args[0] instanceof JSONObject) {
+                // JS isn't up to take it (the usual case in :bg), so ring from here
+                showIncomingCall((JSONObject) args[0]);
+            } else {
+                Log.d(TAG, "No listener attached, dropping " + event);
+            }
+            return;
+        }
+        String payload = args.length > 0 ? payloadToJson(args[0]) : null;
+        for (Listener listener : listeners) {
+            try {
+                listener.onEvent(event, payload);
+            } catch (Exception e) {
+                Log.e(TAG, "Listener failed for " + event, e);
+            }
+        }
+    }
+
+    private void showIncomingCall(JSONObject raw) {
+        IncomingCallPayload payload = IncomingCallPayload.fromMap(flatten(raw));
+        if (!payload.isValid()) {
+            Log.w(TAG, "Dropping incoming call without channel or caller");
+            return;
+        }
+        // Same key as the FCM path, so whichever delivery lands second stays silent
+        if (NotificationDedup.isDuplicate(context, NotificationDedup.callKey(payload), NotificationDedup.CALL_TTL_MS)) {
+            Log.d(TAG, "Skipping duplicate call notification: " + payload.channelName);
+            return;
+        }
+        NativeNotifier.showIncomingCall(context, payload);
+    }
+
+    /** Top-level scalar fields as strings, the shape FCM data payloads arrive in. */
+    static Map<String, String> flatten(JSONObject json) {
+        Map<String, String> map = new HashMap<>();
+        Iterator<String> keys = json.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            Object value = json.opt(key);
+            if (value != null && value != JSONObject.NULL
+                && !(value instanceof JSONObject) && !(value instanceof JSONArray)) {
+                map.put(key, String.valueOf(value));
+            }
+        }
+        return map;
+    }
+
+    private void notifyState(boolean connected) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onConnectionStateChanged(connected);
+            } catch (Exception e) {
+                Log.e(TAG, "Listener failed for state change", e);
+            }
+        }
+    }
+
+    static @Nullable String payloadToJson(@Nullable Object arg) {
+        if (arg == null || arg == JSONObject.NULL) {
+            return null;
+        }
+        if (arg instanceof JSONObject || arg instanceof JSONArray) {
+            return arg.toString();
+        }
+        if (arg instanceof String) {
+            return JSONObject.quote((String) arg);
+        }
+        return String.valueOf(arg);
+    }
+
+    private static Object parsePayload(@Nullable String payloadJson) {
+        if (payloadJson == null || payloadJson.isEmpty()) {
+            return new JSONObject();
+        }
+        try {
+            String trimmed = payloadJson.trim();
+            if (trimmed.startsWith("[")) {
+                return new JSONArray(trimmed);
+            }
+            if (trimmed.startsWith("{")) {
+                return new JSONObject(trimmed);
+            }
+        } catch (JSONException e) {
+            Log.w(TAG, "Payload is not valid JSON, sending as string");
+        }
+        return payloadJson;
+    }
+}
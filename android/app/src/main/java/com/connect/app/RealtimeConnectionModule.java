@@ -0,0 +1,161 @@
+package com.connect.app;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Exposes {@link RealtimeConnectionManager} to JS. The module only subscribes to the manager
+ * while JS has listeners attached, so a backgrounded runtime isn't woken for every event.
+ * Socket events reach JS in frame-paced batches through a {@link JsEventDispatcher}. The native
+ * link only carries call and speech events, which must all arrive, so nothing is coalesced
+ * unless JS adds rules through {@link #configureDelivery}.
+ */
+public class RealtimeConnectionModule extends ReactContextBaseJavaModule {
+    private static final String TAG = "RealtimeConnectionModule";
+    static final String EVENT_BATCH = "RealtimeConnectionBatch";
+    static final String EVENT_STATE = "RealtimeConnectionState";
+
+    private final ReactApplicationContext reactContext;
+    private final JsEventDispatcher dispatcher;
+    private int listenerCount = 0;
+
+    private final RealtimeConnectionManager.Listener listener = new RealtimeConnectionManager.Listener() {
+        @Override
+        public void onEvent(String event, @Nullable String payloadJson) {
+            dispatcher.dispatch(event, payloadJson);
+        }
+
+        @Override
+        public void onConnectionStateChanged(boolean connected) {
+            WritableMap params = Arguments.createMap();
+            params.putBoolean("connected", connected);
+            sendEvent(EVENT_STATE, params);
+        }
+    };
+
+    public RealtimeConnectionModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+        this.dispatcher = new JsEventDispatcher(reactContext, EVENT_BATCH);
+    }
+
+    @Override
+    public String getName() {
+        return "RealtimeConnection";
+    }
+
+    @ReactMethod
+    public void start(String serverUrl, String profileId, @Nullable ReadableArray extraEvents, Promise promise) {
+        try {
+            Set<String> events = new HashSet<>();
+            if (extraEvents != null) {
+                for (int i = 0; i < extraEvents.size(); i++) {
+                    String event = extraEvents.getString(i);
+                    if (event != null) {
+                        events.add(event);
+                    }
+                }
+            }
+            RealtimeConnectionManager.getInstance(reactContext).start(serverUrl, profileId, events);
+            promise.resolve(true);
+        } catch (Exception e) {
+            Log.e(TAG, "Error starting realtime connection", e);
+            promise.reject("ERROR", e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void stop(Promise promise) {
+        try {
+            RealtimeConnectionManager.getInstance(reactContext).stop();
+            // The background link runs in :bg with its own copy of the session
+            KeepAliveService.stopRealtime(reactContext);
+            promise.resolve(true);
+        } catch (Exception e) {
+            Log.e(TAG, "Error stopping realtime connection", e);
+            promise.reject("ERROR", e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void isConnected(Promise promise) {
+        promise.resolve(RealtimeConnectionManager.getInstance(reactContext).isConnected());
+    }
+
+    @ReactMethod
+    public void emit(String event, @Nullable String payloadJson, Promise promise) {
+        promise.resolve(RealtimeConnectionManager.getInstance(reactContext).emit(event, payloadJson));
+    }
+
+    /**
+     * Tune batching: {@code intervalMs} 0 delivers once per frame, and each entry of
+     * {@code coalesce} maps an event to the payload field it is keyed by ("" for the event
+     * type alone, null to stop coalescing it).
+     */
+    @ReactMethod
+    public void configureDelivery(double intervalMs, @Nullable ReadableMap coalesce) {
+        dispatcher.setIntervalMs((long) intervalMs);
+        if (coalesce == null) {
+            return;
+        }
+        ReadableMapKeySetIterator it = coalesce.keySetIterator();
+        while (it.hasNextKey()) {
+            String event = it.nextKey();
+            dispatcher.setCoalesceField(event, coalesce.isNull(event) ? null : coalesce.getString(event));
+        }
+    }
+
+    @ReactMethod
+    public void getDeliveryStats(Promise promise) {
+        promise.resolve(dispatcher.getStats().toString());
+    }
+
+    // Required by NativeEventEmitter
+    @ReactMethod
+    public void addListener(String eventName) {
+        if (listenerCount++ == 0) {
+            RealtimeConnectionManager.getInstance(reactContext).addListener(listener);
+        }
+    }
+
+    // Required by NativeEventEmitter
+    @ReactMethod
+    public void removeListeners(double count) {
+        listenerCount = Math.max(0, listenerCount - (int) count);
+        if (listenerCount == 0) {
+            RealtimeConnectionManager.getInstance(reactContext).removeListener(listener);
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        RealtimeConnectionManager.getInstance(reactContext).removeListener(listener);
+        dispatcher.clear();
+        listenerCount = 0;
+        super.invalidate();
+    }
+
+    private void sendEvent(String name, WritableMap params) {
+        if (!reactContext.hasActiveReactInstance()) {
+            return;
+        }
+        reactContext
+            .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+            .emit(name, params);
+    }
+}
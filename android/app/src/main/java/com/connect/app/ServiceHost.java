@@ -0,0 +1,542 @@
+package com.connect.app;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.content.ServiceConnection;
+import android.content.SharedPreferences;
+import android.content.pm.ServiceInfo;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.Debug;
+import android.os.Handler;
+import android.os.IBinder;
+import android.os.Looper;
+import android.os.Message;
+import android.os.Messenger;
+import android.os.RemoteException;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.ServiceCompat;
+
+import com.connect.app.overlay.OverlayWorkload;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The app's single foreground service. Background work (speech, the keep-alive watchdog,
+ * the floating overlay) is packaged as {@link HostWorkload}s that are attached and detached
+ * at runtime under one notification, instead of each running its own service with its own
+ * channel, notification and restart logic. The service stops itself when the last workload
+ * detaches.
+ *
+ * Per-workload cost is tracked for tuning: commands delivered (each one a service wakeup),
+ * main-thread CPU spent in its callbacks, and the heap growth measured around attach.
+ *
+ * Components in the app process can also talk to workloads over a {@link Messenger}: see
+ * {@link #bind}. Messages name their workload in {@link #EXTRA_WORKLOAD}; ones for a workload
+ * that isn't attached yet are held and delivered when it attaches.
+ */
+public class ServiceHost extends Service {
+    private static final String TAG = "ServiceHost";
+    private static final String CHANNEL_ID = "background_services";
+    private static final int NOTIFICATION_ID = 1001;
+    // One of the manifest's declared types; only used to satisfy a start with nothing attached
+    private static final int DEFAULT_FOREGROUND_TYPE = ServiceInfo.FOREGROUND_SERVICE_TYPE_DATA_SYNC;
+    private static final String PREFS_NAME = "service_host";
+    private static final String PREF_ATTACHED = "attached";
+    // Channels of the per-feature services this replaced
+    private static final String[] LEGACY_CHANNELS = {
+        "background_tts_channel", "notification_service_channel", "connect_overlay_channel"
+    };
+
+    static final String ACTION_ATTACH = "com.connect.app.host.ATTACH";
+    static final String ACTION_DETACH = "com.connect.app.host.DETACH";
+    static final String ACTION_BIND = "com.connect.app.host.BIND";
+    static final String EXTRA_WORKLOADS = "workloads";
+    public static final String EXTRA_WORKLOAD = "workload";
+
+    /** Host-level query; the reply's arg2 is 1 if the message's workload is attached. */
+    public static final int MSG_IS_ATTACHED = -1;
+    // Messages held per detached workload; the oldest are dropped past this
+    private static final int MAX_PARKED = 16;
+
+    public static final String WORKLOAD_TTS = "tts";
+    public static final String WORKLOAD_KEEP_ALIVE = "keepalive";
+    public static final String WORKLOAD_OVERLAY = "overlay";
+
+    private static final class WorkloadStats {
+        long attachedAtMs;
+        int attachCount;
+        int commands;
+        int messages;
+        long cpuMs;
+        long heapDeltaKb;
+        long nativeHeapDeltaKb;
+    }
+
+    // Updated on the main thread, read from the module thread; guarded by itself
+    private static final Map<String, WorkloadStats> stats = new LinkedHashMap<>();
+    private static volatile int hostStarts = 0;
+    private static volatile boolean running = false;
+
+    private final Map<String, HostWorkload> attached = new LinkedHashMap<>();
+    private final Map<String, ArrayDeque<Message>> parked = new HashMap<>();
+    private final Messenger messenger = new Messenger(new Handler(Looper.getMainLooper(), this::handleMessage));
+
+    /** Attach workloads, starting the host if needed. */
+    public static void attach(Context context, String... workloadIds) {
+        Intent intent = new Intent(context, ServiceHost.class);
+        intent.setAction(ACTION_ATTACH);
+        intent.putExtra(EXTRA_WORKLOADS, workloadIds);
+        send(context, intent);
+    }
+
+    public static void detach(Context context, String... workloadIds) {
+        Intent intent = new Intent(context, ServiceHost.class);
+        intent.setAction(ACTION_DETACH);
+        intent.putExtra(EXTRA_WORKLOADS, workloadIds);
+        // Never a foreground start: if the host can't take a plain start it isn't running,
+        // so there is nothing to detach but the persisted set
+        try {
+            context.startService(intent);
+        } catch (IllegalStateException e) {
+            forgetPersisted(context, workloadIds);
+        }
+    }
+
+    /** Deliver a workload-specific command, attaching the workload first if needed. */
+    static void command(Context context, String workloadId, Intent command) {
+        command.setClass(context, ServiceHost.class);
+        command.putExtra(EXTRA_WORKLOAD, workloadId);
+        send(context, command);
+    }
+
+    public static boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Binds {@code connection} to the host's Messenger without creating the host: the
+     * connection comes up whenever the host is started and drops when it stops.
+     */
+    public static boolean bind(Context context, ServiceConnection connection) {
+        Intent intent = new Intent(context, ServiceHost.class);
+        intent.setAction(ACTION_BIND);
+        return context.bindService(intent, connection, 0);
+    }
+
+    /** Answers {@code request} through its replyTo: same what and arg1, {@code result} in arg2. */
+    public static void reply(Message request, int result) {
+        if (request.replyTo == null) {
+            return;
+        }
+        try {
+            request.replyTo.send(Message.obtain(null, request.what, request.arg1, result));
+        } catch (RemoteException e) {
+            Log.w(TAG, "Reply to " + request.what + " not delivered", e);
+        }
+    }
+
+    /**
+     * The host is normally already in the foreground, in which case a plain startService is
+     * allowed from anywhere in the app. Only fall back to a foreground start when it isn't.
+     */
+    private static void send(Context context, Intent intent) {
+        try {
+            context.startService(intent);
+        } catch (IllegalStateException e) {
+            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+                Log.w(TAG, "Could not deliver " + intent.getAction(), e);
+                return;
+            }
+            try {
+                context.startForegroundService(intent);
+            } catch (Exception fgsError) {
+                Log.w(TAG, "Could not deliver " + intent.getAction(), fgsError);
+            }
+        }
+    }
+
+    private static @Nullable HostWorkload createWorkload(String id) {
+        switch (id) {
+            case WORKLOAD_TTS:
+                return new SpeechWorkload();
+            case WORKLOAD_KEEP_ALIVE:
+                return new KeepAliveWorkload();
+            case WORKLOAD_OVERLAY:
+                return new OverlayWorkload();
+            default:
+                Log.w(TAG, "Unknown workload " + id);
+                return null;
+        }
+    }
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        running = true;
+        hostStarts++;
+        ensureChannel();
+    }
+
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        String action = intent != null ? intent.getAction() : null;
+        List<String> toAttach = new ArrayList<>();
+        if (intent == null) {
+            // Sticky restart after the process was killed: bring back what was attached then
+            toAttach.addAll(persistedWorkloads());
+        } else if (ACTION_ATTACH.equals(action)) {
+            addAll(toAttach, intent.getStringArrayExtra(EXTRA_WORKLOADS));
+        } else if (intent.getStringExtra(EXTRA_WORKLOAD) != null) {
+            toAttach.add(intent.getStringExtra(EXTRA_WORKLOAD));
+        }
+
+        for (String id : toAttach) {
+            attachWorkload(id);
+        }
+        if (!toAttach.isEmpty()) {
+            persistAttached();
+        }
+        // Must follow every startForegroundService promptly
+        updateForeground();
+
+        if (ACTION_DETACH.equals(action)) {
+            String[] ids = intent.getStringArrayExtra(EXTRA_WORKLOADS);
+            if (ids != null) {
+                for (String id : ids) {
+                    detachWorkload(id);
+                }
+                persistAttached();
+            }
+        } else if (intent != null && intent.getStringExtra(EXTRA_WORKLOAD) != null) {
+            dispatchCommand(intent.getStringExtra(EXTRA_WORKLOAD), intent);
+        }
+
+        if (attached.isEmpty()) {
+            Log.d(TAG, "No workloads attached, stopping");
+            ServiceCompat.stopForeground(this, ServiceCompat.STOP_FOREGROUND_REMOVE);
+            stopSelf(startId);
+            return START_NOT_STICKY;
+        }
+        if (ACTION_DETACH.equals(action)) {
+            updateForeground();
+        }
+        return START_STICKY;
+    }
+
+    private void attachWorkload(String id) {
+        if (attached.containsKey(id)) {
+            return;
+        }
+        HostWorkload workload = createWorkload(id);
+        if (workload == null) {
+            return;
+        }
+        Runtime runtime = Runtime.getRuntime();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        long nativeBefore = Debug.getNativeHeapAllocatedSize();
+        long cpuBefore = SystemClock.currentThreadTimeMillis();
+        try (StartupTrace.Span ignored = StartupTrace.begin("ServiceHost.attach:" + id)) {
+            workload.onAttach(this);
+        } catch (Exception e) {
+            Log.e(TAG, "Error attaching workload " + id, e);
+            return;
+        }
+        long cpuMs = SystemClock.currentThreadTimeMillis() - cpuBefore;
+        long heapDeltaKb = (runtime.totalMemory() - runtime.freeMemory() - heapBefore) / 1024;
+        long nativeHeapDeltaKb = (Debug.getNativeHeapAllocatedSize() - nativeBefore) / 1024;
+        synchronized (stats) {
+            WorkloadStats s = statsFor(id);
+            s.cpuMs += cpuMs;
+            s.heapDeltaKb = heapDeltaKb;
+            s.nativeHeapDeltaKb = nativeHeapDeltaKb;
+            s.attachedAtMs = SystemClock.elapsedRealtime();
+            s.attachCount++;
+        }
+        attached.put(id, workload);
+        Log.d(TAG, "Attached " + id + " (" + attached.size() + " active)");
+
+        ArrayDeque<Message> held = parked.remove(id);
+        if (held != null) {
+            for (Message message : held) {
+                dispatchMessage(workload, message);
+                message.recycle();
+            }
+        }
+    }
+
+    private void detachWorkload(String id) {
+        HostWorkload workload = attached.remove(id);
+        if (workload == null) {
+            return;
+        }
+        try {
+            workload.onDetach();
+        } catch (Exception e) {
+            Log.e(TAG, "Error detaching workload " + id, e);
+        }
+        synchronized (stats) {
+            statsFor(id).attachedAtMs = 0;
+        }
+        Log.d(TAG, "Detached " + id + " (" + attached.size() + " active)");
+    }
+
+    private void dispatchCommand(String id, Intent intent) {
+        HostWorkload workload = attached.get(id);
+        if (workload == null) {
+            return;
+        }
+        long cpuBefore = SystemClock.currentThreadTimeMillis();
+        try {
+            workload.onCommand(intent);
+        } catch (Exception e) {
+            Log.e(TAG, "Error in " + id + " command " + intent.getAction(), e);
+        }
+        long cpuMs = SystemClock.currentThreadTimeMillis() - cpuBefore;
+        synchronized (stats) {
+            WorkloadStats s = statsFor(id);
+            s.commands++;
+            s.cpuMs += cpuMs;
+        }
+    }
+
+    private boolean handleMessage(Message message) {
+        Bundle data = message.peekData();
+        String id = data != null ? data.getString(EXTRA_WORKLOAD) : null;
+        if (id == null) {
+            Log.w(TAG, "Message " + message.what + " names no workload");
+            return true;
+        }
+        HostWorkload workload = attached.get(id);
+        if (message.what == MSG_IS_ATTACHED) {
+            reply(message, workload != null ? 1 : 0);
+        } else if (workload != null) {
+            dispatchMessage(workload, message);
+        } else {
+            // The attach intent can arrive after messages sent right behind it
+            ArrayDeque<Message> held = parked.get(id);
+            if (held == null) {
+                held = new ArrayDeque<>();
+                parked.put(id, held);
+            }
+            if (held.size() == MAX_PARKED) {
+                held.removeFirst().recycle();
+            }
+            held.addLast(Message.obtain(message));
+        }
+        return true;
+    }
+
+    private void dispatchMessage(HostWorkload workload, Message message) {
+        long cpuBefore = SystemClock.currentThreadTimeMillis();
+        try {
+            workload.onMessage(message);
+        } catch (Exception e) {
+            Log.e(TAG, "Error in " + workload.getId() + " message " + message.what, e);
+        }
+        long cpuMs = SystemClock.currentThreadTimeMillis() - cpuBefore;
+        synchronized (stats) {
+            WorkloadStats s = statsFor(workload.getId());
+            s.messages++;
+            s.cpuMs += cpuMs;
+        }
+    }
+
+    private void updateForeground() {
+        int types = 0;
+        for (HostWorkload workload : attached.values()) {
+            types |= workload.getForegroundServiceType();
+        }
+        if (types == 0) {
+            // Nothing attached (e.g. a command whose workload failed to attach). A typeless
+            // start throws on Android 14+ and the host would then miss its start deadline,
+            // so start with a declared type; onStartCommand stops the host right after.
+            types = DEFAULT_FOREGROUND_TYPE;
+        }
+        try (StartupTrace.Span ignored = StartupTrace.begin("startForeground:" + TAG)) {
+            ServiceCompat.startForeground(this, NOTIFICATION_ID, createNotification(), types);
+        } catch (Exception e) {
+            Log.e(TAG, "Error starting foreground", e);
+        }
+    }
+
+    @Override
+    public void onTaskRemoved(Intent rootIntent) {
+        super.onTaskRemoved(rootIntent);
+        Log.d(TAG, "App task removed, " + attached.size() + " workloads stay attached");
+        for (HostWorkload workload : attached.values()) {
+            try {
+                workload.onTaskRemoved();
+            } catch (Exception e) {
+                Log.w(TAG, "Error in " + workload.getId() + ".onTaskRemoved", e);
+            }
+        }
+    }
+
+    @Override
+    public void onDestroy() {
+        // The persisted set is left alone: it is empty after the last detach, and a host
+        // destroyed with workloads still attached should get them back on a sticky restart
+        for (String id : new ArrayList<>(attached.keySet())) {
+            detachWorkload(id);
+        }
+        for (ArrayDeque<Message> held : parked.values()) {
+            for (Message message : held) {
+                message.recycle();
+            }
+        }
+        parked.clear();
+        running = false;
+        super.onDestroy();
+        // Do NOT restart from onDestroy - let START_STICKY handle it
+    }
+
+    @Override
+    public IBinder onBind(Intent intent) {
+        return ACTION_BIND.equals(intent.getAction()) ? messenger.getBinder() : null;
+    }
+
+    /** Cost per workload plus the process PSS, as JSON. Main process only. */
+    public static JSONObject getStats() {
+        JSONObject root = new JSONObject();
+        try {
+            root.put("running", running);
+            root.put("hostStarts", hostStarts);
+            root.put("processPssKb", Debug.getPss());
+            JSONArray workloads = new JSONArray();
+            long now = SystemClock.elapsedRealtime();
+            synchronized (stats) {
+                for (Map.Entry<String, WorkloadStats> entry : stats.entrySet()) {
+                    WorkloadStats s = entry.getValue();
+                    JSONObject item = new JSONObject();
+                    item.put("id", entry.getKey());
+                    item.put("attached", s.attachedAtMs > 0);
+                    item.put("attachedForMs", s.attachedAtMs > 0 ? now - s.attachedAtMs : 0);
+                    item.put("attachCount", s.attachCount);
+                    item.put("wakeups", s.commands);
+                    item.put("messages", s.messages);
+                    item.put("cpuMs", s.cpuMs);
+                    item.put("heapDeltaKb", s.heapDeltaKb);
+                    item.put("nativeHeapDeltaKb", s.nativeHeapDeltaKb);
+                    workloads.put(item);
+                }
+            }
+            root.put("workloads", workloads);
+        } catch (JSONException e) {
+            Log.w(TAG, "Error building host stats", e);
+        }
+        return root;
+    }
+
+    /** Caller holds the {@code stats} lock. */
+    private static WorkloadStats statsFor(String id) {
+        WorkloadStats s = stats.get(id);
+        if (s == null) {
+            s = new WorkloadStats();
+            stats.put(id, s);
+        }
+        return s;
+    }
+
+    private SharedPreferences prefs() {
+        return getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    private void persistAttached() {
+        prefs().edit().putStringSet(PREF_ATTACHED, new HashSet<>(attached.keySet())).apply();
+    }
+
+    /** Drops ids from the set a sticky restart would bring back, with the host not running. */
+    private static void forgetPersisted(Context context, String... workloadIds) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        Set<String> ids = new HashSet<>(prefs.getStringSet(PREF_ATTACHED, new HashSet<>()));
+        boolean changed = false;
+        for (String id : workloadIds) {
+            changed |= ids.remove(id);
+        }
+        if (changed) {
+            prefs.edit().putStringSet(PREF_ATTACHED, ids).apply();
+        }
+    }
+
+    private Set<String> persistedWorkloads() {
+        return new HashSet<>(prefs().getStringSet(PREF_ATTACHED, new HashSet<>()));
+    }
+
+    private static void addAll(List<String> list, @Nullable String[] ids) {
+        if (ids == null) {
+            return;
+        }
+        for (String id : ids) {
+            if (id != null) {
+                list.add(id);
+            }
+        }
+    }
+
+    private void ensureChannel() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+            return;
+        }
+        NotificationManager manager = getSystemService(NotificationManager.class);
+        if (manager == null) {
+            return;
+        }
+        NotificationChannel channel = new NotificationChannel(
+            CHANNEL_ID, "Background services", NotificationManager.IMPORTANCE_LOW
+        );
+        channel.setDescription("Keeps calls, messages and speech working in the background");
+        channel.setShowBadge(false);
+        channel.setSound(null, null);
+        manager.createNotificationChannel(channel);
+        for (String legacy : LEGACY_CHANNELS) {
+            manager.deleteNotificationChannel(legacy);
+        }
+    }
+
+    private Notification createNotification() {
+        Intent notificationIntent = new Intent(this, MainActivity.class);
+        PendingIntent pendingIntent = PendingIntent.getActivity(
+            this, 0, notificationIntent, NativeNotifier.pendingIntentFlags()
+        );
+        StringBuilder text = new StringBuilder();
+        for (HostWorkload workload : attached.values()) {
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+            text.append(workload.getLabel());
+        }
+
+        return new NotificationCompat.Builder(this, CHANNEL_ID)
+            .setContentTitle("Connect is running")
+            .setContentText(text.length() > 0 ? text.toString() : "Starting")
+            .setSmallIcon(R.mipmap.ic_launcher)
+            .setContentIntent(pendingIntent)
+            .setOngoing(true)
+            .setSilent(true)
+            .setShowWhen(false)
+            .setPriority(NotificationCompat.PRIORITY_LOW)
+            .setCategory(NotificationCompat.CATEGORY_SERVICE)
+            .build();
+    }
+}
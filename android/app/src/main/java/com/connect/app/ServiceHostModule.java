@@ -0,0 +1,40 @@
+package com.connect.app;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+
+/**
+ * JS control of {@link ServiceHost} workloads ("tts", "keepalive", "overlay") and their
+ * per-workload cost stats.
+ */
+public class ServiceHostModule extends ReactContextBaseJavaModule {
+    private final ReactApplicationContext reactContext;
+
+    public ServiceHostModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+    }
+
+    @Override
+    public String getName() {
+        return "ServiceHost";
+    }
+
+    @ReactMethod
+    public void attach(String workload) {
+        ServiceHost.attach(reactContext, workload);
+    }
+
+    @ReactMethod
+    public void detach(String workload) {
+        ServiceHost.detach(reactContext, workload);
+    }
+
+    /** Resolves with host and per-workload stats as a JSON string. */
+    @ReactMethod
+    public void getStats(Promise promise) {
+        promise.resolve(ServiceHost.getStats().toString());
+    }
+}
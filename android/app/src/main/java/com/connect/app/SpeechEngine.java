@@ -0,0 +1,486 @@
+package com.connect.app;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.media.AudioAttributes;
+import android.media.AudioFocusRequest;
+import android.media.AudioManager;
+import android.media.MediaPlayer;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.speech.tts.TextToSpeech;
+import android.speech.tts.UtteranceProgressListener;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Native speech for announcements, owned by {@link SpeechWorkload}.
+ *
+ * The TextToSpeech instance is created and warmed up when the service starts, so calls and
+ * messages can be announced without the JS runtime. Utterances go through a
+ * {@link SpeechQueue}: high priority cuts off whatever lower-priority item is playing (which
+ * is re-queued), everything else is spoken one at a time in order. All state is touched on
+ * the engine's own thread; TTS callbacks are posted back to it.
+ *
+ * Phrases that come up a second time are synthesized to a {@link DiskLruCache} while the
+ * queue is idle, and later occurrences play the stored clip instead of synthesizing again.
+ */
+final class SpeechEngine {
+    private static final String TAG = "SpeechEngine";
+    static final String PREFS_NAME = "native_tts";
+    private static final int MAX_PENDING_NORMAL = 3;
+    private static final String WARMUP_ID = "warmup";
+    private static final String SYNTH_PREFIX = "synth:";
+    static final String CACHE_DIR = "tts";
+    private static final long CACHE_MAX_BYTES = 16L * 1024 * 1024;
+    // Only phrases seen before get synthesized to disk; one-off message bodies don't
+    private static final int SEEN_KEYS = 128;
+    private static final int MAX_SYNTH_BACKLOG = 8;
+    // Same fallbacks the JS service tried when the preferred language isn't installed
+    private static final String[] FALLBACK_LANGUAGES = { "en-US", "en-GB", "en-IN", "en" };
+
+    private static final class Synthesis {
+        final String key;
+        final String text;
+        final float speed;
+
+        Synthesis(String key, String text, float speed) {
+            this.key = key;
+            this.text = text;
+            this.speed = speed;
+        }
+    }
+
+    private final Context context;
+    private final HandlerThread thread = new HandlerThread("SpeechEngine");
+    private final Handler handler;
+    private final SpeechQueue queue = new SpeechQueue(MAX_PENDING_NORMAL);
+    private final AudioManager audioManager;
+    private final DiskLruCache cache;
+    private final Map<String, Boolean> seenKeys = new LinkedHashMap<String, Boolean>(SEEN_KEYS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > SEEN_KEYS;
+        }
+    };
+    private final ArrayDeque<Synthesis> synthBacklog = new ArrayDeque<>();
+    private @Nullable Synthesis synthInFlight;
+    private @Nullable TextToSpeech tts;
+    private @Nullable MediaPlayer player;
+    private @Nullable AudioFocusRequest focusRequest;
+    private boolean ready = false;
+    private boolean hasFocus = false;
+    private @Nullable SpeechQueue.Utterance current;
+    private @Nullable String currentCacheKey;
+    private String voiceName = "";
+
+    private boolean enabled = true;
+    private String language = "bn-IN";
+    // JS settings use 0.5 as normal speed
+    private float rate = 0.5f;
+    private float pitch = 1.0f;
+    private float volume = 1.0f;
+
+    private int spoken = 0;
+    private int interrupted = 0;
+
+    SpeechEngine(Context context) {
+        this.context = context.getApplicationContext();
+        this.audioManager = (AudioManager) this.context.getSystemService(Context.AUDIO_SERVICE);
+        thread.start();
+        handler = new Handler(thread.getLooper());
+        cache = new DiskLruCache(new File(this.context.getCacheDir(), CACHE_DIR), CACHE_MAX_BYTES, ".wav");
+        loadSettings();
+    }
+
+    void start() {
+        handler.post(() -> {
+            if (tts != null) {
+                return;
+            }
+            try (StartupTrace.Span ignored = StartupTrace.begin("SpeechEngine.start")) {
+                cache.load();
+                tts = new TextToSpeech(context, status -> handler.post(() -> onInit(status)));
+            }
+        });
+    }
+
+    private void onInit(int status) {
+        if (tts == null) {
+            return;
+        }
+        if (status != TextToSpeech.SUCCESS) {
+            Log.e(TAG, "TextToSpeech init failed: " + status);
+            return;
+        }
+        StartupTrace.mark("SpeechEngine.ready");
+        tts.setOnUtteranceProgressListener(progressListener);
+        tts.setAudioAttributes(speechAttributes());
+        applyLanguage();
+        // Binding the engine is cheap; loading the voice is what makes the first utterance slow
+        tts.playSilentUtterance(1, TextToSpeech.QUEUE_ADD, WARMUP_ID);
+        ready = true;
+        Log.d(TAG, "TextToSpeech ready, " + queue.size() + " queued");
+        speakNext();
+    }
+
+    void speak(String text, int priority, @Nullable String coalesceKey) {
+        handler.post(() -> {
+            if (!enabled || text == null || text.trim().isEmpty()) {
+                return;
+            }
+            SpeechQueue.Utterance utterance = queue.offer(text, priority, coalesceKey);
+            if (SpeechQueue.shouldInterrupt(current, utterance) && tts != null) {
+                SpeechQueue.Utterance cut = current;
+                current = null;
+                interrupted++;
+                stopPlayback();
+                // Finish the interrupted announcement once the urgent one is done
+                queue.offer(cut.text, cut.priority, cut.coalesceKey);
+            }
+            speakNext();
+        });
+    }
+
+    void stop() {
+        handler.post(() -> {
+            queue.clear();
+            current = null;
+            stopPlayback();
+            abandonFocus();
+        });
+    }
+
+    /** Apply and persist settings pushed from JS; missing keys keep their current value. */
+    void configure(Bundle settings) {
+        handler.post(() -> {
+            SharedPreferences.Editor editor = prefs().edit();
+            if (settings.containsKey("enabled")) {
+                enabled = settings.getBoolean("enabled", enabled);
+                editor.putBoolean("enabled", enabled);
+            }
+            if (settings.getString("language") != null) {
+                language = settings.getString("language");
+                editor.putString("language", language);
+            }
+            rate = readFloat(settings, "rate", rate);
+            pitch = readFloat(settings, "pitch", pitch);
+            volume = readFloat(settings, "volume", volume);
+            editor.putFloat("rate", rate).putFloat("pitch", pitch).putFloat("volume", volume).apply();
+            if (ready) {
+                applyLanguage();
+            }
+            if (!enabled) {
+                stop();
+            }
+        });
+    }
+
+    void shutdown() {
+        handler.removeCallbacksAndMessages(null);
+        handler.post(() -> {
+            queue.clear();
+            current = null;
+            ready = false;
+            abandonFocus();
+            if (player != null) {
+                player.release();
+                player = null;
+            }
+            if (synthInFlight != null) {
+                cache.discard(synthInFlight.key);
+                synthInFlight = null;
+            }
+            if (tts != null) {
+                tts.shutdown();
+                tts = null;
+            }
+            cache.writeStats();
+            Log.d(TAG, "Shut down after " + spoken + " utterances (" + interrupted + " interrupted, "
+                + queue.getCoalescedCount() + " coalesced), cache " + cache.getStats());
+        });
+        thread.quitSafely();
+    }
+
+    private void speakNext() {
+        if (!ready || tts == null || current != null) {
+            return;
+        }
+        SpeechQueue.Utterance next = queue.poll();
+        if (next == null) {
+            abandonFocus();
+            startNextSynthesis();
+            return;
+        }
+        current = next;
+        requestFocus();
+        // Urgent announcements are read a little slower, as the JS service did
+        float speed = next.priority == SpeechQueue.PRIORITY_HIGH ? rate * 0.8f : rate;
+        String key = DiskLruCache.key(next.text, voiceName, String.valueOf(speed), String.valueOf(pitch));
+        File clip = cache.get(key);
+        cache.writeStats();
+        if (clip != null && playClip(key, clip)) {
+            return;
+        }
+        rememberMiss(key, next.text, speed);
+
+        tts.setSpeechRate(speed * 2.0f);
+        tts.setPitch(pitch);
+        Bundle params = new Bundle();
+        params.putFloat(TextToSpeech.Engine.KEY_PARAM_VOLUME, volume);
+        int result = tts.speak(next.text, TextToSpeech.QUEUE_FLUSH, params, next.id);
+        if (result != TextToSpeech.SUCCESS) {
+            Log.w(TAG, "speak() failed for " + next.id);
+            current = null;
+            handler.post(this::speakNext);
+        }
+    }
+
+    private void onUtteranceEnded(String utteranceId) {
+        if (utteranceId.startsWith(SYNTH_PREFIX)) {
+            onSynthesisEnded(utteranceId, false);
+            return;
+        }
+        if (current == null || !current.id.equals(utteranceId)) {
+            // Warm-up, or an utterance that was already cut off
+            return;
+        }
+        current = null;
+        currentCacheKey = null;
+        spoken++;
+        speakNext();
+    }
+
+    private boolean playClip(String key, File clip) {
+        try {
+            if (player == null) {
+                player = new MediaPlayer();
+                player.setOnCompletionListener(mp -> {
+                    if (current != null) {
+                        onUtteranceEnded(current.id);
+                    }
+                });
+                player.setOnErrorListener((mp, what, extra) -> {
+                    Log.w(TAG, "Cached clip failed to play (" + what + "/" + extra + ")");
+                    onCachedClipFailed();
+                    return true;
+                });
+            }
+            player.reset();
+            player.setAudioAttributes(speechAttributes());
+            player.setDataSource(clip.getAbsolutePath());
+            player.prepare();
+            player.setVolume(volume, volume);
+            player.start();
+            currentCacheKey = key;
+            return true;
+        } catch (Exception e) {
+            Log.w(TAG, "Could not play cached clip, falling back to synthesis", e);
+            cache.remove(key);
+            return false;
+        }
+    }
+
+    /** Re-speak the current utterance live and drop the broken clip. */
+    private void onCachedClipFailed() {
+        if (currentCacheKey != null) {
+            cache.remove(currentCacheKey);
+            currentCacheKey = null;
+        }
+        SpeechQueue.Utterance failed = current;
+        current = null;
+        if (failed != null) {
+            queue.offer(failed.text, failed.priority, failed.coalesceKey);
+        }
+        speakNext();
+    }
+
+    private void stopPlayback() {
+        if (player != null && currentCacheKey != null) {
+            player.stop();
+        }
+        currentCacheKey = null;
+        if (tts != null) {
+            // Also cancels an in-flight synthesis; it gets queued again on its next miss
+            tts.stop();
+        }
+    }
+
+    private void rememberMiss(String key, String text, float speed) {
+        if (seenKeys.put(key, Boolean.TRUE) == null || synthBacklog.size() >= MAX_SYNTH_BACKLOG) {
+            return;
+        }
+        for (Synthesis pending : synthBacklog) {
+            if (pending.key.equals(key)) {
+                return;
+            }
+        }
+        synthBacklog.add(new Synthesis(key, text, speed));
+    }
+
+    /** Fill the cache only while nothing is being spoken, so it never delays an announcement. */
+    private void startNextSynthesis() {
+        if (tts == null || synthInFlight != null || current != null) {
+            return;
+        }
+        Synthesis next = synthBacklog.poll();
+        if (next == null) {
+            return;
+        }
+        synthInFlight = next;
+        tts.setSpeechRate(next.speed * 2.0f);
+        tts.setPitch(pitch);
+        int result = tts.synthesizeToFile(next.text, new Bundle(), cache.tempFile(next.key), SYNTH_PREFIX + next.key);
+        if (result != TextToSpeech.SUCCESS) {
+            onSynthesisEnded(SYNTH_PREFIX + next.key, true);
+        }
+    }
+
+    private void onSynthesisEnded(String utteranceId, boolean failed) {
+        Synthesis done = synthInFlight;
+        if (done == null || !utteranceId.equals(SYNTH_PREFIX + done.key)) {
+            return;
+        }
+        synthInFlight = null;
+        if (failed || !cache.commit(done.key)) {
+            cache.discard(done.key);
+        }
+        cache.writeStats();
+        if (current == null) {
+            startNextSynthesis();
+        }
+    }
+
+    private final UtteranceProgressListener progressListener = new UtteranceProgressListener() {
+        @Override
+        public void onStart(String utteranceId) {}
+
+        @Override
+        public void onDone(String utteranceId) {
+            handler.post(() -> onUtteranceEnded(utteranceId));
+        }
+
+        @Override
+        public void onStop(String utteranceId, boolean interrupted) {
+            handler.post(() -> {
+                if (utteranceId.startsWith(SYNTH_PREFIX)) {
+                    onSynthesisEnded(utteranceId, true);
+                } else {
+                    onUtteranceEnded(utteranceId);
+                }
+            });
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public void onError(String utteranceId) {
+            Log.w(TAG, "Utterance failed: " + utteranceId);
+            handler.post(() -> {
+                if (utteranceId.startsWith(SYNTH_PREFIX)) {
+                    onSynthesisEnded(utteranceId, true);
+                } else {
+                    onUtteranceEnded(utteranceId);
+                }
+            });
+        }
+    };
+
+    private static AudioAttributes speechAttributes() {
+        return new AudioAttributes.Builder()
+            .setUsage(AudioAttributes.USAGE_NOTIFICATION_COMMUNICATION_INSTANT)
+            .setContentType(AudioAttributes.CONTENT_TYPE_SPEECH)
+            .build();
+    }
+
+    private void applyLanguage() {
+        if (tts == null) {
+            return;
+        }
+        if (!trySetLanguage(language)) {
+            boolean applied = false;
+            for (String fallback : FALLBACK_LANGUAGES) {
+                if (trySetLanguage(fallback)) {
+                    Log.w(TAG, "Language " + language + " unavailable, using " + fallback);
+                    applied = true;
+                    break;
+                }
+            }
+            if (!applied) {
+                Log.w(TAG, "No supported TTS language found, using engine default");
+            }
+        }
+        // Part of the cache key, so clips from another voice are never replayed
+        try {
+            voiceName = tts.getVoice() != null ? tts.getVoice().getName() : language;
+        } catch (Exception e) {
+            voiceName = language;
+        }
+    }
+
+    private boolean trySetLanguage(String tag) {
+        try {
+            int result = tts.setLanguage(Locale.forLanguageTag(tag.replace('_', '-')));
+            return result != TextToSpeech.LANG_MISSING_DATA && result != TextToSpeech.LANG_NOT_SUPPORTED;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void requestFocus() {
+        if (hasFocus || audioManager == null) {
+            return;
+        }
+        int result;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            if (focusRequest == null) {
+                focusRequest = new AudioFocusRequest.Builder(AudioManager.AUDIOFOCUS_GAIN_TRANSIENT_MAY_DUCK)
+                    .setAudioAttributes(speechAttributes())
+                    .build();
+            }
+            result = audioManager.requestAudioFocus(focusRequest);
+        } else {
+            result = audioManager.requestAudioFocus(null, AudioManager.STREAM_NOTIFICATION,
+                AudioManager.AUDIOFOCUS_GAIN_TRANSIENT_MAY_DUCK);
+        }
+        hasFocus = result == AudioManager.AUDIOFOCUS_REQUEST_GRANTED;
+    }
+
+    private void abandonFocus() {
+        if (!hasFocus || audioManager == null) {
+            return;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O && focusRequest != null) {
+            audioManager.abandonAudioFocusRequest(focusRequest);
+        } else {
+            audioManager.abandonAudioFocus(null);
+        }
+        hasFocus = false;
+    }
+
+    private SharedPreferences prefs() {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    private void loadSettings() {
+        SharedPreferences prefs = prefs();
+        enabled = prefs.getBoolean("enabled", enabled);
+        language = prefs.getString("language", language);
+        rate = prefs.getFloat("rate", rate);
+        pitch = prefs.getFloat("pitch", pitch);
+        volume = prefs.getFloat("volume", volume);
+    }
+
+    private static float readFloat(Bundle bundle, String key, float fallback) {
+        Object value = bundle.get(key);
+        return value instanceof Number ? ((Number) value).floatValue() : fallback;
+    }
+}
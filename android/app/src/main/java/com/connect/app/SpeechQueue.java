@@ -0,0 +1,157 @@
+package com.connect.app;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Pending utterances for {@link SpeechEngine}, ordered by priority and then arrival.
+ *
+ * Two coalescing rules keep a burst of pushes from turning into a minute of speech:
+ * an utterance with the same coalesce key as a pending one (same sender, same call)
+ * replaces its text in place, and once more than {@code maxPendingNormal} normal-priority
+ * items are waiting they are folded into a single summary. Not thread-safe; the engine
+ * only touches it from its own handler thread.
+ */
+final class SpeechQueue {
+    static final int PRIORITY_LOW = 0;
+    static final int PRIORITY_NORMAL = 1;
+    static final int PRIORITY_HIGH = 2;
+
+    static final String SUMMARY_KEY = "summary";
+
+    static final class Utterance {
+        final String id;
+        final int priority;
+        final String coalesceKey;
+        final long seq;
+        String text;
+        int count = 1;
+
+        Utterance(String id, String text, int priority, String coalesceKey, long seq) {
+            this.id = id;
+            this.text = text;
+            this.priority = priority;
+            this.coalesceKey = coalesceKey;
+            this.seq = seq;
+        }
+    }
+
+    private final int maxPendingNormal;
+    private final PriorityQueue<Utterance> queue = new PriorityQueue<>(11, (a, b) -> {
+        if (a.priority != b.priority) {
+            return Integer.compare(b.priority, a.priority);
+        }
+        return Long.compare(a.seq, b.seq);
+    });
+    private long nextSeq = 0;
+    private int coalesced = 0;
+
+    SpeechQueue(int maxPendingNormal) {
+        this.maxPendingNormal = maxPendingNormal;
+    }
+
+    static int parsePriority(String priority) {
+        if ("high".equals(priority)) {
+            return PRIORITY_HIGH;
+        }
+        if ("low".equals(priority)) {
+            return PRIORITY_LOW;
+        }
+        return PRIORITY_NORMAL;
+    }
+
+    /**
+     * Queue an utterance. Returns the queued item, which is an existing one if the text was
+     * coalesced into it.
+     */
+    Utterance offer(String text, int priority, String coalesceKey) {
+        if (coalesceKey != null) {
+            for (Utterance pending : queue) {
+                if (pending.priority == priority && coalesceKey.equals(pending.coalesceKey)) {
+                    pending.text = text;
+                    pending.count++;
+                    coalesced++;
+                    return pending;
+                }
+            }
+        }
+
+        long seq = nextSeq++;
+        Utterance utterance = new Utterance("utt-" + seq, text, priority, coalesceKey, seq);
+        queue.add(utterance);
+        if (priority == PRIORITY_NORMAL && countPending(PRIORITY_NORMAL) > maxPendingNormal) {
+            return summarizeNormal();
+        }
+        return utterance;
+    }
+
+    Utterance poll() {
+        return queue.poll();
+    }
+
+    Utterance peek() {
+        return queue.peek();
+    }
+
+    /** True if {@code incoming} should cut off what is currently being spoken. */
+    static boolean shouldInterrupt(Utterance current, Utterance incoming) {
+        return current != null
+            && incoming.priority == PRIORITY_HIGH
+            && current.priority < PRIORITY_HIGH;
+    }
+
+    void clear() {
+        queue.clear();
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    int getCoalescedCount() {
+        return coalesced;
+    }
+
+    private int countPending(int priority) {
+        int n = 0;
+        for (Utterance pending : queue) {
+            if (pending.priority == priority) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Replace every pending normal item with one "N new messages" utterance that keeps the
+     * position of the oldest.
+     */
+    private Utterance summarizeNormal() {
+        List<Utterance> normal = new ArrayList<>();
+        for (Iterator<Utterance> it = queue.iterator(); it.hasNext(); ) {
+            Utterance pending = it.next();
+            if (pending.priority == PRIORITY_NORMAL) {
+                normal.add(pending);
+                it.remove();
+            }
+        }
+        long oldestSeq = Long.MAX_VALUE;
+        int total = 0;
+        for (Utterance pending : normal) {
+            oldestSeq = Math.min(oldestSeq, pending.seq);
+            total += pending.count;
+        }
+        Utterance summary = new Utterance("utt-" + oldestSeq, summaryText(total),
+            PRIORITY_NORMAL, SUMMARY_KEY, oldestSeq);
+        summary.count = total;
+        coalesced += normal.size() - 1;
+        queue.add(summary);
+        return summary;
+    }
+
+    static String summaryText(int messages) {
+        return "You have " + messages + " new messages";
+    }
+}
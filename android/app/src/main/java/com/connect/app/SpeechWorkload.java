@@ -0,0 +1,92 @@
+package com.connect.app;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ServiceInfo;
+import android.os.Bundle;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Hosts the native {@link SpeechEngine}. Other components (NativeTtsModule, native
+ * notification code, either process) drive it with the ACTION_* commands via the static
+ * helpers below, which attach the workload on first use.
+ */
+final class SpeechWorkload implements HostWorkload {
+    static final String ACTION_SPEAK = "com.connect.app.tts.SPEAK";
+    static final String ACTION_STOP = "com.connect.app.tts.STOP";
+    static final String ACTION_CONFIGURE = "com.connect.app.tts.CONFIGURE";
+    static final String EXTRA_TEXT = "text";
+    static final String EXTRA_PRIORITY = "priority";
+    static final String EXTRA_COALESCE_KEY = "coalesceKey";
+    static final String EXTRA_SETTINGS = "settings";
+
+    private SpeechEngine speechEngine;
+
+    /** Queue an utterance; priority is "high", "normal" or "low". */
+    public static void speak(Context context, String text, String priority, @Nullable String coalesceKey) {
+        Intent intent = new Intent(ACTION_SPEAK);
+        intent.putExtra(EXTRA_TEXT, text);
+        intent.putExtra(EXTRA_PRIORITY, priority);
+        intent.putExtra(EXTRA_COALESCE_KEY, coalesceKey);
+        ServiceHost.command(context, ServiceHost.WORKLOAD_TTS, intent);
+    }
+
+    public static void stopSpeaking(Context context) {
+        ServiceHost.command(context, ServiceHost.WORKLOAD_TTS, new Intent(ACTION_STOP));
+    }
+
+    public static void configure(Context context, Bundle settings) {
+        Intent intent = new Intent(ACTION_CONFIGURE);
+        intent.putExtra(EXTRA_SETTINGS, settings);
+        ServiceHost.command(context, ServiceHost.WORKLOAD_TTS, intent);
+    }
+
+    @Override
+    public String getId() {
+        return ServiceHost.WORKLOAD_TTS;
+    }
+
+    @Override
+    public String getLabel() {
+        return "Announcements";
+    }
+
+    @Override
+    public int getForegroundServiceType() {
+        return ServiceInfo.FOREGROUND_SERVICE_TYPE_MEDIA_PLAYBACK;
+    }
+
+    @Override
+    public void onAttach(ServiceHost host) {
+        speechEngine = new SpeechEngine(host);
+        speechEngine.start();
+    }
+
+    @Override
+    public void onCommand(Intent intent) {
+        String action = intent.getAction();
+        if (ACTION_SPEAK.equals(action)) {
+            speechEngine.speak(
+                intent.getStringExtra(EXTRA_TEXT),
+                SpeechQueue.parsePriority(intent.getStringExtra(EXTRA_PRIORITY)),
+                intent.getStringExtra(EXTRA_COALESCE_KEY)
+            );
+        } else if (ACTION_STOP.equals(action)) {
+            speechEngine.stop();
+        } else if (ACTION_CONFIGURE.equals(action)) {
+            Bundle settings = intent.getBundleExtra(EXTRA_SETTINGS);
+            if (settings != null) {
+                speechEngine.configure(settings);
+            }
+        }
+    }
+
+    @Override
+    public void onDetach() {
+        if (speechEngine != null) {
+            speechEngine.shutdown();
+            speechEngine = null;
+        }
+    }
+}
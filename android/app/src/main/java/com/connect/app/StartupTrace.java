@@ -0,0 +1,158 @@
+package com.connect.app;
+
+import android.app.Application;
+import android.content.Context;
+import android.os.Build;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lightweight startup / wakeup tracing for the native layer.
+ *
+ * Spans are timed with the monotonic elapsedRealtimeNanos clock and kept in a fixed-size ring
+ * buffer per process, so recording costs a couple of array writes. Each span is mirrored into
+ * an android.os.Trace section so it also shows up in Perfetto/systrace captures. The buffer
+ * can be read from JS (StartupTraceModule) or written to files/traces/ to compare cold and
+ * warm starts across releases.
+ */
+public final class StartupTrace {
+    private static final String TAG = "StartupTrace";
+    private static final int CAPACITY = 256;
+    // Trace section names are limited to 127 chars
+    private static final int MAX_SECTION_NAME = 127;
+
+    private static final String[] names = new String[CAPACITY];
+    private static final long[] startNanos = new long[CAPACITY];
+    private static final long[] durationNanos = new long[CAPACITY];
+    private static final String[] threads = new String[CAPACITY];
+    private static int next = 0;
+    private static int count = 0;
+
+    private static volatile boolean activityCreated = false;
+    private static volatile String startType = "none";
+
+    private StartupTrace() {}
+
+    /** An open span; close it on the thread that began it. */
+    public static final class Span implements AutoCloseable {
+        private final String name;
+        private final long start;
+        private boolean closed;
+
+        private Span(String name) {
+            this.name = name;
+            this.start = SystemClock.elapsedRealtimeNanos();
+            Trace.beginSection(sectionName(name));
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            Trace.endSection();
+            record(name, start, SystemClock.elapsedRealtimeNanos() - start);
+        }
+    }
+
+    public static Span begin(String name) {
+        return new Span(name);
+    }
+
+    /** Zero-length event. */
+    public static void mark(String name) {
+        record(name, SystemClock.elapsedRealtimeNanos(), 0);
+    }
+
+    /** Record a span measured elsewhere (e.g. time spent queued). */
+    public static synchronized void record(String name, long start, long duration) {
+        names[next] = name;
+        startNanos[next] = start;
+        durationNanos[next] = duration;
+        threads[next] = Thread.currentThread().getName();
+        next = (next + 1) % CAPACITY;
+        if (count < CAPACITY) {
+            count++;
+        }
+    }
+
+    /**
+     * Called at the top of MainActivity.onCreate. The first activity of a process that was
+     * started for it is a cold start; anything after that is warm.
+     */
+    public static void onActivityCreate() {
+        if (!activityCreated) {
+            activityCreated = true;
+            long processStartMs = Process.getStartElapsedRealtime();
+            // If the process had been up for a while (e.g. started by a service), call it warm
+            startType = SystemClock.elapsedRealtime() - processStartMs < 10000 ? "cold" : "warm";
+        } else {
+            startType = "warm";
+        }
+    }
+
+    public static synchronized JSONObject snapshot() {
+        JSONObject root = new JSONObject();
+        try {
+            long processStartNs = Process.getStartElapsedRealtime() * 1_000_000L;
+            root.put("process", currentProcessName());
+            root.put("pid", Process.myPid());
+            root.put("startType", startType);
+            root.put("processStartElapsedMs", Process.getStartElapsedRealtime());
+            root.put("capturedAtElapsedMs", SystemClock.elapsedRealtime());
+            root.put("release", BuildConfig.VERSION_NAME + " (" + BuildConfig.VERSION_CODE + ")");
+            JSONArray spans = new JSONArray();
+            int first = (next - count + CAPACITY) % CAPACITY;
+            for (int i = 0; i < count; i++) {
+                int idx = (first + i) % CAPACITY;
+                JSONObject span = new JSONObject();
+                span.put("name", names[idx]);
+                span.put("thread", threads[idx]);
+                span.put("sinceProcessStartMs", (startNanos[idx] - processStartNs) / 1_000_000.0);
+                span.put("durationMs", durationNanos[idx] / 1_000_000.0);
+                spans.put(span);
+            }
+            root.put("spans", spans);
+        } catch (JSONException e) {
+            Log.w(TAG, "Error building trace snapshot", e);
+        }
+        return root;
+    }
+
+    /** Write the current buffer to files/traces/startup-&lt;process&gt;-&lt;pid&gt;.json. */
+    public static File dump(Context context) throws IOException {
+        File dir = new File(context.getFilesDir(), "traces");
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Could not create " + dir);
+        }
+        String process = currentProcessName().replace(':', '_');
+        File file = new File(dir, "startup-" + process + "-" + Process.myPid() + ".json");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(snapshot().toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+
+    private static String currentProcessName() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            return Application.getProcessName();
+        }
+        return String.valueOf(Process.myPid());
+    }
+
+    private static String sectionName(String name) {
+        return name.length() <= MAX_SECTION_NAME ? name : name.substring(0, MAX_SECTION_NAME);
+    }
+}
@@ -0,0 +1,63 @@
+package com.connect.app;
+
+import android.util.Log;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exposes {@link StartupTrace} to JS.
+ */
+public class StartupTraceModule extends ReactContextBaseJavaModule {
+    private static final String TAG = "StartupTraceModule";
+    private final ReactApplicationContext reactContext;
+
+    public StartupTraceModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+    }
+
+    @Override
+    public String getName() {
+        return "StartupTrace";
+    }
+
+    /** index.js reads isBackgroundProcess to load only the headless entry in :bg. */
+    @Override
+    public Map<String, Object> getConstants() {
+        Map<String, Object> constants = new HashMap<>();
+        constants.put("isBackgroundProcess", reactContext.getApplicationContext() instanceof MainApplication
+            && ((MainApplication) reactContext.getApplicationContext()).isBackgroundProcess());
+        return constants;
+    }
+
+    /** Resolves with the JSON snapshot (process, startType, spans[]) as a string. */
+    @ReactMethod
+    public void getTrace(Promise promise) {
+        promise.resolve(StartupTrace.snapshot().toString());
+    }
+
+    /** Marks a JS-side milestone (e.g. first screen rendered) on the native timeline. */
+    @ReactMethod
+    public void mark(String name) {
+        StartupTrace.mark("js:" + name);
+    }
+
+    /** Writes the trace to a file and resolves with its path. */
+    @ReactMethod
+    public void dump(Promise promise) {
+        try {
+            File file = StartupTrace.dump(reactContext);
+            promise.resolve(file.getAbsolutePath());
+        } catch (Exception e) {
+            Log.e(TAG, "Error dumping startup trace", e);
+            promise.reject("ERROR", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.connect.app;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableType;
+
+/**
+ * Exposes {@link ThumbnailService} to JS. Each request resolves with a cached file:// URI, or
+ * null if it failed or was cancelled; grids cancel the requests of cells that scroll away.
+ */
+public class ThumbnailModule extends ReactContextBaseJavaModule {
+    private final ReactApplicationContext reactContext;
+
+    public ThumbnailModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+    }
+
+    @Override
+    public String getName() {
+        return "Thumbnails";
+    }
+
+    @ReactMethod
+    public void request(String requestId, String source, double sizePx, double priority, Promise promise) {
+        try {
+            ThumbnailService.getInstance(reactContext)
+                .request(requestId, source, (int) sizePx, (int) priority, promise::resolve);
+        } catch (Exception e) {
+            promise.reject("ERROR", e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void cancel(ReadableArray requestIds) {
+        ThumbnailService service = ThumbnailService.getInstance(reactContext);
+        for (int i = 0; i < requestIds.size(); i++) {
+            if (requestIds.getType(i) == ReadableType.String) {
+                service.cancel(requestIds.getString(i));
+            }
+        }
+    }
+
+    /** Resolves with queue, cache and timing stats as a JSON string. */
+    @ReactMethod
+    public void getStats(Promise promise) {
+        promise.resolve(ThumbnailService.getInstance(reactContext).getStats().toString());
+    }
+}
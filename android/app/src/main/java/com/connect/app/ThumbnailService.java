@@ -0,0 +1,460 @@
+package com.connect.app;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.media.MediaMetadataRetriever;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Process;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates thumbnails for local images and videos (file paths and content:// URIs) on a
+ * fixed pool of background-priority threads, and keeps them as JPEGs in a size-capped disk
+ * cache keyed by source, modification time and size.
+ *
+ * Requests carry an id and a priority: the queue runs the highest priority first and, within
+ * a priority, the newest request first, so the cells currently on screen win over ones the
+ * user scrolled past. A cancelled request is dropped from the queue unless another request
+ * for the same thumbnail still waits on it; identical requests share one decode.
+ */
+public final class ThumbnailService {
+    private static final String TAG = "ThumbnailService";
+    private static final long DISK_MAX_BYTES = 64L * 1024 * 1024;
+    private static final int WORKERS = 2;
+    static final int MAX_SIZE_PX = 1024;
+    private static final int JPEG_QUALITY = 80;
+
+    private static volatile ThumbnailService instance;
+
+    public interface Callback {
+        /** Called with a file:// URI, or null if the thumbnail failed or the request was cancelled. */
+        void onResult(@Nullable String uri);
+    }
+
+    private static final class Waiter {
+        final String requestId;
+        final Callback callback;
+
+        Waiter(String requestId, Callback callback) {
+            this.requestId = requestId;
+            this.callback = callback;
+        }
+    }
+
+    private final class Task implements Runnable, Comparable<Task> {
+        final String key;
+        final String source;
+        final int sizePx;
+        // Guarded by lock
+        int priority;
+        long sequence;
+        boolean started;
+        final List<Waiter> waiters = new ArrayList<>(1);
+
+        Task(String key, String source, int sizePx) {
+            this.key = key;
+            this.source = source;
+            this.sizePx = sizePx;
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            if (priority != other.priority) {
+                return Integer.compare(other.priority, priority);
+            }
+            return Long.compare(other.sequence, sequence);
+        }
+
+        @Override
+        public void run() {
+            synchronized (lock) {
+                if (waiters.isEmpty()) {
+                    // Cancelled, or a stale second queue entry from a re-prioritization
+                    forget(this);
+                    return;
+                }
+                started = true;
+            }
+            String uri = null;
+            long startNanos = System.nanoTime();
+            try {
+                uri = generate(this);
+            } catch (Exception | OutOfMemoryError e) {
+                Log.w(TAG, "Thumbnail failed for " + source + ": " + e.getMessage());
+            }
+            if (uri != null) {
+                generated.incrementAndGet();
+                generateNanos.addAndGet(System.nanoTime() - startNanos);
+            } else {
+                failed.incrementAndGet();
+            }
+            List<Waiter> done;
+            synchronized (lock) {
+                forget(this);
+                done = new ArrayList<>(waiters);
+                waiters.clear();
+                for (Waiter waiter : done) {
+                    requests.remove(waiter.requestId);
+                }
+            }
+            for (Waiter waiter : done) {
+                waiter.callback.onResult(uri);
+            }
+        }
+    }
+
+    private final Context context;
+    private final DiskLruCache disk;
+    private final ThreadPoolExecutor executor;
+    private final Object lock = new Object();
+    // Guarded by lock: cache key -> pending task, request id -> its task
+    private final Map<String, Task> tasks = new HashMap<>();
+    private final Map<String, Task> requests = new HashMap<>();
+    private long nextSequence = 0;
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong generateNanos = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public static ThumbnailService getInstance(Context context) {
+        if (instance == null) {
+            synchronized (ThumbnailService.class) {
+                if (instance == null) {
+                    instance = new ThumbnailService(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private ThumbnailService(Context context) {
+        this.context = context;
+        disk = new DiskLruCache(new File(context.getCacheDir(), "thumbnails"), DISK_MAX_BYTES, ".jpg");
+        // execute() only, never submit(): the queue orders the Tasks themselves
+        executor = new ThreadPoolExecutor(WORKERS, WORKERS, 0, TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>(), runnable -> new Thread(() -> {
+                // Decodes must not compete with the UI thread for CPU
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }, "thumbnails"));
+        // Not through the executor: its queue only accepts Tasks
+        new Thread(disk::load, "thumbnails-index").start();
+    }
+
+    /**
+     * Ask for a thumbnail whose short side is {@code sizePx}. A disk hit calls back on the
+     * calling thread; otherwise the callback runs on a worker once the thumbnail is ready.
+     */
+    public void request(String requestId, String source, int sizePx, int priority, Callback callback) {
+        int size = Math.max(32, Math.min(MAX_SIZE_PX, sizePx));
+        String key = cacheKey(source, size);
+        if (key == null) {
+            callback.onResult(null);
+            return;
+        }
+        File cached = disk.get(key);
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            callback.onResult(Uri.fromFile(cached).toString());
+            return;
+        }
+        Callback superseded = null;
+        synchronized (lock) {
+            Task previous = requests.remove(requestId);
+            if (previous != null) {
+                superseded = dropWaiter(previous, requestId);
+            }
+            Task task = tasks.get(key);
+            if (task == null) {
+                task = new Task(key, source, size);
+                tasks.put(key, task);
+            } else {
+                coalesced.incrementAndGet();
+            }
+            task.waiters.add(new Waiter(requestId, callback));
+            requests.put(requestId, task);
+            // (Re)queue unless it's already decoding: the queue can't re-sort a queued entry in place
+            if (!task.started) {
+                executor.remove(task);
+                task.priority = Math.max(task.priority, priority);
+                task.sequence = nextSequence++;
+                executor.execute(task);
+            }
+        }
+        if (superseded != null) {
+            superseded.onResult(null);
+        }
+    }
+
+    /** Drop a request, e.g. when its cell scrolls away. Its callback gets null. */
+    public void cancel(String requestId) {
+        Callback callback;
+        synchronized (lock) {
+            Task task = requests.remove(requestId);
+            if (task == null) {
+                return;
+            }
+            callback = dropWaiter(task, requestId);
+        }
+        cancelled.incrementAndGet();
+        if (callback != null) {
+            callback.onResult(null);
+        }
+    }
+
+    /**
+     * Remove a request's waiter and return its callback; a queued task nobody waits on any
+     * more leaves the queue. Holds lock.
+     */
+    private @Nullable Callback dropWaiter(Task task, String requestId) {
+        Callback callback = null;
+        for (int i = task.waiters.size() - 1; i >= 0; i--) {
+            if (task.waiters.get(i).requestId.equals(requestId)) {
+                callback = task.waiters.remove(i).callback;
+            }
+        }
+        if (task.waiters.isEmpty() && !task.started) {
+            executor.remove(task);
+            forget(task);
+        }
+        return callback;
+    }
+
+    /** Holds lock. */
+    private void forget(Task task) {
+        if (tasks.get(task.key) == task) {
+            tasks.remove(task.key);
+        }
+    }
+
+    /** Null when the source isn't a readable local file or content URI. */
+    private @Nullable String cacheKey(String source, int sizePx) {
+        if (source.startsWith("content://")) {
+            // Media store URIs are stable per item; edits get a new id
+            return DiskLruCache.key(source, Integer.toString(sizePx));
+        }
+        File file = toFile(source);
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        return DiskLruCache.key(file.getAbsolutePath(), Long.toString(file.lastModified()), Integer.toString(sizePx));
+    }
+
+    private static @Nullable File toFile(String source) {
+        if (source.startsWith("file://")) {
+            String path = Uri.parse(source).getPath();
+            return path != null ? new File(path) : null;
+        }
+        return source.startsWith("/") ? new File(source) : null;
+    }
+
+    // Decoding
+
+    private @Nullable String generate(Task task) throws IOException {
+        Bitmap bitmap = isVideo(task.source) ? videoFrame(task.source, task.sizePx) : decodeImage(task.source, task.sizePx);
+        if (bitmap == null) {
+            return null;
+        }
+        bitmap = scaleShortSide(bitmap, task.sizePx);
+        File temp = disk.tempFile(task.key);
+        try (OutputStream out = new FileOutputStream(temp)) {
+            if (!bitmap.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out)) {
+                disk.discard(task.key);
+                return null;
+            }
+        } finally {
+            bitmap.recycle();
+        }
+        if (!disk.commit(task.key)) {
+            return null;
+        }
+        File file = disk.get(task.key);
+        return file != null ? Uri.fromFile(file).toString() : null;
+    }
+
+    private boolean isVideo(String source) {
+        if (source.startsWith("content://")) {
+            String mime = context.getContentResolver().getType(Uri.parse(source));
+            return mime != null && mime.startsWith("video/");
+        }
+        return MediaIndex.TYPE_VIDEO.equals(MediaIndex.typeOf(source));
+    }
+
+    private @Nullable Bitmap videoFrame(String source, int sizePx) {
+        MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+        try {
+            if (source.startsWith("content://")) {
+                retriever.setDataSource(context, Uri.parse(source));
+            } else {
+                File file = toFile(source);
+                if (file == null) {
+                    return null;
+                }
+                retriever.setDataSource(file.getAbsolutePath());
+            }
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O_MR1) {
+                int width = parseInt(retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_VIDEO_WIDTH));
+                int height = parseInt(retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_VIDEO_HEIGHT));
+                if (width > 0 && height > 0) {
+                    // Fitting into a square box keeps the aspect ratio whichever way the video is rotated
+                    int box = (int) Math.ceil((double) sizePx * Math.max(width, height) / Math.min(width, height));
+                    return retriever.getScaledFrameAtTime(0, MediaMetadataRetriever.OPTION_CLOSEST_SYNC, box, box);
+                }
+            }
+            return retriever.getFrameAtTime(0, MediaMetadataRetriever.OPTION_CLOSEST_SYNC);
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Could not read video frame from " + source + ": " + e.getMessage());
+            return null;
+        } finally {
+            try {
+                retriever.release();
+            } catch (Exception ignored) {
+                // release() throws IOException from API 29
+            }
+        }
+    }
+
+    /** Decode at the largest power-of-two sample that still covers sizePx, upright per EXIF. */
+    private @Nullable Bitmap decodeImage(String source, int sizePx) throws IOException {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = open(source)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            return null;
+        }
+        int shortSide = Math.min(bounds.outWidth, bounds.outHeight);
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = 1;
+        while (shortSide / (options.inSampleSize * 2) >= sizePx) {
+            options.inSampleSize *= 2;
+        }
+        Bitmap bitmap;
+        try (InputStream in = open(source)) {
+            bitmap = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (bitmap == null) {
+            return null;
+        }
+        int degrees;
+        try (InputStream in = open(source)) {
+            degrees = exifDegrees(new ExifInterface(in)
+                .getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL));
+        } catch (IOException e) {
+            degrees = 0;
+        }
+        if (degrees == 0) {
+            return bitmap;
+        }
+        Matrix matrix = new Matrix();
+        matrix.postRotate(degrees);
+        Bitmap rotated = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
+        if (rotated != bitmap) {
+            bitmap.recycle();
+        }
+        return rotated;
+    }
+
+    private static int exifDegrees(int orientation) {
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                return 90;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                return 180;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                return 270;
+            default:
+                return 0;
+        }
+    }
+
+    private InputStream open(String source) throws IOException {
+        if (source.startsWith("content://")) {
+            InputStream in = context.getContentResolver().openInputStream(Uri.parse(source));
+            if (in == null) {
+                throw new IOException("No stream for " + source);
+            }
+            return in;
+        }
+        File file = toFile(source);
+        if (file == null) {
+            throw new IOException("Not a local file: " + source);
+        }
+        return new FileInputStream(file);
+    }
+
+    private static Bitmap scaleShortSide(Bitmap bitmap, int sizePx) {
+        int shortSide = Math.min(bitmap.getWidth(), bitmap.getHeight());
+        if (shortSide <= sizePx) {
+            return bitmap;
+        }
+        float scale = (float) sizePx / shortSide;
+        Bitmap scaled = Bitmap.createScaledBitmap(bitmap,
+            Math.max(1, Math.round(bitmap.getWidth() * scale)),
+            Math.max(1, Math.round(bitmap.getHeight() * scale)), true);
+        if (scaled != bitmap) {
+            bitmap.recycle();
+        }
+        return scaled;
+    }
+
+    private static int parseInt(@Nullable String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public JSONObject getStats() {
+        JSONObject stats = new JSONObject();
+        try {
+            long count = generated.get();
+            synchronized (lock) {
+                stats.put("queued", executor.getQueue().size());
+                stats.put("pendingRequests", requests.size());
+            }
+            stats.put("cacheHits", cacheHits.get());
+            stats.put("generated", count);
+            stats.put("avgGenerateMs", count == 0 ? 0 : generateNanos.get() / count / 1_000_000.0);
+            stats.put("failed", failed.get());
+            stats.put("cancelled", cancelled.get());
+            stats.put("coalesced", coalesced.get());
+            stats.put("disk", disk.getStats());
+        } catch (JSONException e) {
+            Log.w(TAG, "Error building thumbnail stats", e);
+        }
+        return stats;
+    }
+}
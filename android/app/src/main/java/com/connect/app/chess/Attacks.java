@@ -0,0 +1,81 @@
+package com.connect.app.chess;
+
+/**
+ * Precomputed attack sets. Squares are numbered a1 = 0 through h8 = 63.
+ *
+ * Leapers (pawn, knight, king) are plain lookups. Sliders walk a precomputed ray in each
+ * direction and cut it at the first blocker, found with a single bit scan.
+ */
+final class Attacks {
+    static final long[] KNIGHT = new long[64];
+    static final long[] KING = new long[64];
+    /** PAWN[color][sq]: squares a pawn of that color on sq attacks. */
+    static final long[][] PAWN = new long[2][64];
+
+    // Directions 0-3 step towards higher squares, 4-7 towards lower ones
+    private static final int NORTH = 0, EAST = 1, NORTH_EAST = 2, NORTH_WEST = 3;
+    private static final int SOUTH = 4, WEST = 5, SOUTH_WEST = 6, SOUTH_EAST = 7;
+    private static final int[] FILE_STEP = {0, 1, 1, -1, 0, -1, -1, 1};
+    private static final int[] RANK_STEP = {1, 0, 1, 1, -1, 0, -1, -1};
+    private static final long[][] RAYS = new long[8][64];
+
+    static {
+        int[][] knight = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+        for (int sq = 0; sq < 64; sq++) {
+            int file = sq & 7;
+            int rank = sq >> 3;
+            for (int[] step : knight) {
+                KNIGHT[sq] |= bit(file + step[0], rank + step[1]);
+            }
+            for (int df = -1; df <= 1; df++) {
+                for (int dr = -1; dr <= 1; dr++) {
+                    if (df != 0 || dr != 0) {
+                        KING[sq] |= bit(file + df, rank + dr);
+                    }
+                }
+            }
+            PAWN[Board.WHITE][sq] = bit(file - 1, rank + 1) | bit(file + 1, rank + 1);
+            PAWN[Board.BLACK][sq] = bit(file - 1, rank - 1) | bit(file + 1, rank - 1);
+            for (int dir = 0; dir < 8; dir++) {
+                int f = file + FILE_STEP[dir];
+                int r = rank + RANK_STEP[dir];
+                while (f >= 0 && f < 8 && r >= 0 && r < 8) {
+                    RAYS[dir][sq] |= 1L << (r * 8 + f);
+                    f += FILE_STEP[dir];
+                    r += RANK_STEP[dir];
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+    }
+
+    private static long bit(int file, int rank) {
+        return file >= 0 && file < 8 && rank >= 0 && rank < 8 ? 1L << (rank * 8 + file) : 0L;
+    }
+
+    private static long ray(int dir, int sq, long occupied) {
+        long attacks = RAYS[dir][sq];
+        long blockers = attacks & occupied;
+        if (blockers != 0) {
+            int blocker = dir < SOUTH ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+            attacks ^= RAYS[dir][blocker];
+        }
+        return attacks;
+    }
+
+    static long rook(int sq, long occupied) {
+        return ray(NORTH, sq, occupied) | ray(EAST, sq, occupied)
+            | ray(SOUTH, sq, occupied) | ray(WEST, sq, occupied);
+    }
+
+    static long bishop(int sq, long occupied) {
+        return ray(NORTH_EAST, sq, occupied) | ray(NORTH_WEST, sq, occupied)
+            | ray(SOUTH_EAST, sq, occupied) | ray(SOUTH_WEST, sq, occupied);
+    }
+
+    static long queen(int sq, long occupied) {
+        return rook(sq, occupied) | bishop(sq, occupied);
+    }
+}
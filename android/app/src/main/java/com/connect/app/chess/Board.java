@@ -0,0 +1,423 @@
+package com.connect.app.chess;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Chess position as bitboards, with make/unmake and an incrementally updated Zobrist hash.
+ *
+ * One bitboard per color and piece type plus a square-indexed mailbox for "what stands here"
+ * lookups. {@link #make} plays a pseudo-legal move from {@link MoveGen} and undoes it again if
+ * it leaves the mover's king in check, so callers only ever see legal positions. Each search
+ * thread works on its own copy.
+ */
+public final class Board {
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    static final int EMPTY = -1;
+
+    static final int WHITE_KINGSIDE = 1;
+    static final int WHITE_QUEENSIDE = 2;
+    static final int BLACK_KINGSIDE = 4;
+    static final int BLACK_QUEENSIDE = 8;
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // Game moves replayed onto the FEN plus the deepest search line
+    private static final int MAX_HISTORY = 1024;
+    private static final String PIECE_CHARS = "PNBRQKpnbrqk";
+
+    private static final long[][] ZOBRIST_PIECE = new long[12][64];
+    private static final long[] ZOBRIST_CASTLING = new long[16];
+    private static final long[] ZOBRIST_EP_FILE = new long[8];
+    private static final long ZOBRIST_SIDE;
+    // castling &= CASTLING_MASK[from] & CASTLING_MASK[to] drops rights when a king or rook moves or is captured
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        // Fixed seed so hashes are stable across runs, which keeps perft and search reproducible
+        Random random = new Random(0x5eed_c4e55L);
+        for (long[] squares : ZOBRIST_PIECE) {
+            for (int sq = 0; sq < 64; sq++) {
+                squares[sq] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < 16; i++) {
+            ZOBRIST_CASTLING[i] = random.nextLong();
+        }
+        for (int i = 0; i < 8; i++) {
+            ZOBRIST_EP_FILE[i] = random.nextLong();
+        }
+        ZOBRIST_SIDE = random.nextLong();
+
+        Arrays.fill(CASTLING_MASK, 15);
+        CASTLING_MASK[0] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASK[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[7] &= ~WHITE_KINGSIDE;
+        CASTLING_MASK[56] &= ~BLACK_QUEENSIDE;
+        CASTLING_MASK[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASK[63] &= ~BLACK_KINGSIDE;
+    }
+
+    final long[][] pieces = new long[2][6];
+    final long[] colors = new long[2];
+    long occupied;
+    /** color * 6 + type, or {@link #EMPTY}. */
+    final int[] squares = new int[64];
+    int side;
+    int castling;
+    int epSquare = EMPTY;
+    int halfmoveClock;
+    int fullmove = 1;
+    long hash;
+
+    // Undo stack, indexed by ply since the FEN
+    private int ply;
+    private final long[] hashHistory = new long[MAX_HISTORY];
+    private final int[] moveHistory = new int[MAX_HISTORY];
+    private final int[] capturedHistory = new int[MAX_HISTORY];
+    private final int[] castlingHistory = new int[MAX_HISTORY];
+    private final int[] epHistory = new int[MAX_HISTORY];
+    private final int[] halfmoveHistory = new int[MAX_HISTORY];
+
+    /** @throws IllegalArgumentException if {@code fen} can't be parsed */
+    public Board(String fen) {
+        Arrays.fill(squares, EMPTY);
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("Bad FEN: " + fen);
+        }
+        int rank = 7;
+        int file = 0;
+        for (char c : fields[0].toCharArray()) {
+            if (c == '/') {
+                rank--;
+                file = 0;
+            } else if (c >= '1' && c <= '8') {
+                file += c - '0';
+            } else {
+                int piece = PIECE_CHARS.indexOf(c);
+                if (piece < 0 || rank < 0 || file > 7 || (piece % 6 == PAWN && (rank == 0 || rank == 7))) {
+                    throw new IllegalArgumentException("Bad FEN: " + fen);
+                }
+                addPiece(rank * 8 + file, piece);
+                file++;
+            }
+        }
+        if (Long.bitCount(pieces[WHITE][KING]) != 1 || Long.bitCount(pieces[BLACK][KING]) != 1) {
+            throw new IllegalArgumentException("FEN needs one king per side: " + fen);
+        }
+        side = "b".equals(fields[1]) ? BLACK : WHITE;
+        for (char c : fields[2].toCharArray()) {
+            castling |= c == 'K' ? WHITE_KINGSIDE : c == 'Q' ? WHITE_QUEENSIDE
+                : c == 'k' ? BLACK_KINGSIDE : c == 'q' ? BLACK_QUEENSIDE : 0;
+        }
+        if (!"-".equals(fields[3])) {
+            epSquare = parseSquare(fields[3]);
+        }
+        try {
+            halfmoveClock = fields.length > 4 ? Integer.parseInt(fields[4]) : 0;
+            fullmove = fields.length > 5 ? Integer.parseInt(fields[5]) : 1;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad FEN: " + fen, e);
+        }
+        hash ^= ZOBRIST_CASTLING[castling];
+        if (epSquare != EMPTY) {
+            hash ^= ZOBRIST_EP_FILE[epSquare & 7];
+        }
+        if (side == BLACK) {
+            hash ^= ZOBRIST_SIDE;
+        }
+    }
+
+    /** Independent copy, including the history used for repetition checks. */
+    public Board(Board other) {
+        for (int color = 0; color < 2; color++) {
+            System.arraycopy(other.pieces[color], 0, pieces[color], 0, 6);
+        }
+        System.arraycopy(other.colors, 0, colors, 0, 2);
+        System.arraycopy(other.squares, 0, squares, 0, 64);
+        occupied = other.occupied;
+        side = other.side;
+        castling = other.castling;
+        epSquare = other.epSquare;
+        halfmoveClock = other.halfmoveClock;
+        fullmove = other.fullmove;
+        hash = other.hash;
+        ply = other.ply;
+        System.arraycopy(other.hashHistory, 0, hashHistory, 0, ply);
+        System.arraycopy(other.moveHistory, 0, moveHistory, 0, ply);
+        System.arraycopy(other.capturedHistory, 0, capturedHistory, 0, ply);
+        System.arraycopy(other.castlingHistory, 0, castlingHistory, 0, ply);
+        System.arraycopy(other.epHistory, 0, epHistory, 0, ply);
+        System.arraycopy(other.halfmoveHistory, 0, halfmoveHistory, 0, ply);
+    }
+
+    public int sideToMove() {
+        return side;
+    }
+
+    static int parseSquare(String name) {
+        if (name.length() != 2 || name.charAt(0) < 'a' || name.charAt(0) > 'h'
+                || name.charAt(1) < '1' || name.charAt(1) > '8') {
+            throw new IllegalArgumentException("Bad square: " + name);
+        }
+        return (name.charAt(1) - '1') * 8 + (name.charAt(0) - 'a');
+    }
+
+    private void addPiece(int sq, int piece) {
+        long bit = 1L << sq;
+        int color = piece / 6;
+        pieces[color][piece % 6] |= bit;
+        colors[color] |= bit;
+        occupied |= bit;
+        squares[sq] = piece;
+        hash ^= ZOBRIST_PIECE[piece][sq];
+    }
+
+    private void removePiece(int sq) {
+        int piece = squares[sq];
+        long bit = 1L << sq;
+        int color = piece / 6;
+        pieces[color][piece % 6] &= ~bit;
+        colors[color] &= ~bit;
+        occupied &= ~bit;
+        squares[sq] = EMPTY;
+        hash ^= ZOBRIST_PIECE[piece][sq];
+    }
+
+    private void movePiece(int from, int to) {
+        int piece = squares[from];
+        removePiece(from);
+        addPiece(to, piece);
+    }
+
+    int kingSquare(int color) {
+        return Long.numberOfTrailingZeros(pieces[color][KING]);
+    }
+
+    boolean isAttacked(int sq, int by) {
+        return (Attacks.PAWN[by ^ 1][sq] & pieces[by][PAWN]) != 0
+            || (Attacks.KNIGHT[sq] & pieces[by][KNIGHT]) != 0
+            || (Attacks.KING[sq] & pieces[by][KING]) != 0
+            || (Attacks.bishop(sq, occupied) & (pieces[by][BISHOP] | pieces[by][QUEEN])) != 0
+            || (Attacks.rook(sq, occupied) & (pieces[by][ROOK] | pieces[by][QUEEN])) != 0;
+    }
+
+    public boolean inCheck() {
+        return isAttacked(kingSquare(side), side ^ 1);
+    }
+
+    boolean hasNonPawnMaterial(int color) {
+        return (pieces[color][KNIGHT] | pieces[color][BISHOP] | pieces[color][ROOK] | pieces[color][QUEEN]) != 0;
+    }
+
+    /** True if the current position already occurred since the last capture or pawn move. */
+    boolean isRepetition() {
+        int earliest = Math.max(0, ply - halfmoveClock);
+        for (int i = ply - 2; i >= earliest; i -= 2) {
+            if (hashHistory[i] == hash) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Plays a pseudo-legal move; returns false, leaving the board unchanged, if it was illegal. */
+    public boolean make(int move) {
+        if (ply >= MAX_HISTORY) {
+            return false;
+        }
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int us = side;
+        int moved = squares[from];
+
+        hashHistory[ply] = hash;
+        moveHistory[ply] = move;
+        castlingHistory[ply] = castling;
+        epHistory[ply] = epSquare;
+        halfmoveHistory[ply] = halfmoveClock;
+
+        int captured = EMPTY;
+        if ((move & Move.EN_PASSANT) != 0) {
+            int victim = us == WHITE ? to - 8 : to + 8;
+            captured = squares[victim];
+            removePiece(victim);
+        } else if (squares[to] != EMPTY) {
+            captured = squares[to];
+            removePiece(to);
+        }
+        capturedHistory[ply] = captured;
+        movePiece(from, to);
+        int promotion = Move.promotion(move);
+        if (promotion != 0) {
+            removePiece(to);
+            addPiece(to, us * 6 + promotion);
+        }
+        if ((move & Move.CASTLE) != 0) {
+            moveCastlingRook(to, false);
+        }
+
+        if (epSquare != EMPTY) {
+            hash ^= ZOBRIST_EP_FILE[epSquare & 7];
+        }
+        epSquare = (move & Move.DOUBLE_PUSH) != 0 ? (from + to) >> 1 : EMPTY;
+        if (epSquare != EMPTY) {
+            hash ^= ZOBRIST_EP_FILE[epSquare & 7];
+        }
+        hash ^= ZOBRIST_CASTLING[castling];
+        castling &= CASTLING_MASK[from] & CASTLING_MASK[to];
+        hash ^= ZOBRIST_CASTLING[castling];
+
+        halfmoveClock = moved % 6 == PAWN || captured != EMPTY ? 0 : halfmoveClock + 1;
+        if (us == BLACK) {
+            fullmove++;
+        }
+        side ^= 1;
+        hash ^= ZOBRIST_SIDE;
+        ply++;
+
+        if (isAttacked(kingSquare(us), side)) {
+            unmake();
+            return false;
+        }
+        return true;
+    }
+
+    public void unmake() {
+        ply--;
+        int move = moveHistory[ply];
+        int from = Move.from(move);
+        int to = Move.to(move);
+        side ^= 1;
+        int us = side;
+
+        if ((move & Move.CASTLE) != 0) {
+            moveCastlingRook(to, true);
+        }
+        if (Move.promotion(move) != 0) {
+            removePiece(to);
+            addPiece(to, us * 6 + PAWN);
+        }
+        movePiece(to, from);
+        int captured = capturedHistory[ply];
+        if (captured != EMPTY) {
+            addPiece((move & Move.EN_PASSANT) != 0 ? (us == WHITE ? to - 8 : to + 8) : to, captured);
+        }
+
+        castling = castlingHistory[ply];
+        epSquare = epHistory[ply];
+        halfmoveClock = halfmoveHistory[ply];
+        if (us == BLACK) {
+            fullmove--;
+        }
+        hash = hashHistory[ply];
+    }
+
+    private void moveCastlingRook(int kingTo, boolean undo) {
+        int rookFrom;
+        int rookTo;
+        switch (kingTo) {
+            case 6: rookFrom = 7; rookTo = 5; break;
+            case 2: rookFrom = 0; rookTo = 3; break;
+            case 62: rookFrom = 63; rookTo = 61; break;
+            default: rookFrom = 56; rookTo = 59; break;
+        }
+        if (undo) {
+            movePiece(rookTo, rookFrom);
+        } else {
+            movePiece(rookFrom, rookTo);
+        }
+    }
+
+    /** Passes the turn, for null-move pruning. Must not be called while in check. */
+    void makeNullMove() {
+        hashHistory[ply] = hash;
+        moveHistory[ply] = Move.NONE;
+        epHistory[ply] = epSquare;
+        halfmoveHistory[ply] = halfmoveClock;
+        if (epSquare != EMPTY) {
+            hash ^= ZOBRIST_EP_FILE[epSquare & 7];
+            epSquare = EMPTY;
+        }
+        // Repetitions across a null move aren't real ones
+        halfmoveClock = 0;
+        side ^= 1;
+        hash ^= ZOBRIST_SIDE;
+        ply++;
+    }
+
+    void unmakeNullMove() {
+        ply--;
+        side ^= 1;
+        epSquare = epHistory[ply];
+        halfmoveClock = halfmoveHistory[ply];
+        hash = hashHistory[ply];
+    }
+
+    /** Finds the legal move matching UCI notation such as "e7e8q" and plays it; false if there is none. */
+    public boolean makeUci(String uci) {
+        int[] moves = new int[MoveGen.MAX_MOVES];
+        int count = MoveGen.generate(this, moves, false);
+        for (int i = 0; i < count; i++) {
+            if (Move.toUci(moves[i]).equals(uci) && make(moves[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String toFen() {
+        StringBuilder fen = new StringBuilder();
+        for (int rank = 7; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < 8; file++) {
+                int piece = squares[rank * 8 + file];
+                if (piece == EMPTY) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                fen.append(PIECE_CHARS.charAt(piece));
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (rank > 0) {
+                fen.append('/');
+            }
+        }
+        fen.append(side == WHITE ? " w " : " b ");
+        if (castling == 0) {
+            fen.append('-');
+        } else {
+            if ((castling & WHITE_KINGSIDE) != 0) {
+                fen.append('K');
+            }
+            if ((castling & WHITE_QUEENSIDE) != 0) {
+                fen.append('Q');
+            }
+            if ((castling & BLACK_KINGSIDE) != 0) {
+                fen.append('k');
+            }
+            if ((castling & BLACK_QUEENSIDE) != 0) {
+                fen.append('q');
+            }
+        }
+        fen.append(' ').append(epSquare == EMPTY ? "-" : Move.squareName(epSquare));
+        fen.append(' ').append(halfmoveClock).append(' ').append(fullmove);
+        return fen.toString();
+    }
+}
@@ -0,0 +1,173 @@
+package com.connect.app.chess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Multi-threaded chess engine: Lazy SMP over a shared transposition table.
+ *
+ * {@link #search} runs the main search on the calling thread and {@code threads - 1} helpers
+ * on a pool owned by the engine. All of them search the same root; odd helpers start one ply
+ * deeper so the threads spread out over the tree instead of repeating each other. The search
+ * ends at the depth limit, the time limit or {@link #stop}, and the result comes from the
+ * thread that completed the deepest iteration.
+ *
+ * Only one search runs at a time; the table persists between searches so the reply to the
+ * next move starts warm. Plain Java, so it runs on the JVM for tests and benchmarks.
+ */
+public final class Engine {
+    public static final int MAX_DEPTH = Search.MAX_PLY / 2;
+
+    public static final class Result {
+        /** {@link Move#NONE} when the side to move has no legal moves. */
+        public final int bestMove;
+        /** Centipawns for the side to move; see {@link #mateIn} for mates. */
+        public final int score;
+        public final int depth;
+        public final long nodes;
+        public final long timeMs;
+        public final int threads;
+        public final int[] pv;
+        /** Table fill in permille. */
+        public final int hashfull;
+
+        Result(int bestMove, int score, int depth, long nodes, long timeMs, int threads, int[] pv, int hashfull) {
+            this.bestMove = bestMove;
+            this.score = score;
+            this.depth = depth;
+            this.nodes = nodes;
+            this.timeMs = timeMs;
+            this.threads = threads;
+            this.pv = pv;
+            this.hashfull = hashfull;
+        }
+
+        public long nodesPerSecond() {
+            return nodes * 1000 / Math.max(1, timeMs);
+        }
+
+        /** Moves to mate, negative when the side to move is getting mated, or 0 if no mate was found. */
+        public int mateIn() {
+            if (Math.abs(score) < Search.MATE_BOUND) {
+                return 0;
+            }
+            int plies = Search.MATE - Math.abs(score);
+            return score > 0 ? (plies + 1) / 2 : -(plies + 1) / 2;
+        }
+    }
+
+    private final TranspositionTable tt;
+    private final int maxThreads;
+    private final ExecutorService helpers;
+    private volatile Search.Control current;
+
+    /** @param maxThreads upper bound on threads per search, including the caller's */
+    public Engine(int hashMegabytes, int maxThreads) {
+        this.tt = new TranspositionTable(hashMegabytes);
+        this.maxThreads = Math.max(1, maxThreads);
+        this.helpers = this.maxThreads > 1
+            ? Executors.newFixedThreadPool(this.maxThreads - 1, runnable -> {
+                Thread thread = new Thread(runnable, "ChessSearch");
+                thread.setDaemon(true);
+                return thread;
+            })
+            : null;
+    }
+
+    /** Blocks until the search ends. {@code timeMs} of 0 or less means depth-limited only. */
+    public synchronized Result search(Board position, int maxDepth, long timeMs, int threads) {
+        long start = System.nanoTime();
+        long deadline = timeMs > 0 ? start + timeMs * 1_000_000 : Long.MAX_VALUE;
+        // Each iteration costs a few times the last one, so don't start one past half the budget
+        long softDeadline = timeMs > 0 ? start + timeMs * 500_000 : Long.MAX_VALUE;
+        Search.Control control = new Search.Control(deadline, softDeadline);
+        current = control;
+        tt.newSearch();
+        int depthLimit = Math.max(1, Math.min(maxDepth, MAX_DEPTH));
+        int threadCount = Math.max(1, Math.min(threads, maxThreads));
+
+        List<Search> searches = new ArrayList<>();
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 1; i < threadCount; i++) {
+            Search helper = new Search(new Board(position), tt, control);
+            int startDepth = 1 + (i & 1);
+            searches.add(helper);
+            running.add(helpers.submit(() -> helper.run(Math.min(startDepth, depthLimit), depthLimit, false)));
+        }
+        Search main = new Search(new Board(position), tt, control);
+        main.run(1, depthLimit, true);
+        control.stopped.set(true);
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        current = null;
+
+        Search best = main;
+        for (Search helper : searches) {
+            if (helper.completedDepth > best.completedDepth && helper.bestMove != Move.NONE) {
+                best = helper;
+            }
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        return new Result(best.bestMove, best.bestScore, best.completedDepth, control.nodes.get(), elapsedMs,
+            threadCount, principalVariation(position, best.bestMove, best.completedDepth), tt.hashfull());
+    }
+
+    /** Ends the running search early; it still returns its best move so far. */
+    public void stop() {
+        Search.Control control = current;
+        if (control != null) {
+            control.stopped.set(true);
+        }
+    }
+
+    /** Forget everything learned, e.g. when a new game starts. Waits for a running search. */
+    public synchronized void clear() {
+        tt.clear();
+    }
+
+    public void shutdown() {
+        stop();
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    /** The best move followed by the table's best replies, as far as they're legal and new. */
+    private int[] principalVariation(Board position, int bestMove, int depth) {
+        if (bestMove == Move.NONE) {
+            return new int[0];
+        }
+        Board board = new Board(position);
+        int[] line = new int[Math.max(1, depth)];
+        int length = 0;
+        int[] moves = new int[MoveGen.MAX_MOVES];
+        int move = bestMove;
+        while (move != Move.NONE && length < line.length && !board.isRepetition()) {
+            int count = MoveGen.generate(board, moves, false);
+            boolean played = false;
+            for (int i = 0; i < count && !played; i++) {
+                played = moves[i] == move && board.make(move);
+            }
+            if (!played) {
+                break;
+            }
+            line[length++] = move;
+            long entry = tt.probe(board.hash);
+            move = entry != 0 ? TranspositionTable.move(entry) : Move.NONE;
+        }
+        int[] pv = new int[length];
+        System.arraycopy(line, 0, pv, 0, length);
+        return pv;
+    }
+}
@@ -0,0 +1,134 @@
+package com.connect.app.chess;
+
+/**
+ * Static evaluation in centipawns from the side to move's point of view: material plus
+ * piece-square tables, with the king table blended from middlegame to endgame as pieces come
+ * off.
+ */
+final class Evaluator {
+    static final int[] VALUE = {100, 320, 330, 500, 900, 0};
+
+    private static final int[] PHASE_WEIGHT = {0, 1, 1, 2, 4, 0};
+    private static final int MAX_PHASE = 24;
+    private static final int BISHOP_PAIR = 30;
+
+    // Tables are written as seen from White with a8 top-left; see pst() for the mapping
+    private static final int[] PAWN_TABLE = {
+         0,  0,  0,  0,  0,  0,  0,  0,
+        50, 50, 50, 50, 50, 50, 50, 50,
+        10, 10, 20, 30, 30, 20, 10, 10,
+         5,  5, 10, 25, 25, 10,  5,  5,
+         0,  0,  0, 20, 20,  0,  0,  0,
+         5, -5,-10,  0,  0,-10, -5,  5,
+         5, 10, 10,-20,-20, 10, 10,  5,
+         0,  0,  0,  0,  0,  0,  0,  0,
+    };
+    private static final int[] KNIGHT_TABLE = {
+        -50,-40,-30,-30,-30,-30,-40,-50,
+        -40,-20,  0,  0,  0,  0,-20,-40,
+        -30,  0, 10, 15, 15, 10,  0,-30,
+        -30,  5, 15, 20, 20, 15,  5,-30,
+        -30,  0, 15, 20, 20, 15,  0,-30,
+        -30,  5, 10, 15, 15, 10,  5,-30,
+        -40,-20,  0,  5,  5,  0,-20,-40,
+        -50,-40,-30,-30,-30,-30,-40,-50,
+    };
+    private static final int[] BISHOP_TABLE = {
+        -20,-10,-10,-10,-10,-10,-10,-20,
+        -10,  0,  0,  0,  0,  0,  0,-10,
+        -10,  0,  5, 10, 10,  5,  0,-10,
+        -10,  5,  5, 10, 10,  5,  5,-10,
+        -10,  0, 10, 10, 10, 10,  0,-10,
+        -10, 10, 10, 10, 10, 10, 10,-10,
+        -10,  5,  0,  0,  0,  0,  5,-10,
+        -20,-10,-10,-10,-10,-10,-10,-20,
+    };
+    private static final int[] ROOK_TABLE = {
+         0,  0,  0,  0,  0,  0,  0,  0,
+         5, 10, 10, 10, 10, 10, 10,  5,
+        -5,  0,  0,  0,  0,  0,  0, -5,
+        -5,  0,  0,  0,  0,  0,  0, -5,
+        -5,  0,  0,  0,  0,  0,  0, -5,
+        -5,  0,  0,  0,  0,  0,  0, -5,
+        -5,  0,  0,  0,  0,  0,  0, -5,
+         0,  0,  0,  5,  5,  0,  0,  0,
+    };
+    private static final int[] QUEEN_TABLE = {
+        -20,-10,-10, -5, -5,-10,-10,-20,
+        -10,  0,  0,  0,  0,  0,  0,-10,
+        -10,  0,  5,  5,  5,  5,  0,-10,
+         -5,  0,  5,  5,  5,  5,  0, -5,
+          0,  0,  5,  5,  5,  5,  0, -5,
+        -10,  5,  5,  5,  5,  5,  0,-10,
+        -10,  0,  5,  0,  0,  0,  0,-10,
+        -20,-10,-10, -5, -5,-10,-10,-20,
+    };
+    private static final int[] KING_MIDDLEGAME_TABLE = {
+        -30,-40,-40,-50,-50,-40,-40,-30,
+        -30,-40,-40,-50,-50,-40,-40,-30,
+        -30,-40,-40,-50,-50,-40,-40,-30,
+        -30,-40,-40,-50,-50,-40,-40,-30,
+        -20,-30,-30,-40,-40,-30,-30,-20,
+        -10,-20,-20,-20,-20,-20,-20,-10,
+         20, 20,  0,  0,  0,  0, 20, 20,
+         20, 30, 10,  0,  0, 10, 30, 20,
+    };
+    private static final int[] KING_ENDGAME_TABLE = {
+        -50,-40,-30,-20,-20,-30,-40,-50,
+        -30,-20,-10,  0,  0,-10,-20,-30,
+        -30,-10, 20, 30, 30, 20,-10,-30,
+        -30,-10, 30, 40, 40, 30,-10,-30,
+        -30,-10, 30, 40, 40, 30,-10,-30,
+        -30,-10, 20, 30, 30, 20,-10,-30,
+        -30,-30,  0,  0,  0,  0,-30,-30,
+        -50,-30,-30,-30,-30,-30,-30,-50,
+    };
+
+    /** PST[color][type][sq] including material; the king entry is the middlegame table. */
+    private static final int[][][] PST = new int[2][6][64];
+    private static final int[][] KING_ENDGAME = new int[2][64];
+
+    static {
+        int[][] tables = {PAWN_TABLE, KNIGHT_TABLE, BISHOP_TABLE, ROOK_TABLE, QUEEN_TABLE, KING_MIDDLEGAME_TABLE};
+        for (int sq = 0; sq < 64; sq++) {
+            // a1 is row 7, column 0 of the table for White; Black reads the board flipped vertically
+            int whiteIndex = (7 - (sq >> 3)) * 8 + (sq & 7);
+            int blackIndex = (sq >> 3) * 8 + (sq & 7);
+            for (int type = 0; type < 6; type++) {
+                PST[Board.WHITE][type][sq] = VALUE[type] + tables[type][whiteIndex];
+                PST[Board.BLACK][type][sq] = VALUE[type] + tables[type][blackIndex];
+            }
+            KING_ENDGAME[Board.WHITE][sq] = KING_ENDGAME_TABLE[whiteIndex];
+            KING_ENDGAME[Board.BLACK][sq] = KING_ENDGAME_TABLE[blackIndex];
+        }
+    }
+
+    private Evaluator() {
+    }
+
+    static int evaluate(Board board) {
+        int score = 0;
+        int phase = 0;
+        for (int color = 0; color < 2; color++) {
+            int sign = color == Board.WHITE ? 1 : -1;
+            for (int type = Board.PAWN; type < Board.KING; type++) {
+                for (long bits = board.pieces[color][type]; bits != 0; bits &= bits - 1) {
+                    score += sign * PST[color][type][Long.numberOfTrailingZeros(bits)];
+                    phase += PHASE_WEIGHT[type];
+                }
+            }
+            if (Long.bitCount(board.pieces[color][Board.BISHOP]) >= 2) {
+                score += sign * BISHOP_PAIR;
+            }
+        }
+        phase = Math.min(phase, MAX_PHASE);
+        for (int color = 0; color < 2; color++) {
+            int sign = color == Board.WHITE ? 1 : -1;
+            int king = board.kingSquare(color);
+            int middlegame = PST[color][Board.KING][king];
+            int endgame = KING_ENDGAME[color][king];
+            score += sign * (middlegame * phase + endgame * (MAX_PHASE - phase)) / MAX_PHASE;
+        }
+        return board.side == Board.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,59 @@
+package com.connect.app.chess;
+
+/**
+ * Moves packed into an int: bits 0-5 from, 6-11 to, 12-14 promotion piece type, 15-18 flags.
+ * 0 is never a valid move and stands for "none".
+ */
+public final class Move {
+    public static final int NONE = 0;
+
+    static final int CAPTURE = 1 << 15;
+    static final int DOUBLE_PUSH = 1 << 16;
+    static final int EN_PASSANT = 1 << 17;
+    static final int CASTLE = 1 << 18;
+
+    private static final String PROMOTION_CHARS = " nbrq";
+
+    private Move() {
+    }
+
+    static int encode(int from, int to, int promotion, int flags) {
+        return from | (to << 6) | (promotion << 12) | flags;
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /** Promotion piece type ({@link Board#KNIGHT} to {@link Board#QUEEN}), or 0. */
+    public static int promotion(int move) {
+        return (move >>> 12) & 7;
+    }
+
+    static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    /** Captures and promotions: the moves quiescence search looks at. */
+    static boolean isTactical(int move) {
+        return (move & CAPTURE) != 0 || promotion(move) != 0;
+    }
+
+    public static String squareName(int sq) {
+        return "" + (char) ('a' + (sq & 7)) + (char) ('1' + (sq >> 3));
+    }
+
+    /** Long algebraic notation as used by UCI, e.g. "e2e4" or "e7e8q". */
+    public static String toUci(int move) {
+        if (move == NONE) {
+            return "0000";
+        }
+        String uci = squareName(from(move)) + squareName(to(move));
+        int promotion = promotion(move);
+        return promotion != 0 ? uci + PROMOTION_CHARS.charAt(promotion) : uci;
+    }
+}
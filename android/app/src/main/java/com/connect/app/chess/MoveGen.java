@@ -0,0 +1,146 @@
+package com.connect.app.chess;
+
+/**
+ * Pseudo-legal move generation from bitboards. Moves that leave the king in check are
+ * generated too and rejected by {@link Board#make}, which is cheaper than pin detection for
+ * the moves alpha-beta never gets to.
+ */
+public final class MoveGen {
+    /** The most moves any legal position has is 218. */
+    public static final int MAX_MOVES = 256;
+
+    private static final long RANK_1 = 0xFFL;
+    private static final long RANK_8 = 0xFFL << 56;
+
+    private MoveGen() {
+    }
+
+    /**
+     * Writes the moves for the side to move into {@code moves} and returns how many there are.
+     * With {@code tacticalOnly}, only captures and queen promotions, for quiescence search.
+     */
+    public static int generate(Board board, int[] moves, boolean tacticalOnly) {
+        int us = board.side;
+        int them = us ^ 1;
+        long own = board.colors[us];
+        long enemy = board.colors[them];
+        long targets = tacticalOnly ? enemy : ~own;
+        int count = generatePawnMoves(board, moves, 0, tacticalOnly);
+
+        for (long knights = board.pieces[us][Board.KNIGHT]; knights != 0; knights &= knights - 1) {
+            int from = Long.numberOfTrailingZeros(knights);
+            count = addMoves(moves, count, from, Attacks.KNIGHT[from] & targets, enemy);
+        }
+        for (long bishops = board.pieces[us][Board.BISHOP]; bishops != 0; bishops &= bishops - 1) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            count = addMoves(moves, count, from, Attacks.bishop(from, board.occupied) & targets, enemy);
+        }
+        for (long rooks = board.pieces[us][Board.ROOK]; rooks != 0; rooks &= rooks - 1) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            count = addMoves(moves, count, from, Attacks.rook(from, board.occupied) & targets, enemy);
+        }
+        for (long queens = board.pieces[us][Board.QUEEN]; queens != 0; queens &= queens - 1) {
+            int from = Long.numberOfTrailingZeros(queens);
+            count = addMoves(moves, count, from, Attacks.queen(from, board.occupied) & targets, enemy);
+        }
+        int king = board.kingSquare(us);
+        count = addMoves(moves, count, king, Attacks.KING[king] & targets, enemy);
+        if (!tacticalOnly) {
+            count = generateCastling(board, moves, count);
+        }
+        return count;
+    }
+
+    private static int addMoves(int[] moves, int count, int from, long targets, long enemy) {
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            moves[count++] = Move.encode(from, to, 0, (enemy & (1L << to)) != 0 ? Move.CAPTURE : 0);
+        }
+        return count;
+    }
+
+    private static int generatePawnMoves(Board board, int[] moves, int count, boolean tacticalOnly) {
+        int us = board.side;
+        long pawns = board.pieces[us][Board.PAWN];
+        long enemy = board.colors[us ^ 1];
+        long empty = ~board.occupied;
+        int forward = us == Board.WHITE ? 8 : -8;
+        long promotionRank = us == Board.WHITE ? RANK_8 : RANK_1;
+        // Pawns on this rank may still push two squares
+        long startRank = us == Board.WHITE ? 0xFF00L : 0xFFL << 48;
+
+        for (; pawns != 0; pawns &= pawns - 1) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            for (long captures = Attacks.PAWN[us][from] & enemy; captures != 0; captures &= captures - 1) {
+                int to = Long.numberOfTrailingZeros(captures);
+                count = addPawnMove(moves, count, from, to, Move.CAPTURE, promotionRank, tacticalOnly);
+            }
+            int push = from + forward;
+            if ((empty & (1L << push)) != 0) {
+                if ((promotionRank & (1L << push)) != 0) {
+                    count = addPawnMove(moves, count, from, push, 0, promotionRank, tacticalOnly);
+                } else if (!tacticalOnly) {
+                    moves[count++] = Move.encode(from, push, 0, 0);
+                    int doublePush = push + forward;
+                    if ((startRank & (1L << from)) != 0 && (empty & (1L << doublePush)) != 0) {
+                        moves[count++] = Move.encode(from, doublePush, 0, Move.DOUBLE_PUSH);
+                    }
+                }
+            }
+        }
+
+        int ep = board.epSquare;
+        if (ep != Board.EMPTY) {
+            // Our pawns that attack ep are the squares an enemy pawn on ep would attack
+            for (long attackers = Attacks.PAWN[us ^ 1][ep] & board.pieces[us][Board.PAWN];
+                    attackers != 0; attackers &= attackers - 1) {
+                int from = Long.numberOfTrailingZeros(attackers);
+                moves[count++] = Move.encode(from, ep, 0, Move.CAPTURE | Move.EN_PASSANT);
+            }
+        }
+        return count;
+    }
+
+    private static int addPawnMove(int[] moves, int count, int from, int to, int flags,
+                                   long promotionRank, boolean tacticalOnly) {
+        if ((promotionRank & (1L << to)) == 0) {
+            moves[count++] = Move.encode(from, to, 0, flags);
+            return count;
+        }
+        moves[count++] = Move.encode(from, to, Board.QUEEN, flags);
+        if (!tacticalOnly) {
+            moves[count++] = Move.encode(from, to, Board.ROOK, flags);
+            moves[count++] = Move.encode(from, to, Board.BISHOP, flags);
+            moves[count++] = Move.encode(from, to, Board.KNIGHT, flags);
+        }
+        return count;
+    }
+
+    private static int generateCastling(Board board, int[] moves, int count) {
+        int us = board.side;
+        int them = us ^ 1;
+        int kingSide = us == Board.WHITE ? Board.WHITE_KINGSIDE : Board.BLACK_KINGSIDE;
+        int queenSide = us == Board.WHITE ? Board.WHITE_QUEENSIDE : Board.BLACK_QUEENSIDE;
+        if ((board.castling & (kingSide | queenSide)) == 0) {
+            return count;
+        }
+        // e1 or e8; castling rights are dropped as soon as the king leaves it
+        int king = us == Board.WHITE ? 4 : 60;
+        int rook = us * 6 + Board.ROOK;
+        if (board.squares[king] != us * 6 + Board.KING || board.isAttacked(king, them)) {
+            return count;
+        }
+        long occupied = board.occupied;
+        if ((board.castling & kingSide) != 0 && board.squares[king + 3] == rook
+                && (occupied & (3L << (king + 1))) == 0
+                && !board.isAttacked(king + 1, them) && !board.isAttacked(king + 2, them)) {
+            moves[count++] = Move.encode(king, king + 2, 0, Move.CASTLE);
+        }
+        if ((board.castling & queenSide) != 0 && board.squares[king - 4] == rook
+                && (occupied & (7L << (king - 3))) == 0
+                && !board.isAttacked(king - 1, them) && !board.isAttacked(king - 2, them)) {
+            moves[count++] = Move.encode(king, king - 2, 0, Move.CASTLE);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,27 @@
+package com.connect.app.chess;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth. Comparing against published
+ * counts for tricky positions is the standard check that move generation and make/unmake
+ * are exact.
+ */
+public final class Perft {
+    private Perft() {
+    }
+
+    public static long perft(Board board, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        int[] moves = new int[MoveGen.MAX_MOVES];
+        int count = MoveGen.generate(board, moves, false);
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            if (board.make(moves[i])) {
+                nodes += depth == 1 ? 1 : perft(board, depth - 1);
+                board.unmake();
+            }
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,325 @@
+package com.connect.app.chess;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One search thread: iterative deepening over a principal-variation alpha-beta search with
+ * quiescence, null-move pruning and late-move reductions.
+ *
+ * For Lazy SMP, {@link Engine} runs several of these on copies of the same position. They
+ * share only the transposition table and the stop flag; helpers that start at a different
+ * depth fill the table with results the other threads then pick up.
+ */
+final class Search {
+    static final int INFINITY = 32000;
+    static final int MATE = 31000;
+    static final int MAX_PLY = 128;
+    /** Scores beyond this are mates, counted in plies from the root. */
+    static final int MATE_BOUND = MATE - MAX_PLY;
+
+    // How often (in nodes) the clock is read and the shared node count updated
+    private static final int CHECK_INTERVAL = 2048;
+    private static final int TT_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 24;
+    private static final int KILLER_SCORE = 1 << 22;
+    private static final int HISTORY_MAX = 1 << 20;
+
+    /** State shared by all threads of one search. */
+    static final class Control {
+        final AtomicBoolean stopped = new AtomicBoolean();
+        final AtomicLong nodes = new AtomicLong();
+        /** Hard limit: every thread stops mid-iteration once it passes. */
+        final long deadlineNanos;
+        /** The main thread doesn't start another iteration after this. */
+        final long softDeadlineNanos;
+
+        Control(long deadlineNanos, long softDeadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+            this.softDeadlineNanos = softDeadlineNanos;
+        }
+    }
+
+    private final Board board;
+    private final TranspositionTable tt;
+    private final Control control;
+    private final int[][] moves = new int[MAX_PLY][MoveGen.MAX_MOVES];
+    private final int[][] scores = new int[MAX_PLY][MoveGen.MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][] history = new int[64][64];
+    private long nodes;
+    private long reportedNodes;
+    private int rootBestMove;
+
+    int bestMove = Move.NONE;
+    int bestScore;
+    int completedDepth;
+
+    Search(Board board, TranspositionTable tt, Control control) {
+        this.board = board;
+        this.tt = tt;
+        this.control = control;
+    }
+
+    /**
+     * Deepens from {@code startDepth} to {@code maxDepth} or until stopped. Only completed
+     * iterations update {@link #bestMove}, except that the first one falls back to the best
+     * move found before the stop so there's always something to play. The main thread also
+     * stops at the soft deadline, since the next iteration would likely not finish in time.
+     */
+    void run(int startDepth, int maxDepth, boolean main) {
+        for (int depth = startDepth; depth <= maxDepth; depth++) {
+            rootBestMove = Move.NONE;
+            int score = search(depth, -INFINITY, INFINITY, 0, false);
+            if (control.stopped.get()) {
+                if (bestMove == Move.NONE) {
+                    bestMove = rootBestMove;
+                }
+                break;
+            }
+            bestMove = rootBestMove;
+            bestScore = score;
+            completedDepth = depth;
+            if (bestMove == Move.NONE || Math.abs(score) >= MATE_BOUND && MATE - Math.abs(score) <= depth) {
+                // No legal moves, or a forced mate that deeper search can't improve on
+                break;
+            }
+            if (main && System.nanoTime() >= control.softDeadlineNanos) {
+                break;
+            }
+        }
+        flushNodes();
+    }
+
+    private void flushNodes() {
+        control.nodes.addAndGet(nodes - reportedNodes);
+        reportedNodes = nodes;
+    }
+
+    private boolean checkStop() {
+        if ((++nodes & (CHECK_INTERVAL - 1)) == 0) {
+            flushNodes();
+            if (System.nanoTime() >= control.deadlineNanos) {
+                control.stopped.set(true);
+            }
+        }
+        return control.stopped.get();
+    }
+
+    private int search(int depth, int alpha, int beta, int ply, boolean allowNull) {
+        if (checkStop()) {
+            return 0;
+        }
+        boolean root = ply == 0;
+        boolean pvNode = beta - alpha > 1;
+        if (!root) {
+            if (board.halfmoveClock >= 100 || board.isRepetition()) {
+                return 0;
+            }
+            // A shorter mate was already found elsewhere in the tree
+            alpha = Math.max(alpha, -MATE + ply);
+            beta = Math.min(beta, MATE - ply - 1);
+            if (alpha >= beta) {
+                return alpha;
+            }
+        }
+        boolean inCheck = board.inCheck();
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0) {
+            return quiesce(alpha, beta, ply);
+        }
+        if (ply >= MAX_PLY - 1) {
+            return Evaluator.evaluate(board);
+        }
+
+        int ttMove = Move.NONE;
+        long entry = tt.probe(board.hash);
+        if (entry != 0) {
+            ttMove = TranspositionTable.move(entry);
+            if (!pvNode && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER && score >= beta
+                        || bound == TranspositionTable.UPPER && score <= alpha) {
+                    return score;
+                }
+            }
+        }
+
+        if (allowNull && !pvNode && !inCheck && depth >= 3 && board.hasNonPawnMaterial(board.side)
+                && Evaluator.evaluate(board) >= beta) {
+            board.makeNullMove();
+            int score = -search(depth - 1 - (depth >= 6 ? 3 : 2), -beta, -beta + 1, ply + 1, false);
+            board.unmakeNullMove();
+            if (control.stopped.get()) {
+                return 0;
+            }
+            if (score >= beta) {
+                // Don't trust mate scores from a position where we passed
+                return score >= MATE_BOUND ? beta : score;
+            }
+        }
+
+        int[] list = moves[ply];
+        int count = MoveGen.generate(board, list, false);
+        scoreMoves(ply, count, ttMove);
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMoveHere = Move.NONE;
+        int legal = 0;
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(ply, i, count);
+            if (!board.make(move)) {
+                continue;
+            }
+            legal++;
+            int score;
+            if (legal == 1) {
+                score = -search(depth - 1, -beta, -alpha, ply + 1, true);
+            } else {
+                int reduction = depth >= 3 && legal > 3 && !inCheck && !Move.isTactical(move)
+                    && move != killers[ply][0] && move != killers[ply][1] && !board.inCheck() ? 1 : 0;
+                score = -search(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1, true);
+                if (score > alpha && reduction > 0) {
+                    score = -search(depth - 1, -alpha - 1, -alpha, ply + 1, true);
+                }
+                if (score > alpha && score < beta) {
+                    score = -search(depth - 1, -beta, -alpha, ply + 1, true);
+                }
+            }
+            board.unmake();
+            if (control.stopped.get()) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMoveHere = move;
+                if (root) {
+                    rootBestMove = move;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        if (!Move.isTactical(move)) {
+                            rememberCutoff(move, depth, ply);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        if (legal == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        int bound = best >= beta ? TranspositionTable.LOWER
+            : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        tt.store(board.hash, bound == TranspositionTable.UPPER ? Move.NONE : bestMoveHere, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    private int quiesce(int alpha, int beta, int ply) {
+        if (checkStop()) {
+            return 0;
+        }
+        int standPat = Evaluator.evaluate(board);
+        if (standPat >= beta || ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+        int count = MoveGen.generate(board, moves[ply], true);
+        scoreMoves(ply, count, Move.NONE);
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(ply, i, count);
+            if (!board.make(move)) {
+                continue;
+            }
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            board.unmake();
+            if (control.stopped.get()) {
+                return 0;
+            }
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    /** TT move first, then captures by most valuable victim / least valuable attacker, killers, history. */
+    private void scoreMoves(int ply, int count, int ttMove) {
+        int[] list = moves[ply];
+        int[] values = scores[ply];
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            if (move == ttMove) {
+                values[i] = TT_MOVE_SCORE;
+            } else if (Move.isTactical(move)) {
+                int victim = (move & Move.EN_PASSANT) != 0 || !Move.isCapture(move)
+                    ? Board.PAWN : board.squares[Move.to(move)] % 6;
+                int attacker = board.squares[Move.from(move)] % 6;
+                values[i] = CAPTURE_SCORE + Evaluator.VALUE[victim] * 8 - attacker
+                    + (Move.promotion(move) == Board.QUEEN ? Evaluator.VALUE[Board.QUEEN] * 8 : 0);
+            } else if (move == killers[ply][0]) {
+                values[i] = KILLER_SCORE + 1;
+            } else if (move == killers[ply][1]) {
+                values[i] = KILLER_SCORE;
+            } else {
+                values[i] = history[Move.from(move)][Move.to(move)];
+            }
+        }
+    }
+
+    /** Selection sort step: moves the best remaining move to {@code index} and returns it. */
+    private int pickMove(int ply, int index, int count) {
+        int[] list = moves[ply];
+        int[] values = scores[ply];
+        int best = index;
+        for (int i = index + 1; i < count; i++) {
+            if (values[i] > values[best]) {
+                best = i;
+            }
+        }
+        int move = list[best];
+        list[best] = list[index];
+        list[index] = move;
+        int value = values[best];
+        values[best] = values[index];
+        values[index] = value;
+        return move;
+    }
+
+    private void rememberCutoff(int move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] row = history[Move.from(move)];
+        int to = Move.to(move);
+        row[to] += depth * depth;
+        if (row[to] > HISTORY_MAX) {
+            for (int[] fromRow : history) {
+                for (int i = 0; i < 64; i++) {
+                    fromRow[i] >>= 1;
+                }
+            }
+        }
+    }
+
+    // Mate scores are stored relative to the node so they stay right when reached at another ply
+
+    private static int toTable(int score, int ply) {
+        return score >= MATE_BOUND ? score + ply : score <= -MATE_BOUND ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        return score >= MATE_BOUND ? score - ply : score <= -MATE_BOUND ? score + ply : score;
+    }
+}
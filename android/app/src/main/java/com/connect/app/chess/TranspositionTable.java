@@ -0,0 +1,104 @@
+package com.connect.app.chess;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size hash table of search results, shared by all search threads without locking.
+ *
+ * Each slot is two longs: the packed entry and the position key XORed with it. A reader only
+ * accepts a slot whose halves XOR back to its key, so an entry torn by a concurrent write is
+ * treated as a miss rather than trusted. Moves read from the table are still checked against
+ * the generated move list before they're played.
+ */
+final class TranspositionTable {
+    static final int EXACT = 0;
+    static final int LOWER = 1;
+    static final int UPPER = 2;
+
+    // Entry layout: move 0-18, score + 32768 19-34, depth 35-42, bound 43-44, generation 45-52,
+    // and bit 63 set so a stored entry is never 0
+    private static final long PRESENT = 1L << 63;
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+    private volatile int generation;
+
+    TranspositionTable(int megabytes) {
+        // 16 bytes a slot, rounded down to a power of two so the index is a mask
+        int slots = Integer.highestOneBit(Math.max(1, megabytes) * (1024 * 1024 / 16));
+        keys = new long[slots];
+        entries = new long[slots];
+        mask = slots - 1;
+    }
+
+    /** Call before each new search so entries from earlier ones are replaced first. */
+    void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(entries, 0);
+    }
+
+    /** The packed entry for {@code key}, or 0 on a miss. */
+    long probe(long key) {
+        int index = (int) key & mask;
+        long entry = entries[index];
+        return entry != 0 && (keys[index] ^ entry) == key ? entry : 0;
+    }
+
+    void store(long key, int move, int score, int depth, int bound) {
+        int index = (int) key & mask;
+        long old = entries[index];
+        boolean sameKey = old != 0 && (keys[index] ^ old) == key;
+        // Keep a deeper result for the same position from this search, but never lose its move
+        if (sameKey && generation(old) == generation && depth < depth(old) && bound != EXACT) {
+            return;
+        }
+        if (move == Move.NONE && sameKey) {
+            move = move(old);
+        }
+        long entry = PRESENT
+            | (move & 0x7FFFFL)
+            | ((long) (score + 32768) << 19)
+            | ((long) (depth & 0xFF) << 35)
+            | ((long) bound << 43)
+            | ((long) generation << 45);
+        entries[index] = entry;
+        keys[index] = key ^ entry;
+    }
+
+    static int move(long entry) {
+        return (int) (entry & 0x7FFFF);
+    }
+
+    static int score(long entry) {
+        return (int) ((entry >>> 19) & 0xFFFF) - 32768;
+    }
+
+    static int depth(long entry) {
+        return (int) ((entry >>> 35) & 0xFF);
+    }
+
+    static int bound(long entry) {
+        return (int) ((entry >>> 43) & 3);
+    }
+
+    private static int generation(long entry) {
+        return (int) ((entry >>> 45) & 0xFF);
+    }
+
+    /** Share of sampled slots filled during the current search, in permille as UCI reports it. */
+    int hashfull() {
+        int sample = Math.min(1000, entries.length);
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            if (entries[i] != 0 && generation(entries[i]) == generation) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+}
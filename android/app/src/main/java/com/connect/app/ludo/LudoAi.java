@@ -0,0 +1,149 @@
+package com.connect.app.ludo;
+
+/**
+ * Bot move choice by expectimax over the dice.
+ *
+ * The bot maximises its evaluation, every opponent is assumed to minimise it (the
+ * "paranoid" reduction of multi-player search), and each roll is averaged over its six
+ * outcomes. {@code depth} counts decisions, so depth 1 only looks at the bot's own move and
+ * depth 3 also covers the next two rolls of whoever moves after it. Search runs on a private
+ * copy of the game with preallocated buffers, so it allocates nothing per node.
+ */
+public final class LudoAi {
+    public static final int MAX_DEPTH = 4;
+
+    // Evaluation weights, in units of one step of progress
+    private static final int OUT_OF_YARD = 6;
+    private static final int IN_HOME_COLUMN = 6;
+    private static final int FINISHED_BONUS = 12;
+    private static final int PLAYER_FINISHED_BONUS = 1000;
+
+    private final LudoGame game;
+    private final int[][] movable = new int[MAX_DEPTH + 1][LudoBoard.PIECES];
+    private int rootPlayer;
+    private long nodes;
+
+    public LudoAi(int playerCount) {
+        game = new LudoGame(playerCount);
+    }
+
+    public long nodes() {
+        return nodes;
+    }
+
+    /** The piece {@code position}'s current player should move with its current dice, or -1 if none can. */
+    public int bestPiece(LudoGame position, int depth) {
+        game.copyFrom(position);
+        rootPlayer = game.currentPlayer;
+        nodes = 0;
+        int searchDepth = Math.max(1, Math.min(depth, MAX_DEPTH));
+        int[] moves = movable[searchDepth];
+        int count = game.movablePieces(moves);
+        if (count <= 1) {
+            return count == 1 ? moves[0] : -1;
+        }
+        int best = moves[0];
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            game.make(moves[i]);
+            double value = searchDepth == 1 || game.isGameOver() ? evaluate() : chance(searchDepth - 1);
+            game.unmake();
+            if (value > bestValue) {
+                bestValue = value;
+                best = moves[i];
+            }
+        }
+        return best;
+    }
+
+    /** Average over the six rolls for whoever moves next. */
+    private double chance(int depth) {
+        double total = 0;
+        for (int roll = 1; roll <= 6; roll++) {
+            game.dice = roll;
+            total += decide(depth);
+        }
+        game.dice = 0;
+        return total / 6;
+    }
+
+    private double decide(int depth) {
+        nodes++;
+        int[] moves = movable[depth];
+        int count = game.movablePieces(moves);
+        if (count == 0) {
+            game.makePass();
+            double value = depth == 1 ? evaluate() : chance(depth - 1);
+            game.unmakePass();
+            return value;
+        }
+        boolean maximise = game.currentPlayer == rootPlayer;
+        double best = maximise ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            game.make(moves[i]);
+            double value = depth == 1 || game.isGameOver() ? evaluate() : chance(depth - 1);
+            game.unmake();
+            best = maximise ? Math.max(best, value) : Math.min(best, value);
+        }
+        return best;
+    }
+
+    /** The root player's standing minus that of its strongest opponent. */
+    int evaluate() {
+        int own = score(rootPlayer);
+        int strongest = Integer.MIN_VALUE;
+        for (int player = 0; player < game.playerCount; player++) {
+            if (player != rootPlayer) {
+                strongest = Math.max(strongest, score(player));
+            }
+        }
+        return own - strongest;
+    }
+
+    private int score(int player) {
+        if (game.hasFinished(player)) {
+            return PLAYER_FINISHED_BONUS;
+        }
+        int score = 0;
+        for (int piece = 0; piece < LudoBoard.PIECES; piece++) {
+            int s = game.steps[player * LudoBoard.PIECES + piece];
+            if (s == LudoBoard.YARD) {
+                continue;
+            }
+            score += s + OUT_OF_YARD;
+            if (s == LudoBoard.FINISHED) {
+                score += FINISHED_BONUS;
+            } else if (s > LudoBoard.TRACK_LENGTH) {
+                score += IN_HOME_COLUMN;
+            } else if (!LudoBoard.SAFE[LudoBoard.CELL[player][s]]) {
+                // Expected loss: the progress at stake times the chance of being hit next round
+                score -= s * threats(player, s) / 6;
+            }
+        }
+        return score;
+    }
+
+    /** Opponent pieces 1-6 squares behind a track square, each of which one exact roll brings there. */
+    private int threats(int player, int s) {
+        int target = LudoBoard.trackIndex(player, s);
+        int threats = 0;
+        for (int opponent = 0; opponent < game.playerCount; opponent++) {
+            if (opponent == player) {
+                continue;
+            }
+            for (int piece = 0; piece < LudoBoard.PIECES; piece++) {
+                int theirs = game.steps[opponent * LudoBoard.PIECES + piece];
+                int from = LudoBoard.trackIndex(opponent, theirs);
+                if (from < 0) {
+                    continue;
+                }
+                int distance = (target - from + LudoBoard.TRACK_LENGTH) % LudoBoard.TRACK_LENGTH;
+                // The opponent must not turn into its home column before reaching us
+                if (distance >= 1 && distance <= 6 && theirs + distance <= LudoBoard.TRACK_LENGTH) {
+                    threats++;
+                }
+            }
+        }
+        return Math.min(threats, 6);
+    }
+}
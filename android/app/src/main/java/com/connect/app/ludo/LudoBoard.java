@@ -0,0 +1,77 @@
+package com.connect.app.ludo;
+
+/**
+ * Static geometry of the 15x15 Ludo board, matching the paths LudoGameSVG renders.
+ *
+ * A piece's position is its step count along its own path: 0 in the yard, 1-52 around the
+ * shared track starting from its start square, 53-58 up its home column and 59 in the
+ * center. Cells are numbered y * 15 + x so they can be compared across players.
+ */
+public final class LudoBoard {
+    public static final int PLAYERS = 4;
+    public static final int PIECES = 4;
+    public static final int TRACK_LENGTH = 52;
+    public static final int FINISHED = 59;
+    static final int YARD = 0;
+    static final int CELLS = 15 * 15;
+    static final int CENTER = 7 * 15 + 7;
+
+    /** Where each player's path joins the track, as an index into the red (player 0) lap. */
+    static final int[] START_INDEX = {0, 13, 39, 26};
+
+    /** CELL[player][steps]; -1 for the yard. */
+    static final int[][] CELL = new int[PLAYERS][FINISHED + 1];
+    /** Capture-free cells: the four start squares plus the marked squares LudoGameSVG uses. */
+    static final boolean[] SAFE = new boolean[CELLS];
+
+    static {
+        // Red's lap, from its start square (1, 6) clockwise back to (0, 6)
+        int[] track = new int[TRACK_LENGTH];
+        int[][] legs = {
+            {1, 6, 1, 0, 5}, {6, 5, 0, -1, 5}, {6, 0, 1, 0, 2}, {8, 0, 0, 1, 1},
+            {8, 1, 0, 1, 5}, {9, 6, 1, 0, 5}, {14, 6, 0, 1, 2}, {14, 8, -1, 0, 1},
+            {13, 8, -1, 0, 5}, {8, 9, 0, 1, 5}, {8, 14, -1, 0, 2}, {6, 14, 0, -1, 1},
+            {6, 13, 0, -1, 5}, {5, 8, -1, 0, 5}, {0, 8, 0, -1, 2}, {0, 6, 1, 0, 1},
+        };
+        int length = 0;
+        for (int[] leg : legs) {
+            for (int i = 0; i < leg[4]; i++) {
+                track[length++] = cell(leg[0] + leg[2] * i, leg[1] + leg[3] * i);
+            }
+        }
+        // Home columns run from the track edge towards the center
+        int[][] homeColumns = {{1, 7, 1, 0}, {7, 1, 0, 1}, {7, 13, 0, -1}, {13, 7, -1, 0}};
+        for (int player = 0; player < PLAYERS; player++) {
+            CELL[player][YARD] = -1;
+            for (int step = 1; step <= TRACK_LENGTH; step++) {
+                CELL[player][step] = track[(START_INDEX[player] + step - 1) % TRACK_LENGTH];
+            }
+            int[] column = homeColumns[player];
+            for (int i = 0; i < 6; i++) {
+                CELL[player][TRACK_LENGTH + 1 + i] = cell(column[0] + column[2] * i, column[1] + column[3] * i);
+            }
+            CELL[player][FINISHED] = CENTER;
+        }
+        int[][] safe = {{1, 6}, {8, 1}, {6, 13}, {13, 8}, {7, 13}, {13, 7}, {7, 2}, {2, 7}};
+        for (int[] xy : safe) {
+            SAFE[cell(xy[0], xy[1])] = true;
+        }
+    }
+
+    private LudoBoard() {
+    }
+
+    static int cell(int x, int y) {
+        return y * 15 + x;
+    }
+
+    /** Index of a track square in red's lap, or -1 off the shared track. */
+    static int trackIndex(int player, int steps) {
+        return steps >= 1 && steps <= TRACK_LENGTH ? (START_INDEX[player] + steps - 1) % TRACK_LENGTH : -1;
+    }
+
+    /** Seat order for turns; with four players play goes round the board, not by seat number. */
+    static int[] turnOrder(int playerCount) {
+        return playerCount == 4 ? new int[] {0, 1, 3, 2} : playerCount == 3 ? new int[] {0, 1, 2} : new int[] {0, 1};
+    }
+}
@@ -0,0 +1,363 @@
+package com.connect.app.ludo;
+
+import java.util.Arrays;
+
+/**
+ * Ludo rules over primitive arrays: no objects are allocated per roll, move or search node.
+ *
+ * The rules are the ones LudoGameSVG plays by: a 6 brings a piece out, the exact count is
+ * needed to reach the center, a 6 or a capture earns another roll, and off the safe squares
+ * a lone piece is captured by anything landing on it while a pair can only be captured by
+ * another pair. A pair that leaves one of its pieces behind on a square shared with a lone
+ * opponent captures it as well.
+ *
+ * {@link #move} reports what changed through the {@code last*} fields so callers can send
+ * diffs instead of whole states. {@link #make} and {@link #unmake} are the search variants.
+ */
+public final class LudoGame {
+    static final int MAX_CAPTURES = 12;
+    // Deepest search line, with headroom for passes and extra turns
+    private static final int MAX_UNDO = 64;
+
+    final int playerCount;
+    private final int[] order;
+    /** steps[player * 4 + piece], see {@link LudoBoard}. */
+    final int[] steps = new int[LudoBoard.PLAYERS * LudoBoard.PIECES];
+    int currentPlayer;
+    int dice;
+    /** Players in the order they got all four pieces home. */
+    final int[] ranking = new int[LudoBoard.PLAYERS];
+    int rankCount;
+
+    // Result of the last move
+    int lastPiece = -1;
+    int lastFrom;
+    int lastTo;
+    final int[] lastCaptured = new int[MAX_CAPTURES];
+    final int[] lastCapturedFrom = new int[MAX_CAPTURES];
+    int lastCaptureCount;
+    boolean lastExtraTurn;
+
+    // Undo stack for search
+    private int undoTop;
+    private final int[] undoPiece = new int[MAX_UNDO];
+    private final int[] undoFrom = new int[MAX_UNDO];
+    private final int[] undoPlayer = new int[MAX_UNDO];
+    private final int[] undoDice = new int[MAX_UNDO];
+    private final int[] undoRankCount = new int[MAX_UNDO];
+    private final int[][] undoCaptured = new int[MAX_UNDO][MAX_CAPTURES];
+    private final int[][] undoCapturedFrom = new int[MAX_UNDO][MAX_CAPTURES];
+    private final int[] undoCaptureCount = new int[MAX_UNDO];
+
+    public LudoGame(int playerCount) {
+        if (playerCount < 2 || playerCount > 4) {
+            throw new IllegalArgumentException("Ludo needs 2 to 4 players, got " + playerCount);
+        }
+        this.playerCount = playerCount;
+        this.order = LudoBoard.turnOrder(playerCount);
+        currentPlayer = order[0];
+    }
+
+    /** Overwrites this game with {@code other}'s position, without allocating. */
+    public void copyFrom(LudoGame other) {
+        if (other.playerCount != playerCount) {
+            throw new IllegalArgumentException("Player counts differ");
+        }
+        System.arraycopy(other.steps, 0, steps, 0, steps.length);
+        System.arraycopy(other.ranking, 0, ranking, 0, ranking.length);
+        currentPlayer = other.currentPlayer;
+        dice = other.dice;
+        rankCount = other.rankCount;
+        undoTop = 0;
+    }
+
+    /** Replaces the position, e.g. to resume a saved game. */
+    public void load(int[] pieceSteps, int currentPlayer, int[] finishedOrder) {
+        if (pieceSteps.length != steps.length) {
+            throw new IllegalArgumentException("Expected " + steps.length + " piece positions");
+        }
+        for (int i = 0; i < steps.length; i++) {
+            int value = pieceSteps[i];
+            if (value < LudoBoard.YARD || value > LudoBoard.FINISHED || (i >> 2) >= playerCount && value != 0) {
+                throw new IllegalArgumentException("Bad position " + value + " for piece " + i);
+            }
+            steps[i] = value;
+        }
+        rankCount = Math.min(finishedOrder.length, ranking.length);
+        System.arraycopy(finishedOrder, 0, ranking, 0, rankCount);
+        this.currentPlayer = currentPlayer;
+        dice = 0;
+        undoTop = 0;
+    }
+
+    public int playerCount() {
+        return playerCount;
+    }
+
+    public int currentPlayer() {
+        return currentPlayer;
+    }
+
+    public int dice() {
+        return dice;
+    }
+
+    public int steps(int player, int piece) {
+        return steps[player * LudoBoard.PIECES + piece];
+    }
+
+    /** Number of players with all pieces home; {@link #ranked} gives them in finishing order. */
+    public int rankCount() {
+        return rankCount;
+    }
+
+    public int ranked(int place) {
+        return ranking[place];
+    }
+
+    /** Global index (player * 4 + piece) of the piece the last move played. */
+    public int lastPiece() {
+        return lastPiece;
+    }
+
+    public int lastFrom() {
+        return lastFrom;
+    }
+
+    public int lastTo() {
+        return lastTo;
+    }
+
+    public int lastCaptureCount() {
+        return lastCaptureCount;
+    }
+
+    /** Global index of the {@code i}th piece the last move sent home. */
+    public int lastCaptured(int i) {
+        return lastCaptured[i];
+    }
+
+    public int lastCapturedFrom(int i) {
+        return lastCapturedFrom[i];
+    }
+
+    public boolean lastExtraTurn() {
+        return lastExtraTurn;
+    }
+
+    public boolean isGameOver() {
+        return rankCount >= playerCount - 1;
+    }
+
+    boolean hasFinished(int player) {
+        int base = player * LudoBoard.PIECES;
+        for (int i = 0; i < LudoBoard.PIECES; i++) {
+            if (steps[base + i] != LudoBoard.FINISHED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean canMove(int piece, int roll) {
+        int current = steps[currentPlayer * LudoBoard.PIECES + piece];
+        if (current == LudoBoard.YARD) {
+            return roll == 6;
+        }
+        return current < LudoBoard.FINISHED && current + roll <= LudoBoard.FINISHED;
+    }
+
+    /** Writes the current player's movable pieces (0-3) for the current dice into {@code out}. */
+    public int movablePieces(int[] out) {
+        int count = 0;
+        if (dice < 1 || isGameOver()) {
+            return 0;
+        }
+        for (int piece = 0; piece < LudoBoard.PIECES; piece++) {
+            if (canMove(piece, dice)) {
+                out[count++] = piece;
+            }
+        }
+        return count;
+    }
+
+    /** Sets the rolled value; with nothing to move the turn passes at once. Returns the movable count. */
+    public int roll(int value, int[] movable) {
+        if (value < 1 || value > 6) {
+            throw new IllegalArgumentException("Dice value " + value);
+        }
+        dice = value;
+        int count = movablePieces(movable);
+        if (count == 0) {
+            dice = 0;
+            currentPlayer = nextPlayer(currentPlayer);
+        }
+        return count;
+    }
+
+    /** Plays {@code piece} with the current dice and fills in the {@code last*} fields. */
+    public void move(int piece) {
+        if (dice == 0 || piece < 0 || piece >= LudoBoard.PIECES || !canMove(piece, dice)) {
+            throw new IllegalArgumentException("Piece " + piece + " can't move " + dice);
+        }
+        make(piece);
+        // UI moves are never taken back
+        undoTop = 0;
+    }
+
+    /** Search version of {@link #move}: no validation, and {@link #unmake} restores the position. */
+    void make(int piece) {
+        int player = currentPlayer;
+        int index = player * LudoBoard.PIECES + piece;
+        int from = steps[index];
+        int to = from == LudoBoard.YARD ? 1 : from + dice;
+
+        int slot = undoTop++;
+        undoPiece[slot] = index;
+        undoFrom[slot] = from;
+        undoPlayer[slot] = player;
+        undoDice[slot] = dice;
+        undoRankCount[slot] = rankCount;
+
+        steps[index] = to;
+        lastPiece = index;
+        lastFrom = from;
+        lastTo = to;
+        lastCaptureCount = 0;
+        if (to < LudoBoard.FINISHED) {
+            captureAt(player, LudoBoard.CELL[player][to]);
+            if (from != LudoBoard.YARD) {
+                captureLeftBehind(player, LudoBoard.CELL[player][from]);
+            }
+        }
+        int[] captured = undoCaptured[slot];
+        int[] capturedFrom = undoCapturedFrom[slot];
+        for (int i = 0; i < lastCaptureCount; i++) {
+            captured[i] = lastCaptured[i];
+            capturedFrom[i] = lastCapturedFrom[i];
+            steps[lastCaptured[i]] = LudoBoard.YARD;
+        }
+        undoCaptureCount[slot] = lastCaptureCount;
+
+        boolean finishedNow = to == LudoBoard.FINISHED && hasFinished(player);
+        if (finishedNow) {
+            ranking[rankCount++] = player;
+        }
+        lastExtraTurn = (dice == 6 || lastCaptureCount > 0) && !finishedNow && !isGameOver();
+        if (!lastExtraTurn && !isGameOver()) {
+            currentPlayer = nextPlayer(player);
+        }
+        dice = 0;
+    }
+
+    void unmake() {
+        int slot = --undoTop;
+        int[] captured = undoCaptured[slot];
+        int[] capturedFrom = undoCapturedFrom[slot];
+        for (int i = 0; i < undoCaptureCount[slot]; i++) {
+            steps[captured[i]] = capturedFrom[i];
+        }
+        steps[undoPiece[slot]] = undoFrom[slot];
+        currentPlayer = undoPlayer[slot];
+        dice = undoDice[slot];
+        rankCount = undoRankCount[slot];
+    }
+
+    /** Search version of a roll with nothing to move; undone with {@link #unmakePass}. */
+    void makePass() {
+        int slot = undoTop++;
+        undoPlayer[slot] = currentPlayer;
+        undoDice[slot] = dice;
+        dice = 0;
+        currentPlayer = nextPlayer(currentPlayer);
+    }
+
+    void unmakePass() {
+        int slot = --undoTop;
+        currentPlayer = undoPlayer[slot];
+        dice = undoDice[slot];
+    }
+
+    int nextPlayer(int from) {
+        int position = 0;
+        while (order[position] != from) {
+            position++;
+        }
+        for (int i = 1; i <= order.length; i++) {
+            int candidate = order[(position + i) % order.length];
+            if (!hasFinished(candidate)) {
+                return candidate;
+            }
+        }
+        return from;
+    }
+
+    /** Pieces of {@code player} on {@code cell}, not counting ones already captured this move. */
+    private int countAt(int player, int cell) {
+        int count = 0;
+        int base = player * LudoBoard.PIECES;
+        for (int i = base; i < base + LudoBoard.PIECES; i++) {
+            int s = steps[i];
+            if (s != LudoBoard.YARD && s < LudoBoard.FINISHED && LudoBoard.CELL[player][s] == cell && !isCaptured(i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean isCaptured(int index) {
+        for (int i = 0; i < lastCaptureCount; i++) {
+            if (lastCaptured[i] == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void capturePieces(int player, int cell) {
+        int base = player * LudoBoard.PIECES;
+        for (int i = base; i < base + LudoBoard.PIECES; i++) {
+            int s = steps[i];
+            if (s != LudoBoard.YARD && s < LudoBoard.FINISHED && LudoBoard.CELL[player][s] == cell && !isCaptured(i)) {
+                lastCaptured[lastCaptureCount] = i;
+                lastCapturedFrom[lastCaptureCount] = s;
+                lastCaptureCount++;
+            }
+        }
+    }
+
+    /** A lone opponent is always captured; a pair only when we now have two or more there too. */
+    private void captureAt(int mover, int cell) {
+        if (LudoBoard.SAFE[cell]) {
+            return;
+        }
+        int ours = countAt(mover, cell);
+        for (int player = 0; player < playerCount; player++) {
+            if (player == mover) {
+                continue;
+            }
+            int theirs = countAt(player, cell);
+            if (theirs == 1 || theirs == 2 && ours >= 2) {
+                capturePieces(player, cell);
+            }
+        }
+    }
+
+    /** A pair or more left behind on the old square captures lone opponents sharing it. */
+    private void captureLeftBehind(int mover, int cell) {
+        if (LudoBoard.SAFE[cell] || countAt(mover, cell) < 2) {
+            return;
+        }
+        for (int player = 0; player < playerCount; player++) {
+            if (player != mover && countAt(player, cell) == 1) {
+                capturePieces(player, cell);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LudoGame{players=" + playerCount + ", current=" + currentPlayer + ", dice=" + dice
+            + ", steps=" + Arrays.toString(steps) + "}";
+    }
+}
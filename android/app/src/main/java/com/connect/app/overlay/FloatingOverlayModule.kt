@@ -1,16 +1,21 @@
 package com.connect.app.overlay
 
-import android.app.Activity
-import android.content.Context
 import android.content.Intent
 import android.net.Uri
 import android.os.Build
 import android.provider.Settings
+import com.connect.app.ServiceHost
 import com.facebook.react.bridge.*
-import com.facebook.react.modules.core.DeviceEventManagerModule
 
 class FloatingOverlayModule(private val reactContext: ReactApplicationContext) : ReactContextBaseJavaModule(reactContext) {
 
+  companion object {
+    private const val QUERY_TIMEOUT_MS = 1000L
+    private const val MENU_TIMEOUT_MS = 3000L
+  }
+
+  private val channel = OverlayChannel(reactContext)
+
   override fun getName(): String = "FloatingOverlay"
 
   @ReactMethod
@@ -38,12 +43,8 @@ class FloatingOverlayModule(private val reactContext: ReactApplicationContext) :
   @ReactMethod
   fun startOverlay(promise: Promise) {
     try {
-      val intent = Intent(reactContext, FloatingOverlayService::class.java)
-      if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-        reactContext.startForegroundService(intent)
-      } else {
-        reactContext.startService(intent)
-      }
+      ServiceHost.attach(reactContext, ServiceHost.WORKLOAD_OVERLAY)
+      channel.bind()
       promise.resolve(true)
     } catch (e: Exception) {
       promise.reject("overlay_start_error", e)
@@ -53,8 +54,8 @@ class FloatingOverlayModule(private val reactContext: ReactApplicationContext) :
   @ReactMethod
   fun stopOverlay(promise: Promise) {
     try {
-      val intent = Intent(reactContext, FloatingOverlayService::class.java)
-      reactContext.stopService(intent)
+      ServiceHost.detach(reactContext, ServiceHost.WORKLOAD_OVERLAY)
+      channel.clearMenu()
       promise.resolve(true)
     } catch (e: Exception) {
       promise.reject("overlay_stop_error", e)
@@ -63,66 +64,43 @@ class FloatingOverlayModule(private val reactContext: ReactApplicationContext) :
 
   @ReactMethod
   fun isServiceRunning(promise: Promise) {
-    try {
-      val service = FloatingOverlayService.getInstance()
-      promise.resolve(service != null)
-    } catch (e: Exception) {
-      promise.resolve(false)
-    }
+    channel.bind()
+    channel.isAttached(QUERY_TIMEOUT_MS) { attached -> promise.resolve(attached) }
   }
 
+  /**
+   * Replaces the overlay menu. Sent straight away when the overlay is up, otherwise queued
+   * until it is; rejects if it doesn't come up within [MENU_TIMEOUT_MS], though the menu is
+   * still applied once it does.
+   */
   @ReactMethod
   fun setMenuOptions(options: ReadableArray, promise: Promise) {
     try {
-      // Try to get the service instance with retries
-      var service = FloatingOverlayService.getInstance()
-      var retries = 5
-      var delay = 100L // Start with 100ms delay
-      
-      // Retry if service is not ready yet (handles race condition)
-      while (service == null && retries > 0) {
-        try {
-          Thread.sleep(delay)
-        } catch (ie: InterruptedException) {
-          Thread.currentThread().interrupt()
-          promise.reject("menu_options_error", "Interrupted while waiting for service")
-          return
+      val menuOptionsList = mutableListOf<MenuOption>()
+      for (i in 0 until options.size()) {
+        val item = options.getMap(i)
+        if (item != null) {
+          val id = item.getString("id") ?: ""
+          val label = item.getString("label") ?: ""
+          val icon = item.getString("icon") ?: ""
+          menuOptionsList.add(MenuOption(id, label, icon))
         }
-        service = FloatingOverlayService.getInstance()
-        retries--
-        delay += 100L // Increase delay for each retry
       }
-      
-      if (service != null) {
-        val menuOptionsList = mutableListOf<MenuOption>()
-        for (i in 0 until options.size()) {
-          val item = options.getMap(i)
-          if (item != null) {
-            val id = item.getString("id") ?: ""
-            val label = item.getString("label") ?: ""
-            val icon = item.getString("icon") ?: ""
-            menuOptionsList.add(MenuOption(id, label, icon))
-          }
+      channel.bind()
+      channel.setMenu(menuOptionsList, MENU_TIMEOUT_MS) { delivered ->
+        if (delivered) {
+          promise.resolve(true)
+        } else {
+          promise.reject("service_not_running", "Floating overlay service is not running")
         }
-        
-        service.setMenuOptions(menuOptionsList) { optionId ->
-          // Send event to React Native when menu item is clicked
-          sendMenuClickEvent(optionId)
-        }
-        promise.resolve(true)
-      } else {
-        promise.reject("service_not_running", "Floating overlay service is not running")
       }
     } catch (e: Exception) {
       promise.reject("menu_options_error", e)
     }
   }
 
-  private fun sendMenuClickEvent(optionId: String) {
-    val params = Arguments.createMap()
-    params.putString("optionId", optionId)
-    reactContext
-      .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter::class.java)
-      .emit("FloatingOverlayMenuItemClick", params)
+  override fun invalidate() {
+    channel.close()
+    super.invalidate()
   }
 }
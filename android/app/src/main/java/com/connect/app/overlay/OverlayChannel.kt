@@ -0,0 +1,228 @@
+package com.connect.app.overlay
+
+import android.content.ComponentName
+import android.content.ServiceConnection
+import android.os.Bundle
+import android.os.Handler
+import android.os.IBinder
+import android.os.Looper
+import android.os.Message
+import android.os.Messenger
+import android.os.RemoteException
+import android.util.Log
+import com.connect.app.ServiceHost
+import com.facebook.react.bridge.Arguments
+import com.facebook.react.bridge.ReactApplicationContext
+import com.facebook.react.modules.core.DeviceEventManagerModule
+import java.lang.ref.WeakReference
+
+/**
+ * Command channel from [FloatingOverlayModule] to [OverlayWorkload] over the [ServiceHost]
+ * Messenger. Commands sent while the host is down are queued and go out as soon as the
+ * binding connects; replies complete callbacks on the main thread instead of anyone
+ * waiting for the service. The binding never starts the host, and the last menu is sent
+ * again on every connection, since a restarted host starts with a fresh workload.
+ *
+ * Menu clicks come back over the same channel. The React context is only weakly held, so a
+ * reloaded bridge isn't kept alive by the overlay.
+ */
+internal class OverlayChannel(reactContext: ReactApplicationContext) {
+
+  companion object {
+    private const val TAG = "OverlayChannel"
+    const val MSG_SET_MENU = 1
+    const val MSG_MENU_CLICK = 2
+    const val KEY_IDS = "ids"
+    const val KEY_LABELS = "labels"
+    const val KEY_ICONS = "icons"
+    const val KEY_OPTION_ID = "optionId"
+    const val MENU_CLICK_EVENT = "FloatingOverlayMenuItemClick"
+  }
+
+  private class Request(val callback: (Boolean) -> Unit, val timeout: Runnable)
+
+  private val appContext = reactContext.applicationContext
+  private val contextRef = WeakReference(reactContext)
+  private val mainHandler = Handler(Looper.getMainLooper())
+  private val replies = Messenger(Handler(Looper.getMainLooper()) { onReply(it); true })
+
+  // Main thread only
+  private var service: Messenger? = null
+  private var bound = false
+  private val queue = ArrayDeque<Message>()
+  private val pending = HashMap<Int, Request>()
+  private var nextRequestId = 1
+  private var menu: Bundle? = null
+
+  private val connection = object : ServiceConnection {
+    override fun onServiceConnected(name: ComponentName, binder: IBinder) {
+      service = Messenger(binder)
+      if (queue.none { it.what == MSG_SET_MENU }) {
+        menu?.let { deliver(message(MSG_SET_MENU, it, 0)) }
+      }
+      while (queue.isNotEmpty() && service != null) {
+        deliver(queue.removeFirst())
+      }
+    }
+
+    override fun onServiceDisconnected(name: ComponentName) {
+      // The host stopped; the binding stays and reconnects when it starts again
+      service = null
+    }
+
+    override fun onBindingDied(name: ComponentName) {
+      service = null
+      unbind()
+      bind()
+    }
+  }
+
+  /** Binds to the host if not already bound. */
+  fun bind() {
+    mainHandler.post {
+      if (!bound) {
+        bound = ServiceHost.bind(appContext, connection)
+        if (!bound) {
+          Log.w(TAG, "Could not bind to ServiceHost")
+        }
+      }
+    }
+  }
+
+  /**
+   * Calls back with whether the overlay workload is attached. While the binding is still
+   * coming up the query waits for it like any other command; false straight away only when
+   * the host isn't running or nothing is bound, or if it doesn't answer in time.
+   */
+  fun isAttached(timeoutMs: Long, callback: (Boolean) -> Unit) {
+    mainHandler.post {
+      if (service == null && (!bound || !ServiceHost.isRunning())) {
+        callback(false)
+      } else {
+        send(ServiceHost.MSG_IS_ATTACHED, Bundle(), timeoutMs, callback)
+      }
+    }
+  }
+
+  /** Replaces the menu; calls back true once the overlay has it, false if it isn't up in time. */
+  fun setMenu(options: List<MenuOption>, timeoutMs: Long, callback: (Boolean) -> Unit) {
+    val data = Bundle().apply {
+      putStringArray(KEY_IDS, options.map { it.id }.toTypedArray())
+      putStringArray(KEY_LABELS, options.map { it.label }.toTypedArray())
+      putStringArray(KEY_ICONS, options.map { it.icon }.toTypedArray())
+    }
+    mainHandler.post {
+      menu = data
+      // Only the latest menu matters; calls still waiting on an older one share its outcome
+      val superseded = queue.filter { it.what == MSG_SET_MENU }.mapNotNull { pending.remove(it.arg1) }
+      queue.removeAll { it.what == MSG_SET_MENU }
+      superseded.forEach { mainHandler.removeCallbacks(it.timeout) }
+      send(MSG_SET_MENU, data, timeoutMs) { delivered ->
+        superseded.forEach { it.callback(delivered) }
+        callback(delivered)
+      }
+    }
+  }
+
+  /** Forgets the menu so a later start doesn't bring it back; fails menus still queued. */
+  fun clearMenu() {
+    mainHandler.post {
+      menu = null
+      val dropped = queue.filter { it.what == MSG_SET_MENU }.mapNotNull { pending.remove(it.arg1) }
+      queue.removeAll { it.what == MSG_SET_MENU }
+      for (request in dropped) {
+        mainHandler.removeCallbacks(request.timeout)
+        request.callback(false)
+      }
+    }
+  }
+
+  /** Unbinds and fails whatever is still waiting. */
+  fun close() {
+    mainHandler.post {
+      unbind()
+      queue.clear()
+      val waiting = pending.values.toList()
+      pending.clear()
+      for (request in waiting) {
+        mainHandler.removeCallbacks(request.timeout)
+        request.callback(false)
+      }
+    }
+  }
+
+  private fun unbind() {
+    if (bound) {
+      try {
+        appContext.unbindService(connection)
+      } catch (e: IllegalArgumentException) {
+        // Already unbound
+      }
+      bound = false
+    }
+    service = null
+  }
+
+  private fun send(what: Int, data: Bundle, timeoutMs: Long, callback: (Boolean) -> Unit) {
+    val requestId = nextRequestId++
+    // A late command stays undelivered; the menu is sent again on the next connection anyway
+    val timeout = Runnable {
+      queue.removeAll { it.arg1 == requestId }
+      pending.remove(requestId)?.callback?.invoke(false)
+    }
+    pending[requestId] = Request(callback, timeout)
+    mainHandler.postDelayed(timeout, timeoutMs)
+    val message = message(what, data, requestId)
+    if (service != null) {
+      deliver(message)
+    } else {
+      queue.addLast(message)
+    }
+  }
+
+  private fun message(what: Int, data: Bundle, requestId: Int): Message {
+    val message = Message.obtain(null, what, requestId, 0)
+    message.data = Bundle(data).apply { putString(ServiceHost.EXTRA_WORKLOAD, ServiceHost.WORKLOAD_OVERLAY) }
+    message.replyTo = replies
+    return message
+  }
+
+  private fun deliver(message: Message) {
+    val target = service
+    if (target == null) {
+      queue.addFirst(message)
+      return
+    }
+    try {
+      target.send(message)
+    } catch (e: RemoteException) {
+      Log.w(TAG, "Host went away, queueing ${message.what}", e)
+      service = null
+      queue.addFirst(message)
+    }
+  }
+
+  private fun onReply(message: Message) {
+    if (message.what == MSG_MENU_CLICK) {
+      val optionId = message.peekData()?.getString(KEY_OPTION_ID) ?: return
+      emitMenuClick(optionId)
+      return
+    }
+    val request = pending.remove(message.arg1) ?: return
+    mainHandler.removeCallbacks(request.timeout)
+    request.callback(message.arg2 != 0)
+  }
+
+  private fun emitMenuClick(optionId: String) {
+    val reactContext = contextRef.get()
+    if (reactContext == null || !reactContext.hasActiveReactInstance()) {
+      Log.d(TAG, "Dropping menu click $optionId, React context is gone")
+      return
+    }
+    val params = Arguments.createMap()
+    params.putString(KEY_OPTION_ID, optionId)
+    reactContext
+      .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter::class.java)
+      .emit(MENU_CLICK_EVENT, params)
+  }
+}
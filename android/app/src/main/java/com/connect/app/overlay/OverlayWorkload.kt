@@ -0,0 +1,66 @@
+package com.connect.app.overlay
+
+import android.content.pm.ServiceInfo
+import android.os.Bundle
+import android.os.Message
+import android.os.Messenger
+import android.os.RemoteException
+import android.util.Log
+import com.connect.app.HostWorkload
+import com.connect.app.ServiceHost
+
+/**
+ * Floating overlay state, hosted by [ServiceHost] under the shared foreground notification.
+ * [FloatingOverlayModule] drives it through [OverlayChannel] messages; menu clicks go back to
+ * the Messenger that set the menu.
+ */
+class OverlayWorkload : HostWorkload {
+
+  private var menuOptions: List<MenuOption> = emptyList()
+  private var clickTarget: Messenger? = null
+
+  companion object {
+    private const val TAG = "OverlayWorkload"
+  }
+
+  override fun getId(): String = ServiceHost.WORKLOAD_OVERLAY
+
+  override fun getLabel(): String = "Overlay"
+
+  override fun getForegroundServiceType(): Int = ServiceInfo.FOREGROUND_SERVICE_TYPE_DATA_SYNC
+
+  override fun onAttach(host: ServiceHost) {}
+
+  override fun onDetach() {
+    clickTarget = null
+  }
+
+  override fun onMessage(message: Message) {
+    when (message.what) {
+      OverlayChannel.MSG_SET_MENU -> {
+        val data = message.data
+        val ids = data.getStringArray(OverlayChannel.KEY_IDS) ?: emptyArray()
+        val labels = data.getStringArray(OverlayChannel.KEY_LABELS) ?: emptyArray()
+        val icons = data.getStringArray(OverlayChannel.KEY_ICONS) ?: emptyArray()
+        menuOptions = ids.indices.map { MenuOption(ids[it], labels.getOrElse(it) { "" }, icons.getOrElse(it) { "" }) }
+        clickTarget = message.replyTo
+        ServiceHost.reply(message, 1)
+      }
+      else -> Log.w(TAG, "Unknown message ${message.what}")
+    }
+  }
+
+  /** Called by the overlay view when a menu item is tapped. */
+  fun onMenuItemClick(optionId: String) {
+    val target = clickTarget ?: return
+    val message = Message.obtain(null, OverlayChannel.MSG_MENU_CLICK)
+    message.data = Bundle().apply { putString(OverlayChannel.KEY_OPTION_ID, optionId) }
+    try {
+      target.send(message)
+    } catch (e: RemoteException) {
+      Log.w(TAG, "Menu click $optionId not delivered", e)
+      clickTarget = null
+    }
+  }
+
+}
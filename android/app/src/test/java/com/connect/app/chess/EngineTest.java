@@ -0,0 +1,63 @@
+package com.connect.app.chess;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class EngineTest {
+    private static Engine engine;
+
+    @BeforeClass
+    public static void createEngine() {
+        engine = new Engine(8, 4);
+    }
+
+    @AfterClass
+    public static void shutdownEngine() {
+        engine.shutdown();
+    }
+
+    private static Engine.Result search(String fen, int depth, int threads) {
+        engine.clear();
+        return engine.search(new Board(fen), depth, 0, threads);
+    }
+
+    @Test
+    public void findsMateInOne() {
+        Engine.Result result = search("r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4", 4, 1);
+        assertEquals("h5f7", Move.toUci(result.bestMove));
+        assertEquals(1, result.mateIn());
+    }
+
+    @Test
+    public void findsBackRankMateWithHelperThreads() {
+        Engine.Result result = search("6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1", 4, 4);
+        assertEquals("d1d8", Move.toUci(result.bestMove));
+        assertEquals(4, result.threads);
+    }
+
+    @Test
+    public void winsHangingQueen() {
+        Engine.Result result = search("rnb1kbnr/pppp1ppp/8/4p1q1/4P3/3P4/PPP2PPP/RNBQKBNR w KQkq - 1 3", 5, 2);
+        assertEquals("c1g5", Move.toUci(result.bestMove));
+    }
+
+    @Test
+    public void reportsNoMoveWhenStalemated() {
+        Engine.Result result = search("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1", 3, 1);
+        assertEquals(Move.NONE, result.bestMove);
+        assertEquals(0, result.score);
+    }
+
+    @Test
+    public void respectsTimeLimit() {
+        engine.clear();
+        Engine.Result result = engine.search(new Board(Board.START_FEN), Engine.MAX_DEPTH, 200, 2);
+        assertTrue(result.bestMove != Move.NONE);
+        assertTrue("took " + result.timeMs + " ms", result.timeMs < 1000);
+        assertTrue(result.nodes > 0 && result.nodesPerSecond() > 0);
+    }
+}
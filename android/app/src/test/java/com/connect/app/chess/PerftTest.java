@@ -0,0 +1,67 @@
+package com.connect.app.chess;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Perft counts for the standard test positions (chessprogramming.org "Perft Results"),
+ * which between them cover castling through attacked squares, en passant discovered checks,
+ * promotions and underpromotions.
+ */
+public class PerftTest {
+    private static void assertPerft(String fen, long... expected) {
+        Board board = new Board(fen);
+        for (int depth = 1; depth <= expected.length; depth++) {
+            assertEquals(fen + " depth " + depth, expected[depth - 1], Perft.perft(board, depth));
+            assertEquals("make/unmake must restore the position", fen, board.toFen());
+        }
+    }
+
+    @Test
+    public void startPosition() {
+        assertPerft(Board.START_FEN, 20, 400, 8902, 197281, 4865609);
+    }
+
+    @Test
+    public void kiwipete() {
+        assertPerft("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            48, 2039, 97862, 4085603);
+    }
+
+    @Test
+    public void rookEndgameWithEnPassantPins() {
+        assertPerft("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 14, 191, 2812, 43238, 674624);
+    }
+
+    @Test
+    public void promotionsAndChecks() {
+        assertPerft("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 6, 264, 9467, 422333);
+    }
+
+    @Test
+    public void mirroredPromotionsAndChecks() {
+        assertPerft("r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ - 0 1", 6, 264, 9467, 422333);
+    }
+
+    @Test
+    public void underpromotionPosition() {
+        assertPerft("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 44, 1486, 62379, 2103487);
+    }
+
+    @Test
+    public void middlegame() {
+        assertPerft("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            46, 2079, 89890, 3894594);
+    }
+
+    @Test
+    public void hashMatchesFreshBoardAfterMoves() {
+        Board board = new Board(Board.START_FEN);
+        for (String uci : new String[] {"e2e4", "d7d5", "e4d5", "c7c5", "d5c6", "b8c6", "g1f3", "g8f6", "f1b5", "e7e6", "e1g1"}) {
+            assertTrue(uci, board.makeUci(uci));
+        }
+        assertEquals(new Board(board.toFen()).hash, board.hash);
+    }
+}
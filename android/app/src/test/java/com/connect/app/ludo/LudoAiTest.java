@@ -0,0 +1,59 @@
+package com.connect.app.ludo;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class LudoAiTest {
+    private static LudoGame rolled(int players, int dice, int... steps) {
+        LudoGame game = new LudoGame(players);
+        int[] all = new int[16];
+        System.arraycopy(steps, 0, all, 0, steps.length);
+        game.load(all, 0, new int[0]);
+        game.roll(dice, new int[LudoBoard.PIECES]);
+        return game;
+    }
+
+    @Test
+    public void capturesWhenItCan() {
+        // Piece 1 reaches green's lone piece on (6, 1); piece 0 just walks up the track
+        LudoGame game = rolled(2, 4, 20, 6, 0, 0, 49);
+        for (int depth = 1; depth <= LudoAi.MAX_DEPTH; depth++) {
+            assertEquals("depth " + depth, 1, new LudoAi(2).bestPiece(game, depth));
+        }
+    }
+
+    @Test
+    public void bringsPieceOutOnSix() {
+        LudoGame game = rolled(4, 6, 0, 30, 0, 0);
+        assertEquals(0, new LudoAi(4).bestPiece(game, 2));
+    }
+
+    @Test
+    public void escapesToSafeSquare() {
+        // Green sits two squares behind red's piece 0, which a 5 takes onto blue's start square;
+        // piece 1 is already out of reach in the home column
+        LudoGame game = rolled(2, 5, 35, 53, 0, 0, 20);
+        for (int depth = 1; depth <= LudoAi.MAX_DEPTH; depth++) {
+            assertEquals("depth " + depth, 0, new LudoAi(2).bestPiece(game, depth));
+        }
+    }
+
+    @Test
+    public void leavesThePositionUntouched() {
+        LudoGame game = rolled(3, 3, 5, 12, 0, 0, 40, 41, 0, 0, 7);
+        int[] before = game.steps.clone();
+        new LudoAi(3).bestPiece(game, LudoAi.MAX_DEPTH);
+        assertArrayEquals(before, game.steps);
+        assertEquals(3, game.dice());
+        assertEquals(0, game.currentPlayer());
+    }
+
+    @Test
+    public void returnsMinusOneWithoutMoves() {
+        LudoGame game = new LudoGame(2);
+        game.dice = 3;
+        assertEquals(-1, new LudoAi(2).bestPiece(game, 2));
+    }
+}
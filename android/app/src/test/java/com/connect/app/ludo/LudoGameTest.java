@@ -0,0 +1,145 @@
+package com.connect.app.ludo;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LudoGameTest {
+    // The same track square, (6, 1), as each player counts it
+    private static final int RED_SQUARE = 10;
+    private static final int GREEN_SQUARE = 49;
+
+    private final int[] movable = new int[LudoBoard.PIECES];
+
+    private static LudoGame game(int players, int current, int... steps) {
+        LudoGame game = new LudoGame(players);
+        int[] all = new int[16];
+        System.arraycopy(steps, 0, all, 0, steps.length);
+        game.load(all, current, new int[0]);
+        return game;
+    }
+
+    @Test
+    public void pathsMeetOnTheSharedTrack() {
+        assertEquals(LudoBoard.CELL[0][RED_SQUARE], LudoBoard.CELL[1][GREEN_SQUARE]);
+        assertEquals(LudoBoard.cell(6, 1), LudoBoard.CELL[0][RED_SQUARE]);
+        assertEquals(LudoBoard.cell(1, 6), LudoBoard.CELL[0][1]);
+        assertEquals(LudoBoard.cell(0, 6), LudoBoard.CELL[0][LudoBoard.TRACK_LENGTH]);
+        assertEquals(LudoBoard.CENTER, LudoBoard.CELL[3][LudoBoard.FINISHED]);
+    }
+
+    @Test
+    public void needsSixToLeaveYardAndPassesWithoutMoves() {
+        LudoGame game = new LudoGame(2);
+        assertEquals(0, game.roll(5, movable));
+        assertEquals(1, game.currentPlayer());
+        assertEquals(4, game.roll(6, movable));
+        game.move(2);
+        assertEquals(1, game.steps(1, 2));
+        assertTrue("a 6 rolls again", game.lastExtraTurn);
+        assertEquals(1, game.currentPlayer());
+    }
+
+    @Test
+    public void needsExactRollToFinish() {
+        LudoGame game = game(2, 0, 55);
+        assertEquals(0, game.roll(5, movable));
+        game.load(new int[] {55, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0}, 0, new int[0]);
+        assertEquals(1, game.roll(4, movable));
+        game.move(0);
+        assertEquals(LudoBoard.FINISHED, game.steps(0, 0));
+    }
+
+    @Test
+    public void landingCapturesLonePiece() {
+        LudoGame game = game(2, 0, RED_SQUARE - 5, 0, 0, 0, GREEN_SQUARE);
+        game.roll(5, movable);
+        game.move(0);
+        assertEquals(1, game.lastCaptureCount);
+        assertEquals(0, game.steps(1, 0));
+        assertTrue("a capture rolls again", game.lastExtraTurn);
+        assertEquals(0, game.currentPlayer());
+    }
+
+    @Test
+    public void lonePieceCannotCapturePair() {
+        LudoGame game = game(2, 0, RED_SQUARE - 5, 0, 0, 0, GREEN_SQUARE, GREEN_SQUARE);
+        game.roll(5, movable);
+        game.move(0);
+        assertEquals(0, game.lastCaptureCount);
+        assertEquals(GREEN_SQUARE, game.steps(1, 1));
+        assertEquals(1, game.currentPlayer());
+    }
+
+    @Test
+    public void pairCapturesPair() {
+        LudoGame game = game(2, 0, RED_SQUARE - 5, RED_SQUARE, 0, 0, GREEN_SQUARE, GREEN_SQUARE);
+        game.roll(5, movable);
+        game.move(0);
+        assertEquals(2, game.lastCaptureCount);
+        assertEquals(0, game.steps(1, 0));
+        assertEquals(0, game.steps(1, 1));
+    }
+
+    @Test
+    public void noCaptureOnSafeSquare() {
+        // Green's start square, 14 steps along red's path
+        LudoGame game = game(2, 0, 9, 0, 0, 0, 1);
+        game.roll(5, movable);
+        game.move(0);
+        assertEquals(14, game.steps(0, 0));
+        assertEquals(0, game.lastCaptureCount);
+        assertEquals(1, game.steps(1, 0));
+    }
+
+    @Test
+    public void pairLeftBehindCapturesLonePiece() {
+        LudoGame game = game(2, 0, RED_SQUARE, RED_SQUARE, RED_SQUARE, 0, GREEN_SQUARE);
+        game.roll(2, movable);
+        game.move(0);
+        assertEquals(1, game.lastCaptureCount);
+        assertEquals(0, game.steps(1, 0));
+        assertTrue(game.lastExtraTurn);
+    }
+
+    @Test
+    public void fourPlayersTakeTurnsAroundTheBoardAndSkipFinishedPlayers() {
+        LudoGame game = new LudoGame(4);
+        int[] expected = {1, 3, 2, 0};
+        for (int next : expected) {
+            game.roll(1, movable);
+            assertEquals(next, game.currentPlayer());
+        }
+        int[] steps = new int[16];
+        steps[12] = steps[13] = steps[14] = steps[15] = LudoBoard.FINISHED;
+        game.load(steps, 1, new int[] {3});
+        game.roll(1, movable);
+        assertEquals(2, game.currentPlayer());
+    }
+
+    @Test
+    public void finishingLastPieceRanksPlayerAndEndsTwoPlayerGame() {
+        LudoGame game = game(2, 0, 58, 59, 59, 59, 5);
+        game.roll(1, movable);
+        game.move(0);
+        assertTrue(game.isGameOver());
+        assertEquals(0, game.ranking[0]);
+        assertFalse(game.lastExtraTurn);
+    }
+
+    @Test
+    public void unmakeRestoresPositionAfterCaptures() {
+        LudoGame game = game(3, 0, RED_SQUARE, RED_SQUARE, RED_SQUARE - 3, 0, GREEN_SQUARE, 0, 0, 0, 23);
+        int[] before = game.steps.clone();
+        game.dice = 3;
+        game.make(2);
+        assertEquals(2, game.lastCaptureCount);
+        game.unmake();
+        assertArrayEquals(before, game.steps);
+        assertEquals(0, game.currentPlayer());
+        assertEquals(3, game.dice());
+    }
+}
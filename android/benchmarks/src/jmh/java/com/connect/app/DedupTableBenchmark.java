@@ -0,0 +1,102 @@
+package com.connect.app;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notification dedup lookups against the memory-mapped {@link DedupTable}. The table is
+ * filled to {@code fill} of its capacity first; hits probe keys already marked, misses
+ * probe keys that never were, and fresh marks insert new keys (evicting once full). A full
+ * table has already evicted some of its own keys, so part of its "duplicates" are inserts,
+ * as they would be on a device.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DedupTableBenchmark {
+    private static final int CAPACITY = 2048;
+    private static final long TTL_MS = DedupTable.MAX_TTL_MS;
+
+    @Param({"0.5", "1.0"})
+    public double fill;
+
+    private File file;
+    private DedupTable table;
+    private String[] marked;
+    private String[] unknown;
+    private String[] fresh;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        file = File.createTempFile("dedup", ".bin");
+        file.delete();
+        table = new DedupTable(file, CAPACITY, System::currentTimeMillis);
+        marked = keys("msg:", (int) (CAPACITY * fill));
+        unknown = keys("missing:", 1024);
+        fresh = keys("fresh:", 64 * 1024);
+        for (String key : marked) {
+            table.checkAndMark(key, TTL_MS);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        table.close();
+        file.delete();
+    }
+
+    private static String[] keys(String prefix, int count) {
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++) {
+            // Same shape as the message ids the server sends
+            keys[i] = prefix + String.format("%024x", i * 2654435761L);
+        }
+        return keys;
+    }
+
+    @Benchmark
+    public boolean duplicate(Cursor cursor) {
+        return table.checkAndMark(marked[cursor.next++ % marked.length], TTL_MS);
+    }
+
+    @Benchmark
+    public boolean containsHit(Cursor cursor) {
+        return table.contains(marked[cursor.next++ % marked.length]);
+    }
+
+    @Benchmark
+    public boolean containsMiss(Cursor cursor) {
+        return table.contains(unknown[cursor.next++ % unknown.length]);
+    }
+
+    @Benchmark
+    public boolean markFresh(Cursor cursor) {
+        return table.checkAndMark(fresh[cursor.next++ % fresh.length], TTL_MS);
+    }
+
+    /** The socket and FCM deliveries of the same messages racing on separate threads. */
+    @Benchmark
+    @Group("racingDeliveries")
+    @GroupThreads(2)
+    public boolean racingDelivery(Cursor cursor) {
+        return table.checkAndMark(marked[cursor.next++ % marked.length], TTL_MS);
+    }
+}
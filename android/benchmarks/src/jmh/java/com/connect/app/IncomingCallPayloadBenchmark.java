@@ -0,0 +1,71 @@
+package com.connect.app;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalizing an incoming-call payload, as ConnectMessagingService does for every FCM call
+ * message. The shapes cover the primary keys, the fallback keys of the socket event and a
+ * payload missing everything but the channel.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IncomingCallPayloadBenchmark {
+    @Param({"fcm", "socket", "sparse"})
+    public String shape;
+
+    private Map<String, String> raw;
+
+    @Setup
+    public void setUp() {
+        raw = new HashMap<>();
+        switch (shape) {
+            case "fcm":
+                raw.put("type", "video");
+                raw.put("callerName", "Ada Lovelace");
+                raw.put("callerProfilePic", "https://cdn.example.com/u/5f1c2b/avatar.jpg");
+                raw.put("channelName", "call_5f1c2b_9a7e11");
+                raw.put("isAudio", "false");
+                raw.put("callerId", "5f1c2b8e4a1d2c0012ab34cd");
+                break;
+            case "socket":
+                raw.put("type", "audio");
+                raw.put("name", "Ada Lovelace");
+                raw.put("profilePic", "https://cdn.example.com/u/5f1c2b/avatar.jpg");
+                raw.put("room", "call_5f1c2b_9a7e11");
+                raw.put("from", "5f1c2b8e4a1d2c0012ab34cd");
+                raw.put("timestamp", "1760600000000");
+                break;
+            default:
+                raw.put("channel", "call_5f1c2b_9a7e11");
+                break;
+        }
+    }
+
+    @Benchmark
+    public IncomingCallPayload normalize() {
+        return IncomingCallPayload.fromMap(raw);
+    }
+
+    /** Normalizing plus the strings the notification and TTS announcement are built from. */
+    @Benchmark
+    public void normalizeAndFormat(Blackhole blackhole) {
+        IncomingCallPayload payload = IncomingCallPayload.fromMap(raw);
+        blackhole.consume(payload.isValid());
+        blackhole.consume(payload.getTitle());
+        blackhole.consume(payload.getBody());
+        blackhole.consume(payload.getAnnouncement());
+    }
+}
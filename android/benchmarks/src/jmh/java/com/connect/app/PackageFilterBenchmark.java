@@ -0,0 +1,60 @@
+package com.connect.app;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Resolving what a process loads through {@link ProcessAllowlist}, as PackageManifest does on
+ * every React host start. Module filtering runs over names shaped like the app's module
+ * table; instantiation runs over JDK classes that stand in for the allowlisted packages,
+ * either all present or all missing from the build.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PackageFilterBenchmark {
+    private static final List<String> MODULES = Arrays.asList(
+        "CallNotificationModule", "FloatingOverlay", "RealtimeConnection", "NotificationDedup",
+        "StartupTrace", "NativeTts", "AvatarCache", "ServiceHost", "Outbox", "MessageStore",
+        "KvStore", "EmotionFrames", "DownloadEngine", "MediaIndex", "Thumbnails", "HttpClient",
+        "MediaPrefetch", "ChessEngine", "Ludo"
+    );
+
+    @Param({"present", "missing"})
+    public String packages;
+
+    private List<String> classNames;
+
+    @Setup
+    public void setUp() {
+        classNames = "present".equals(packages)
+            ? Arrays.asList("java.util.ArrayList", "java.util.HashMap", "java.lang.StringBuilder")
+            : Arrays.asList(
+                "com.reactnativecommunity.asyncstorage.AsyncStoragePackage",
+                "io.invertase.notifee.NotifeePackage",
+                "expo.modules.ExpoModulesPackage");
+    }
+
+    @Benchmark
+    public List<String> backgroundModules() {
+        return ProcessAllowlist.modulesFor(MODULES, Function.identity(), true);
+    }
+
+    @Benchmark
+    public List<Object> instantiatePackages() {
+        return ProcessAllowlist.instantiate(classNames, Object.class, (className, e) -> {
+            throw new IllegalStateException(className, e);
+        });
+    }
+}
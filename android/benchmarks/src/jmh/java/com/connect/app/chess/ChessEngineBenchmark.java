@@ -0,0 +1,73 @@
+package com.connect.app.chess;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move generation (perft) and fixed-depth search of the native chess engine. Search starts
+ * from an empty transposition table each time so every invocation walks the same tree, up to
+ * the nondeterminism helper threads bring.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ChessEngineBenchmark {
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3NP3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String MIDDLEGAME = "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP1B1PPP/R2QKB1R w KQ - 0 8";
+
+    private final Board start = new Board(Board.START_FEN);
+    private final Board kiwipete = new Board(KIWIPETE);
+
+    @State(Scope.Thread)
+    public static class Searcher {
+        @Param({"1", "2"})
+        public int threads;
+
+        final Board position = new Board(MIDDLEGAME);
+        Engine engine;
+
+        @Setup
+        public void setUp() {
+            engine = new Engine(16, threads);
+        }
+
+        @Setup(Level.Invocation)
+        public void clearHash() {
+            engine.clear();
+        }
+
+        @TearDown
+        public void tearDown() {
+            engine.shutdown();
+        }
+    }
+
+    @Benchmark
+    public long perftStart4() {
+        return Perft.perft(start, 4);
+    }
+
+    @Benchmark
+    public long perftKiwipete3() {
+        return Perft.perft(kiwipete, 3);
+    }
+
+    @Benchmark
+    public Engine.Result searchMiddlegame6(Searcher searcher) {
+        return searcher.engine.search(searcher.position, 6, 0, searcher.threads);
+    }
+}
@@ -0,0 +1,77 @@
+package com.connect.app.ludo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Ludo rules and bot search. {@code playout} plays whole games with random moves, which
+ * exercises roll, move and capture handling; {@code botMove} is one bot decision in a
+ * mid-game position, at every lookahead the module accepts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LudoEngineBenchmark {
+    @Param({"2", "4"})
+    public int players;
+
+    private final int[] movable = new int[LudoBoard.PIECES];
+    private final int[] yard = new int[LudoBoard.PLAYERS * LudoBoard.PIECES];
+    private final int[] nobodyFinished = new int[0];
+    private final SplittableRandom random = new SplittableRandom(42);
+    private LudoGame playout;
+
+    @State(Scope.Thread)
+    public static class Bot {
+        @Param({"1", "2", "3", "4"})
+        public int depth;
+
+        LudoGame midgame;
+        LudoAi ai;
+
+        @Setup
+        public void setUp(LudoEngineBenchmark benchmark) {
+            int players = benchmark.players;
+            midgame = new LudoGame(players);
+            int[] steps = new int[16];
+            int[] spread = {3, 18, 0, 47, 9, 30, 54, 0, 22, 1, 0, 40, 14, 27, 0, 59};
+            System.arraycopy(spread, 0, steps, 0, players * LudoBoard.PIECES);
+            midgame.load(steps, 0, new int[0]);
+            midgame.roll(6, new int[LudoBoard.PIECES]);
+            ai = new LudoAi(players);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        playout = new LudoGame(players);
+    }
+
+    @Benchmark
+    public int playout() {
+        playout.load(yard, 0, nobodyFinished);
+        int turns = 0;
+        while (!playout.isGameOver()) {
+            int count = playout.roll(random.nextInt(1, 7), movable);
+            if (count > 0) {
+                playout.move(movable[random.nextInt(count)]);
+            }
+            turns++;
+        }
+        return turns;
+    }
+
+    @Benchmark
+    public int botMove(Bot bot) {
+        return bot.ai.bestPiece(bot.midgame, bot.depth);
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * Entry for the :bg process, which only ever runs headless tasks. Keep this file (and what it
+ * imports at the top level) free of UI code: PackageManifest only registers the background
+ * package allowlist there.
+ *
+ * @format
+ */
+
+import { AppRegistry } from 'react-native';
+
+// Headless task started by the native KeepAliveService (boot, FCM follow-up work)
+AppRegistry.registerHeadlessTask('KeepAliveTask', () =>
+  require('./src/lib/pushBackgroundService').keepAliveTask
+);
@@ -2,8 +2,7 @@
  * @format
  */
 
-import 'react-native-gesture-handler';
-import { AppRegistry, ErrorUtils } from 'react-native';
+import { ErrorUtils, NativeModules } from 'react-native';
 // react-native-reanimated removed for Expo compatibility
 
 // Global error handler for unhandled errors
@@ -96,23 +95,11 @@ if (!__DEV__) {
   console.warn = noop;
   // Keep console.error for critical errors
 }
-// Ensure vector icon fonts are loaded early to avoid missing icons on Android/iOS
-try {
-  // MaterialIcons
-  // eslint-disable-next-line @typescript-eslint/no-var-requires
-  const MaterialIcons = require('react-native-vector-icons/MaterialIcons').default;
-  if (MaterialIcons && MaterialIcons.loadFont) {
-    MaterialIcons.loadFont();
-  }
-  // FontAwesome5
-  // eslint-disable-next-line @typescript-eslint/no-var-requires
-  const FA5 = require('react-native-vector-icons/FontAwesome5').default;
-  if (FA5 && FA5.loadFont) {
-    FA5.loadFont();
-  }
-} catch (_) {}
-import App from './App';
-import { registerRootComponent } from 'expo';
-
-// Register the app component
-registerRootComponent(App);
+// The :bg process only runs headless tasks; keep the app (and every native module it pulls
+// in at import time) out of it. Metro evaluates modules on first require, so App is never
+// loaded there.
+if (NativeModules.StartupTrace?.isBackgroundProcess) {
+  require('./headless');
+} else {
+  require('./main');
+}
@@ -0,0 +1,32 @@
+/**
+ * Entry for the main (UI) process.
+ *
+ * @format
+ */
+
+import 'react-native-gesture-handler';
+import { registerRootComponent } from 'expo';
+import './headless';
+
+// Ensure vector icon fonts are loaded early to avoid missing icons on Android/iOS
+try {
+  // MaterialIcons
+  // eslint-disable-next-line @typescript-eslint/no-var-requires
+  const MaterialIcons = require('react-native-vector-icons/MaterialIcons').default;
+  if (MaterialIcons && MaterialIcons.loadFont) {
+    MaterialIcons.loadFont();
+  }
+  // FontAwesome5
+  // eslint-disable-next-line @typescript-eslint/no-var-requires
+  const FA5 = require('react-native-vector-icons/FontAwesome5').default;
+  if (FA5 && FA5.loadFont) {
+    FA5.loadFont();
+  }
+} catch (_) {}
+
+// Required after the fonts so they are registered before any screen renders
+// eslint-disable-next-line @typescript-eslint/no-var-requires
+const App = require('./App').default;
+
+// Register the app component
+registerRootComponent(App);
@@ -0,0 +1,24 @@
+import React from 'react';
+import { Image, ImageStyle, StyleProp, View, ViewStyle } from 'react-native';
+import { useThumbnail } from '../hooks/useThumbnail';
+import { isThumbnailsAvailable } from '../lib/ThumbnailBridge';
+
+interface MediaThumbnailProps {
+  // Local path, file:// or content:// URI of an image or video
+  source: string;
+  // Short side of the cell in layout units
+  sizeDp: number;
+  style: StyleProp<ImageStyle>;
+  // Rendered instead when native thumbnails are unavailable (e.g. iOS)
+  fallback: React.ReactElement;
+}
+
+const MediaThumbnail = ({ source, sizeDp, style, fallback }: MediaThumbnailProps) => {
+  const available = isThumbnailsAvailable();
+  const uri = useThumbnail(available ? source : null, sizeDp);
+  if (!available) return fallback;
+  if (!uri) return <View style={style as StyleProp<ViewStyle>} />;
+  return <Image source={{ uri }} style={style} resizeMode="cover" fadeDuration={0} />;
+};
+
+export default React.memo(MediaThumbnail);
@@ -11,6 +11,7 @@ import api from '../lib/api';
 import { useTheme } from '../contexts/ThemeContext';
 import UserPP from './UserPP';
 import config from '../lib/config';
+import { resolvePrefetched } from '../lib/MediaPrefetchBridge';
 // Local colorful SVGs drawn in code (no gradients/filters to ensure compatibility)
 // import UserPP from '../UserPP'; // You need to create a React Native version of this
 // import PostComment from './PostComment'; // You need to create a React Native version of this
@@ -400,6 +401,11 @@ const Post: React.FC<PostProps> = ({ data, onPostDeleted }) => {
     setReplyText('');
   };
 
+  // Prefer the copy the feed prefetched while it was still off screen
+  const photoUri = isValidImageUrl(post.photos)
+    ? resolvePrefetched(getAssetUrl(typeof post.photos === 'string' ? post.photos : post.photos[0]))
+    : '';
+
   // Render
   return (
     <View style={[styles.postContainer, { backgroundColor: cardBg, borderColor }]}>
@@ -598,7 +604,7 @@ const Post: React.FC<PostProps> = ({ data, onPostDeleted }) => {
           <View style={styles.attachmentContainer}>
             {post.type === 'post' && (
               <Image
-                source={{ uri: getAssetUrl(typeof post.photos === 'string' ? post.photos : post.photos[0]) }}
+                source={{ uri: photoUri }}
                 style={styles.postImage}
                 onError={() => {
                   console.log('Failed to load post image');
@@ -609,7 +615,7 @@ const Post: React.FC<PostProps> = ({ data, onPostDeleted }) => {
             )}
             {post.type === 'profilePic' && (
               <Image
-                source={{ uri: getAssetUrl(typeof post.photos === 'string' ? post.photos : post.photos[0]) }}
+                source={{ uri: photoUri }}
                 style={styles.postProfilePic}
                 onError={() => {
                   console.log('Failed to load profile picture');
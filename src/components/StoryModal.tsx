@@ -13,6 +13,7 @@ import {
 import { useSafeAreaInsets } from 'react-native-safe-area-context';
 import { useTheme } from '../contexts/ThemeContext';
 import Icon from 'react-native-vector-icons/MaterialIcons';
+import { resolvePrefetched } from '../lib/MediaPrefetchBridge';
 
 const { width: screenWidth, height: screenHeight } = Dimensions.get('window');
 
@@ -157,7 +158,7 @@ const StoryModal: React.FC<StoryModalProps> = ({
           )}
           
           <Image
-            source={{ uri: story.image }}
+            source={{ uri: resolvePrefetched(story.image) }}
             style={styles.storyImage}
             resizeMode="contain"
             onLoadStart={() => setImageLoading(true)}
@@ -1,4 +1,4 @@
-import React, { useEffect, useState, useRef } from 'react';
+import React, { useEffect, useState, useRef, useMemo } from 'react';
 import {
   View,
   Text,
@@ -16,8 +16,13 @@ import { storyAPI } from '../lib/api';
 import Icon from 'react-native-vector-icons/MaterialIcons';
 import StoryModal from './StoryModal';
 import StorySliderSkeleton from './skeleton/StorySliderSkeleton';
+import { usePrefetchWindow } from '../hooks/usePrefetchWindow';
+import { resolvePrefetched } from '../lib/MediaPrefetchBridge';
 
 const { width: screenWidth } = Dimensions.get('window');
+// storyItem width + marginRight, and scrollContent's horizontal padding
+const STORY_STRIDE = 116;
+const STORY_PADDING = 16;
 
 interface Story {
   _id: string;
@@ -52,6 +57,8 @@ const StorySlider: React.FC<StorySliderProps> = ({ onStoryPress }) => {
   const scrollViewRef = useRef<ScrollView>(null);
   const fadeAnim = useRef(new Animated.Value(0)).current;
   const scaleAnim = useRef(new Animated.Value(0.95)).current;
+  const storyUrls = useMemo(() => stories.map(story => story.image || null), [stories]);
+  const { reportRange } = usePrefetchWindow('stories', storyUrls);
 
   const getAuthorName = (story: Story) => {
     if (!story?.author) return 'Unknown User';
@@ -150,6 +157,11 @@ const StorySlider: React.FC<StorySliderProps> = ({ onStoryPress }) => {
 
   const handleScroll = (event: any) => {
     const currentPosition = event.nativeEvent.contentOffset.x;
+    const viewportWidth = event.nativeEvent.layoutMeasurement.width;
+    reportRange(
+      Math.max(0, Math.floor((currentPosition - STORY_PADDING) / STORY_STRIDE)),
+      Math.max(0, Math.floor((currentPosition + viewportWidth - STORY_PADDING) / STORY_STRIDE)),
+    );
     setScrollPosition(currentPosition);
     setCanScrollLeft(currentPosition > 0);
     setCanScrollRight(currentPosition < event.nativeEvent.contentSize.width - event.nativeEvent.layoutMeasurement.width);
@@ -210,7 +222,7 @@ const StorySlider: React.FC<StorySliderProps> = ({ onStoryPress }) => {
             >
               <View style={[styles.storyImageContainer, { shadowColor: '#000' }]}>
                 <Image
-                  source={{ uri: story.image }}
+                  source={{ uri: resolvePrefetched(story.image) }}
                   style={styles.storyImage}
                   resizeMode="cover"
                 />
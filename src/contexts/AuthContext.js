@@ -1,6 +1,9 @@
 import React, { createContext, useState, useEffect } from 'react';
-import AsyncStorage from '@react-native-async-storage/async-storage';
 import { authAPI, userAPI, clearTokenCache } from '../lib/api';
+import { clearStoredSession, getStoredAuthToken, getStoredItem, getStoredItems, setStoredItem, setStoredSession } from '../lib/KvStoreBridge';
+import { clearHttpCache } from '../lib/HttpClientBridge';
+import { stopRealtimeConnection } from '../lib/RealtimeConnectionBridge';
+import { clearOutbox } from '../lib/OutboxBridge';
 import { registerTokenWithServer, unregisterTokenWithServer, listenForegroundMessages, listenTokenRefresh } from '../lib/push';
 import { googleAuthService } from '../services/googleAuth';
 
@@ -19,11 +22,11 @@ export const AuthProvider = ({ children }) => {
       if (response.data) {
         // Update stored user data with fresh profile
         console.log('Profile data received:', response.data);
-        const currentUser = await AsyncStorage.getItem('user');
+        const currentUser = await getStoredItem('user');
         if (currentUser) {
           const userData = JSON.parse(currentUser);
           userData.profile = response.data;
-          await AsyncStorage.setItem('user', JSON.stringify(userData));
+          await setStoredItem('user', JSON.stringify(userData));
           setUser(userData);
         }
       } else {
@@ -57,18 +60,15 @@ export const AuthProvider = ({ children }) => {
       
       const userData = { firstName, surname, user_id, profile };
 
-      await AsyncStorage.multiSet([
-        ['user', JSON.stringify(userData)],
-        ['authToken', token]
-      ]);
+      await setStoredSession(userData, token);
       
       // Clear token cache to force refresh on next API call
       clearTokenCache();
       
-      console.log('💾 Data stored in AsyncStorage successfully');
+      console.log('💾 Session stored successfully');
       
       // Verify token was stored
-      const storedToken = await AsyncStorage.getItem('authToken');
+      const storedToken = await getStoredAuthToken();
       console.log('🔍 Stored token verification:', storedToken ? `${storedToken.substring(0, 20)}...` : 'NO TOKEN FOUND');
 
       setUser(userData);
@@ -103,10 +103,7 @@ export const AuthProvider = ({ children }) => {
       const { user: newUser, token } = response.data;
       
       // Store user data and token
-      await AsyncStorage.multiSet([
-        ['user', JSON.stringify(newUser)],
-        ['authToken', token]
-      ]);
+      await setStoredSession(newUser, token);
       
       setUser(newUser);
       
@@ -148,12 +145,9 @@ export const AuthProvider = ({ children }) => {
         
         const userData = { firstName, surname, user_id, profile };
         
-        await AsyncStorage.multiSet([
-          ['user', JSON.stringify(userData)],
-          ['authToken', token]
-        ]);
+        await setStoredSession(userData, token);
         
-        console.log('💾 Google user data stored in AsyncStorage successfully');
+        console.log('💾 Google user data stored successfully');
         
         setUser(userData);
         
@@ -195,7 +189,12 @@ export const AuthProvider = ({ children }) => {
       } catch (e) {}
       // Clear stored data regardless of API call success
       clearTokenCache(); // Clear token cache
-      await AsyncStorage.multiRemove(['user', 'authToken']);
+      // Drop the native socket and its persisted session so it can't reconnect as this user
+      await stopRealtimeConnection();
+      await clearStoredSession();
+      // Unsent chat events belong to this account; don't replay them for the next one
+      clearOutbox();
+      await clearHttpCache();
       setUser(null);
     }
   };
@@ -203,7 +202,7 @@ export const AuthProvider = ({ children }) => {
   const checkUser = async () => {
     try {
       console.log('🔍 Checking for existing user session...');
-      const [userData, token] = await AsyncStorage.multiGet(['user', 'authToken']);
+      const [userData, token] = await getStoredItems(['user', 'authToken']);
       
       console.log('📱 Stored user data:', userData[1] ? 'Found' : 'Not found');
       console.log('🔑 Stored token:', token[1] ? `${token[1].substring(0, 20)}...` : 'Not found');
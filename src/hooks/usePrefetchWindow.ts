@@ -0,0 +1,43 @@
+import { useCallback, useEffect, useRef } from 'react';
+import { ViewToken } from 'react-native';
+import { clearPrefetchWindow, updatePrefetchWindow } from '../lib/MediaPrefetchBridge';
+
+const VIEWABILITY_CONFIG = { itemVisiblePercentThreshold: 10, minimumViewTime: 0 };
+
+// Reports a list's visible range and scroll velocity to the native prefetcher. FlatLists use
+// onViewableItemsChanged/viewabilityConfig; other scrollers call reportRange themselves.
+// Velocity comes from how fast the first visible index moves, so no onScroll handler is needed.
+export const usePrefetchWindow = (listId: string, urls: (string | null)[]) => {
+  const urlsRef = useRef(urls);
+  const range = useRef<{ first: number; last: number; at: number; velocity: number } | null>(null);
+
+  const reportRange = useCallback((first: number, last: number) => {
+    const now = Date.now();
+    const previous = range.current;
+    let velocity = 0;
+    if (previous) {
+      const seconds = Math.max(0.016, (now - previous.at) / 1000);
+      // Smooth, so one jumpy callback doesn't swing the lookahead
+      velocity = 0.5 * previous.velocity + 0.5 * ((first - previous.first) / seconds);
+      if (first === previous.first && last === previous.last) return;
+    }
+    range.current = { first, last, at: now, velocity };
+    updatePrefetchWindow(listId, urlsRef.current, first, last, velocity);
+  }, [listId]);
+
+  const onViewableItemsChanged = useRef(({ viewableItems }: { viewableItems: ViewToken[] }) => {
+    const indices = viewableItems.map(item => item.index).filter((index): index is number => index != null);
+    if (indices.length > 0) reportRange(Math.min(...indices), Math.max(...indices));
+  }).current;
+
+  // New data (next page, refresh): re-send the current range with the new URLs
+  useEffect(() => {
+    urlsRef.current = urls;
+    const current = range.current;
+    updatePrefetchWindow(listId, urls, current?.first ?? 0, current?.last ?? 0, current?.velocity ?? 0);
+  }, [listId, urls]);
+
+  useEffect(() => () => clearPrefetchWindow(listId), [listId]);
+
+  return { onViewableItemsChanged, viewabilityConfig: VIEWABILITY_CONFIG, reportRange };
+};
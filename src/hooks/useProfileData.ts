@@ -2,7 +2,7 @@ import { useEffect } from 'react';
 import { useDispatch } from 'react-redux';
 import { setProfile } from '../reducers/profileReducer';
 import { userAPI } from '../lib/api';
-import AsyncStorage from '@react-native-async-storage/async-storage';
+import { getStoredItem, setStoredItem } from '../lib/KvStoreBridge';
 
 // Accept either a profileId string or a profile object with _id
 export const useProfileData = (profileOrId: string | { _id?: string } | null) => {
@@ -13,8 +13,8 @@ export const useProfileData = (profileOrId: string | { _id?: string } | null) =>
       const profileId = typeof profileOrId === 'string' ? profileOrId : profileOrId?._id || null;
       if (!profileId) return;
       
-      // Get the stored profile data from AsyncStorage first
-      const storedProfile = await AsyncStorage.getItem('user');
+      // Get the stored profile data first
+      const storedProfile = await getStoredItem('user');
       if (storedProfile) {
         const userData = JSON.parse(storedProfile);
         if (userData.profile) {
@@ -30,11 +30,11 @@ export const useProfileData = (profileOrId: string | { _id?: string } | null) =>
         dispatch(setProfile(response.data));
         
         // Update stored user data with fresh profile
-        const currentUser = await AsyncStorage.getItem('user');
+        const currentUser = await getStoredItem('user');
         if (currentUser) {
           const userData = JSON.parse(currentUser);
           userData.profile = response.data;
-          await AsyncStorage.setItem('user', JSON.stringify(userData));
+          await setStoredItem('user', JSON.stringify(userData));
         }
       }
     } catch (error) {
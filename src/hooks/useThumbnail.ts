@@ -0,0 +1,24 @@
+import { useEffect, useState } from 'react';
+import { requestThumbnail } from '../lib/ThumbnailBridge';
+
+// Thumbnail URI for a local image/video, or null until ready (or when native thumbnails are
+// unavailable). The request is cancelled when the cell unmounts, e.g. after scrolling away.
+export const useThumbnail = (source: string | null | undefined, sizeDp: number, priority = 0): string | null => {
+  const [uri, setUri] = useState<string | null>(null);
+
+  useEffect(() => {
+    setUri(null);
+    if (!source) return;
+    let active = true;
+    const request = requestThumbnail(source, sizeDp, priority);
+    request.promise.then(result => {
+      if (active) setUri(result);
+    });
+    return () => {
+      active = false;
+      request.cancel();
+    };
+  }, [source, sizeDp, priority]);
+
+  return uri;
+};
@@ -0,0 +1,32 @@
+import { NativeModules, Platform } from 'react-native';
+
+interface AvatarCacheModule {
+  prefetch(urls: string[]): void;
+  getStats(): Promise<string>;
+}
+
+const { AvatarCache } = NativeModules;
+
+export const avatarCache: AvatarCacheModule | undefined = AvatarCache;
+
+// Warm the native avatar cache so call/message notifications can show pictures immediately
+export const prefetchAvatars = (urls: Array<string | null | undefined>): void => {
+  if (Platform.OS !== 'android' || !avatarCache) return;
+  const unique = Array.from(new Set(urls.filter((url): url is string => !!url && url.startsWith('http'))));
+  if (unique.length === 0) return;
+  try {
+    avatarCache.prefetch(unique);
+  } catch (error) {
+    console.error('❌ Error prefetching avatars:', error);
+  }
+};
+
+export const getAvatarCacheStats = async (): Promise<Record<string, any> | null> => {
+  if (Platform.OS !== 'android' || !avatarCache) return null;
+  try {
+    return JSON.parse(await avatarCache.getStats());
+  } catch (error) {
+    console.error('❌ Error reading avatar cache stats:', error);
+    return null;
+  }
+};
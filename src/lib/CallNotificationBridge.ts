@@ -1,4 +1,4 @@
-import { NativeModules, Platform } from 'react-native';
+import { NativeEventEmitter, NativeModules, Platform } from 'react-native';
 
 interface CallNotificationModule {
   openIncomingCallScreen(params: {
@@ -9,13 +9,34 @@ interface CallNotificationModule {
     isAudio: boolean;
     autoAccept?: boolean;
   }): Promise<boolean>;
+  showIncomingCallNotification(params: {
+    callerId: string;
+    callerName: string;
+    callerProfilePic?: string;
+    channelName: string;
+    isAudio: boolean;
+  }): Promise<boolean>;
+  cancelIncomingCallNotification(): Promise<boolean>;
   bringAppToForeground(): Promise<boolean>;
+  getInitialCall(): Promise<PendingCall | null>;
+}
+
+// The call MainActivity was opened for (call notification full-screen intent or Answer)
+export interface PendingCall {
+  callerId: string;
+  callerName: string;
+  callerProfilePic?: string;
+  channelName: string;
+  isAudio: boolean;
+  autoAccept: boolean;
 }
 
 const { CallNotificationModule } = NativeModules;
 
 export const callNotificationBridge: CallNotificationModule = CallNotificationModule;
 
+const emitter = CallNotificationModule ? new NativeEventEmitter(CallNotificationModule) : null;
+
 // Helper function to open incoming call screen using native module
 export const openIncomingCallScreen = async (params: {
   callerId: string;
@@ -40,6 +61,40 @@ export const openIncomingCallScreen = async (params: {
   }
 };
 
+// Post the native CallStyle ringing notification. Decline is handled natively (rejects over
+// the background connection), Answer opens the app with autoAccept.
+export const showNativeIncomingCallNotification = async (params: {
+  callerId: string;
+  callerName: string;
+  callerProfilePic?: string;
+  channelName: string;
+  isAudio: boolean;
+}): Promise<boolean> => {
+  if (Platform.OS !== 'android' || !callNotificationBridge) {
+    return false;
+  }
+
+  try {
+    return await callNotificationBridge.showIncomingCallNotification(params);
+  } catch (error) {
+    console.error('❌ Error showing native incoming call notification:', error);
+    return false;
+  }
+};
+
+export const cancelNativeIncomingCallNotification = async (): Promise<boolean> => {
+  if (Platform.OS !== 'android' || !callNotificationBridge) {
+    return false;
+  }
+
+  try {
+    return await callNotificationBridge.cancelIncomingCallNotification();
+  } catch (error) {
+    console.error('❌ Error cancelling native incoming call notification:', error);
+    return false;
+  }
+};
+
 // Helper function to bring app to foreground
 export const bringAppToForeground = async (): Promise<boolean> => {
   if (Platform.OS !== 'android' || !callNotificationBridge) {
@@ -56,3 +111,27 @@ export const bringAppToForeground = async (): Promise<boolean> => {
     return false;
   }
 };
+
+// Take the call the app was opened for, if any. Each call is only returned once.
+export const takePendingCall = async (): Promise<PendingCall | null> => {
+  if (Platform.OS !== 'android' || !callNotificationBridge) {
+    return null;
+  }
+
+  try {
+    const call = await callNotificationBridge.getInitialCall();
+    return call && call.channelName && call.callerId ? call : null;
+  } catch (error) {
+    console.error('❌ Error reading pending call:', error);
+    return null;
+  }
+};
+
+// Fires when a call intent reaches the running app (onNewIntent); read it with takePendingCall
+export const onPendingCall = (listener: () => void): (() => void) => {
+  if (Platform.OS !== 'android' || !emitter) {
+    return () => {};
+  }
+  const subscription = emitter.addListener('CallNotificationIntent', listener);
+  return () => subscription.remove();
+};
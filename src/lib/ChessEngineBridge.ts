@@ -0,0 +1,58 @@
+import { NativeModules, Platform } from 'react-native';
+
+export interface EngineSearchOptions {
+  depth?: number;
+  timeMs?: number; // 0 searches to depth only
+  threads?: number;
+}
+
+export interface EngineSearchResult {
+  bestMove: string | null; // UCI, e.g. "e7e8q"; null when there are no legal moves
+  pv: string[];
+  score: number; // centipawns for the side to move
+  mate: number | null; // moves to mate, negative when being mated
+  depth: number;
+  nodes: number;
+  nps: number;
+  timeMs: number;
+  threads: number;
+  hashfull: number;
+}
+
+interface ChessEngineModule {
+  search(fen: string, moves: string[], options: EngineSearchOptions): Promise<EngineSearchResult>;
+  stop(): void;
+  newGame(): void;
+}
+
+const { ChessEngine } = NativeModules;
+
+export const chessEngine: ChessEngineModule | undefined = ChessEngine;
+
+export const isChessEngineAvailable = (): boolean => Platform.OS === 'android' && !!chessEngine;
+
+// moves are UCI moves played from fen; passing the game history lets the engine see repetitions
+export const searchBestMove = async (
+  fen: string,
+  moves: string[],
+  options: EngineSearchOptions = {},
+): Promise<EngineSearchResult | null> => {
+  if (!isChessEngineAvailable()) return null;
+  try {
+    return await chessEngine!.search(fen, moves, options);
+  } catch (error) {
+    console.error('❌ Error searching chess position:', error);
+    return null;
+  }
+};
+
+// The pending search resolves early with its best move so far
+export const stopEngineSearch = (): void => {
+  if (!isChessEngineAvailable()) return;
+  chessEngine!.stop();
+};
+
+export const newEngineGame = (): void => {
+  if (!isChessEngineAvailable()) return;
+  chessEngine!.newGame();
+};
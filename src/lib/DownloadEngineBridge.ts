@@ -0,0 +1,88 @@
+import { NativeEventEmitter, NativeModules, Platform } from 'react-native';
+
+export interface DownloadProgress {
+  id: string;
+  received: number;
+  total: number; // -1 when the server didn't send a length
+  bytesPerSecond: number;
+}
+
+export type DownloadStateName = 'downloading' | 'waiting' | 'completed' | 'failed' | 'cancelled';
+
+export interface DownloadStateEvent {
+  id: string;
+  state: DownloadStateName;
+  path: string | null;
+  error: string | null;
+}
+
+export interface ActiveDownload {
+  id: string;
+  url: string;
+  fileName: string;
+  state: DownloadStateName;
+  received: number;
+  total: number;
+  chunks: number;
+}
+
+interface DownloadEngineModule {
+  enqueue(url: string, fileName: string): Promise<string>;
+  cancel(id: string): void;
+  resume(id: string): void;
+  getActive(): Promise<string>;
+  addListener(eventName: string): void;
+  removeListeners(count: number): void;
+}
+
+const { DownloadEngine } = NativeModules;
+
+export const downloadEngine: DownloadEngineModule | undefined = DownloadEngine;
+
+const emitter = downloadEngine ? new NativeEventEmitter(DownloadEngine) : null;
+
+export const isDownloadEngineAvailable = (): boolean => Platform.OS === 'android' && !!downloadEngine;
+
+// Resolves with the download id; the download survives network loss and process death
+export const enqueueDownload = async (url: string, fileName: string): Promise<string | null> => {
+  if (!isDownloadEngineAvailable()) return null;
+  try {
+    return await downloadEngine!.enqueue(url, fileName);
+  } catch (error) {
+    console.error('❌ Error enqueueing download:', error);
+    return null;
+  }
+};
+
+export const cancelDownload = (id: string): void => {
+  if (!isDownloadEngineAvailable()) return;
+  downloadEngine!.cancel(id);
+};
+
+export const resumeDownload = (id: string): void => {
+  if (!isDownloadEngineAvailable()) return;
+  downloadEngine!.resume(id);
+};
+
+export const getActiveDownloads = async (): Promise<ActiveDownload[]> => {
+  if (!isDownloadEngineAvailable()) return [];
+  try {
+    return JSON.parse(await downloadEngine!.getActive());
+  } catch (error) {
+    console.error('❌ Error reading active downloads:', error);
+    return [];
+  }
+};
+
+// Progress events are throttled natively (about four per second per download)
+export const onDownloadProgress = (handler: (progress: DownloadProgress) => void): (() => void) => {
+  if (!emitter) return () => {};
+  const subscription = emitter.addListener('DownloadProgress', handler);
+  return () => subscription.remove();
+};
+
+export const onDownloadState = (handler: (event: DownloadStateEvent) => void): (() => void) => {
+  if (!emitter) return () => {};
+  const subscription = emitter.addListener('DownloadState', handler);
+  return () => subscription.remove();
+};
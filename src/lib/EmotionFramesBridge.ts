@@ -0,0 +1,92 @@
+import { NativeEventEmitter, NativeModules, Platform } from 'react-native';
+
+export interface EmotionCaptureOptions {
+  intervalMs?: number; // minimum gap between frames sent to the server
+  size?: number; // long edge of the frame in px
+  quality?: number; // JPEG quality, 10-100
+}
+
+export interface EmotionCaptureStats {
+  running: boolean;
+  cameraOpen: boolean;
+  connected: boolean;
+  width: number;
+  height: number;
+  captureFps: number;
+  sendFps: number;
+  framesCaptured: number;
+  framesSent: number;
+  skippedBusy: number;
+  skippedRate: number;
+  skippedOffline: number;
+  avgFrameBytes: number;
+  avgEncodeMs: number;
+  lastEncodeMs: number;
+  avgRoundTripMs: number;
+  lastRoundTripMs: number;
+  results: number;
+  noFace: number;
+  timeouts: number;
+}
+
+interface EmotionFramesModule {
+  start(serverUrl: string, options: EmotionCaptureOptions | null): Promise<boolean>;
+  stop(): void;
+  getStats(): Promise<string>;
+  addListener(eventName: string): void;
+  removeListeners(count: number): void;
+}
+
+const { EmotionFrames } = NativeModules;
+
+export const emotionFrames: EmotionFramesModule | undefined = EmotionFrames;
+
+const emitter = emotionFrames ? new NativeEventEmitter(EmotionFrames) : null;
+
+export const isEmotionCaptureAvailable = (): boolean => Platform.OS === 'android' && !!emotionFrames;
+
+// Native owns the camera and the detection-server socket; JS only gets results
+export const startEmotionCapture = async (
+  serverUrl: string,
+  options: EmotionCaptureOptions = {},
+): Promise<boolean> => {
+  if (!isEmotionCaptureAvailable()) return false;
+  try {
+    return await emotionFrames!.start(serverUrl, options);
+  } catch (error) {
+    console.error('❌ Error starting native emotion capture:', error);
+    return false;
+  }
+};
+
+export const stopEmotionCapture = (): void => {
+  if (!isEmotionCaptureAvailable()) return;
+  try {
+    emotionFrames!.stop();
+  } catch (error) {
+    console.error('❌ Error stopping native emotion capture:', error);
+  }
+};
+
+// Results have the detection server's face_emotion shape, minus per-frame feature data
+export const onEmotionResult = (handler: (result: any) => void): (() => void) => {
+  if (!emitter) return () => {};
+  const subscription = emitter.addListener('EmotionFrameResult', ({ result }) => {
+    try {
+      handler(JSON.parse(result));
+    } catch (error) {
+      console.error('❌ Error handling emotion result:', error);
+    }
+  });
+  return () => subscription.remove();
+};
+
+export const getEmotionCaptureStats = async (): Promise<EmotionCaptureStats | null> => {
+  if (!isEmotionCaptureAvailable()) return null;
+  try {
+    return JSON.parse(await emotionFrames!.getStats());
+  } catch (error) {
+    console.error('❌ Error getting emotion capture stats:', error);
+    return null;
+  }
+};
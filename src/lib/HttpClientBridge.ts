@@ -0,0 +1,49 @@
+import { NativeModules, Platform } from 'react-native';
+
+export type HttpCacheMode = 'default' | 'stale-while-revalidate' | 'no-cache';
+
+export interface NativeHttpResponse {
+  status: number;
+  headers: Record<string, string>;
+  body: string;
+  cache: 'hit' | 'miss' | 'revalidated' | 'stale' | 'network';
+}
+
+interface HttpClientModule {
+  get(url: string, headers: Record<string, string>, options: { mode?: HttpCacheMode; timeoutMs?: number }): Promise<NativeHttpResponse>;
+  configure(options: { mode?: HttpCacheMode; maxStaleMs?: number }): void;
+  markMutated(): void;
+  clear(): Promise<boolean>;
+  getStats(): Promise<string>;
+}
+
+const { HttpClient } = NativeModules;
+
+export const httpClient: HttpClientModule | undefined = HttpClient;
+
+export const isHttpClientAvailable = (): boolean => Platform.OS === 'android' && !!httpClient;
+
+// Default policy for GETs that don't pass their own cachePolicy
+export const configureHttpCache = (options: { mode?: HttpCacheMode; maxStaleMs?: number }): void => {
+  if (!isHttpClientAvailable()) return;
+  httpClient!.configure(options);
+};
+
+export const clearHttpCache = async (): Promise<void> => {
+  if (!isHttpClientAvailable()) return;
+  try {
+    await httpClient!.clear();
+  } catch (error) {
+    console.error('❌ Error clearing HTTP cache:', error);
+  }
+};
+
+export const getHttpCacheStats = async (): Promise<any | null> => {
+  if (!isHttpClientAvailable()) return null;
+  try {
+    return JSON.parse(await httpClient!.getStats());
+  } catch (error) {
+    console.error('❌ Error reading HTTP cache stats:', error);
+    return null;
+  }
+};
@@ -0,0 +1,110 @@
+import { NativeModules, Platform } from 'react-native';
+import AsyncStorage from '@react-native-async-storage/async-storage';
+
+interface KvStoreModule {
+  getString(key: string): string | null;
+  multiGet(keys: string[]): (string | null)[];
+  setString(key: string, value: string | null): boolean;
+  multiSet(entries: Record<string, string | null>): boolean;
+}
+
+const { KvStore } = NativeModules;
+
+export const kvStore: KvStoreModule | undefined = KvStore;
+
+export const STORAGE_KEY_USER = 'user';
+export const STORAGE_KEY_AUTH_TOKEN = 'authToken';
+
+export const isKvStoreAvailable = (): boolean => Platform.OS === 'android' && !!kvStore;
+
+// Synchronous read straight from the mapped file; undefined when the native store is unavailable
+export const kvGet = (key: string): string | null | undefined => {
+  if (!isKvStoreAvailable()) return undefined;
+  try {
+    return kvStore!.getString(key);
+  } catch (error) {
+    console.error('❌ Error reading key-value store:', error);
+    return undefined;
+  }
+};
+
+// Reads the native store first. A key it doesn't have yet is copied over from AsyncStorage
+// once, so sessions saved before the store existed carry over.
+export const getStoredItems = async (keys: string[]): Promise<[string, string | null][]> => {
+  let values: (string | null)[] | undefined;
+  if (isKvStoreAvailable()) {
+    try {
+      values = kvStore!.multiGet(keys);
+    } catch (error) {
+      console.error('❌ Error reading key-value store:', error);
+    }
+  }
+  const missing = values ? keys.filter((_, i) => values![i] == null) : keys;
+  if (missing.length === 0) {
+    return keys.map((key, i) => [key, values![i]]);
+  }
+
+  const fallback = new Map(await AsyncStorage.multiGet(missing));
+  if (values) {
+    const migrated: Record<string, string> = {};
+    fallback.forEach((value, key) => {
+      if (value != null) migrated[key] = value;
+    });
+    if (Object.keys(migrated).length > 0) {
+      try {
+        kvStore!.multiSet(migrated);
+      } catch (error) {
+        console.error('❌ Error migrating to key-value store:', error);
+      }
+    }
+  }
+  return keys.map((key, i) => [key, values?.[i] ?? fallback.get(key) ?? null]);
+};
+
+export const getStoredItem = async (key: string): Promise<string | null> => {
+  const [[, value]] = await getStoredItems([key]);
+  return value;
+};
+
+// Writes go to the native store and are mirrored to AsyncStorage for readers that still use it
+export const setStoredItems = async (pairs: [string, string][]): Promise<void> => {
+  if (isKvStoreAvailable()) {
+    try {
+      kvStore!.multiSet(Object.fromEntries(pairs));
+    } catch (error) {
+      console.error('❌ Error writing key-value store:', error);
+    }
+  }
+  await AsyncStorage.multiSet(pairs);
+};
+
+export const setStoredItem = (key: string, value: string): Promise<void> =>
+  setStoredItems([[key, value]]);
+
+export const removeStoredItems = async (keys: string[]): Promise<void> => {
+  if (isKvStoreAvailable()) {
+    try {
+      kvStore!.multiSet(Object.fromEntries(keys.map(key => [key, null])));
+    } catch (error) {
+      console.error('❌ Error writing key-value store:', error);
+    }
+  }
+  await AsyncStorage.multiRemove(keys);
+};
+
+// Session helpers for the hot paths (API auth header, socket identity)
+export const getStoredUser = async <T = any>(): Promise<T | null> => {
+  const userJson = await getStoredItem(STORAGE_KEY_USER);
+  return userJson ? JSON.parse(userJson) : null;
+};
+
+export const getStoredAuthToken = (): Promise<string | null> => getStoredItem(STORAGE_KEY_AUTH_TOKEN);
+
+export const setStoredSession = (user: any, token: string): Promise<void> =>
+  setStoredItems([
+    [STORAGE_KEY_USER, JSON.stringify(user)],
+    [STORAGE_KEY_AUTH_TOKEN, token],
+  ]);
+
+export const clearStoredSession = (): Promise<void> =>
+  removeStoredItems([STORAGE_KEY_USER, STORAGE_KEY_AUTH_TOKEN]);
@@ -0,0 +1,86 @@
+import { NativeModules, Platform } from 'react-native';
+
+// Positions are step counts along the player's own path: 0 yard, 1-52 track, 53-58 home column, 59 home
+export interface LudoState {
+  playerCount: number;
+  currentPlayer: number;
+  dice: number;
+  steps: number[][]; // [player][piece]
+  finished: number[]; // players in finishing order
+  gameOver: boolean;
+}
+
+export interface LudoRoll {
+  player: number;
+  dice: number;
+  movable: number[];
+  passed: boolean; // nothing could move, so the turn already went on
+  currentPlayer: number;
+}
+
+export interface LudoMoveDiff {
+  player: number;
+  piece: number;
+  from: number;
+  to: number;
+  captures: { player: number; piece: number; from: number }[];
+  extraTurn: boolean;
+  currentPlayer: number;
+  finished: number[];
+  gameOver: boolean;
+}
+
+export interface LudoBestMove {
+  piece: number; // -1 when nothing can move
+  nodes: number;
+  timeMs: number;
+}
+
+interface LudoModule {
+  newGame(playerCount: number): LudoState | null;
+  load(steps: number[][], currentPlayer: number, finished: number[]): LudoState | null;
+  getState(): LudoState | null;
+  roll(value: number): LudoRoll | null;
+  move(piece: number): LudoMoveDiff | null;
+  bestMove(depth: number): Promise<LudoBestMove>;
+}
+
+const { Ludo } = NativeModules;
+
+export const ludoEngine: LudoModule | undefined = Ludo;
+
+export const isLudoEngineAvailable = (): boolean => Platform.OS === 'android' && !!ludoEngine;
+
+export const LUDO_MAX_DEPTH = 4;
+
+export const ludoNewGame = (playerCount: number): LudoState | null => {
+  if (!isLudoEngineAvailable()) return null;
+  return ludoEngine!.newGame(playerCount);
+};
+
+export const ludoGetState = (): LudoState | null => {
+  if (!isLudoEngineAvailable()) return null;
+  return ludoEngine!.getState();
+};
+
+// value is the face the dice animation landed on; 0 lets the engine roll
+export const ludoRoll = (value: number = 0): LudoRoll | null => {
+  if (!isLudoEngineAvailable()) return null;
+  return ludoEngine!.roll(value);
+};
+
+// null when the piece can't move with the rolled dice
+export const ludoMove = (piece: number): LudoMoveDiff | null => {
+  if (!isLudoEngineAvailable()) return null;
+  return ludoEngine!.move(piece);
+};
+
+export const ludoBestMove = async (depth: number = LUDO_MAX_DEPTH): Promise<LudoBestMove | null> => {
+  if (!isLudoEngineAvailable()) return null;
+  try {
+    return await ludoEngine!.bestMove(depth);
+  } catch (error) {
+    console.error('❌ Error searching Ludo move:', error);
+    return null;
+  }
+};
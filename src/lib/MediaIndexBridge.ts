@@ -0,0 +1,56 @@
+import { NativeModules, Platform } from 'react-native';
+
+export type MediaIndexRoot = 'downloads' | 'media';
+
+export interface IndexedMedia {
+  name: string;
+  path: string; // file:// URI
+  size: number;
+  mtime: number;
+  type: 'image' | 'video' | 'other';
+  durationMs: number; // 0 until probed, or for images
+  width: number;
+  height: number;
+}
+
+export interface MediaPage {
+  items: IndexedMedia[];
+  nextCursor: string | null;
+  total: number;
+}
+
+interface MediaIndexModule {
+  query(root: MediaIndexRoot, cursor: string | null, limit: number, type: string | null): Promise<string>;
+  rescan(root: MediaIndexRoot): Promise<boolean>;
+}
+
+const { MediaIndex } = NativeModules;
+
+export const mediaIndex: MediaIndexModule | undefined = MediaIndex;
+
+export const isMediaIndexAvailable = (): boolean => Platform.OS === 'android' && !!mediaIndex;
+
+// Newest first; pass the previous page's nextCursor to continue
+export const queryMediaIndex = async (
+  root: MediaIndexRoot,
+  options: { cursor?: string | null; limit?: number; type?: 'image' | 'video' } = {},
+): Promise<MediaPage | null> => {
+  if (!isMediaIndexAvailable()) return null;
+  try {
+    const json = await mediaIndex!.query(root, options.cursor ?? null, options.limit ?? 60, options.type ?? null);
+    return JSON.parse(json);
+  } catch (error) {
+    console.error('❌ Error querying media index:', error);
+    return null;
+  }
+};
+
+// The index follows file changes on its own; this re-stats everything (pull-to-refresh)
+export const rescanMediaIndex = async (root: MediaIndexRoot): Promise<void> => {
+  if (!isMediaIndexAvailable()) return;
+  try {
+    await mediaIndex!.rescan(root);
+  } catch (error) {
+    console.error('❌ Error rescanning media index:', error);
+  }
+};
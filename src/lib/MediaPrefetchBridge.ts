@@ -0,0 +1,52 @@
+import { NativeModules, Platform } from 'react-native';
+
+interface MediaPrefetchModule {
+  updateWindow(listId: string, urls: (string | null)[], first: number, last: number, velocity: number): void;
+  clearWindow(listId: string): void;
+  resolve(url: string): string | null;
+  getStats(): Promise<string>;
+}
+
+const { MediaPrefetch } = NativeModules;
+
+export const mediaPrefetch: MediaPrefetchModule | undefined = MediaPrefetch;
+
+export const isMediaPrefetchAvailable = (): boolean => Platform.OS === 'android' && !!mediaPrefetch;
+
+// urls are in item order (null for items without media); velocity is in items per second
+export const updatePrefetchWindow = (
+  listId: string,
+  urls: (string | null)[],
+  first: number,
+  last: number,
+  velocity: number,
+): void => {
+  if (!isMediaPrefetchAvailable()) return;
+  mediaPrefetch!.updateWindow(listId, urls, first, last, velocity);
+};
+
+export const clearPrefetchWindow = (listId: string): void => {
+  if (!isMediaPrefetchAvailable()) return;
+  mediaPrefetch!.clearWindow(listId);
+};
+
+// The prefetched local copy when there is one, otherwise the URL itself. Synchronous.
+export const resolvePrefetched = (url: string): string => {
+  if (!url || !isMediaPrefetchAvailable()) return url;
+  try {
+    return mediaPrefetch!.resolve(url) ?? url;
+  } catch (error) {
+    console.error('❌ Error resolving prefetched media:', error);
+    return url;
+  }
+};
+
+export const getPrefetchStats = async (): Promise<any | null> => {
+  if (!isMediaPrefetchAvailable()) return null;
+  try {
+    return JSON.parse(await mediaPrefetch!.getStats());
+  } catch (error) {
+    console.error('❌ Error reading prefetch stats:', error);
+    return null;
+  }
+};
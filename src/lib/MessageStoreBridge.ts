@@ -0,0 +1,73 @@
+import { NativeModules, Platform } from 'react-native';
+
+export interface MessagePage<T = any> {
+  messages: T[];
+  nextCursor: string | null;
+}
+
+interface MessageStoreModule {
+  getPage(conversation: string, cursor: string | null, limit: number): Promise<string>;
+  upsert(conversation: string, messagesJson: string): Promise<number>;
+  patch(id: string, field: string, valueJson: string): void;
+  remove(id: string): void;
+  clearConversation(conversation: string): void;
+  getStats(): Promise<string>;
+}
+
+const { MessageStore } = NativeModules;
+
+export const messageStore: MessageStoreModule | undefined = MessageStore;
+
+export const isMessageStoreAvailable = (): boolean => Platform.OS === 'android' && !!messageStore;
+
+// Newest page when cursor is null; pass the returned nextCursor to page further back
+export const loadMessagePage = async <T = any>(
+  conversation: string,
+  limit: number,
+  cursor: string | null = null,
+): Promise<MessagePage<T> | null> => {
+  if (!isMessageStoreAvailable()) return null;
+  try {
+    return JSON.parse(await messageStore!.getPage(conversation, cursor, limit));
+  } catch (error) {
+    console.error('❌ Error reading message page:', error);
+    return null;
+  }
+};
+
+export const upsertMessages = async (conversation: string, messages: any[]): Promise<void> => {
+  if (!isMessageStoreAvailable() || messages.length === 0) return;
+  try {
+    await messageStore!.upsert(conversation, JSON.stringify(messages));
+  } catch (error) {
+    console.error('❌ Error storing messages:', error);
+  }
+};
+
+export const patchStoredMessage = (id: string, field: string, value: any): void => {
+  if (!isMessageStoreAvailable() || !id) return;
+  try {
+    messageStore!.patch(id, field, JSON.stringify(value ?? null));
+  } catch (error) {
+    console.error('❌ Error patching stored message:', error);
+  }
+};
+
+export const removeStoredMessage = (id: string): void => {
+  if (!isMessageStoreAvailable() || !id) return;
+  try {
+    messageStore!.remove(id);
+  } catch (error) {
+    console.error('❌ Error removing stored message:', error);
+  }
+};
+
+export const getMessageStoreStats = async (): Promise<Record<string, any> | null> => {
+  if (!isMessageStoreAvailable()) return null;
+  try {
+    return JSON.parse(await messageStore!.getStats());
+  } catch (error) {
+    console.error('❌ Error reading message store stats:', error);
+    return null;
+  }
+};
@@ -0,0 +1,82 @@
+import { NativeModules, Platform } from 'react-native';
+
+export type SpeechPriority = 'high' | 'normal' | 'low';
+
+export interface NativeTtsSettings {
+  enabled?: boolean;
+  language?: string;
+  rate?: number;
+  pitch?: number;
+  volume?: number;
+}
+
+export interface SpeechCacheStats {
+  entries: number;
+  bytes: number;
+  maxBytes: number;
+  hits: number;
+  misses: number;
+  hitRate: number;
+  evictions: number;
+  evictedBytes: number;
+}
+
+interface NativeTtsModule {
+  speak(text: string, options?: { priority?: SpeechPriority; coalesceKey?: string }): void;
+  stop(): void;
+  configure(settings: NativeTtsSettings): void;
+  getCacheStats(): Promise<string | null>;
+}
+
+const { NativeTts } = NativeModules;
+
+export const nativeTts: NativeTtsModule | undefined = NativeTts;
+
+export const isNativeTtsAvailable = (): boolean => Platform.OS === 'android' && !!nativeTts;
+
+// Queue text on the native speech engine. High priority interrupts lower-priority speech;
+// items sharing a coalesceKey replace each other while still queued.
+export const speakNative = (
+  text: string,
+  options?: { priority?: SpeechPriority; coalesceKey?: string },
+): boolean => {
+  if (!isNativeTtsAvailable()) return false;
+  try {
+    nativeTts!.speak(text, options);
+    return true;
+  } catch (error) {
+    console.error('❌ Error queueing native speech:', error);
+    return false;
+  }
+};
+
+export const stopNativeSpeech = (): void => {
+  if (!isNativeTtsAvailable()) return;
+  try {
+    nativeTts!.stop();
+  } catch (error) {
+    console.error('❌ Error stopping native speech:', error);
+  }
+};
+
+// Push TTS settings to the native engine, which persists them for when JS isn't running
+export const configureNativeTts = (settings: NativeTtsSettings): void => {
+  if (!isNativeTtsAvailable()) return;
+  try {
+    nativeTts!.configure(settings);
+  } catch (error) {
+    console.error('❌ Error configuring native TTS:', error);
+  }
+};
+
+// Stats of the on-disk cache of synthesized announcements, or null before first use
+export const getSpeechCacheStats = async (): Promise<SpeechCacheStats | null> => {
+  if (!isNativeTtsAvailable()) return null;
+  try {
+    const json = await nativeTts!.getCacheStats();
+    return json ? JSON.parse(json) : null;
+  } catch (error) {
+    console.error('❌ Error reading speech cache stats:', error);
+    return null;
+  }
+};
@@ -0,0 +1,64 @@
+import { NativeModules, Platform } from 'react-native';
+
+interface NotificationDedupModule {
+  checkAndMark(key: string, ttlMs: number): boolean;
+  contains(key: string): boolean;
+  getStats(): Promise<{ capacity?: number; duplicates?: number; inserts?: number; evictions?: number }>;
+}
+
+const { NotificationDedup } = NativeModules;
+
+export const notificationDedup: NotificationDedupModule | undefined = NotificationDedup;
+
+// Fallback for platforms without the native table (iOS, Expo Go). Bounded, and expired
+// entries are dropped on access instead of by a periodic sweep.
+const FALLBACK_MAX_ENTRIES = 512;
+const fallbackCache = new Map<string, number>();
+
+const checkAndMarkFallback = (key: string, ttlMs: number): boolean => {
+  const now = Date.now();
+  const expiresAt = fallbackCache.get(key);
+  if (expiresAt !== undefined && expiresAt > now) {
+    return true;
+  }
+  fallbackCache.delete(key);
+  if (fallbackCache.size >= FALLBACK_MAX_ENTRIES) {
+    // Map iterates in insertion order, so the first key is the oldest
+    const oldest = fallbackCache.keys().next().value;
+    if (oldest !== undefined) fallbackCache.delete(oldest);
+  }
+  fallbackCache.set(key, now + ttlMs);
+  return false;
+};
+
+// Returns true if the notification identified by key was already shown within ttlMs,
+// otherwise records it. On Android this is shared between the main and :bg processes.
+export const isNotificationRecentlyShown = (key: string, ttlMs: number): boolean => {
+  if (Platform.OS === 'android' && notificationDedup) {
+    try {
+      return notificationDedup.checkAndMark(key, ttlMs);
+    } catch (error) {
+      console.warn('⚠️ Native notification dedup failed, using JS fallback:', error);
+    }
+  }
+  return checkAndMarkFallback(key, ttlMs);
+};
+
+// Keys shared with the native FCM path (NotificationDedup.callKey / chatKey), so the same
+// call or message arriving over the socket and over FCM collides in the shared table
+export const incomingCallDedupKey = (channelName: string): string => `call_${channelName}`;
+
+export const chatDedupKey = (messageId: string): string => `chat_${messageId}`;
+
+// Messages without a server id can't match an FCM delivery, so key them on their content
+export const localNotificationDedupKey = (
+  title: string,
+  body: string,
+  data: Record<string, string> = {}
+): string =>
+  data.messageId ? chatDedupKey(data.messageId) : `local_${title}_${body}_${JSON.stringify(data)}`;
+
+export const CALL_DEDUP_TTL_MS = 60000;
+
+// Same window as NotificationDedup.DEFAULT_TTL_MS
+export const MESSAGE_DEDUP_TTL_MS = 10000;
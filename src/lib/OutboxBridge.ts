@@ -0,0 +1,81 @@
+import { NativeModules, Platform } from 'react-native';
+
+export interface OutboxReceipt {
+  seq: number;
+  idempotencyKey: string;
+}
+
+// durable is false when the fsync failed; the entry is still logged and flushed later
+export interface OutboxEnqueueResult extends OutboxReceipt {
+  durable: boolean;
+}
+
+export interface OutboxEntry extends OutboxReceipt {
+  event: string;
+  payload: string;
+  createdAt: number;
+}
+
+interface OutboxModule {
+  enqueue(event: string, payloadJson: string): Promise<OutboxEnqueueResult>;
+  peek(limit: number): Promise<string>;
+  ack(seqs: number[]): void;
+  clear(): void;
+  getStats(): Promise<string>;
+}
+
+const { Outbox } = NativeModules;
+
+export const outbox: OutboxModule | undefined = Outbox;
+
+export const isOutboxAvailable = (): boolean => Platform.OS === 'android' && !!outbox;
+
+// Resolves once the event is logged; null only if it was never logged (outbox unavailable
+// or the append failed), in which case the caller has to send it itself
+export const enqueueOutbox = async (event: string, data: any): Promise<OutboxEnqueueResult | null> => {
+  if (!isOutboxAvailable()) return null;
+  try {
+    return await outbox!.enqueue(event, JSON.stringify(data ?? null));
+  } catch (error) {
+    console.error('❌ Error writing to outbox:', error);
+    return null;
+  }
+};
+
+export const peekOutbox = async (limit: number): Promise<OutboxEntry[]> => {
+  if (!isOutboxAvailable()) return [];
+  try {
+    return JSON.parse(await outbox!.peek(limit));
+  } catch (error) {
+    console.error('❌ Error reading outbox:', error);
+    return [];
+  }
+};
+
+export const ackOutbox = (seqs: number[]): void => {
+  if (!isOutboxAvailable() || seqs.length === 0) return;
+  try {
+    outbox!.ack(seqs);
+  } catch (error) {
+    console.error('❌ Error acking outbox:', error);
+  }
+};
+
+export const clearOutbox = (): void => {
+  if (!isOutboxAvailable()) return;
+  try {
+    outbox!.clear();
+  } catch (error) {
+    console.error('❌ Error clearing outbox:', error);
+  }
+};
+
+export const getOutboxStats = async (): Promise<Record<string, any> | null> => {
+  if (!isOutboxAvailable()) return null;
+  try {
+    return JSON.parse(await outbox!.getStats());
+  } catch (error) {
+    console.error('❌ Error reading outbox stats:', error);
+    return null;
+  }
+};
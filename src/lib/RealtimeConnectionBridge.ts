@@ -0,0 +1,140 @@
+import { NativeEventEmitter, NativeModules, Platform } from 'react-native';
+
+interface RealtimeConnectionModule {
+  start(serverUrl: string, profileId: string, extraEvents: string[] | null): Promise<boolean>;
+  stop(): Promise<boolean>;
+  isConnected(): Promise<boolean>;
+  emit(event: string, payloadJson: string | null): Promise<boolean>;
+  configureDelivery(intervalMs: number, coalesce: Record<string, string | null> | null): void;
+  getDeliveryStats(): Promise<string>;
+  addListener(eventName: string): void;
+  removeListeners(count: number): void;
+}
+
+const { RealtimeConnection } = NativeModules;
+
+export const realtimeConnection: RealtimeConnectionModule | undefined = RealtimeConnection;
+
+const emitter = realtimeConnection ? new NativeEventEmitter(RealtimeConnection) : null;
+
+export const isNativeRealtimeAvailable = (): boolean =>
+  Platform.OS === 'android' && !!realtimeConnection;
+
+// Start the native socket link; it keeps reconnecting on its own after this call
+export const startRealtimeConnection = async (
+  serverUrl: string,
+  profileId: string,
+  extraEvents: string[] = [],
+): Promise<boolean> => {
+  if (!isNativeRealtimeAvailable()) {
+    return false;
+  }
+  try {
+    return await realtimeConnection!.start(serverUrl, profileId, extraEvents);
+  } catch (error) {
+    console.error('❌ Error starting native realtime connection:', error);
+    return false;
+  }
+};
+
+export const stopRealtimeConnection = async (): Promise<void> => {
+  if (!isNativeRealtimeAvailable()) return;
+  try {
+    await realtimeConnection!.stop();
+  } catch (error) {
+    console.error('❌ Error stopping native realtime connection:', error);
+  }
+};
+
+export const emitRealtime = async (event: string, payload?: any): Promise<boolean> => {
+  if (!isNativeRealtimeAvailable()) return false;
+  try {
+    return await realtimeConnection!.emit(event, payload === undefined ? null : JSON.stringify(payload));
+  } catch (error) {
+    console.error('❌ Error emitting via native realtime connection:', error);
+    return false;
+  }
+};
+
+export interface RealtimeDeliveryStats {
+  intervalMs: number;
+  pending: number;
+  received: number;
+  delivered: number;
+  batches: number;
+  avgBatch: number;
+  maxBatch: number;
+  coalesced: number;
+  dropped: number;
+  coalesce: Record<string, string>;
+}
+
+type RealtimeHandler = (event: string, payload: any) => void;
+
+const realtimeHandlers = new Set<RealtimeHandler>();
+let batchSubscription: { remove(): void } | null = null;
+
+// Native delivers one batch per frame; parse it once and fan the events out in order
+const handleBatch = ({ events }: { events: string }) => {
+  let batch: { event: string; payload: any }[] = [];
+  try {
+    batch = JSON.parse(events);
+  } catch (error) {
+    console.error('❌ Error parsing realtime event batch:', error);
+    return;
+  }
+  for (const { event, payload } of batch) {
+    realtimeHandlers.forEach(handler => {
+      try {
+        handler(event, payload);
+      } catch (error) {
+        console.error(`❌ Error handling realtime event ${event}:`, error);
+      }
+    });
+  }
+};
+
+// Subscribe to socket events delivered by the native connection; returns an unsubscribe function
+export const onRealtimeEvent = (handler: RealtimeHandler): (() => void) => {
+  if (!emitter) return () => {};
+  realtimeHandlers.add(handler);
+  if (!batchSubscription) {
+    batchSubscription = emitter.addListener('RealtimeConnectionBatch', handleBatch);
+  }
+  return () => {
+    realtimeHandlers.delete(handler);
+    if (realtimeHandlers.size === 0 && batchSubscription) {
+      batchSubscription.remove();
+      batchSubscription = null;
+    }
+  };
+};
+
+// intervalMs 0 batches per frame; coalesce maps an event to the payload field keying its latest value
+export const configureRealtimeDelivery = (
+  intervalMs: number,
+  coalesce: Record<string, string | null> | null = null,
+): void => {
+  if (!isNativeRealtimeAvailable()) return;
+  try {
+    realtimeConnection!.configureDelivery(intervalMs, coalesce);
+  } catch (error) {
+    console.error('❌ Error configuring realtime delivery:', error);
+  }
+};
+
+export const getRealtimeDeliveryStats = async (): Promise<RealtimeDeliveryStats | null> => {
+  if (!isNativeRealtimeAvailable()) return null;
+  try {
+    return JSON.parse(await realtimeConnection!.getDeliveryStats());
+  } catch (error) {
+    console.error('❌ Error getting realtime delivery stats:', error);
+    return null;
+  }
+};
+
+export const onRealtimeStateChange = (handler: (connected: boolean) => void): (() => void) => {
+  if (!emitter) return () => {};
+  const subscription = emitter.addListener('RealtimeConnectionState', ({ connected }) => handler(!!connected));
+  return () => subscription.remove();
+};
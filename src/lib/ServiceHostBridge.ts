@@ -0,0 +1,45 @@
+import { NativeModules, Platform } from 'react-native';
+
+export type HostWorkload = 'tts' | 'keepalive' | 'overlay';
+
+interface ServiceHostModule {
+  attach(workload: HostWorkload): void;
+  detach(workload: HostWorkload): void;
+  getStats(): Promise<string>;
+}
+
+const { ServiceHost } = NativeModules;
+
+export const serviceHost: ServiceHostModule | undefined = ServiceHost;
+
+// Attach a workload to the single native foreground service (starts it if needed)
+export const attachWorkload = (workload: HostWorkload): boolean => {
+  if (Platform.OS !== 'android' || !serviceHost) return false;
+  try {
+    serviceHost.attach(workload);
+    return true;
+  } catch (error) {
+    console.error('❌ Error attaching service host workload:', error);
+    return false;
+  }
+};
+
+export const detachWorkload = (workload: HostWorkload): void => {
+  if (Platform.OS !== 'android' || !serviceHost) return;
+  try {
+    serviceHost.detach(workload);
+  } catch (error) {
+    console.error('❌ Error detaching service host workload:', error);
+  }
+};
+
+// Per-workload wakeups, CPU and heap cost, plus process PSS
+export const getServiceHostStats = async (): Promise<Record<string, any> | null> => {
+  if (Platform.OS !== 'android' || !serviceHost) return null;
+  try {
+    return JSON.parse(await serviceHost.getStats());
+  } catch (error) {
+    console.error('❌ Error reading service host stats:', error);
+    return null;
+  }
+};
@@ -0,0 +1,56 @@
+import { NativeModules, Platform } from 'react-native';
+
+export interface StartupSpan {
+  name: string;
+  thread: string;
+  sinceProcessStartMs: number;
+  durationMs: number;
+}
+
+export interface StartupTraceSnapshot {
+  process: string;
+  pid: number;
+  startType: 'cold' | 'warm' | 'none';
+  release: string;
+  spans: StartupSpan[];
+}
+
+interface StartupTraceModule {
+  isBackgroundProcess?: boolean;
+  getTrace(): Promise<string>;
+  mark(name: string): void;
+  dump(): Promise<string>;
+}
+
+const { StartupTrace } = NativeModules;
+
+export const startupTrace: StartupTraceModule | undefined = StartupTrace;
+
+// Record a JS milestone (e.g. 'firstScreenRendered') on the native startup timeline
+export const markStartup = (name: string): void => {
+  if (Platform.OS !== 'android' || !startupTrace) return;
+  try {
+    startupTrace.mark(name);
+  } catch (_) {}
+};
+
+export const getStartupTrace = async (): Promise<StartupTraceSnapshot | null> => {
+  if (Platform.OS !== 'android' || !startupTrace) return null;
+  try {
+    return JSON.parse(await startupTrace.getTrace());
+  } catch (error) {
+    console.error('❌ Error reading startup trace:', error);
+    return null;
+  }
+};
+
+// Writes the trace to files/traces/ and returns the file path
+export const dumpStartupTrace = async (): Promise<string | null> => {
+  if (Platform.OS !== 'android' || !startupTrace) return null;
+  try {
+    return await startupTrace.dump();
+  } catch (error) {
+    console.error('❌ Error dumping startup trace:', error);
+    return null;
+  }
+};
@@ -0,0 +1,68 @@
+import { NativeModules, PixelRatio, Platform } from 'react-native';
+
+interface ThumbnailModule {
+  request(requestId: string, source: string, sizePx: number, priority: number): Promise<string | null>;
+  cancel(requestIds: string[]): void;
+  getStats(): Promise<string>;
+}
+
+const { Thumbnails } = NativeModules;
+
+export const thumbnails: ThumbnailModule | undefined = Thumbnails;
+
+export const isThumbnailsAvailable = (): boolean => Platform.OS === 'android' && !!thumbnails;
+
+let nextRequestId = 0;
+let pendingCancels: string[] = [];
+
+// Cells unmount in bursts while scrolling, so cancels go over in one call per tick
+const flushCancels = () => {
+  const ids = pendingCancels;
+  pendingCancels = [];
+  if (ids.length > 0) thumbnails!.cancel(ids);
+};
+
+export interface ThumbnailRequest {
+  promise: Promise<string | null>;
+  cancel: () => void;
+}
+
+// Resolves with a cached file:// URI whose short side is sizeDp (in layout units), or null
+export const requestThumbnail = (
+  source: string,
+  sizeDp: number,
+  priority = 0,
+): ThumbnailRequest => {
+  if (!isThumbnailsAvailable()) {
+    return { promise: Promise.resolve(null), cancel: () => {} };
+  }
+  const requestId = `t${nextRequestId++}`;
+  let settled = false;
+  const promise = thumbnails!
+    .request(requestId, source, PixelRatio.getPixelSizeForLayoutSize(sizeDp), priority)
+    .catch(error => {
+      console.error('❌ Error requesting thumbnail:', error);
+      return null;
+    })
+    .finally(() => {
+      settled = true;
+    });
+  return {
+    promise,
+    cancel: () => {
+      if (settled) return;
+      if (pendingCancels.length === 0) setTimeout(flushCancels, 0);
+      pendingCancels.push(requestId);
+    },
+  };
+};
+
+export const getThumbnailStats = async (): Promise<any | null> => {
+  if (!isThumbnailsAvailable()) return null;
+  try {
+    return JSON.parse(await thumbnails!.getStats());
+  } catch (error) {
+    console.error('❌ Error reading thumbnail stats:', error);
+    return null;
+  }
+};
@@ -1,7 +1,15 @@
-import axios, { AxiosInstance, AxiosResponse, AxiosError, AxiosRequestConfig } from 'axios';
-import AsyncStorage from '@react-native-async-storage/async-storage';
+import axios, { AxiosAdapter, AxiosHeaders, AxiosInstance, AxiosResponse, AxiosError, AxiosRequestConfig } from 'axios';
+import { HttpCacheMode, httpClient, isHttpClientAvailable } from './HttpClientBridge';
+import { clearStoredSession, getStoredAuthToken, getStoredItems } from './KvStoreBridge';
 import config from './config';
 
+declare module 'axios' {
+  interface AxiosRequestConfig {
+    // Cache policy for a GET served by the native HTTP client; defaults to its configured mode
+    cachePolicy?: HttpCacheMode;
+  }
+}
+
 // Type definitions
 interface LoginData {
   email: string;
@@ -57,7 +65,7 @@ const isValidToken = (token: string | null): boolean => {
   return true;
 };
 
-// Token cache to avoid AsyncStorage reads on every request
+// Token cache to avoid storage reads on every request
 let cachedToken: string | null = null;
 let tokenCacheTime: number = 0;
 const TOKEN_CACHE_DURATION = 30000; // Cache for 30 seconds
@@ -72,7 +80,7 @@ const getCachedToken = async (): Promise<string | null> => {
   
   // Fetch fresh token
   try {
-    const token = await AsyncStorage.getItem('authToken');
+    const token = await getStoredAuthToken();
     cachedToken = token;
     tokenCacheTime = now;
     return token;
@@ -88,10 +96,61 @@ export const clearTokenCache = () => {
   tokenCacheTime = 0;
 };
 
+const networkAdapter = axios.getAdapter(axios.defaults.adapter);
+
+// GETs go through the native HTTP client, which caches responses on disk, revalidates them
+// with ETag/Last-Modified and shares identical in-flight requests. Everything else uses the
+// default adapter. Interceptors run either way.
+const cachingAdapter: AxiosAdapter = async (requestConfig) => {
+  const method = (requestConfig.method || 'get').toLowerCase();
+  const textResponse = !requestConfig.responseType || requestConfig.responseType === 'json' || requestConfig.responseType === 'text';
+  if (!isHttpClientAvailable() || method !== 'get' || !textResponse || requestConfig.signal || requestConfig.cancelToken) {
+    const response = await networkAdapter(requestConfig);
+    // Cached reads from before a write must be revalidated, not served stale
+    if (method !== 'get' && isHttpClientAvailable()) httpClient!.markMutated();
+    return response;
+  }
+
+  const headers: Record<string, string> = {};
+  Object.entries(AxiosHeaders.from(requestConfig.headers as any).toJSON()).forEach(([name, value]) => {
+    if (value != null && typeof value !== 'object') headers[name] = String(value);
+  });
+
+  let result;
+  try {
+    result = await httpClient!.get(axios.getUri(requestConfig), headers, {
+      mode: requestConfig.cachePolicy,
+      timeoutMs: requestConfig.timeout,
+    });
+  } catch (error) {
+    throw new AxiosError((error as Error).message || 'Network Error', AxiosError.ERR_NETWORK, requestConfig);
+  }
+
+  const response: AxiosResponse = {
+    data: result.body,
+    status: result.status,
+    statusText: '',
+    headers: AxiosHeaders.from({ ...result.headers, 'x-cache': result.cache }),
+    config: requestConfig,
+    request: null,
+  };
+  if (!requestConfig.validateStatus || requestConfig.validateStatus(response.status)) {
+    return response;
+  }
+  throw new AxiosError(
+    `Request failed with status code ${response.status}`,
+    response.status >= 500 ? AxiosError.ERR_BAD_RESPONSE : AxiosError.ERR_BAD_REQUEST,
+    requestConfig,
+    null,
+    response,
+  );
+};
+
 // Create axios instance with default configuration
 const api: AxiosInstance = axios.create({
   baseURL: config.API_BASE_URL,
   timeout: config.API_TIMEOUT,
+  adapter: cachingAdapter,
   headers: {
     "User-Agent": "MyCustomUserAgent",
     "Access-Control-Allow-Origin": "*",
@@ -119,7 +178,7 @@ api.interceptors.request.use(
         if (token && !isValidToken(token)) {
           // Clear cache and storage
           clearTokenCache();
-          await AsyncStorage.multiRemove(['authToken', 'user']);
+          await clearStoredSession();
         }
       }
     } catch (error) {
@@ -147,7 +206,7 @@ api.interceptors.response.use(
       try {
         // Clear token cache and stored auth data
         clearTokenCache();
-        await AsyncStorage.multiRemove(['authToken', 'user']);
+        await clearStoredSession();
         // You can redirect to login screen here if needed
         console.log('Session expired, please login again');
       } catch (storageError) {
@@ -161,7 +220,7 @@ api.interceptors.response.use(
       try {
         // Clear token cache and stored auth data
         clearTokenCache();
-        await AsyncStorage.multiRemove(['authToken', 'user']);
+        await clearStoredSession();
         console.log('🗑️ Cleared invalid token from storage');
       } catch (storageError) {
         console.error('Error clearing auth data:', storageError);
@@ -213,7 +272,7 @@ export const userAPI = {
       ? profileOrUser
       : (profileOrUser?._id || profileOrUser?.profile?._id);
 
-    return api.get(`profile/?profileId=${profileId}`);
+    return api.get(`profile/?profileId=${profileId}`, { cachePolicy: 'stale-while-revalidate' });
   },
   // checkProfile: (profileId: string): Promise<AxiosResponse> => 
   //   api.post(`profile/check`, { profileId }),
@@ -248,11 +307,11 @@ export const pushAPI = {
 
 export const friendAPI = {
   getFriendList: (profileId: string): Promise<AxiosResponse> => 
-    api.get(`/friend/getFriends?profileId=${profileId}`),
+    api.get(`/friend/getFriends?profileId=${profileId}`, { cachePolicy: 'stale-while-revalidate' }),
   getFriendRequest: (profileId: string): Promise<AxiosResponse> => 
     api.get(`/friend/getRequest?profileId=${profileId}`),
   getFriendSuggestions: (profileId: string): Promise<AxiosResponse> => 
-    api.get(`/friend/getSuggetions?profileId=${profileId}`),
+    api.get(`/friend/getSuggetions?profileId=${profileId}`, { cachePolicy: 'stale-while-revalidate' }),
   sendFriendRequest: (profileId: string): Promise<AxiosResponse> => 
     api.post(`/friend/sendRequest?profileId=${profileId}`),
   acceptFriendRequest: (profileId: string): Promise<AxiosResponse> => 
@@ -269,7 +328,7 @@ export const friendAPI = {
 
 export const storyAPI = {
   getAllStories: (): Promise<AxiosResponse> => 
-    api.get('/story/'),
+    api.get('/story/', { cachePolicy: 'stale-while-revalidate' }),
   getSingleStory: (storyId: string): Promise<AxiosResponse> => 
     api.get(`/story/single?storyId=${storyId}`),
   createStory: (storyData: FormData): Promise<AxiosResponse> => 
@@ -285,7 +344,7 @@ export const storyAPI = {
 // Debug function to check stored tokens
 export const debugAuth = async (): Promise<DebugAuthResult> => {
   try {
-    const [userData, token] = await AsyncStorage.multiGet(['user', 'authToken']);
+    const [userData, token] = await getStoredItems(['user', 'authToken']);
     console.log('🔍 Debug Auth Storage:');
     console.log('👤 User data:', userData[1] ? 'Found' : 'Not found');
     console.log('🔑 Token:', token[1] ? `${token[1].substring(0, 50)}...` : 'Not found');
@@ -2,6 +2,7 @@ import { Platform, Alert, Linking } from 'react-native';
 import AsyncStorage from '@react-native-async-storage/async-storage';
 import { NativeModules } from 'react-native';
 import { pushBackgroundService } from './pushBackgroundService';
+import { attachWorkload } from './ServiceHostBridge';
 
 interface ServiceStatus {
   backgroundTtsService: boolean;
@@ -128,9 +129,8 @@ class BackgroundServiceManager {
 
   private async startBackgroundTtsService(): Promise<void> {
     try {
-      // This would require a native module to start the service
       console.log('🎤 Starting background TTS service...');
-      this.serviceStatus.backgroundTtsService = true;
+      this.serviceStatus.backgroundTtsService = attachWorkload('tts');
       await this.saveServiceStatus();
     } catch (error) {
       console.error('Error starting background TTS service:', error);
@@ -1,6 +1,12 @@
 import Tts from 'react-native-tts';
 import { Platform, AppState } from 'react-native';
 import AsyncStorage from '@react-native-async-storage/async-storage';
+import {
+  configureNativeTts,
+  isNativeTtsAvailable,
+  speakNative,
+  stopNativeSpeech,
+} from './NativeTtsBridge';
 
 interface TtsSettings {
   enabled: boolean;
@@ -27,6 +33,14 @@ class BackgroundTtsService {
     try {
       // Load settings from storage
       await this.loadSettings();
+
+      // On Android speech runs in the native engine, which does its own language fallback
+      if (isNativeTtsAvailable()) {
+        configureNativeTts(this.settings);
+        this.isInitialized = true;
+        console.log('🎤 Background TTS Service initialized (native engine)');
+        return;
+      }
       
       // Configure TTS language with graceful fallback if unsupported
       let appliedLanguage = this.settings.language;
@@ -123,6 +137,7 @@ class BackgroundTtsService {
     try {
       this.settings = { ...this.settings, ...settings };
       await AsyncStorage.setItem('ttsSettings', JSON.stringify(this.settings));
+      configureNativeTts(this.settings);
     } catch (error) {
       console.error('Error saving TTS settings:', error);
     }
@@ -131,12 +146,18 @@ class BackgroundTtsService {
   async speakMessage(message: string, options?: {
     priority?: 'high' | 'normal' | 'low';
     interrupt?: boolean;
+    coalesceKey?: string;
   }): Promise<void> {
     if (!this.settings.enabled || !message.trim()) {
       console.log('🎤 TTS disabled or empty message, skipping');
       return;
     }
 
+    // The native queue decides interruption by priority, so `interrupt` only applies below
+    if (speakNative(message, { priority: options?.priority, coalesceKey: options?.coalesceKey })) {
+      return;
+    }
+
     try {
       // Stop current speech if interrupting is allowed
       if (options?.interrupt !== false && this.isSpeaking) {
@@ -170,16 +191,20 @@ class BackgroundTtsService {
   async speakIncomingCall(callerName: string, isAudio: boolean): Promise<void> {
     const callType = isAudio ? 'audio' : 'video';
     const message = `Incoming ${callType} call from ${callerName}`;
-    await this.speakMessage(message, { priority: 'high', interrupt: true });
+    await this.speakMessage(message, { priority: 'high', interrupt: true, coalesceKey: `call_${callerName}` });
   }
 
   async speakNewMessage(senderName: string, message: string): Promise<void> {
     const truncatedMessage = message.length > 50 ? message.substring(0, 50) + '...' : message;
     const fullMessage = `New message from ${senderName}: ${truncatedMessage}`;
-    await this.speakMessage(fullMessage, { priority: 'normal', interrupt: false });
+    await this.speakMessage(fullMessage, { priority: 'normal', interrupt: false, coalesceKey: `message_${senderName}` });
   }
 
   async stopSpeaking(): Promise<void> {
+    if (isNativeTtsAvailable()) {
+      stopNativeSpeech();
+      return;
+    }
     try {
       await Tts.stop();
       console.log('🎤 TTS stopped');
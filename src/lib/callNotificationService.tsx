@@ -22,7 +22,12 @@ try {
   console.log('Notifee not available in callNotificationService - using fallback');
 }
 
-import { openIncomingCallScreen, bringAppToForeground } from './CallNotificationBridge';
+import {
+  openIncomingCallScreen,
+  bringAppToForeground,
+  showNativeIncomingCallNotification,
+  cancelNativeIncomingCallNotification,
+} from './CallNotificationBridge';
 
 // Service to handle incoming call notifications with better reliability
 export class CallNotificationService {
@@ -66,6 +71,23 @@ export class CallNotificationService {
         });
       }
 
+      // In the background, post the native CallStyle notification: its full-screen intent is
+      // allowed to open the call screen where a plain activity start would be blocked
+      if (Platform.OS === 'android' && AppState.currentState !== 'active') {
+        const shown = await showNativeIncomingCallNotification({
+          callerId: payload.callerId,
+          callerName: payload.callerName,
+          callerProfilePic: payload.callerProfilePic,
+          channelName: payload.channelName,
+          isAudio: payload.isAudio,
+        });
+        if (shown) {
+          console.log('✅ Native incoming call notification posted');
+          this.isServiceRunning = true;
+          return;
+        }
+      }
+
       // Try to use native bridge first for better reliability
       if (Platform.OS === 'android') {
         try {
@@ -157,6 +179,8 @@ export class CallNotificationService {
   // Cancel incoming call notification
   async cancelIncomingCallNotification(): Promise<void> {
     try {
+      await cancelNativeIncomingCallNotification();
+
       if (this.notificationId && notifee) {
         await notifee.cancelNotification(this.notificationId);
         this.notificationId = null;
@@ -1,4 +1,5 @@
 import { Chess, Square, Move, PieceSymbol, Color } from 'chess.js';
+import { EngineSearchOptions, EngineSearchResult, searchBestMove } from './ChessEngineBridge';
 
 export type ChessEngine = InstanceType<typeof Chess>;
 
@@ -62,4 +63,40 @@ export function unicodeForPiece(piece: PieceSymbol, color: Color): string {
 
 export type PromotionPiece = 'q' | 'r' | 'b' | 'n';
 
+export interface ComputerMove {
+  from: Square;
+  to: Square;
+  promotion?: PromotionPiece;
+  search?: EngineSearchResult; // depth, nodes/s etc. when the native engine found it
+}
 
+const PIECE_VALUES: Record<PieceSymbol, number> = { p: 1, n: 3, b: 3, r: 5, q: 9, k: 0 };
+
+// Searches on the native engine, off the JS thread. Where it isn't available, falls back to
+// a one-ply pick (best capture or promotion, else random) that can't stall the UI.
+export async function findComputerMove(
+  chess: ChessEngine,
+  options: EngineSearchOptions = {},
+): Promise<ComputerMove | null> {
+  const history = chess.history({ verbose: true }) as unknown as Move[];
+  const startFen = history.length > 0 ? (history[0] as any).before : chess.fen();
+  const played = history.map(m => `${m.from}${m.to}${(m as any).promotion ?? ''}`);
+  const search = await searchBestMove(startFen, played, options);
+  if (search) {
+    if (!search.bestMove) return null;
+    return {
+      from: search.bestMove.slice(0, 2) as Square,
+      to: search.bestMove.slice(2, 4) as Square,
+      promotion: (search.bestMove.slice(4) || undefined) as PromotionPiece | undefined,
+      search,
+    };
+  }
+
+  const moves = getLegalMoves(chess);
+  if (moves.length === 0) return null;
+  const gain = (m: any) => (m.captured ? PIECE_VALUES[m.captured as PieceSymbol] : 0) + (m.promotion ? 8 : 0);
+  const best = Math.max(...moves.map(gain));
+  const candidates = moves.filter(m => gain(m) === best);
+  const m: any = candidates[Math.floor(Math.random() * candidates.length)];
+  return { from: m.from, to: m.to, promotion: m.promotion };
+}
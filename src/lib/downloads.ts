@@ -2,6 +2,14 @@ import { Platform } from 'react-native';
 import * as FileSystem from 'expo-file-system/legacy';
 import * as MediaLibrary from 'expo-media-library';
 import * as Notifications from 'expo-notifications';
+import {
+  DownloadStateEvent,
+  enqueueDownload,
+  isDownloadEngineAvailable,
+  onDownloadProgress,
+  onDownloadState,
+} from './DownloadEngineBridge';
+import { isMediaIndexAvailable, queryMediaIndex, rescanMediaIndex } from './MediaIndexBridge';
 
 // Use document directory for downloads on all platforms
 export const DOWNLOADS_DIR = `${(FileSystem as any).documentDirectory || ''}downloads/`;
@@ -20,6 +28,51 @@ export function sanitizeFileName(name: string): string {
   return name.replace(/[^a-zA-Z0-9._-]+/g, '-');
 }
 
+// Run a download on the native engine; resolves with the absolute path once it is complete
+function downloadWithEngine(url: string, fileName: string, onPercent: (pct: number) => void): Promise<string> {
+  return new Promise((resolve, reject) => {
+    let id: string | null = null;
+    // State events can arrive before enqueue resolves with the id (a small file may even finish)
+    let early: DownloadStateEvent[] = [];
+    const cleanup = () => {
+      unsubscribeProgress();
+      unsubscribeState();
+    };
+    const handleState = (event: DownloadStateEvent) => {
+      if (event.state === 'completed' && event.path) {
+        cleanup();
+        resolve(event.path);
+      } else if (event.state === 'failed' || event.state === 'cancelled') {
+        cleanup();
+        reject(new Error(event.error || `Download ${event.state}`));
+      }
+    };
+    const unsubscribeProgress = onDownloadProgress(progress => {
+      if (progress.id === id && progress.total > 0) {
+        onPercent(Math.round((progress.received / progress.total) * 100));
+      }
+    });
+    const unsubscribeState = onDownloadState(event => {
+      if (id === null) {
+        early.push(event);
+      } else if (event.id === id) {
+        handleState(event);
+      }
+    });
+    enqueueDownload(url, fileName).then(downloadId => {
+      if (!downloadId) {
+        cleanup();
+        reject(new Error('Could not start download'));
+        return;
+      }
+      id = downloadId;
+      const buffered = early;
+      early = [];
+      buffered.filter(event => event.id === downloadId).forEach(handleState);
+    });
+  });
+}
+
 export async function downloadVideoAndSave(url: string, suggestedName?: string): Promise<string> {
   await ensureDownloadsDir();
   const urlObj = new URL(url);
@@ -55,6 +108,55 @@ export async function downloadVideoAndSave(url: string, suggestedName?: string):
     });
   } catch (_) {}
 
+  if (isDownloadEngineAvailable()) {
+    let lastPct = -1;
+    try {
+      const path = await downloadWithEngine(url, baseName, pct => {
+        // Native progress is already throttled; only touch the notification on whole steps
+        if (pct < lastPct + 5 && pct < 100) return;
+        lastPct = pct;
+        Notifications.scheduleNotificationAsync({
+          content: {
+            title: `Downloading ${pct}%`,
+            body: `${baseName} — ${pct}% complete`,
+          },
+          trigger: null,
+          identifier: notificationId,
+        }).catch(() => {});
+      });
+      const uri = `file://${path}`;
+      try {
+        const asset = await MediaLibrary.createAssetAsync(uri);
+        await MediaLibrary.createAlbumAsync('Downloads', asset, false);
+      } catch (_) {
+        // If saving to media library fails, file is still saved to app directory
+      }
+      try {
+        await Notifications.scheduleNotificationAsync({
+          content: {
+            title: 'Download complete',
+            body: `${baseName} — saved`,
+          },
+          trigger: null,
+          identifier: notificationId,
+        });
+      } catch (_) {}
+      return uri;
+    } catch (error) {
+      try {
+        await Notifications.scheduleNotificationAsync({
+          content: {
+            title: 'Download failed',
+            body: baseName,
+          },
+          trigger: null,
+          identifier: notificationId,
+        });
+      } catch (_) {}
+      throw error;
+    }
+  }
+
   try {
     // Download the file using Expo FileSystem
     const downloadResumable = FileSystem.createDownloadResumable(
@@ -122,7 +224,51 @@ export async function downloadVideoAndSave(url: string, suggestedName?: string):
   }
 }
 
-export async function listDownloads(): Promise<Array<{ name: string; path: string; size: number; mtime?: Date }>> {
+export type DownloadItem = { name: string; path: string; size: number; mtime?: Date; durationMs?: number };
+
+// Served from the native media index: sorted and paged without listing the folder
+export async function listDownloadsPage(
+  cursor: string | null = null,
+  limit = 50,
+): Promise<{ items: DownloadItem[]; nextCursor: string | null }> {
+  const page = await queryMediaIndex('downloads', { cursor, limit, type: 'video' });
+  if (page) {
+    const items = page.items
+      .filter(item => /\.mp4$/i.test(item.name))
+      .map(item => ({
+        name: item.name,
+        path: item.path,
+        size: item.size,
+        mtime: new Date(item.mtime),
+        durationMs: item.durationMs || undefined,
+      }));
+    return { items, nextCursor: page.nextCursor };
+  }
+  if (cursor) return { items: [], nextCursor: null };
+  const items = await scanDownloadsDir();
+  items.sort((a, b) => (b.mtime?.getTime() || 0) - (a.mtime?.getTime() || 0));
+  return { items, nextCursor: null };
+}
+
+export async function refreshDownloads(): Promise<void> {
+  await rescanMediaIndex('downloads');
+}
+
+export async function listDownloads(): Promise<DownloadItem[]> {
+  if (isMediaIndexAvailable()) {
+    const items: DownloadItem[] = [];
+    let cursor: string | null = null;
+    do {
+      const page = await listDownloadsPage(cursor, 500);
+      items.push(...page.items);
+      cursor = page.nextCursor;
+    } while (cursor);
+    return items;
+  }
+  return scanDownloadsDir();
+}
+
+async function scanDownloadsDir(): Promise<DownloadItem[]> {
   await ensureDownloadsDir();
   try {
     const files = await FileSystem.readDirectoryAsync(DOWNLOADS_DIR);
@@ -149,6 +295,7 @@ export async function listDownloads(): Promise<Array<{ name: string; path: strin
 }
 
 export async function deleteDownload(path: string): Promise<void> {
+  // The media index notices the deletion on its own
   try { 
     await FileSystem.deleteAsync(path);
   } catch (_) {}
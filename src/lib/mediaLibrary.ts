@@ -1,16 +1,24 @@
 import { Platform } from 'react-native';
-import * as FileSystem from 'expo-file-system';
+import * as FileSystem from 'expo-file-system/legacy';
+import { isMediaIndexAvailable, queryMediaIndex, rescanMediaIndex } from './MediaIndexBridge';
 
 export type MediaItem = {
   path: string;
   name: string;
   type: 'image' | 'video';
   mtime: number;
+  durationMs?: number;
+  width?: number;
+  height?: number;
 };
 
-// Use a simple directory path for now
-// TODO: Update this when expo-file-system API is clarified
-const MEDIA_DIR = 'file:///tmp/ConnectMedia';
+export type MediaPage = {
+  items: MediaItem[];
+  nextCursor: string | null;
+};
+
+// App-private, next to downloads/, so the native media index watches the same folder
+const MEDIA_DIR = `${(FileSystem as any).documentDirectory || ''}media`;
 
 export async function ensureMediaDir(): Promise<void> {
   try {
@@ -55,7 +63,45 @@ export async function saveVideoToMedia(tempPath: string): Promise<string> {
   return dest;
 }
 
+// Served from the native index when available: a sorted page without listing the folder
+export async function listMediaPage(cursor: string | null = null, limit = 60): Promise<MediaPage> {
+  const page = await queryMediaIndex('media', { cursor, limit });
+  if (page) {
+    const items = page.items
+      .filter(item => item.type !== 'other')
+      .map(item => ({
+        path: item.path,
+        name: item.name,
+        type: item.type as MediaItem['type'],
+        mtime: item.mtime,
+        durationMs: item.durationMs,
+        width: item.width,
+        height: item.height,
+      }));
+    return { items, nextCursor: page.nextCursor };
+  }
+  return { items: cursor ? [] : await scanMediaDir(), nextCursor: null };
+}
+
+export async function refreshMedia(): Promise<void> {
+  await rescanMediaIndex('media');
+}
+
 export async function listMedia(): Promise<MediaItem[]> {
+  if (isMediaIndexAvailable()) {
+    const items: MediaItem[] = [];
+    let cursor: string | null = null;
+    do {
+      const page = await listMediaPage(cursor, 500);
+      items.push(...page.items);
+      cursor = page.nextCursor;
+    } while (cursor);
+    return items;
+  }
+  return scanMediaDir();
+}
+
+async function scanMediaDir(): Promise<MediaItem[]> {
   await ensureMediaDir();
   const entries = await FileSystem.readDirectoryAsync(MEDIA_DIR);
   const items: MediaItem[] = [];
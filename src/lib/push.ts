@@ -4,6 +4,11 @@ import { Platform, Linking, Alert, AppState } from 'react-native';
 import AsyncStorage from '@react-native-async-storage/async-storage';
 import { pushAPI } from './api';
 import { callNotificationService } from './callNotificationService';
+import {
+  MESSAGE_DEDUP_TTL_MS,
+  isNotificationRecentlyShown,
+  localNotificationDedupKey,
+} from './NotificationDedupBridge';
 // Background TTS service removed for Expo compatibility
 
 // Import Notifee types and functions - made optional for Expo Go compatibility
@@ -33,33 +38,9 @@ console.warn = (...args) => {
 
 const STORAGE_KEY = 'fcmToken';
 
-// Notification deduplication
-let notificationCache = new Map<string, number>(); // Cache to prevent duplicate notifications
+// Notification deduplication (shared native table on Android, see NotificationDedupBridge)
 const NOTIFICATION_CACHE_DURATION = 5000; // 5 seconds
 
-// Helper function to check if notification was recently shown
-const isNotificationRecentlyShown = (key: string): boolean => {
-  const now = Date.now();
-  const lastShown = notificationCache.get(key);
-  
-  if (lastShown && (now - lastShown) < NOTIFICATION_CACHE_DURATION) {
-    return true;
-  }
-  
-  notificationCache.set(key, now);
-  return false;
-};
-
-// Clean up old cache entries periodically
-setInterval(() => {
-  const now = Date.now();
-  for (const [key, timestamp] of notificationCache.entries()) {
-    if (now - timestamp > NOTIFICATION_CACHE_DURATION) {
-      notificationCache.delete(key);
-    }
-  }
-}, 10000); // Clean up every 10 seconds
-
 export async function requestPushPermission(): Promise<boolean> {
   try {
     // Use expo-notifications for permission requests
@@ -148,6 +129,15 @@ export async function registerTokenWithServer(): Promise<string | null> {
   }
 }
 
+// FCM rotated the device token (reported by the native messaging service); drop the cached
+// push token and register a fresh one
+export async function refreshTokenWithServer(): Promise<string | null> {
+  try {
+    await AsyncStorage.removeItem(STORAGE_KEY);
+  } catch (e) {}
+  return registerTokenWithServer();
+}
+
 export async function unregisterTokenWithServer(): Promise<void> {
   try {
     const token = await AsyncStorage.getItem(STORAGE_KEY);
@@ -230,11 +220,13 @@ export async function displayLocalNotification(title: string, body: string, data
       return;
     }
     
-    // Create a unique key for deduplication
-    const notificationKey = `local_${title}_${body}_${JSON.stringify(data)}`;
+    // Keyed like the FCM path when the server message id is known, so either delivery
+    // suppresses the other
+    const notificationKey = localNotificationDedupKey(title, body, data);
+    const ttlMs = data.messageId ? MESSAGE_DEDUP_TTL_MS : NOTIFICATION_CACHE_DURATION;
     
     // Check if this notification was recently shown
-    if (isNotificationRecentlyShown(notificationKey)) {
+    if (isNotificationRecentlyShown(notificationKey, ttlMs)) {
       console.log('Skipping duplicate local notification:', title);
       return;
     }
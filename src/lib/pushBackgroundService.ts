@@ -14,8 +14,19 @@ try {
   console.log('Notifee not available in pushBackgroundService - using fallback');
 }
 // Firebase messaging removed for Expo compatibility
-import AsyncStorage from '@react-native-async-storage/async-storage';
+import { getStoredUser } from './KvStoreBridge';
 import { Platform } from 'react-native';
+import {
+  isNativeRealtimeAvailable,
+  onRealtimeEvent,
+  startRealtimeConnection,
+} from './RealtimeConnectionBridge';
+import {
+  CALL_DEDUP_TTL_MS,
+  chatDedupKey,
+  incomingCallDedupKey,
+  isNotificationRecentlyShown,
+} from './NotificationDedupBridge';
 
 // Background socket state (module-scoped to persist during service lifetime)
 let backgroundSocket: any = null;
@@ -23,9 +34,9 @@ let isSettingUpSocket = false;
 let hasRegisteredSocketHandlers = false;
 let fcmMessageListener: (() => void) | null = null;
 let isFcmListenerSetup = false;
+let nativeRealtimeUnsubscribe: (() => void) | null = null;
 
-// Notification deduplication cache for FCM messages
-const fcmNotificationCache = new Map<string, number>();
+// Notification deduplication window for FCM messages (shared native table on Android)
 const FCM_NOTIFICATION_CACHE_DURATION = 10000; // 10 seconds
 
 // Helper function to safely get error message
@@ -37,27 +48,8 @@ const getErrorMessage = (e: unknown): string => {
 };
 
 // Helper function to check if FCM notification was recently displayed
-const isFcmNotificationRecentlyShown = (key: string): boolean => {
-  const now = Date.now();
-  const lastShown = fcmNotificationCache.get(key);
-  
-  if (lastShown && (now - lastShown) < FCM_NOTIFICATION_CACHE_DURATION) {
-    return true;
-  }
-  
-  fcmNotificationCache.set(key, now);
-  return false;
-};
-
-// Clean up old FCM cache entries periodically
-setInterval(() => {
-  const now = Date.now();
-  for (const [key, timestamp] of fcmNotificationCache.entries()) {
-    if (now - timestamp > FCM_NOTIFICATION_CACHE_DURATION) {
-      fcmNotificationCache.delete(key);
-    }
-  }
-}, 30000); // Clean up every 30 seconds
+const isFcmNotificationRecentlyShown = (key: string): boolean =>
+  isNotificationRecentlyShown(key, FCM_NOTIFICATION_CACHE_DURATION);
 
 // Resolve a safe caller name from payload
 const resolveCallerName = (payload: any): string => {
@@ -227,7 +219,7 @@ export async function handleFcmMessage(remoteMessage: any): Promise<void> {
     
     // Handle chat messages (when app is closed) - data-only messages
     if (data.type === 'chat' || data.type === 'new_message') {
-      const notificationKey = `chat_${messageId}_${data.messageId || ''}`;
+      const notificationKey = chatDedupKey(data.messageId || messageId);
       
       // Check if this notification was recently displayed
       if (isFcmNotificationRecentlyShown(notificationKey)) {
@@ -267,7 +259,7 @@ export async function handleFcmMessage(remoteMessage: any): Promise<void> {
     const title = data.title || data.senderName || 'Message';
     const body = data.body || data.message || '';
 
-    const notificationKey = `general_${messageId}_${data.messageId || ''}`;
+    const notificationKey = `general_${data.messageId || messageId}`;
     
     // Check if this notification was recently displayed
     if (isFcmNotificationRecentlyShown(notificationKey)) {
@@ -333,6 +325,113 @@ async function setupFcmMessageListener(): Promise<void> {
   }
 }
 
+// Listen to various possible server events for incoming calls
+const INCOMING_CALL_EVENTS = [
+  'incoming_call',
+  'incoming-call',
+  'incoming-audio-call',
+  'incoming-video-call',
+];
+const SPEAK_MESSAGE_EVENTS = [ 'speak_message', 'speak-message' ];
+
+// Generic incoming call handler (covers multiple event names)
+const handleIncomingCallEvent = async (payload: any) => {
+  try {
+    const { callNotificationService } = await import('./callNotificationService');
+    const normalized = normalizeIncomingCallPayload(payload);
+    if (!normalized.channelName || !normalized.callerId) {
+      return;
+    }
+    // The same call may also arrive over FCM in the other process
+    if (isNotificationRecentlyShown(incomingCallDedupKey(normalized.channelName), CALL_DEDUP_TTL_MS)) {
+      return;
+    }
+    await callNotificationService.displayIncomingCallNotification(normalized);
+  } catch (e) {
+    // Fallback: minimal notifee notification if service import fails
+    try {
+      const normalized = normalizeIncomingCallPayload(payload);
+      // Ensure channel exists before displaying notification
+      await notifee.createChannel({
+        id: 'incoming_calls',
+        name: 'Incoming Calls',
+        importance: AndroidImportance.HIGH,
+      });
+      await notifee.displayNotification({
+        title: normalized.isAudio ? 'Incoming Audio Call' : 'Incoming Video Call',
+        body: `Call from ${normalized.callerName}`,
+        android: {
+          channelId: 'incoming_calls',
+          smallIcon: 'ic_notification',
+          ongoing: true,
+          pressAction: { id: 'open_incoming_call', launchActivity: 'default' },
+          fullScreenAction: { id: 'incoming_call_fullscreen', launchActivity: 'default' },
+        },
+        data: { type: 'incoming_call', ...normalized, isAudio: String(normalized.isAudio) },
+      });
+    } catch (fallbackError) {
+      console.error('❌ Error displaying fallback notification:', fallbackError);
+    }
+  }
+};
+
+// Speak message handler (server-driven TTS) - re-enabled for socket 'speak_message' events
+const handleSpeakMessageEvent = async (payload: any) => {
+  try {
+    const { backgroundTtsService } = await import('./backgroundTtsService');
+    await backgroundTtsService.initialize();
+    const message: string = String(
+      payload?.message || payload?.text || payload?.body || ''
+    );
+    if (!message.trim()) return;
+
+    const priority = (payload?.priority === 'high' || payload?.priority === 'low') ? payload.priority : 'normal';
+    const interrupt = payload?.interrupt !== false; // default true
+
+    console.log('🔊 Speaking message from socket speak_message event:', payload);
+    await backgroundTtsService.speakMessage(message, { priority, interrupt });
+  } catch (error) {
+    console.error('❌ Error speaking message from socket:', error);
+  }
+};
+
+// Read the stored profile id used to authenticate the socket
+const getStoredProfileId = async (): Promise<string | undefined> => {
+  try {
+    const user = await getStoredUser();
+    return user?.profile?._id;
+  } catch (e) {
+    return undefined;
+  }
+};
+
+// Hand the socket to the native connection manager (Android). It reconnects on network
+// changes with backoff by itself, so JS only has to listen for events.
+async function startNativeRealtimeConnection(): Promise<boolean> {
+  if (!isNativeRealtimeAvailable()) {
+    return false;
+  }
+  const profileId = await getStoredProfileId();
+  if (!profileId) {
+    return false;
+  }
+  const { default: config } = await import('./config');
+  const started = await startRealtimeConnection(config.SOCKET_BASE_URL, profileId);
+  if (!started) {
+    return false;
+  }
+  if (!nativeRealtimeUnsubscribe) {
+    nativeRealtimeUnsubscribe = onRealtimeEvent((event, payload) => {
+      if (INCOMING_CALL_EVENTS.includes(event)) {
+        handleIncomingCallEvent(payload);
+      } else if (SPEAK_MESSAGE_EVENTS.includes(event)) {
+        handleSpeakMessageEvent(payload);
+      }
+    });
+  }
+  return true;
+}
+
 // Set up a resilient socket connection usable in background context
 async function ensureBackgroundSocketConnected(): Promise<void> {
   if (isSettingUpSocket || (backgroundSocket && backgroundSocket.connected)) {
@@ -347,14 +446,7 @@ async function ensureBackgroundSocketConnected(): Promise<void> {
     ]);
 
     // Read stored user to get profile id
-    let profileId: string | undefined;
-    try {
-      const userJson = await AsyncStorage.getItem('user');
-      const user = userJson ? JSON.parse(userJson) : null;
-      profileId = user?.profile?._id;
-    } catch (e) {
-      // ignore
-    }
+    const profileId = await getStoredProfileId();
 
     if (!profileId) {
       isSettingUpSocket = false;
@@ -366,76 +458,11 @@ async function ensureBackgroundSocketConnected(): Promise<void> {
     if (!hasRegisteredSocketHandlers && backgroundSocket) {
       hasRegisteredSocketHandlers = true;
 
-      // Generic incoming call handler (covers multiple event names)
-      const handleIncoming = async (payload: any) => {
-        try {
-          const { callNotificationService } = await import('./callNotificationService');
-          const normalized = normalizeIncomingCallPayload(payload);
-          if (!normalized.channelName || !normalized.callerId) {
-            return;
-          }
-          await callNotificationService.displayIncomingCallNotification(normalized);
-        } catch (e) {
-          // Fallback: minimal notifee notification if service import fails
-          try {
-            const normalized = normalizeIncomingCallPayload(payload);
-            // Ensure channel exists before displaying notification
-            await notifee.createChannel({
-              id: 'incoming_calls',
-              name: 'Incoming Calls',
-              importance: AndroidImportance.HIGH,
-            });
-            await notifee.displayNotification({
-              title: normalized.isAudio ? 'Incoming Audio Call' : 'Incoming Video Call',
-              body: `Call from ${normalized.callerName}`,
-              android: {
-                channelId: 'incoming_calls',
-                smallIcon: 'ic_notification',
-                ongoing: true,
-                pressAction: { id: 'open_incoming_call', launchActivity: 'default' },
-                fullScreenAction: { id: 'incoming_call_fullscreen', launchActivity: 'default' },
-              },
-              data: { type: 'incoming_call', ...normalized, isAudio: String(normalized.isAudio) },
-            });
-          } catch (fallbackError) {
-            console.error('❌ Error displaying fallback notification:', fallbackError);
-          }
-        }
-      };
-
-      // Listen to various possible server events for incoming calls
-      const incomingEvents = [
-        'incoming_call',
-        'incoming-call',
-        'incoming-audio-call',
-        'incoming-video-call',
-      ];
-      incomingEvents.forEach(evt => {
-        try { backgroundSocket.on(evt, handleIncoming); } catch (_) {}
+      INCOMING_CALL_EVENTS.forEach(evt => {
+        try { backgroundSocket.on(evt, handleIncomingCallEvent); } catch (_) {}
       });
-
-      // Speak message handler (server-driven TTS) - re-enabled for socket 'speak_message' events
-      const handleSpeakMessage = async (payload: any) => {
-        try {
-          const { backgroundTtsService } = await import('./backgroundTtsService');
-          await backgroundTtsService.initialize();
-          const message: string = String(
-            payload?.message || payload?.text || payload?.body || ''
-          );
-          if (!message.trim()) return;
-
-          const priority = (payload?.priority === 'high' || payload?.priority === 'low') ? payload.priority : 'normal';
-          const interrupt = payload?.interrupt !== false; // default true
-
-          console.log('🔊 Speaking message from socket speak_message event:', payload);
-          await backgroundTtsService.speakMessage(message, { priority, interrupt });
-        } catch (error) {
-          console.error('❌ Error speaking message from socket:', error);
-        }
-      };
-      const speakEvents = [ 'speak_message', 'speak-message' ];
-      speakEvents.forEach(evt => {
-        try { backgroundSocket.on(evt, handleSpeakMessage); } catch (_) {}
+      SPEAK_MESSAGE_EVENTS.forEach(evt => {
+        try { backgroundSocket.on(evt, handleSpeakMessageEvent); } catch (_) {}
       });
 
       // Keep minimal logging to observe connection state
@@ -449,6 +476,24 @@ async function ensureBackgroundSocketConnected(): Promise<void> {
   }
 }
 
+// Headless task started by the native KeepAliveService. FCM pushes are already rendered
+// and spoken natively (ConnectMessagingService); this only runs the follow-up work that needs JS.
+export async function keepAliveTask(taskData: { source?: string; data?: Record<string, string> }): Promise<void> {
+  if (taskData?.source === 'fcm_token') {
+    try {
+      const { refreshTokenWithServer } = await import('./push');
+      await refreshTokenWithServer();
+    } catch (e) {
+      console.error('❌ Error registering refreshed push token:', getErrorMessage(e));
+    }
+  }
+  try {
+    await startNativeRealtimeConnection();
+  } catch (e) {
+    console.error('❌ Error in KeepAliveTask:', getErrorMessage(e));
+  }
+}
+
 // Minimal task to keep JS runtime alive in background and maintain socket
 async function backgroundTask({ taskName }: { taskName: string }) {
   // CRITICAL: Wrap entire task in try-catch to prevent service crashes
@@ -473,14 +518,6 @@ async function backgroundTask({ taskName }: { taskName: string }) {
       console.error('❌ Failed to ensure Android prerequisites:', getErrorMessage(e));
   }
 
-  // Best-effort: bring up socket once on start
-    try {
-  await ensureBackgroundSocketConnected();
-    } catch (e) {
-      console.error('❌ Failed to connect socket initially:', getErrorMessage(e));
-      // Continue - socket will retry in loop
-    }
-  
   // Set up FCM message listener for background notifications
     try {
   await setupFcmMessageListener();
@@ -489,6 +526,24 @@ async function backgroundTask({ taskName }: { taskName: string }) {
       // Continue - will retry in loop
     }
 
+  // Prefer the native connection manager: it owns reconnects, so no polling loop is needed
+  try {
+    if (await startNativeRealtimeConnection()) {
+      console.log('Background service: realtime connection handed to native manager');
+      return;
+    }
+  } catch (e) {
+    console.error('❌ Failed to start native realtime connection:', getErrorMessage(e));
+  }
+
+  // Fallback (no native module): bring up the JS socket and poll it
+    try {
+  await ensureBackgroundSocketConnected();
+    } catch (e) {
+      console.error('❌ Failed to connect socket initially:', getErrorMessage(e));
+      // Continue - socket will retry in loop
+    }
+
   // Optimized loop: check socket connection less frequently to reduce battery drain
   // Start with 5 seconds, then increase to 30 seconds after initial connection
   let checkInterval = 5000; // Start with 5 seconds
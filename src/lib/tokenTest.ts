@@ -1,4 +1,4 @@
-import AsyncStorage from '@react-native-async-storage/async-storage';
+import { clearStoredSession, getStoredItem, setStoredItem } from './KvStoreBridge';
 import api from './api';
 import { AxiosResponse, AxiosError } from 'axios';
 
@@ -32,8 +32,8 @@ export const tokenTest = {
   // Check if token exists in storage
   checkTokenStorage: async (): Promise<TokenStorageResult> => {
     try {
-      const token = await AsyncStorage.getItem('authToken');
-      const user = await AsyncStorage.getItem('user');
+      const token = await getStoredItem('authToken');
+      const user = await getStoredItem('user');
       
       console.log('🔍 Token Test Results:');
       console.log('🔑 Token exists:', !!token);
@@ -86,7 +86,7 @@ export const tokenTest = {
   // Clear all stored data (useful for testing)
   clearAllData: async (): Promise<ClearDataResult> => {
     try {
-      await AsyncStorage.multiRemove(['user', 'authToken']);
+      await clearStoredSession();
       console.log('🗑️ All stored data cleared');
       return { success: true };
     } catch (error) {
@@ -102,7 +102,7 @@ export const tokenTest = {
       const response = await api.post('/auth/refresh');
       
       if (response.data.accessToken) {
-        await AsyncStorage.setItem('authToken', response.data.accessToken);
+        await setStoredItem('authToken', response.data.accessToken);
         console.log('✅ Token refreshed successfully');
         return { success: true, newToken: response.data.accessToken };
       } else {
@@ -3,11 +3,14 @@ import { View, Text, StyleSheet, TouchableOpacity, Modal, Dimensions } from 'rea
 import { useTheme } from '../contexts/ThemeContext';
 import { useChessGame } from '../contexts/ChessGameContext';
 import { Chess } from 'chess.js';
-import { unicodeForPiece } from '../lib/chessEngine';
+import { findComputerMove, unicodeForPiece } from '../lib/chessEngine';
+import { newEngineGame, stopEngineSearch } from '../lib/ChessEngineBridge';
 // react-native-particles removed for Expo compatibility
 
 const BOARD_SIZE = 8;
 const FILES = ['a','b','c','d','e','f','g','h'];
+// Think time per computer move; the native engine searches as deep as this allows
+const COMPUTER_MOVE_MS = 1500;
 
 const ChessGame: React.FC = () => {
   const { colors: themeColors } = useTheme();
@@ -18,14 +21,50 @@ const ChessGame: React.FC = () => {
   const [legalTargets, setLegalTargets] = React.useState<string[]>([]);
   const [fenVersion, setFenVersion] = React.useState(0); // force re-render on engine change
   const [promotionFromTo, setPromotionFromTo] = React.useState<{from: string; to: string} | null>(null);
+  const [vsComputer, setVsComputer] = React.useState(false); // computer plays Black
+  const [thinking, setThinking] = React.useState(false);
+  const [searchInfo, setSearchInfo] = React.useState<string | null>(null);
+  // Bumped to drop a search result after undo/reset/mode change
+  const searchToken = React.useRef(0);
 
   const turnColor = engine.turn();
   const gameOver = engine.isGameOver();
   const inCheck = engine.isCheck();
 
+  React.useEffect(() => {
+    if (!vsComputer || turnColor !== 'b' || gameOver) return;
+    const token = ++searchToken.current;
+    setThinking(true);
+    findComputerMove(engine, { timeMs: COMPUTER_MOVE_MS })
+      .then(move => {
+        if (token !== searchToken.current || !move) return;
+        engine.move({ from: move.from, to: move.to, promotion: move.promotion });
+        if (move.search) {
+          setSearchInfo(`depth ${move.search.depth} · ${Math.round(move.search.nps / 1000)}k nodes/s`);
+        }
+        setFenVersion(v => v + 1);
+      })
+      .finally(() => {
+        if (token === searchToken.current) setThinking(false);
+      });
+  }, [fenVersion, vsComputer]);
+
+  // Leaving the screen mid-search shouldn't keep the cores busy
+  React.useEffect(() => () => {
+    searchToken.current++;
+    stopEngineSearch();
+  }, []);
+
+  const cancelSearch = () => {
+    searchToken.current++;
+    setThinking(false);
+    stopEngineSearch();
+  };
+
   const handleSquarePress = (square: string) => {
     if (gameOver) return;
     if (promotionFromTo) return; // wait for promotion choice
+    if (thinking) return;
 
     if (selected === square) {
       setSelected(null);
@@ -78,19 +117,31 @@ const ChessGame: React.FC = () => {
   };
 
   const undo = () => {
+    cancelSearch();
     engine.undo();
+    // Take back the computer's reply together with the player's move
+    if (vsComputer && engine.turn() === 'b') engine.undo();
     setSelected(null);
     setLegalTargets([]);
     setFenVersion(v => v + 1);
   };
 
   const reset = () => {
+    cancelSearch();
+    newEngineGame();
     engine.reset();
+    setSearchInfo(null);
     setSelected(null);
     setLegalTargets([]);
     setFenVersion(v => v + 1);
   };
 
+  const toggleComputer = () => {
+    cancelSearch();
+    setVsComputer(v => !v);
+    setSearchInfo(null);
+  };
+
   const getGameStatus = () => {
     if (gameOver) {
       if (engine.isCheckmate()) return 'Checkmate';
@@ -99,6 +150,7 @@ const ChessGame: React.FC = () => {
       if (engine.isInsufficientMaterial()) return 'Draw by insufficient material';
       return 'Draw';
     }
+    if (thinking) return `Computer is thinking…${inCheck ? ' (check)' : ''}`;
     return `${turnColor === 'w' ? 'White' : 'Black'} to move${inCheck ? ' (check)' : ''}`;
   };
 
@@ -210,6 +262,9 @@ const ChessGame: React.FC = () => {
         <View style={styles.topBar}>
         <Text style={[styles.title, { color: themeColors.text.primary }]}>Chess</Text>
         <View style={{ flexDirection: 'row', gap: 8 }}>
+          <TouchableOpacity style={[styles.smallBtn, { backgroundColor: themeColors.surface.primary }]} onPress={toggleComputer}>
+            <Text style={{ color: themeColors.text.primary }}>{vsComputer ? 'vs CPU' : '2 Players'}</Text>
+          </TouchableOpacity>
           <TouchableOpacity style={[styles.smallBtn, { backgroundColor: themeColors.surface.primary }]} onPress={undo}>
             <Text style={{ color: themeColors.text.primary }}>Undo</Text>
           </TouchableOpacity>
@@ -225,6 +280,11 @@ const ChessGame: React.FC = () => {
         <Text style={{ textAlign: 'center', marginBottom: 8, color: themeColors.text.secondary }}>
           {getGameStatus()}
         </Text>
+        {vsComputer && searchInfo && (
+          <Text style={{ textAlign: 'center', marginBottom: 8, fontSize: 12, color: themeColors.text.secondary }}>
+            {searchInfo}
+          </Text>
+        )}
 
         <View style={styles.board}>
         {/* Render ranks 8..1 top to bottom for standard board orientation */}
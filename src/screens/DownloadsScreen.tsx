@@ -1,9 +1,10 @@
-import React, { useEffect, useState, useCallback } from 'react';
+import React, { useEffect, useState, useCallback, useRef } from 'react';
 import { View, StyleSheet, FlatList, Text, TouchableOpacity, Alert } from 'react-native';
 import { SafeAreaView } from 'react-native-safe-area-context';
 import { useTheme } from '../contexts/ThemeContext';
-import { listDownloads, deleteDownload, DOWNLOADS_DIR } from '../lib/downloads';
+import { listDownloadsPage, refreshDownloads, deleteDownload, DOWNLOADS_DIR, DownloadItem } from '../lib/downloads';
 import { useNavigation } from '@react-navigation/native';
+import MediaThumbnail from '../components/MediaThumbnail';
 
 const humanSize = (bytes: number) => {
   if (!bytes && bytes !== 0) return '';
@@ -11,22 +12,42 @@ const humanSize = (bytes: number) => {
   return `${mb.toFixed(1)} MB`;
 };
 
+const THUMB_SIZE = 56;
+
 const DownloadsScreen = () => {
   const { colors: themeColors } = useTheme();
   const navigation = useNavigation();
-  const [files, setFiles] = useState<Array<{ name: string; path: string; size: number; mtime?: Date }>>([]);
+  const [files, setFiles] = useState<DownloadItem[]>([]);
   const [refreshing, setRefreshing] = useState(false);
+  const nextCursor = useRef<string | null>(null);
+  const loadingMore = useRef(false);
 
   const load = useCallback(async () => {
     setRefreshing(true);
     try {
-      const items = await listDownloads();
-      items.sort((a, b) => (b.mtime?.getTime() || 0) - (a.mtime?.getTime() || 0));
-      setFiles(items);
+      const page = await listDownloadsPage();
+      nextCursor.current = page.nextCursor;
+      setFiles(page.items);
     } catch (_) {}
     setRefreshing(false);
   }, []);
 
+  const loadMore = useCallback(async () => {
+    if (!nextCursor.current || loadingMore.current) return;
+    loadingMore.current = true;
+    try {
+      const page = await listDownloadsPage(nextCursor.current);
+      nextCursor.current = page.nextCursor;
+      setFiles(prev => [...prev, ...page.items]);
+    } catch (_) {}
+    loadingMore.current = false;
+  }, []);
+
+  const refresh = useCallback(async () => {
+    await refreshDownloads();
+    await load();
+  }, [load]);
+
   useEffect(() => {
     load();
   }, [load]);
@@ -35,7 +56,7 @@ const DownloadsScreen = () => {
     try {
       (navigation as any).navigate('Menu', {
         screen: 'MediaPlayer',
-        params: { source: { type: 'video', uri: `file://${item.path}`, title: item.name } },
+        params: { source: { type: 'video', uri: item.path, title: item.name } },
       });
     } catch (_) {}
   };
@@ -51,6 +72,12 @@ const DownloadsScreen = () => {
 
   const renderItem = ({ item }: any) => (
     <View style={[styles.row, { backgroundColor: themeColors.surface.primary, borderColor: themeColors.surface.secondary }]}>
+      <MediaThumbnail
+        source={item.path}
+        sizeDp={THUMB_SIZE}
+        style={[styles.thumb, { backgroundColor: themeColors.surface.secondary }]}
+        fallback={<View style={[styles.thumb, { backgroundColor: themeColors.surface.secondary }]} />}
+      />
       <View style={styles.info}>
         <Text style={[styles.name, { color: themeColors.text.primary }]} numberOfLines={2}>{item.name}</Text>
         <Text style={[styles.meta, { color: themeColors.text.secondary }]}>
@@ -78,8 +105,10 @@ const DownloadsScreen = () => {
         data={files}
         keyExtractor={(item) => item.path}
         renderItem={renderItem}
-        onRefresh={load}
+        onRefresh={refresh}
         refreshing={refreshing}
+        onEndReached={loadMore}
+        onEndReachedThreshold={0.5}
         contentContainerStyle={{ padding: 12 }}
         ListEmptyComponent={<Text style={{ textAlign: 'center', color: themeColors.text.secondary, marginTop: 40 }}>No downloads yet</Text>}
       />
@@ -100,6 +129,7 @@ const styles = StyleSheet.create({
     flexDirection: 'row',
     alignItems: 'center',
   },
+  thumb: { width: THUMB_SIZE, height: THUMB_SIZE, borderRadius: 6, marginRight: 10 },
   info: { flex: 1, paddingRight: 10 },
   name: { fontSize: 14, fontWeight: '600' },
   meta: { fontSize: 12, marginTop: 4 },
@@ -1,8 +1,9 @@
-import React, { useCallback, useEffect, useState } from 'react';
+import React, { useCallback, useEffect, useRef, useState } from 'react';
 import { View, Text, StyleSheet, FlatList, Image, TouchableOpacity, Dimensions, Alert, Platform } from 'react-native';
 import Icon from 'react-native-vector-icons/MaterialIcons';
 import { Video, ResizeMode } from 'expo-av';
-import { deleteMedia, listMedia, MediaItem } from '../lib/mediaLibrary';
+import { deleteMedia, listMediaPage, MediaItem, refreshMedia } from '../lib/mediaLibrary';
+import MediaThumbnail from '../components/MediaThumbnail';
 
 const { width } = Dimensions.get('window');
 const ITEM_SIZE = (width - 8 * 4) / 3;
@@ -10,17 +11,37 @@ const ITEM_SIZE = (width - 8 * 4) / 3;
 const GalleryScreen = ({ navigation }: any) => {
   const [items, setItems] = useState<MediaItem[]>([]);
   const [refreshing, setRefreshing] = useState(false);
+  const nextCursor = useRef<string | null>(null);
+  const loadingMore = useRef(false);
 
   const load = useCallback(async () => {
     setRefreshing(true);
     try {
-      const data = await listMedia();
-      setItems(data);
+      const page = await listMediaPage();
+      nextCursor.current = page.nextCursor;
+      setItems(page.items);
     } finally {
       setRefreshing(false);
     }
   }, []);
 
+  const loadMore = useCallback(async () => {
+    if (!nextCursor.current || loadingMore.current) return;
+    loadingMore.current = true;
+    try {
+      const page = await listMediaPage(nextCursor.current);
+      nextCursor.current = page.nextCursor;
+      setItems(prev => [...prev, ...page.items]);
+    } finally {
+      loadingMore.current = false;
+    }
+  }, []);
+
+  const refresh = useCallback(async () => {
+    await refreshMedia();
+    await load();
+  }, [load]);
+
   useEffect(() => {
     const unsub = navigation.addListener('focus', load);
     load();
@@ -43,20 +64,25 @@ const GalleryScreen = ({ navigation }: any) => {
 
   const renderItem = ({ item }: { item: MediaItem }) => (
     <TouchableOpacity style={styles.item} onPress={() => openItem(item)}>
-      {item.type === 'image' ? (
-        <Image source={{ uri: `file://${item.path}` }} style={styles.thumb} resizeMode="cover" />
-      ) : (
-        <View style={styles.thumb}>
+      <MediaThumbnail
+        source={item.path}
+        sizeDp={ITEM_SIZE}
+        style={styles.thumb}
+        fallback={item.type === 'image' ? (
+          <Image source={{ uri: item.path }} style={styles.thumb} resizeMode="cover" />
+        ) : (
           <Video 
-            source={{ uri: `file://${item.path}` }} 
+            source={{ uri: item.path }} 
             style={styles.thumb} 
             resizeMode={ResizeMode.COVER} 
             isLooping
             shouldPlay={false}
             isMuted={true}
           />
-          <View style={styles.playBadge}><Icon name="play-arrow" size={18} color="#fff" /></View>
-        </View>
+        )}
+      />
+      {item.type === 'video' && (
+        <View style={styles.playBadge}><Icon name="play-arrow" size={18} color="#fff" /></View>
       )}
       <TouchableOpacity style={styles.deleteBtn} onPress={() => removeItem(item)}>
         <Icon name="delete" size={18} color="#fff" />
@@ -82,7 +108,9 @@ const GalleryScreen = ({ navigation }: any) => {
         columnWrapperStyle={{ gap: 8, marginBottom: 8 }}
         renderItem={renderItem}
         refreshing={refreshing}
-        onRefresh={load}
+        onRefresh={refresh}
+        onEndReached={loadMore}
+        onEndReachedThreshold={0.5}
         ListEmptyComponent={<Text style={styles.empty}>No media yet</Text>}
       />
     </View>
@@ -13,6 +13,8 @@ import Icon from 'react-native-vector-icons/MaterialIcons';
 import StorySlider from '../components/StorySlider';
 import PostSkeleton from '../components/skeleton/PostSkeleton';
 import AsyncStorage from '@react-native-async-storage/async-storage';
+import config from '../lib/config';
+import { usePrefetchWindow } from '../hooks/usePrefetchWindow';
 // Modern components
 import { ModernCard, ModernButton, ModernLoading } from '../components/modern';
 
@@ -25,6 +27,14 @@ const INITIAL_POSTS_TO_RENDER = 5;
 const MAX_BATCH_SIZE = 5;
 const LIST_WINDOW_SIZE = 7;
 
+// Same URL Post renders, so the prefetched copy is found
+const postMediaUrl = (post: any): string | null => {
+    const photo = typeof post?.photos === 'string' ? post.photos : post?.photos?.[0];
+    if (!photo || typeof photo !== 'string' || photo === 'null' || photo === 'undefined') return null;
+    if (photo.startsWith('http://') || photo.startsWith('https://')) return photo;
+    return photo.startsWith('/') ? `${config.SOCKET_BASE_URL}${photo}` : null;
+};
+
 
 const Home = () => {
     const [posts, setPosts] = useState<any[]>([]);
@@ -227,6 +237,9 @@ const Home = () => {
 
     const keyExtractor = useCallback((item: any, idx: number) => item._id || idx.toString(), []);
 
+    const mediaUrls = useMemo(() => posts.map(postMediaUrl), [posts]);
+    const { onViewableItemsChanged, viewabilityConfig } = usePrefetchWindow('home', mediaUrls);
+
     const backgroundColor = themeColors.background.primary;
     const textColor = themeColors.text.primary;
 
@@ -347,6 +360,8 @@ const Home = () => {
                 keyExtractor={keyExtractor}
                 ListHeaderComponent={listHeaderComponent}
                 renderItem={renderPost}
+                onViewableItemsChanged={onViewableItemsChanged}
+                viewabilityConfig={viewabilityConfig}
                 ListEmptyComponent={listEmptyComponent}
                 onEndReached={handleLoadMore}
                 onEndReachedThreshold={0.2}
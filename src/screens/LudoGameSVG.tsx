@@ -36,6 +36,14 @@ import Logo from '../components/Logo';
 // react-native-particles removed for Expo compatibility
 import api, { friendAPI } from '../lib/api';
 import config from '../lib/config';
+import {
+  isLudoEngineAvailable,
+  ludoBestMove,
+  ludoGetState,
+  ludoMove,
+  ludoNewGame,
+  ludoRoll,
+} from '../lib/LudoEngineBridge';
 import { useSelector } from 'react-redux';
 import { RootState } from '../store';
 
@@ -155,6 +163,8 @@ const LudoGameSVG = () => {
   const [selectedPlayerCount, setSelectedPlayerCount] = useState(4);
   const [captureAnimations, setCaptureAnimations] = useState<{[key: string]: boolean}>({});
   const [onlineMode, setOnlineMode] = useState(false);
+  // Offline only: every seat but the first is played by the native engine
+  const [vsComputer, setVsComputer] = useState(false);
   const [selectedFriends, setSelectedFriends] = useState<any[]>([]);
   const [friendSearchQuery, setFriendSearchQuery] = useState('');
   const [searchResults, setSearchResults] = useState<any[]>([]);
@@ -204,6 +214,8 @@ const LudoGameSVG = () => {
   const isMovingRef = useRef(false);
   const isAutoMovingRef = useRef(false);
   const moveTimersRef = useRef<ReturnType<typeof setTimeout>[]>([]);
+  // Offline games keep the authoritative state in the native engine once it's started
+  const nativeGameRef = useRef(false);
 
   // Original Ludo colors
   const colors = ['#FF0000', '#00FF00', '#0000FF', '#FFFF00'];
@@ -253,6 +265,8 @@ const LudoGameSVG = () => {
     return fromIndex;
   }, [selectedPlayerCount, winners]);
 
+  const isBotSeat = (playerIndex: number) => vsComputer && nativeGameRef.current && playerIndex !== 0;
+
   // Get position on path for a given player and steps (must be defined before use in cellOccupancy)
   const getPositionOnPath = (playerIndex: number, steps: number) => {
     const path = PATHS[playerIndex as keyof typeof PATHS];
@@ -409,6 +423,7 @@ const LudoGameSVG = () => {
       });
     }
     setPlayers(newPlayers);
+    nativeGameRef.current = !onlineMode && !!ludoNewGame(playerCount);
     
     // Initialize all token position animations to home positions
     newPlayers.forEach((player, playerIndex) => {
@@ -522,12 +537,13 @@ const LudoGameSVG = () => {
       isRollingRef.current = false;
 
       const currentPlayerData = players[currentPlayer];
-      const playablePieces = getPlayablePieces(currentPlayer, value);
+      const nativeRoll = nativeGameRef.current ? ludoRoll(value) : null;
+      const playablePieces = nativeRoll ? nativeRoll.movable : getPlayablePieces(currentPlayer, value);
 
       if (playablePieces.length === 0) {
         // No moves available - advance turn
         setTimeout(() => {
-          const nextPlayer = getNextActivePlayer(currentPlayer);
+          const nextPlayer = nativeRoll ? nativeRoll.currentPlayer : getNextActivePlayer(currentPlayer);
           setCurrentPlayer(nextPlayer);
           currentPlayerRef.current = nextPlayer;
           lastTurnAdvanceTimeRef.current = Date.now();
@@ -541,12 +557,23 @@ const LudoGameSVG = () => {
         setCanRollDice(false);
         setTimeout(() => {
           if (diceValueRef.current === value && currentPlayerRef.current === currentPlayer) {
-            movePiece(playablePieces[0]);
+            movePiece(playablePieces[0], true);
           } else {
             isAutoMovingRef.current = false;
             setCanRollDice(true);
           }
         }, 200);
+      } else if (isBotSeat(currentPlayer)) {
+        // The engine picks for computer seats; the search runs off the JS thread
+        isAutoMovingRef.current = true;
+        const botPlayer = currentPlayer;
+        ludoBestMove().then(best => {
+          if (diceValueRef.current === value && currentPlayerRef.current === botPlayer) {
+            movePiece(best && best.piece >= 0 ? best.piece : playablePieces[0], true);
+          } else {
+            isAutoMovingRef.current = false;
+          }
+        });
       } else {
         // Multiple pieces are playable - allow user to choose
         // Start stroke animations for movable pieces
@@ -562,6 +589,14 @@ const LudoGameSVG = () => {
     });
   };
 
+  // Computer seats roll on their own once the previous move has settled
+  useEffect(() => {
+    if (!gameStarted || gameEnded || showWinnerModal || !isBotSeat(currentPlayer)) return;
+    if (!canRollDice || diceRolling || diceValue > 0) return;
+    const timer = setTimeout(rollDice, 700);
+    return () => clearTimeout(timer);
+  }, [gameStarted, gameEnded, showWinnerModal, currentPlayer, canRollDice, diceRolling, diceValue, vsComputer]);
+
   const startTokenStrokeAnimation = (pieceId: number) => {
     const strokeAnimation = tokenStrokeAnimations[pieceId];
     const bounceAnimation = tokenNativeScaleAnimations[pieceId];
@@ -754,6 +789,11 @@ const LudoGameSVG = () => {
       nextPlayer = (nextPlayer + 1) % selectedPlayerCount;
       attempts++;
     }
+    // The native engine has already passed the turn on, in board order
+    const nativeState = nativeGameRef.current ? ludoGetState() : null;
+    if (nativeState) {
+      nextPlayer = nativeState.currentPlayer;
+    }
 
     setCurrentPlayer(nextPlayer);
     setDiceValue(0);
@@ -1104,7 +1144,7 @@ const LudoGameSVG = () => {
     });
   };
 
-  const movePiece = (pieceId: number) => {
+  const movePiece = (pieceId: number, automatic: boolean = false) => {
     // Prevent multiple moves from a single dice roll - check moving flag
     // But allow automatic moves to proceed (they set isAutoMovingRef instead)
     if (isMovingRef.current && !isAutoMovingRef.current) {
@@ -1128,6 +1168,10 @@ const LudoGameSVG = () => {
     if (onlineMode && myPlayerIndexRef.current !== currentPlayerRef.current) {
       return;
     }
+    // Computer seats are moved by the engine, not by taps
+    if (!automatic && isBotSeat(currentPlayerRef.current)) {
+      return;
+    }
     
     const rolledNow = effectiveDiceValue;
     const currentPlayerData = players[currentPlayer];
@@ -1142,6 +1186,10 @@ const LudoGameSVG = () => {
     // Validate the move
     if (piece.isHome && effectiveDiceValue !== 6) return;
     if (piece.isInPlay && piece.steps + effectiveDiceValue > maxSteps) return;
+    // The native engine applies the move and reports captures and whose turn it is
+    const nativeDiff = nativeGameRef.current ? ludoMove(pieceId) : null;
+    if (nativeGameRef.current && !nativeDiff) return;
+    const nativeCaptures = (nativeDiff?.captures ?? []).map(c => ({ playerIndex: c.player, pieceIndex: c.piece }));
     
     // Set moving flag to prevent duplicate moves
     isMovingRef.current = true;
@@ -1204,7 +1252,7 @@ const LudoGameSVG = () => {
       ]).start(() => {
         // Capture at start position
         const newPosition = getPositionOnPath(currentPlayer, 1);
-        const capturedPieces = checkForCapture(currentPlayer, newPosition, 1);
+        const capturedPieces = nativeDiff ? nativeCaptures : checkForCapture(currentPlayer, newPosition, 1);
         capturedPieces.forEach(({ playerIndex, pieceIndex }) => {
           // Track capture to prevent it from being overwritten
           const captureKey = `${playerIndex}-${pieceIndex}`;
@@ -1268,7 +1316,14 @@ const LudoGameSVG = () => {
           }, 2000);
 
           let didCapture = false;
-          if (newSteps < maxSteps) {
+          if (nativeDiff) {
+            didCapture = nativeCaptures.length > 0;
+            nativeCaptures.forEach(({ playerIndex, pieceIndex }) => {
+              const captureKey = `${playerIndex}-${pieceIndex}`;
+              recentMovesRef.current.set(captureKey, { toSteps: 0, timestamp: Date.now(), isCapture: true });
+              captureToken(playerIndex, pieceIndex);
+            });
+          } else if (newSteps < maxSteps) {
             const newPosition = getPositionOnPath(movingPlayerIndex, newSteps);
             
             // Check for captures at the new position
@@ -1345,7 +1400,7 @@ const LudoGameSVG = () => {
           const rolledValue = typeof capturedRolledValue === 'number' ? capturedRolledValue : 0;
           const isSix = rolledValue === 6;
           const hasCapture = didCapture === true;
-          const keepTurn = isSix || hasCapture;
+          const keepTurn = nativeDiff ? nativeDiff.extraTurn : isSix || hasCapture;
           
           // CRITICAL: Always reset dice value first (regardless of keepTurn)
           setDiceValueImmediate(0);
@@ -1356,7 +1411,7 @@ const LudoGameSVG = () => {
             setCanRollDice(true);
           } else {
             // CRITICAL: Advance to next player - this MUST happen for non-6, non-capture moves
-            const nextPlayer = getNextActivePlayer(movingPlayerIndex);
+            const nextPlayer = nativeDiff ? nativeDiff.currentPlayer : getNextActivePlayer(movingPlayerIndex);
             
             // Force update current player and ref immediately - use both setState and direct ref update
             setCurrentPlayer(nextPlayer);
@@ -2427,6 +2482,15 @@ const LudoGameSVG = () => {
               ))}
             </View>
 
+            {!onlineMode && isLudoEngineAvailable() && (
+              <View style={{ flexDirection: 'row', alignItems: 'center', justifyContent: 'space-between', marginBottom: 16 }}>
+                <Text style={[styles.playerCountLabel, { fontWeight: '700' }]}>Play vs Computer</Text>
+                <TouchableOpacity onPress={() => setVsComputer(!vsComputer)} style={{ paddingHorizontal: 12, paddingVertical: 6, borderRadius: 16, backgroundColor: vsComputer ? '#29B1A9' : 'rgba(255,255,255,0.1)' }}>
+                  <Text style={{ color: 'white', fontWeight: '600' }}>{vsComputer ? 'On' : 'Off'}</Text>
+                </TouchableOpacity>
+              </View>
+            )}
+
             {/* Online toggle and friend picker */}
             <View style={{ marginBottom: 16 }}>
               <View style={{ flexDirection: 'row', alignItems: 'center', justifyContent: 'space-between' }}>
@@ -2578,7 +2642,7 @@ const LudoGameSVG = () => {
                 {renderTokens}
                 {/* Centered dice overlay (web parity) */}
                 <View style={{ position: 'absolute', top: 0, left: 0, right: 0, bottom: 0, alignItems: 'center', justifyContent: 'center', zIndex: 50, pointerEvents: canRollDice ? 'auto' : 'none' }}>
-                  <TouchableOpacity onPress={rollDice} disabled={!canRollDice || diceRolling} activeOpacity={0.8}>
+                  <TouchableOpacity onPress={rollDice} disabled={!canRollDice || diceRolling || isBotSeat(currentPlayer)} activeOpacity={0.8}>
                     <View style={{ width: 108, height: 108, alignItems: 'center', justifyContent: 'center' }}>
                       {(!diceRolling && canRollDice && diceValue === 0) ? (
                         players[currentPlayer]?.avatar ? (
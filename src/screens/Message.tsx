@@ -13,6 +13,7 @@ import moment from 'moment';
 import ListItemSkeleton from '../components/skeleton/ListItemSkeleton';
 import { ChatHeaderSkeleton } from '../components/skeleton/ChatSkeleton';
 import AsyncStorage from '@react-native-async-storage/async-storage';
+import { prefetchAvatars } from '../lib/AvatarCacheBridge';
 
 
 
@@ -168,6 +169,8 @@ const Message = React.memo(() => {
   useEffect(() => {
     if (chatList && chatList.length > 0) {
       console.log('Chat list updated:', chatList.length, 'items');
+      // These are the people most likely to call or message next
+      prefetchAvatars(chatList.map((chat: any) => chat?.person?.profilePic));
     }
   }, [chatList?.length]);
 
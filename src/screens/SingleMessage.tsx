@@ -46,6 +46,8 @@ import { CameraView, Camera } from 'expo-camera';
 import { useSettings } from '../contexts/SettingsContext';
 import { io, Socket } from 'socket.io-client';
 import config from '../lib/config';
+import { isMessageStoreAvailable, loadMessagePage, upsertMessages, patchStoredMessage, removeStoredMessage } from '../lib/MessageStoreBridge';
+import { isEmotionCaptureAvailable, onEmotionResult, startEmotionCapture, stopEmotionCapture } from '../lib/EmotionFramesBridge';
 // Agora removed for Expo compatibility
 import LiveVoiceModal from '../components/LiveVoiceModal';
 // VideoCall and AudioCall components moved to App.tsx for global rendering
@@ -368,7 +370,7 @@ const SingleMessage = () => {
                 headers: { 'Content-Type': 'multipart/form-data' },
             } as any);
             const voiceUrl = res?.data?.secure_url || res?.data?.url;
-            if (voiceUrl && isConnected) {
+            if (voiceUrl) {
                 emit('sendMessage', {
                     room,
                     senderId: myProfile?._id,
@@ -541,10 +543,37 @@ const SingleMessage = () => {
         }
     };
 
-    // Helper function to load messages from AsyncStorage
+    // Keyset cursor into the native message store for paging back while offline
+    const localCursorRef = useRef<string | null>(null);
+    const LOCAL_PAGE_SIZE = 50;
+
+    const deserializeMessages = (raw: any[]): Message[] => raw.map((msg: any) => ({
+        ...msg,
+        timestamp: msg.timestamp ? new Date(msg.timestamp) : new Date(),
+    }));
+
+    // Helper function to load messages from the native store (or AsyncStorage without it)
     const loadMessagesFromStorage = async (friendId: string): Promise<Message[]> => {
         try {
             if (!friendId) return [];
+
+            if (isMessageStoreAvailable()) {
+                let page = await loadMessagePage(friendId, LOCAL_PAGE_SIZE);
+                if (page && page.messages.length === 0) {
+                    // One-time move of the old AsyncStorage blob into the store
+                    const legacy = await AsyncStorage.getItem(getMessagesStorageKey(friendId));
+                    if (legacy) {
+                        await upsertMessages(friendId, JSON.parse(legacy));
+                        await AsyncStorage.removeItem(getMessagesStorageKey(friendId));
+                        page = await loadMessagePage(friendId, LOCAL_PAGE_SIZE);
+                    }
+                }
+                if (page) {
+                    localCursorRef.current = page.nextCursor;
+                    console.log(`Loaded ${page.messages.length} messages from local store for friend ${friendId}`);
+                    return deserializeMessages(page.messages);
+                }
+            }
             
             const storageKey = getMessagesStorageKey(friendId);
             const storedData = await AsyncStorage.getItem(storageKey);
@@ -727,6 +756,7 @@ const SingleMessage = () => {
                 if (httpMessages.length > 0) {
                     const validHttpMessages = httpMessages.filter((msg: any) => msg && msg._id);
                     console.log('Setting messages with count:', validHttpMessages.length);
+                    upsertMessages(friend._id, validHttpMessages);
                     
                     // Merge with stored messages, avoiding duplicates
                     setMessages(prev => {
@@ -760,9 +790,10 @@ const SingleMessage = () => {
         loadAndFetchMessages();
     }, [friend?._id]);
 
-    // Save messages to AsyncStorage whenever they change
+    // Save messages to AsyncStorage whenever they change; the native store is
+    // updated incrementally instead
     useEffect(() => {
-        if (!friend?._id || messages.length === 0) return;
+        if (!friend?._id || messages.length === 0 || isMessageStoreAvailable()) return;
         
         // Debounce the save operation to avoid too many writes
         debouncedSaveMessages(friend._id, messages);
@@ -826,6 +857,7 @@ const SingleMessage = () => {
             };
 
             if (messageData.chatPage === true) {
+                upsertMessages(friend?._id, [{ ...newMessage, timestamp: newMessage.timestamp.toISOString() }]);
 
                 setMessages(prev => {
                     // If a message with the same tempId exists, replace it with the new message
@@ -872,6 +904,7 @@ const SingleMessage = () => {
 
         const handleSeenMessage = (message: any) => {
             console.log('Seen message:', message, messages);
+            patchStoredMessage(message?._id, 'isSeen', true);
 
             setMessages((prevMessages) =>
                 prevMessages.map((msg) =>
@@ -942,6 +975,7 @@ const SingleMessage = () => {
         on('typing', handleReceiveTyping);
 
         const handleDeleteMessage = (messageId: string) => {
+            removeStoredMessage(messageId);
             setMessages(prev => prev.filter(msg => msg._id !== messageId));
         };
 
@@ -1613,6 +1647,9 @@ const SingleMessage = () => {
             }, detectionInterval);
         };
         
+        let effectCancelled = false;
+        let stopNativeCapture: (() => void) | null = null;
+
         /**
          * Start emotion detection
          */
@@ -1645,6 +1682,26 @@ const SingleMessage = () => {
                 return;
             }
 
+            // Android captures, encodes and sends frames natively; JS only gets the detected emotion
+            if (isEmotionCaptureAvailable()) {
+                const unsubscribe = onEmotionResult(data => handleEmotionServerResponseRef.current?.(data));
+                const serverUrl = (config.MEDIAPIPE_BASE_URL || 'https://emotion-detection-z1b2.onrender.com').trim().replace(/\/+$/, '');
+                if (await startEmotionCapture(serverUrl)) {
+                    stopNativeCapture = () => {
+                        unsubscribe();
+                        stopEmotionCapture();
+                    };
+                    if (effectCancelled) {
+                        stopNativeCapture();
+                        stopNativeCapture = null;
+                    } else {
+                        console.log('[SingleMessage] ✅ Native emotion capture started');
+                    }
+                    return;
+                }
+                unsubscribe();
+            }
+
             if (!cameraDevice) {
                 console.warn('[SingleMessage] ⚠️ Camera device not available');
                 setIsCameraActive(false);
@@ -1744,6 +1801,12 @@ const SingleMessage = () => {
         startEmotionDetection();
 
         return () => {
+            effectCancelled = true;
+            if (stopNativeCapture) {
+                stopNativeCapture();
+                stopNativeCapture = null;
+            }
+
             if (emotionDetectionIntervalRef.current) {
                 clearInterval(emotionDetectionIntervalRef.current);
                 emotionDetectionIntervalRef.current = null;
@@ -1946,7 +2009,6 @@ const SingleMessage = () => {
     const emitSeenFor = (msg: Message | undefined | null) => {
         try {
             if (!msg || !msg._id) return;
-            if (!isConnected) return;
             if (msg.senderId === myProfile?._id) return; // don't mark own messages
             if (seenEmittedRef.current.has(msg._id)) return;
             emit('seenMessage', msg);
@@ -2016,6 +2078,7 @@ const SingleMessage = () => {
             
             // Add message to messages immediately for instant UI update
             setMessages(prev => [...prev, pendingMessage]);
+            upsertMessages(friend?._id, [{ ...pendingMessage, timestamp: pendingMessage.timestamp.toISOString() }]);
             
             // Also add to pending messages for tracking (will be removed when server confirms)
             setPendingMessages(prev => [...prev, pendingMessage]);
@@ -2588,6 +2651,7 @@ const SingleMessage = () => {
             
             // Always set hasMoreMessages based on server response
             setHasMoreMessages(hasMore);
+            upsertMessages(friend._id, oldMessages.filter((msg: any) => msg && msg._id));
             
             if (oldMessages.length > 0) {
                 setMessages(prev => {
@@ -2630,6 +2694,20 @@ const SingleMessage = () => {
             }
         } catch (error: any) {
             console.error('Error fetching old messages:', error);
+
+            // Offline: keep paging back through the local store
+            if (!error?.response && localCursorRef.current) {
+                const page = await loadMessagePage(friend._id, messagesPerPage, localCursorRef.current);
+                if (page && page.messages.length > 0) {
+                    localCursorRef.current = page.nextCursor;
+                    const older = deserializeMessages(page.messages);
+                    setMessages(prev => {
+                        const existingIds = new Set(prev.map(msg => msg._id));
+                        return [...older.filter(msg => !existingIds.has(msg._id)), ...prev];
+                    });
+                    return;
+                }
+            }
             
             // Check if it's a 4xx error (client error) vs 5xx (server error)
             if (error?.response?.status >= 400 && error?.response?.status < 500) {
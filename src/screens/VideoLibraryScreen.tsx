@@ -4,6 +4,7 @@ import { SafeAreaView } from 'react-native-safe-area-context';
 import Icon from 'react-native-vector-icons/MaterialIcons';
 import { useTheme } from '../contexts/ThemeContext';
 import { listDownloads } from '../lib/downloads';
+import MediaThumbnail from '../components/MediaThumbnail';
 
 // Use CameraRoll to fetch device videos
 let CameraRoll: any = null;
@@ -52,7 +53,7 @@ const VideoLibraryScreen = ({ navigation }: any) => {
   const [hasNextPage, setHasNextPage] = useState(true);
   const [loading, setLoading] = useState(false);
   const [refreshing, setRefreshing] = useState(false);
-  const [downloads, setDownloads] = useState<Array<{ name: string; path: string }>>([]);
+  const [downloads, setDownloads] = useState<Array<{ name: string; path: string; durationMs?: number }>>([]);
   const [downloadDurations, setDownloadDurations] = useState<Record<string, number>>({});
 
   const requestPermissions = useCallback(async () => {
@@ -112,7 +113,7 @@ const VideoLibraryScreen = ({ navigation }: any) => {
       }
       try {
         const files = await listDownloads();
-        setDownloads(files.map(f => ({ name: f.name, path: f.path })));
+        setDownloads(files.map(f => ({ name: f.name, path: f.path, durationMs: f.durationMs })));
       } catch (_) {}
     })();
   }, [requestPermissions, loadPage]);
@@ -124,19 +125,19 @@ const VideoLibraryScreen = ({ navigation }: any) => {
     await loadPage(true);
     try {
       const files = await listDownloads();
-      setDownloads(files.map(f => ({ name: f.name, path: f.path })));
+      setDownloads(files.map(f => ({ name: f.name, path: f.path, durationMs: f.durationMs })));
     } catch (_) {}
     setRefreshing(false);
   }, [loadPage]);
 
-  // Derive durations for downloaded files using createThumbnail (if available)
+  // Derive durations the media index hasn't probed yet using createThumbnail (if available)
   useEffect(() => {
     if (!createThumbnail) return;
     (async () => {
       for (const d of downloads) {
-        if (downloadDurations[d.path] != null) continue;
+        if (d.durationMs || downloadDurations[d.path] != null) continue;
         try {
-          const res = await createThumbnail({ url: `file://${d.path}`, timeStamp: 0 });
+          const res = await createThumbnail({ url: d.path, timeStamp: 0 });
           const seconds = res?.duration ? Math.round(Number(res.duration) / 1000) : undefined;
           if (seconds && isFinite(seconds)) {
             setDownloadDurations(prev => ({ ...prev, [d.path]: seconds }));
@@ -149,10 +150,10 @@ const VideoLibraryScreen = ({ navigation }: any) => {
   const allItems: VideoAsset[] = React.useMemo(() => {
     const dlAsAssets: VideoAsset[] = downloads.map((d) => ({
       id: `dl:${d.path}`,
-      uri: `file://${d.path}`,
+      uri: d.path,
       filename: d.name,
       isDownloaded: true,
-      duration: downloadDurations[d.path],
+      duration: d.durationMs ? Math.round(d.durationMs / 1000) : downloadDurations[d.path],
     }));
     return [...dlAsAssets, ...assets];
   }, [downloads, assets, downloadDurations]);
@@ -163,7 +164,12 @@ const VideoLibraryScreen = ({ navigation }: any) => {
       onPress={() => navigation.navigate('Menu', { screen: 'MediaPlayer', params: { source: { type: 'video', uri: item.uri, title: item.filename } } })}
       activeOpacity={0.9}
     >
-      <Image source={{ uri: item.uri }} style={{ width: '100%', height: '100%', borderRadius: 12, backgroundColor: '#111' }} resizeMode="cover" />
+      <MediaThumbnail
+        source={item.uri}
+        sizeDp={THUMB}
+        style={styles.thumb}
+        fallback={<Image source={{ uri: item.uri }} style={styles.thumb} resizeMode="cover" />}
+      />
       <View style={styles.durationBadge}>
         <Icon name="play-arrow" size={14} color="#fff" />
         <Text style={styles.durationText}>{formatDuration(item.duration)}</Text>
@@ -230,6 +236,7 @@ const styles = StyleSheet.create({
   },
   headerBtn: { width: 40, height: 40, borderRadius: 20, justifyContent: 'center', alignItems: 'center', backgroundColor: 'rgba(255,255,255,0.12)' },
   headerTitle: { color: '#fff', fontSize: 16, fontWeight: '700' },
+  thumb: { width: '100%', height: '100%', borderRadius: 12, backgroundColor: '#111' },
   durationBadge: { position: 'absolute', right: 8, bottom: 8, flexDirection: 'row', alignItems: 'center', backgroundColor: 'rgba(0,0,0,0.55)', paddingHorizontal: 8, paddingVertical: 4, borderRadius: 12 },
   durationText: { color: '#fff', fontSize: 12, marginLeft: 4 },
 });
@@ -1,10 +1,26 @@
 import { initializeSocket, getSocket, disconnectSocket } from '../socket/socket';
+import { enqueueOutbox, peekOutbox, ackOutbox, isOutboxAvailable, OutboxReceipt } from '../lib/OutboxBridge';
+
+// Chat events that must survive disconnects and app kills; they go through the native outbox
+const DURABLE_EVENTS = new Set(['sendMessage', 'seenMessage', 'reactMessage', 'removeReactMessage', 'deleteMessage']);
+const OUTBOX_FLUSH_BATCH = 50;
+// An entry the server hasn't acknowledged within this stays pending for the next flush
+const OUTBOX_ACK_TIMEOUT_MS = 10000;
 
 class SocketService {
   private socket: any = null;
   private isConnecting: boolean = false;
   private pendingEmits: { event: string; data: any }[] = [];
   private pendingListeners: { event: string; callback: (...args: any[]) => void }[] = [];
+  private outboxFlush: Promise<void> | null = null;
+  private outboxFlushAgain: boolean = false;
+  private outboxSocket: any = null;
+  // Highest outbox seq written to the socket, and durable emits waiting to get there
+  private outboxEmittedSeq: number = 0;
+  private outboxEmitWaiters: { seq: number; resolve: () => void }[] = [];
+  // Emits queued behind a durable event's enqueue, so none overtakes it
+  private emitChain: Promise<void> = Promise.resolve();
+  private chainedEmits: number = 0;
 
     async connect(profileId: string): Promise<void> {
     if (this.socket && this.socket.connected) {
@@ -30,6 +46,11 @@ class SocketService {
       if (__DEV__) {
         console.log('✅ Socket connected successfully in socketService');
       }
+      if (this.outboxSocket !== this.socket) {
+        // Reconnects fire 'connect' again; replay whatever the outbox still holds
+        this.outboxSocket = this.socket;
+        this.socket.on('connect', () => this.flushOutbox());
+      }
 
       // Flush any queued listeners first
       if (this.pendingListeners.length > 0) {
@@ -43,6 +64,9 @@ class SocketService {
         this.pendingListeners = [];
       }
 
+      // Then the outbox, which holds events logged before any queued emit
+      await this.flushOutbox();
+
       // Then flush any queued emits
       if (this.pendingEmits.length > 0) {
         this.pendingEmits.forEach(({ event, data }) => {
@@ -75,6 +99,124 @@ class SocketService {
   }
 
   emit(event: string, data: any): void {
+    const durable = DURABLE_EVENTS.has(event) && isOutboxAvailable();
+    if (!durable && this.chainedEmits === 0) {
+      this.emitNow(event, data);
+      return;
+    }
+    // Keep call order while a durable enqueue is still in flight
+    this.chainedEmits++;
+    this.emitChain = this.emitChain
+      .then(() => (durable ? this.emitDurable(event, data) : this.emitNow(event, data)))
+      .catch(e => console.warn('Failed to emit event:', event, e))
+      .finally(() => { this.chainedEmits--; });
+  }
+
+  // Log to the outbox, then let flushOutbox send it: it is the only sender of outbox
+  // entries, so an entry can't go out twice
+  private async emitDurable(event: string, data: any): Promise<void> {
+    const receipt = await enqueueOutbox(event, data);
+    if (!receipt) {
+      // Never logged, so nothing else will send it
+      this.emitNow(event, data);
+      return;
+    }
+    if (!receipt.durable) {
+      // Logged but not synced: still pending, so the flush sends it (with its key)
+      console.warn('Outbox sync failed, event stays queued:', event);
+    }
+    // Emits chained behind this one only need it written first, not acknowledged
+    const written = new Promise<void>(resolve => {
+      this.outboxEmitWaiters.push({ seq: receipt.seq, resolve });
+    });
+    this.flushOutbox();
+    await written;
+  }
+
+  // Resolves true once the server acknowledged the event, false on timeout or a dropped
+  // socket. The idempotency key lets the server drop an event it sees again after a retry.
+  private sendOutboxEntry(event: string, data: any, receipt: OutboxReceipt): Promise<boolean> {
+    const payload = data && typeof data === 'object' && !Array.isArray(data)
+      ? { ...data, idempotencyKey: receipt.idempotencyKey, clientSeq: receipt.seq }
+      : data;
+    return new Promise(resolve => {
+      try {
+        this.socket.timeout(OUTBOX_ACK_TIMEOUT_MS).emit(event, payload, (err: any) => resolve(!err));
+      } catch (e) {
+        resolve(false);
+      }
+      this.markOutboxEmitted(receipt.seq);
+    });
+  }
+
+  private markOutboxEmitted(seq: number): void {
+    this.outboxEmittedSeq = Math.max(this.outboxEmittedSeq, seq);
+    this.outboxEmitWaiters = this.outboxEmitWaiters.filter(waiter => {
+      if (waiter.seq > this.outboxEmittedSeq) return true;
+      waiter.resolve();
+      return false;
+    });
+  }
+
+  // The flush stopped (socket down); waiting entries go out on the next connect, and
+  // emits queued behind them land in pendingEmits, which is flushed after the outbox
+  private releaseOutboxWaiters(): void {
+    const waiters = this.outboxEmitWaiters;
+    this.outboxEmitWaiters = [];
+    waiters.forEach(waiter => waiter.resolve());
+  }
+
+  // Resolves once everything logged before the call has been confirmed by the server, or
+  // the flush gave up on it (socket dropped, no ack in time)
+  private flushOutbox(): Promise<void> {
+    if (!isOutboxAvailable()) return Promise.resolve();
+    if (this.outboxFlush) {
+      // Entries logged mid-flush are picked up by another pass of the running flush
+      this.outboxFlushAgain = true;
+      return this.outboxFlush;
+    }
+    this.outboxFlush = (async () => {
+      try {
+        do {
+          this.outboxFlushAgain = false;
+          await this.flushOutboxOnce();
+        } while (this.outboxFlushAgain);
+      } catch (e) {
+        console.warn('Failed to flush outbox:', e);
+      } finally {
+        this.outboxFlush = null;
+        this.releaseOutboxWaiters();
+      }
+    })();
+    return this.outboxFlush;
+  }
+
+  private async flushOutboxOnce(): Promise<void> {
+    while (this.socket && this.socket.connected) {
+      const batch = await peekOutbox(OUTBOX_FLUSH_BATCH);
+      if (batch.length === 0) break;
+      // Written in order, then retired only as the server confirms them
+      const sends: Promise<boolean>[] = [];
+      for (const entry of batch) {
+        if (!this.socket || !this.socket.connected) break;
+        let data: any = null;
+        try {
+          data = JSON.parse(entry.payload);
+        } catch (_) { }
+        sends.push(this.sendOutboxEntry(entry.event, data, entry));
+      }
+      const results = await Promise.all(sends);
+      const confirmed = batch.filter((_, i) => results[i] === true).map(entry => entry.seq);
+      ackOutbox(confirmed);
+      if (__DEV__) {
+        console.log(`📤 Flushed ${confirmed.length}/${batch.length} outbox events`);
+      }
+      // Anything unconfirmed stays pending for the next flush
+      if (confirmed.length < batch.length) break;
+    }
+  }
+
+  private emitNow(event: string, data: any): void {
     if (this.socket && this.socket.connected) {
       this.socket.emit(event, data);
       return;
@@ -83,7 +225,9 @@ class SocketService {
     // Queue the emit and attempt to flush on next connect
     this.pendingEmits.push({ event, data });
     if (this.socket) {
-      this.socket.once('connect', () => {
+      this.socket.once('connect', async () => {
+        // Durable events logged before this one go out first
+        await this.flushOutbox();
         const toFlush = [...this.pendingEmits];
         this.pendingEmits = [];
         toFlush.forEach(({ event: ev, data: payload }) => {
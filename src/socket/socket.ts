@@ -1,13 +1,12 @@
 import { io, Socket } from "socket.io-client";
 import config from "../lib/config";
-import AsyncStorage from "@react-native-async-storage/async-storage";
+import { getStoredUser } from "../lib/KvStoreBridge";
 
 let socket: Socket | null = null;
 
 const getUserData = async () => {
     try {
-        const userData = await AsyncStorage.getItem('user');
-        return userData ? JSON.parse(userData) : null;
+        return await getStoredUser();
     } catch (error) {
         console.error('Error getting user data:', error);
         return null;